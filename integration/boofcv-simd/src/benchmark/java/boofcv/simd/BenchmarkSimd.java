@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.ConvertImage;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_S32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the SIMD implementations against the regular code by calling the regular functions with the
+ * SIMD code installed and uninstalled
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1, jvmArgsAppend = {"--add-modules","jdk.incubator.vector"})
+public class BenchmarkSimd {
+	@Param({"true","false"})
+	public boolean simd;
+
+	@Param({"false"})
+	public boolean concurrent;
+
+	@Param({"2000"})
+	public int size;
+
+	@Param({"2","5"})
+	public int radius;
+
+	Kernel1D_F32 kernelF32;
+	Kernel1D_S32 kernelS32;
+
+	GrayU8 grayU8 = new GrayU8(1,1);
+	GrayS16 grayS16 = new GrayS16(1,1);
+	GrayF32 grayF32 = new GrayF32(1,1);
+	GrayF32 outputF32 = new GrayF32(1,1);
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		if( simd )
+			BoofSimd.install();
+		else
+			BoofSimd.uninstall();
+
+		Random rand = new Random(234);
+		kernelF32 = FactoryKernel.random1D_F32(radius*2+1, radius, -1, 1, rand);
+		kernelS32 = FactoryKernel.random1D_I32(radius*2+1, radius, -10, 10, rand);
+
+		grayU8.reshape(size,size);
+		grayS16.reshape(size,size);
+		grayF32.reshape(size,size);
+		outputF32.reshape(size,size);
+
+		GImageMiscOps.fillUniform(grayU8,rand,0,200);
+		ConvertImage.convert(grayU8,grayF32);
+	}
+
+	@Benchmark
+	public void horizontal_F32() {
+		ConvolveImageNoBorder.horizontal(kernelF32,grayF32,outputF32);
+	}
+
+	@Benchmark
+	public void vertical_F32() {
+		ConvolveImageNoBorder.vertical(kernelF32,grayF32,outputF32);
+	}
+
+	@Benchmark
+	public void horizontal_U8_I16() {
+		ConvolveImageNoBorder.horizontal(kernelS32,grayU8,grayS16);
+	}
+
+	@Benchmark
+	public void vertical_U8_I16() {
+		ConvolveImageNoBorder.vertical(kernelS32,grayU8,grayS16);
+	}
+
+	@Benchmark
+	public void convert_U8_F32() {
+		ConvertImage.convert(grayU8,outputF32);
+	}
+
+	@Benchmark
+	public void multiply_F32() {
+		PixelMath.multiply(grayF32,1.5f,outputF32);
+	}
+
+	@Benchmark
+	public void add_F32() {
+		PixelMath.add(grayF32,grayF32,outputF32);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSimd.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import boofcv.alg.filter.convolve.BOverrideConvolveImageNoBorder;
+import boofcv.alg.misc.BOverridePixelMath;
+import boofcv.core.image.BOverrideConvertImage;
+
+/**
+ * <p>
+ * Installs implementations of convolution, pixel math, and image conversion which use the Vector API
+ * (jdk.incubator.vector) to explicitly perform SIMD operations. They are hooked in using the BOverride
+ * mechanism so the regular functions, e.g. {@link boofcv.alg.filter.convolve.ConvolveImageNoBorder},
+ * will use them once installed. Image types which are not supported fall through to the regular code.
+ * </p>
+ *
+ * <p>
+ * The Vector API is only available on JDK 16 or newer and the module must be added at runtime with
+ * "--add-modules jdk.incubator.vector". If it's not available then {@link #install()} does nothing and
+ * the scalar code continues to be used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofSimd {
+
+	/**
+	 * Returns true if the Vector API can be used in this JVM
+	 */
+	public static boolean isAvailable() {
+		try {
+			return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+		} catch( RuntimeException | LinkageError e ) {
+			return false;
+		}
+	}
+
+	/**
+	 * Installs the SIMD implementations if the Vector API is available. If anything goes wrong while
+	 * initializing them, e.g. a vector shape isn't supported by this hardware, then nothing is installed.
+	 *
+	 * @return true if they were installed
+	 */
+	public static synchronized boolean install() {
+		if( !isAvailable() )
+			return false;
+
+		try {
+			SimdConvolve convolve = new SimdConvolve();
+			BOverrideConvolveImageNoBorder.horizontal = convolve;
+			BOverrideConvolveImageNoBorder.vertical = convolve;
+
+			BOverridePixelMath.abs = SimdPixelMath::abs;
+			BOverridePixelMath.plus = SimdPixelMath::plus;
+			BOverridePixelMath.multiply = SimdPixelMath::multiply;
+			BOverridePixelMath.divide = SimdPixelMath::divide;
+			BOverridePixelMath.add = SimdPixelMath::add;
+			BOverridePixelMath.subtract = SimdPixelMath::subtract;
+
+			BOverrideConvertImage.convert = SimdConvertImage::convert;
+
+			// method references don't initialize their class. Do it now so that failures are caught here
+			Class.forName(SimdPixelMath.class.getName());
+			Class.forName(SimdConvertImage.class.getName());
+		} catch( Throwable e ) {
+			uninstall();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the SIMD implementations and reverts back to the regular code
+	 */
+	public static synchronized void uninstall() {
+		BOverrideConvolveImageNoBorder.horizontal = null;
+		BOverrideConvolveImageNoBorder.vertical = null;
+
+		BOverridePixelMath.abs = null;
+		BOverridePixelMath.plus = null;
+		BOverridePixelMath.multiply = null;
+		BOverridePixelMath.divide = null;
+		BOverridePixelMath.add = null;
+		BOverridePixelMath.subtract = null;
+
+		BOverrideConvertImage.convert = null;
+	}
+}
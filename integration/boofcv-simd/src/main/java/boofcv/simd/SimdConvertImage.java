@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import boofcv.struct.image.*;
+import jdk.incubator.vector.*;
+
+import static boofcv.simd.SimdConvolve.rows;
+
+/**
+ * Implementation of image type conversion in {@link boofcv.core.image.ConvertImage} using the Vector API.
+ * Supported conversions: U8 to F32, U8 to I16, S16 to F32, and F32 to U8. Values are converted using the same
+ * rules as a Java cast, so the output is identical to the scalar code.
+ *
+ * @author Peter Abeles
+ */
+public class SimdConvertImage {
+
+	static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Integer> I = IntVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Short> S = ShortVector.SPECIES_PREFERRED;
+	// the first S.length() lanes of the preferred byte species
+	static final VectorMask<Byte> BYTES_S = SimdConvolve.B.indexInRange(0, S.length());
+
+	public static boolean convert( ImageGray input, ImageGray output ) {
+		if( input instanceof GrayU8 ) {
+			if( output instanceof GrayF32 ) {
+				convert((GrayU8)input, (GrayF32)output);
+				return true;
+			} else if( output instanceof GrayI16 ) {
+				convert((GrayU8)input, (GrayI16)output);
+				return true;
+			}
+		} else if( input instanceof GrayS16 ) {
+			if( output instanceof GrayF32 ) {
+				convert((GrayS16)input, (GrayF32)output);
+				return true;
+			}
+		} else if( input instanceof GrayF32 ) {
+			if( output instanceof GrayU8 ) {
+				convert((GrayF32)input, (GrayU8)output);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static void convert( GrayU8 input, GrayF32 output ) {
+		final int L = I.length();
+		rows(0, input.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexSrc = input.startIndex + y*input.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexSrc + input.width;
+
+				for (; indexSrc + L <= end; indexSrc += L, indexDst += L) {
+					IntVector v = SimdConvolve.loadUnsigned(input.data, indexSrc);
+					((FloatVector)v.convertShape(VectorOperators.I2F, F, 0)).intoArray(output.data, indexDst);
+				}
+				for (; indexSrc < end; indexSrc++, indexDst++) {
+					output.data[indexDst] = (float)(input.data[indexSrc] & 0xFF);
+				}
+			}
+		});
+	}
+
+	public static void convert( GrayU8 input, GrayI16 output ) {
+		final int L = S.length();
+		rows(0, input.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexSrc = input.startIndex + y*input.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexSrc + input.width;
+
+				for (; indexSrc + L <= end; indexSrc += L, indexDst += L) {
+					ByteVector v = SimdConvolve.loadBytes(input.data, indexSrc, BYTES_S);
+					((ShortVector)v.convertShape(VectorOperators.B2S, S, 0)).and((short)0xFF).intoArray(output.data, indexDst);
+				}
+				for (; indexSrc < end; indexSrc++, indexDst++) {
+					output.data[indexDst] = (short)(input.data[indexSrc] & 0xFF);
+				}
+			}
+		});
+	}
+
+	public static void convert( GrayS16 input, GrayF32 output ) {
+		final int L = I.length();
+		rows(0, input.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexSrc = input.startIndex + y*input.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexSrc + input.width;
+
+				for (; indexSrc + L <= end; indexSrc += L, indexDst += L) {
+					IntVector v = SimdConvolve.loadSigned(input.data, indexSrc);
+					((FloatVector)v.convertShape(VectorOperators.I2F, F, 0)).intoArray(output.data, indexDst);
+				}
+				for (; indexSrc < end; indexSrc++, indexDst++) {
+					output.data[indexDst] = (float)input.data[indexSrc];
+				}
+			}
+		});
+	}
+
+	public static void convert( GrayF32 input, GrayU8 output ) {
+		final int L = I.length();
+		rows(0, input.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexSrc = input.startIndex + y*input.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexSrc + input.width;
+
+				for (; indexSrc + L <= end; indexSrc += L, indexDst += L) {
+					// go through an integer first, just like a Java cast
+					IntVector i = (IntVector)FloatVector.fromArray(F, input.data, indexSrc).convertShape(VectorOperators.F2I, I, 0);
+					SimdConvolve.storeByte(i, output.data, indexDst);
+				}
+				for (; indexSrc < end; indexSrc++, indexDst++) {
+					output.data[indexDst] = (byte)input.data[indexSrc];
+				}
+			}
+		});
+	}
+}
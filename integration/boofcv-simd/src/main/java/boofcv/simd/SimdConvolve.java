@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import boofcv.alg.filter.convolve.BOverrideConvolveImageNoBorder;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_S32;
+import boofcv.struct.image.*;
+import jdk.incubator.vector.*;
+
+/**
+ * <p>
+ * Implementation of 1D convolution along the image's rows and columns using the Vector API. The image border is
+ * skipped, just like {@link boofcv.alg.filter.convolve.ConvolveImageNoBorder}. Several output pixels are computed
+ * at once by loading a vector of input pixels for each kernel element. Pixels at the end of each row which don't
+ * fill an entire vector are processed with scalar code. The order of floating point operations is the same as
+ * the scalar code, so the output is identical.
+ * </p>
+ *
+ * <p>
+ * Supported types: F32 to F32, U8 to I16, U8 to S32, and S16 to I16. Division isn't supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SimdConvolve implements BOverrideConvolveImageNoBorder.Horizontal, BOverrideConvolveImageNoBorder.Vertical {
+
+	static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Integer> I = IntVector.SPECIES_PREFERRED;
+	// Byte and short species use the preferred shape, which is always supported. They have more lanes than the
+	// integer species, so only the first I.length() lanes are converted and loads and stores near the end of an
+	// array are masked.
+	static final VectorSpecies<Short> S = ShortVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Byte> B = ByteVector.SPECIES_PREFERRED;
+	static final VectorMask<Short> SHORTS_I = S.indexInRange(0, I.length());
+	static final VectorMask<Byte> BYTES_I = B.indexInRange(0, I.length());
+
+	static {
+		if( B.length() < I.length() || S.length() < I.length() )
+			throw new IllegalStateException("Byte and short vectors have fewer lanes than integer vectors");
+	}
+
+	@Override
+	public boolean horizontal( Kernel1D kernel, ImageGray input, ImageGray output, int divisor ) {
+		if( divisor > 0 )
+			return false;
+
+		if( kernel instanceof Kernel1D_F32 ) {
+			if( input instanceof GrayF32 && output instanceof GrayF32 ) {
+				horizontal((Kernel1D_F32)kernel, (GrayF32)input, (GrayF32)output);
+				return true;
+			}
+		} else if( kernel instanceof Kernel1D_S32 ) {
+			if( input instanceof GrayU8 && output instanceof GrayI16 ) {
+				horizontal((Kernel1D_S32)kernel, (GrayU8)input, (GrayI16)output);
+				return true;
+			} else if( input instanceof GrayU8 && output instanceof GrayS32 ) {
+				horizontal((Kernel1D_S32)kernel, (GrayU8)input, (GrayS32)output);
+				return true;
+			} else if( input instanceof GrayS16 && output instanceof GrayI16 ) {
+				horizontal((Kernel1D_S32)kernel, (GrayS16)input, (GrayI16)output);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean vertical( Kernel1D kernel, ImageGray input, ImageGray output, int divisor ) {
+		if( divisor > 0 )
+			return false;
+
+		if( kernel instanceof Kernel1D_F32 ) {
+			if( input instanceof GrayF32 && output instanceof GrayF32 ) {
+				vertical((Kernel1D_F32)kernel, (GrayF32)input, (GrayF32)output);
+				return true;
+			}
+		} else if( kernel instanceof Kernel1D_S32 ) {
+			if( input instanceof GrayU8 && output instanceof GrayI16 ) {
+				vertical((Kernel1D_S32)kernel, (GrayU8)input, (GrayI16)output);
+				return true;
+			} else if( input instanceof GrayU8 && output instanceof GrayS32 ) {
+				vertical((Kernel1D_S32)kernel, (GrayU8)input, (GrayS32)output);
+				return true;
+			} else if( input instanceof GrayS16 && output instanceof GrayI16 ) {
+				vertical((Kernel1D_S32)kernel, (GrayS16)input, (GrayI16)output);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static void horizontal( Kernel1D_F32 kernel, GrayF32 image, GrayF32 dest ) {
+		final float[] dataSrc = image.data;
+		final float[] dataDst = dest.data;
+		final float[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int width = image.getWidth();
+		final int L = F.length();
+
+		rows(0, image.height, (y0, y1) -> {
+			for (int i = y0; i < y1; i++) {
+				int indexDst = dest.startIndex + i*dest.stride + offset;
+				int j = image.startIndex + i*image.stride;
+				final int jEnd = j + width - (kernelWidth - 1);
+
+				for (; j + L <= jEnd; j += L, indexDst += L) {
+					FloatVector total = FloatVector.zero(F);
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(FloatVector.fromArray(F, dataSrc, j + k).mul(dataKer[k]));
+					}
+					total.intoArray(dataDst, indexDst);
+				}
+
+				for (; j < jEnd; j++) {
+					float total = 0;
+					int indexSrc = j;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += dataSrc[indexSrc++]*dataKer[k];
+					}
+					dataDst[indexDst++] = total;
+				}
+			}
+		});
+	}
+
+	public static void vertical( Kernel1D_F32 kernel, GrayF32 image, GrayF32 dest ) {
+		final float[] dataSrc = image.data;
+		final float[] dataDst = dest.data;
+		final float[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int imgWidth = dest.getWidth();
+		final int yEnd = dest.getHeight() - (kernelWidth - offset - 1);
+		final int L = F.length();
+
+		rows(offset, yEnd, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexDst = dest.startIndex + y*dest.stride;
+				int i = image.startIndex + (y - offset)*image.stride;
+				final int iEnd = i + imgWidth;
+
+				for (; i + L <= iEnd; i += L, indexDst += L) {
+					FloatVector total = FloatVector.zero(F);
+					int indexSrc = i;
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(FloatVector.fromArray(F, dataSrc, indexSrc).mul(dataKer[k]));
+						indexSrc += image.stride;
+					}
+					total.intoArray(dataDst, indexDst);
+				}
+
+				for (; i < iEnd; i++) {
+					float total = 0;
+					int indexSrc = i;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += dataSrc[indexSrc]*dataKer[k];
+						indexSrc += image.stride;
+					}
+					dataDst[indexDst++] = total;
+				}
+			}
+		});
+	}
+
+	public static void horizontal( Kernel1D_S32 kernel, GrayU8 image, GrayI16 dest ) {
+		final byte[] dataSrc = image.data;
+		final short[] dataDst = dest.data;
+		final int[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int width = image.getWidth();
+		final int L = I.length();
+
+		rows(0, image.height, (y0, y1) -> {
+			for (int i = y0; i < y1; i++) {
+				int indexDst = dest.startIndex + i*dest.stride + offset;
+				int j = image.startIndex + i*image.stride;
+				final int jEnd = j + width - (kernelWidth - 1);
+
+				for (; j + L <= jEnd; j += L, indexDst += L) {
+					IntVector total = IntVector.zero(I);
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(loadUnsigned(dataSrc, j + k).mul(dataKer[k]));
+					}
+					storeShort(total, dataDst, indexDst);
+				}
+
+				for (; j < jEnd; j++) {
+					int total = 0;
+					int indexSrc = j;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += (dataSrc[indexSrc++] & 0xFF)*dataKer[k];
+					}
+					dataDst[indexDst++] = (short)total;
+				}
+			}
+		});
+	}
+
+	public static void vertical( Kernel1D_S32 kernel, GrayU8 image, GrayI16 dest ) {
+		final byte[] dataSrc = image.data;
+		final short[] dataDst = dest.data;
+		final int[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int imgWidth = dest.getWidth();
+		final int yEnd = dest.getHeight() - (kernelWidth - offset - 1);
+		final int L = I.length();
+
+		rows(offset, yEnd, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexDst = dest.startIndex + y*dest.stride;
+				int i = image.startIndex + (y - offset)*image.stride;
+				final int iEnd = i + imgWidth;
+
+				for (; i + L <= iEnd; i += L, indexDst += L) {
+					IntVector total = IntVector.zero(I);
+					int indexSrc = i;
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(loadUnsigned(dataSrc, indexSrc).mul(dataKer[k]));
+						indexSrc += image.stride;
+					}
+					storeShort(total, dataDst, indexDst);
+				}
+
+				for (; i < iEnd; i++) {
+					int total = 0;
+					int indexSrc = i;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += (dataSrc[indexSrc] & 0xFF)*dataKer[k];
+						indexSrc += image.stride;
+					}
+					dataDst[indexDst++] = (short)total;
+				}
+			}
+		});
+	}
+
+	public static void horizontal( Kernel1D_S32 kernel, GrayU8 image, GrayS32 dest ) {
+		final byte[] dataSrc = image.data;
+		final int[] dataDst = dest.data;
+		final int[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int width = image.getWidth();
+		final int L = I.length();
+
+		rows(0, image.height, (y0, y1) -> {
+			for (int i = y0; i < y1; i++) {
+				int indexDst = dest.startIndex + i*dest.stride + offset;
+				int j = image.startIndex + i*image.stride;
+				final int jEnd = j + width - (kernelWidth - 1);
+
+				for (; j + L <= jEnd; j += L, indexDst += L) {
+					IntVector total = IntVector.zero(I);
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(loadUnsigned(dataSrc, j + k).mul(dataKer[k]));
+					}
+					total.intoArray(dataDst, indexDst);
+				}
+
+				for (; j < jEnd; j++) {
+					int total = 0;
+					int indexSrc = j;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += (dataSrc[indexSrc++] & 0xFF)*dataKer[k];
+					}
+					dataDst[indexDst++] = total;
+				}
+			}
+		});
+	}
+
+	public static void vertical( Kernel1D_S32 kernel, GrayU8 image, GrayS32 dest ) {
+		final byte[] dataSrc = image.data;
+		final int[] dataDst = dest.data;
+		final int[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int imgWidth = dest.getWidth();
+		final int yEnd = dest.getHeight() - (kernelWidth - offset - 1);
+		final int L = I.length();
+
+		rows(offset, yEnd, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexDst = dest.startIndex + y*dest.stride;
+				int i = image.startIndex + (y - offset)*image.stride;
+				final int iEnd = i + imgWidth;
+
+				for (; i + L <= iEnd; i += L, indexDst += L) {
+					IntVector total = IntVector.zero(I);
+					int indexSrc = i;
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(loadUnsigned(dataSrc, indexSrc).mul(dataKer[k]));
+						indexSrc += image.stride;
+					}
+					total.intoArray(dataDst, indexDst);
+				}
+
+				for (; i < iEnd; i++) {
+					int total = 0;
+					int indexSrc = i;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += (dataSrc[indexSrc] & 0xFF)*dataKer[k];
+						indexSrc += image.stride;
+					}
+					dataDst[indexDst++] = total;
+				}
+			}
+		});
+	}
+
+	public static void horizontal( Kernel1D_S32 kernel, GrayS16 image, GrayI16 dest ) {
+		final short[] dataSrc = image.data;
+		final short[] dataDst = dest.data;
+		final int[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int width = image.getWidth();
+		final int L = I.length();
+
+		rows(0, image.height, (y0, y1) -> {
+			for (int i = y0; i < y1; i++) {
+				int indexDst = dest.startIndex + i*dest.stride + offset;
+				int j = image.startIndex + i*image.stride;
+				final int jEnd = j + width - (kernelWidth - 1);
+
+				for (; j + L <= jEnd; j += L, indexDst += L) {
+					IntVector total = IntVector.zero(I);
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(loadSigned(dataSrc, j + k).mul(dataKer[k]));
+					}
+					storeShort(total, dataDst, indexDst);
+				}
+
+				for (; j < jEnd; j++) {
+					int total = 0;
+					int indexSrc = j;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += dataSrc[indexSrc++]*dataKer[k];
+					}
+					dataDst[indexDst++] = (short)total;
+				}
+			}
+		});
+	}
+
+	public static void vertical( Kernel1D_S32 kernel, GrayS16 image, GrayI16 dest ) {
+		final short[] dataSrc = image.data;
+		final short[] dataDst = dest.data;
+		final int[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int imgWidth = dest.getWidth();
+		final int yEnd = dest.getHeight() - (kernelWidth - offset - 1);
+		final int L = I.length();
+
+		rows(offset, yEnd, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexDst = dest.startIndex + y*dest.stride;
+				int i = image.startIndex + (y - offset)*image.stride;
+				final int iEnd = i + imgWidth;
+
+				for (; i + L <= iEnd; i += L, indexDst += L) {
+					IntVector total = IntVector.zero(I);
+					int indexSrc = i;
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(loadSigned(dataSrc, indexSrc).mul(dataKer[k]));
+						indexSrc += image.stride;
+					}
+					storeShort(total, dataDst, indexDst);
+				}
+
+				for (; i < iEnd; i++) {
+					int total = 0;
+					int indexSrc = i;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += dataSrc[indexSrc]*dataKer[k];
+						indexSrc += image.stride;
+					}
+					dataDst[indexDst++] = (short)total;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Loads I.length() bytes and converts them into integers, treating them as unsigned values
+	 */
+	static IntVector loadUnsigned( byte[] data, int index ) {
+		return ((IntVector)loadBytes(data, index, BYTES_I).convertShape(VectorOperators.B2I, I, 0)).and(0xFF);
+	}
+
+	/**
+	 * Loads I.length() shorts and converts them into integers, preserving their sign
+	 */
+	static IntVector loadSigned( short[] data, int index ) {
+		ShortVector v = index + S.length() <= data.length ?
+				ShortVector.fromArray(S, data, index) : ShortVector.fromArray(S, data, index, SHORTS_I);
+		return (IntVector)v.convertShape(VectorOperators.S2I, I, 0);
+	}
+
+	/**
+	 * Loads a full byte vector. Lanes past the end of the array are only read if they are in the mask, so the
+	 * mask must cover every lane the caller will use.
+	 */
+	static ByteVector loadBytes( byte[] data, int index, VectorMask<Byte> used ) {
+		if( index + B.length() <= data.length )
+			return ByteVector.fromArray(B, data, index);
+		return ByteVector.fromArray(B, data, index, used);
+	}
+
+	/**
+	 * Converts integers into shorts and writes them. Values are truncated, just like a (short) cast.
+	 */
+	static void storeShort( IntVector v, short[] data, int index ) {
+		((ShortVector)v.convertShape(VectorOperators.I2S, S, 0)).intoArray(data, index, SHORTS_I);
+	}
+
+	/**
+	 * Converts integers into bytes and writes them. Values are truncated, just like a (byte) cast.
+	 */
+	static void storeByte( IntVector v, byte[] data, int index ) {
+		((ByteVector)v.convertShape(VectorOperators.I2B, B, 0)).intoArray(data, index, BYTES_I);
+	}
+
+	/**
+	 * Processes the rows using threads if concurrency is turned on
+	 */
+	static void rows( int y0, int y1, IntRangeConsumer consumer ) {
+		if( y1 <= y0 )
+			return;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(y0, y1, consumer);
+		} else {
+			consumer.accept(y0, y1);
+		}
+	}
+}
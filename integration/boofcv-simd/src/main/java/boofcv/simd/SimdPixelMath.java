@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import static boofcv.simd.SimdConvolve.rows;
+
+/**
+ * Implementation of common functions in {@link boofcv.alg.misc.PixelMath} using the Vector API. Only
+ * {@link GrayF32} is supported. Each row is processed one vector at a time with the remainder handled by
+ * scalar code.
+ *
+ * @author Peter Abeles
+ */
+public class SimdPixelMath {
+
+	static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+
+	public static boolean abs( ImageGray input, ImageGray output ) {
+		if( !(input instanceof GrayF32 && output instanceof GrayF32) )
+			return false;
+		abs((GrayF32)input, (GrayF32)output);
+		return true;
+	}
+
+	public static boolean plus( ImageGray input, double value, ImageGray output ) {
+		if( !(input instanceof GrayF32 && output instanceof GrayF32) )
+			return false;
+		plus((GrayF32)input, (float)value, (GrayF32)output);
+		return true;
+	}
+
+	public static boolean multiply( ImageGray input, double value, ImageGray output ) {
+		if( !(input instanceof GrayF32 && output instanceof GrayF32) )
+			return false;
+		multiply((GrayF32)input, (float)value, (GrayF32)output);
+		return true;
+	}
+
+	public static boolean divide( ImageGray input, double denominator, ImageGray output ) {
+		if( !(input instanceof GrayF32 && output instanceof GrayF32) )
+			return false;
+		divide((GrayF32)input, (float)denominator, (GrayF32)output);
+		return true;
+	}
+
+	public static boolean add( ImageGray imgA, ImageGray imgB, ImageGray output ) {
+		if( !(imgA instanceof GrayF32 && imgB instanceof GrayF32 && output instanceof GrayF32) )
+			return false;
+		add((GrayF32)imgA, (GrayF32)imgB, (GrayF32)output);
+		return true;
+	}
+
+	public static boolean subtract( ImageGray imgA, ImageGray imgB, ImageGray output ) {
+		if( !(imgA instanceof GrayF32 && imgB instanceof GrayF32 && output instanceof GrayF32) )
+			return false;
+		subtract((GrayF32)imgA, (GrayF32)imgB, (GrayF32)output);
+		return true;
+	}
+
+	public static void abs( GrayF32 input, GrayF32 output ) {
+		final int L = F.length();
+		rows(0, input.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexSrc = input.startIndex + y*input.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexSrc + input.width;
+
+				for (; indexSrc + L <= end; indexSrc += L, indexDst += L) {
+					FloatVector.fromArray(F, input.data, indexSrc).abs().intoArray(output.data, indexDst);
+				}
+				for (; indexSrc < end; indexSrc++, indexDst++) {
+					output.data[indexDst] = Math.abs(input.data[indexSrc]);
+				}
+			}
+		});
+	}
+
+	public static void plus( GrayF32 input, float value, GrayF32 output ) {
+		final int L = F.length();
+		rows(0, input.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexSrc = input.startIndex + y*input.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexSrc + input.width;
+
+				for (; indexSrc + L <= end; indexSrc += L, indexDst += L) {
+					FloatVector.fromArray(F, input.data, indexSrc).add(value).intoArray(output.data, indexDst);
+				}
+				for (; indexSrc < end; indexSrc++, indexDst++) {
+					output.data[indexDst] = input.data[indexSrc] + value;
+				}
+			}
+		});
+	}
+
+	public static void multiply( GrayF32 input, float value, GrayF32 output ) {
+		final int L = F.length();
+		rows(0, input.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexSrc = input.startIndex + y*input.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexSrc + input.width;
+
+				for (; indexSrc + L <= end; indexSrc += L, indexDst += L) {
+					FloatVector.fromArray(F, input.data, indexSrc).mul(value).intoArray(output.data, indexDst);
+				}
+				for (; indexSrc < end; indexSrc++, indexDst++) {
+					output.data[indexDst] = input.data[indexSrc]*value;
+				}
+			}
+		});
+	}
+
+	public static void divide( GrayF32 input, float denominator, GrayF32 output ) {
+		final int L = F.length();
+		rows(0, input.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexSrc = input.startIndex + y*input.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexSrc + input.width;
+
+				for (; indexSrc + L <= end; indexSrc += L, indexDst += L) {
+					FloatVector.fromArray(F, input.data, indexSrc).div(denominator).intoArray(output.data, indexDst);
+				}
+				for (; indexSrc < end; indexSrc++, indexDst++) {
+					output.data[indexDst] = input.data[indexSrc]/denominator;
+				}
+			}
+		});
+	}
+
+	public static void add( GrayF32 imgA, GrayF32 imgB, GrayF32 output ) {
+		final int L = F.length();
+		rows(0, imgA.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexA = imgA.startIndex + y*imgA.stride;
+				int indexB = imgB.startIndex + y*imgB.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexA + imgA.width;
+
+				for (; indexA + L <= end; indexA += L, indexB += L, indexDst += L) {
+					FloatVector a = FloatVector.fromArray(F, imgA.data, indexA);
+					FloatVector b = FloatVector.fromArray(F, imgB.data, indexB);
+					a.add(b).intoArray(output.data, indexDst);
+				}
+				for (; indexA < end; indexA++, indexB++, indexDst++) {
+					output.data[indexDst] = imgA.data[indexA] + imgB.data[indexB];
+				}
+			}
+		});
+	}
+
+	public static void subtract( GrayF32 imgA, GrayF32 imgB, GrayF32 output ) {
+		final int L = F.length();
+		rows(0, imgA.height, (y0, y1) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexA = imgA.startIndex + y*imgA.stride;
+				int indexB = imgB.startIndex + y*imgB.stride;
+				int indexDst = output.startIndex + y*output.stride;
+				final int end = indexA + imgA.width;
+
+				for (; indexA + L <= end; indexA += L, indexB += L, indexDst += L) {
+					FloatVector a = FloatVector.fromArray(F, imgA.data, indexA);
+					FloatVector b = FloatVector.fromArray(F, imgB.data, indexB);
+					a.sub(b).intoArray(output.data, indexDst);
+				}
+				for (; indexA < end; indexA++, indexB++, indexDst++) {
+					output.data[indexDst] = imgA.data[indexA] - imgB.data[indexB];
+				}
+			}
+		});
+	}
+}
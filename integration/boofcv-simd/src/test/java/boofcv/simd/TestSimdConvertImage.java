@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GConvertImage;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSimdConvertImage {
+	Random rand = new Random(234);
+
+	int width = 211, height = 30;
+
+	@Test
+	void U8_F32() {
+		compare(GrayU8.class, GrayF32.class, 0, 255);
+	}
+
+	@Test
+	void U8_I16() {
+		compare(GrayU8.class, GrayS16.class, 0, 255);
+		compare(GrayU8.class, GrayU16.class, 0, 255);
+	}
+
+	@Test
+	void S16_F32() {
+		compare(GrayS16.class, GrayF32.class, -30000, 30000);
+	}
+
+	@Test
+	void F32_U8() {
+		// include values which will overflow and be truncated
+		compare(GrayF32.class, GrayU8.class, -300, 500);
+	}
+
+	@Test
+	void unsupported() {
+		assertFalse(SimdConvertImage.convert(new GrayU16(width, height), new GrayF32(width, height)));
+		assertFalse(SimdConvertImage.convert(new GrayF64(width, height), new GrayU8(width, height)));
+	}
+
+	private void compare( Class inputType, Class outputType, double min, double max ) {
+		ImageGray input = GeneralizedImageOps.createSingleBand(inputType, width, height);
+		GImageMiscOps.fillUniform(input, rand, min, max);
+		input = BoofTesting.createSubImageOf(input);
+
+		ImageGray expected = GeneralizedImageOps.createSingleBand(outputType, width, height);
+		ImageGray found = BoofTesting.createSubImageOf((ImageGray)expected.createSameShape());
+
+		BoofSimd.uninstall();
+		GConvertImage.convert(input, expected);
+		assertTrue(SimdConvertImage.convert(input, found));
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import boofcv.alg.filter.convolve.noborder.ConvolveImageStandard_SB;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_S32;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSimdConvolve {
+	Random rand = new Random(234);
+
+	// width is selected so that the scalar code handles the end of each row
+	int width = 211, height = 40;
+
+	SimdConvolve alg = new SimdConvolve();
+
+	@AfterEach
+	void after() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	@Test
+	void F32_F32() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (int kernelWidth = 1; kernelWidth <= 9; kernelWidth += 2) {
+				Kernel1D_F32 kernel = FactoryKernel.random1D_F32(kernelWidth, kernelWidth/2, -1, 1, rand);
+				compare(kernel, GrayF32.class, GrayF32.class);
+				// offset which isn't in the center
+				kernel = FactoryKernel.random1D_F32(kernelWidth, 0, -1, 1, rand);
+				compare(kernel, GrayF32.class, GrayF32.class);
+			}
+		}
+	}
+
+	@Test
+	void U8_I16() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (int kernelWidth = 1; kernelWidth <= 9; kernelWidth += 2) {
+				Kernel1D_S32 kernel = FactoryKernel.random1D_I32(kernelWidth, kernelWidth/2, -20, 20, rand);
+				compare(kernel, GrayU8.class, GrayS16.class);
+				kernel = FactoryKernel.random1D_I32(kernelWidth, 0, -20, 20, rand);
+				compare(kernel, GrayU8.class, GrayS16.class);
+			}
+		}
+	}
+
+	@Test
+	void U8_S32() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (int kernelWidth = 1; kernelWidth <= 9; kernelWidth += 2) {
+				Kernel1D_S32 kernel = FactoryKernel.random1D_I32(kernelWidth, kernelWidth/2, -20, 20, rand);
+				compare(kernel, GrayU8.class, GrayS32.class);
+			}
+		}
+	}
+
+	@Test
+	void S16_I16() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (int kernelWidth = 1; kernelWidth <= 9; kernelWidth += 2) {
+				Kernel1D_S32 kernel = FactoryKernel.random1D_I32(kernelWidth, kernelWidth/2, -20, 20, rand);
+				compare(kernel, GrayS16.class, GrayS16.class);
+			}
+		}
+	}
+
+	/**
+	 * Types which aren't supported and divisors should be rejected so that the regular code is used
+	 */
+	@Test
+	void unsupported() {
+		Kernel1D_S32 kernel = FactoryKernel.random1D_I32(3, 1, -20, 20, rand);
+		assertFalse(alg.horizontal(kernel, new GrayU8(width,height), new GrayS16(width,height), 5));
+		assertFalse(alg.vertical(kernel, new GrayU8(width,height), new GrayS16(width,height), 5));
+		assertFalse(alg.horizontal(kernel, new GrayU16(width,height), new GrayS16(width,height), 0));
+		assertFalse(alg.vertical(kernel, new GrayS32(width,height), new GrayS32(width,height), 0));
+	}
+
+	private void compare( Kernel1D kernel, Class inputType, Class outputType ) {
+		ImageGray input = GeneralizedImageOps.createSingleBand(inputType, width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		// the SIMD code should handle sub-images
+		ImageGray inputSub = BoofTesting.createSubImageOf(input);
+
+		for (int direction = 0; direction < 2; direction++) {
+			ImageGray expected = GeneralizedImageOps.createSingleBand(outputType, width, height);
+			ImageGray found = BoofTesting.createSubImageOf((ImageGray)expected.createSameShape());
+
+			if( direction == 0 ) {
+				BoofTesting.callStaticMethod(ConvolveImageStandard_SB.class, "horizontal", kernel, input, expected);
+				assertTrue(alg.horizontal(kernel, inputSub, found, 0));
+			} else {
+				BoofTesting.callStaticMethod(ConvolveImageStandard_SB.class, "vertical", kernel, input, expected);
+				assertTrue(alg.vertical(kernel, inputSub, found, 0));
+			}
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+}
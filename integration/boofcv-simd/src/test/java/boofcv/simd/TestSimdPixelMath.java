@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.PixelMath;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compares the SIMD implementation against the scalar implementation in {@link PixelMath}
+ *
+ * @author Peter Abeles
+ */
+class TestSimdPixelMath {
+	Random rand = new Random(234);
+
+	int width = 211, height = 30;
+
+	GrayF32 inputA = new GrayF32(width, height);
+	GrayF32 inputB = new GrayF32(width, height);
+	GrayF32 expected = new GrayF32(width, height);
+	GrayF32 found = BoofTesting.createSubImageOf(new GrayF32(width, height));
+
+	@BeforeEach
+	void before() {
+		BoofSimd.uninstall();
+		ImageMiscOps.fillUniform(inputA, rand, -100, 100);
+		ImageMiscOps.fillUniform(inputB, rand, -100, 100);
+		inputA = BoofTesting.createSubImageOf(inputA);
+	}
+
+	@AfterEach
+	void after() {
+		BoofSimd.uninstall();
+	}
+
+	@Test
+	void abs() {
+		PixelMath.abs(inputA, expected);
+		SimdPixelMath.abs(inputA, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	void plus() {
+		PixelMath.plus(inputA, 2.5f, expected);
+		SimdPixelMath.plus(inputA, 2.5f, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	void multiply() {
+		PixelMath.multiply(inputA, 1.7f, expected);
+		SimdPixelMath.multiply(inputA, 1.7f, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	void divide() {
+		PixelMath.divide(inputA, 1.7f, expected);
+		SimdPixelMath.divide(inputA, 1.7f, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	void add() {
+		PixelMath.add(inputA, inputB, expected);
+		SimdPixelMath.add(inputA, inputB, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	void subtract() {
+		PixelMath.subtract(inputA, inputB, expected);
+		SimdPixelMath.subtract(inputA, inputB, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	/**
+	 * Once installed the SIMD code should be invoked through PixelMath
+	 */
+	@Test
+	void installed() {
+		PixelMath.subtract(inputA, inputB, expected);
+		BoofSimd.install();
+		PixelMath.subtract(inputA, inputB, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	void unsupported() {
+		assertFalse(SimdPixelMath.abs(new GrayU8(width, height), new GrayU8(width, height)));
+		assertFalse(SimdPixelMath.plus(new GrayU8(width, height), 2, new GrayU8(width, height)));
+	}
+}
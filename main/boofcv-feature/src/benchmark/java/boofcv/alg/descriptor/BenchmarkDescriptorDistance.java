@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,78 +18,98 @@
 
 package boofcv.alg.descriptor;
 
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.feature.TupleDesc_B;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for different ways to compute the hamming distance between binary descriptors
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkDescriptorDistance {
 
-	static final long TEST_TIME = 1000;
-	static Random rand = new Random(234234);
-	static int NUM_FEATURES = 5000;
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	static List<TupleDesc_B>  binaryA = new ArrayList<>();
-	static List<TupleDesc_B>  binaryB = new ArrayList<>();
+	public int numFeatures = 5000;
 
-	static {
-		for (int i = 0; i < NUM_FEATURES; i++) {
-			binaryA.add(randomFeature());
-			binaryB.add(randomFeature());
-		}
-	}
+	List<TupleDesc_B> binaryA = new ArrayList<>();
+	List<TupleDesc_B> binaryB = new ArrayList<>();
 
-	public static class HammingTable extends PerformerBase {
+	HammingTable16 table = new HammingTable16();
 
-		HammingTable16 table = new HammingTable16();
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234234);
 
-		@Override
-		public void process() {
-			for (int i = 0; i < binaryA.size(); i++) {
-				tableScore(binaryA.get(i),binaryB.get(i));
-			}
+		binaryA.clear();
+		binaryB.clear();
+		for (int i = 0; i < numFeatures; i++) {
+			binaryA.add(randomFeature(rand));
+			binaryB.add(randomFeature(rand));
 		}
+	}
 
-		private int tableScore(TupleDesc_B a, TupleDesc_B b) {
-			int score = 0;
-
-			for( int i = 0; i < a.data.length; i++ ) {
-				int dataA = a.data[i];
-				int dataB = b.data[i];
-
-				score += table.lookup( (short)dataA , (short)dataB );
-				score += table.lookup( (short)(dataA >> 16) , (short)(dataB >> 16) );
-			}
+	@Benchmark
+	public int HammingTable() {
+		int total = 0;
+		for (int i = 0; i < binaryA.size(); i++) {
+			total += tableScore(binaryA.get(i),binaryB.get(i));
+		}
+		return total;
+	}
 
-			return score;
+	@Benchmark
+	public int HammingEquationOld() {
+		int total = 0;
+		for (int i = 0; i < binaryA.size(); i++) {
+			total += ExperimentalDescriptorDistance.hamming(binaryA.get(i),binaryB.get(i));
 		}
+		return total;
 	}
 
-	public static class HammingEquationOld extends PerformerBase {
-		@Override
-		public void process() {
-			for (int i = 0; i < binaryA.size(); i++) {
-				ExperimentalDescriptorDistance.hamming(binaryA.get(i),binaryB.get(i));
-			}
+	@Benchmark
+	public int HammingEquation() {
+		int total = 0;
+		for (int i = 0; i < binaryA.size(); i++) {
+			total += DescriptorDistance.hamming(binaryA.get(i),binaryB.get(i));
 		}
+		return total;
 	}
 
-	public static class HammingEquation extends PerformerBase {
-		@Override
-		public void process() {
-			for (int i = 0; i < binaryA.size(); i++) {
-				DescriptorDistance.hamming(binaryA.get(i),binaryB.get(i));
-			}
+	private int tableScore(TupleDesc_B a, TupleDesc_B b) {
+		int score = 0;
+
+		for( int i = 0; i < a.data.length; i++ ) {
+			int dataA = a.data[i];
+			int dataB = b.data[i];
+
+			score += table.lookup( (short)dataA , (short)dataB );
+			score += table.lookup( (short)(dataA >> 16) , (short)(dataB >> 16) );
 		}
+
+		return score;
 	}
 
-	private static TupleDesc_B randomFeature() {
+	private static TupleDesc_B randomFeature( Random rand ) {
 		TupleDesc_B feat = new TupleDesc_B(512);
 		for (int j = 0; j < feat.data.length; j++) {
 			feat.data[j] = rand.nextInt();
@@ -97,13 +117,12 @@ public class BenchmarkDescriptorDistance {
 		return feat;
 	}
 
-	public static void main(String[] args) {
-		System.out.println("Larger numbers are better");
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDescriptorDistance.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		ProfileOperation.printOpsPerSec(new HammingTable(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HammingEquationOld(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HammingEquation(),TEST_TIME);
+		new Runner(opt).run();
 	}
-
-
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -15,57 +15,65 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package boofcv.alg.feature.associate;
 
 import boofcv.abst.feature.associate.AssociateDescription;
 import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.FactoryAssociation;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for associating randomly generated descriptors
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkAssociationSpeedRandom {
 
-	static final long TEST_TIME = 1000;
-	static final Random rand = new Random(234234);
-	static final int DOF = 50;
-	static final int NUM_FEATURES = 1000;
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	static final FastQueue<TupleDesc_F64> listA = createSet();
-	static final FastQueue<TupleDesc_F64> listB = createSet();
+	public int DOF = 50;
+	public int numFeatures = 1000;
 
-	public static class General implements Performer {
+	FastQueue<TupleDesc_F64> listA;
+	FastQueue<TupleDesc_F64> listB;
 
-		AssociateDescription<TupleDesc_F64> alg;
-		String name;
+	AssociateDescription<TupleDesc_F64> greedy;
+	AssociateDescription<TupleDesc_F64> greedyBackwards;
+	AssociateDescription<TupleDesc_F64> randomForest;
 
-		public General(String name, AssociateDescription<TupleDesc_F64> alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234234);
 
-		@Override
-		public void process() {
-			alg.setSource(listA);
-			alg.setDestination(listB);
-			alg.associate();
-		}
+		listA = createSet(rand);
+		listB = createSet(rand);
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
+		greedy = FactoryAssociation.greedy(score, Double.MAX_VALUE, false);
+		greedyBackwards = FactoryAssociation.greedy(score, Double.MAX_VALUE, true);
+		randomForest = FactoryAssociation.kdRandomForest(null,DOF,500,15,5,1233445565);
 	}
 
-	private static FastQueue<TupleDesc_F64> createSet() {
+	private FastQueue<TupleDesc_F64> createSet( Random rand ) {
 		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(10,TupleDesc_F64.class, true) {
 				@Override
 				protected TupleDesc_F64 createInstance() {
@@ -73,7 +81,7 @@ public class BenchmarkAssociationSpeedRandom {
 				}
 		};
 
-		for( int i = 0; i < NUM_FEATURES; i++ ) {
+		for( int i = 0; i < numFeatures; i++ ) {
 			TupleDesc_F64 t = ret.grow();
 			for( int j = 0; j < DOF; j++ ) {
 				t.value[j] = (rand.nextDouble()-0.5)*20;
@@ -82,15 +90,33 @@ public class BenchmarkAssociationSpeedRandom {
 		return ret;
 	}
 
-	public static void main( String argsp[ ] ) {
-		System.out.println("=========  Profile Description Length "+DOF+" ========== Num Features "+NUM_FEATURES);
-		System.out.println();
+	private void associate( AssociateDescription<TupleDesc_F64> alg ) {
+		alg.setSource(listA);
+		alg.setDestination(listB);
+		alg.associate();
+	}
 
-		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
+	@Benchmark
+	public void Greedy() {
+		associate(greedy);
+	}
+
+	@Benchmark
+	public void GreedyBackwards() {
+		associate(greedyBackwards);
+	}
+
+	@Benchmark
+	public void RandomForest() {
+		associate(randomForest);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociationSpeedRandom.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		ProfileOperation.printOpsPerSec(new General("Greedy", FactoryAssociation.greedy(score, Double.MAX_VALUE, false)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new General("Greedy Backwards", FactoryAssociation.greedy(score, Double.MAX_VALUE, true)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new General("Random Forest", FactoryAssociation.kdRandomForest(null,DOF,500,15,5,1233445565)),TEST_TIME);
-		
+		new Runner(opt).run();
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -15,113 +15,113 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package boofcv.alg.feature.associate;
 
 import boofcv.abst.feature.associate.AssociateDescription;
 import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
 import boofcv.io.UtilIO;
-import boofcv.io.image.ConvertBufferedImage;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
+import boofcv.io.image.UtilImageIO;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.image.GrayF32;
 import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for associating SURF features detected in two images from the example data set
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+@SuppressWarnings("unchecked")
 public class BenchmarkAssociationSpeedSurf {
 
-	static final String image1 = UtilIO.pathExample("apartment_building_01.jpg");
-	static final String image2 = UtilIO.pathExample("apartment_building_02.jpg");
-
-
-	static final long TEST_TIME = 1000;
+	@Param({"true","false"})
+	public boolean concurrent;
 
 	FastQueue<TupleDesc_F64> listA;
 	FastQueue<TupleDesc_F64> listB;
 
-	DetectDescribePoint<GrayF32,TupleDesc_F64> detector;
+	AssociateDescription<TupleDesc_F64> greedy;
+	AssociateDescription<TupleDesc_F64> greedyBackwards;
+	AssociateDescription<TupleDesc_F64> randomForest;
 
-	public BenchmarkAssociationSpeedSurf() {
-		detector = (DetectDescribePoint)FactoryDetectDescribe.surfStable(null, null, null, GrayF32.class);
-		listA = createSet(image1);
-		listB = createSet(image2);
-		
-		System.out.println("Size A = "+listA.size()+"  B = "+listB.size());
-	}
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		DetectDescribePoint<GrayF32,TupleDesc_F64> detector =
+				(DetectDescribePoint)FactoryDetectDescribe.surfStable(null, null, null, GrayF32.class);
+		listA = createSet(detector,UtilIO.pathExample("apartment_building_01.jpg"));
+		listB = createSet(detector,UtilIO.pathExample("apartment_building_02.jpg"));
+
+		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
+		int DOF = detector.createDescription().size();
 
-	public Performer createProfile( String name, AssociateDescription<TupleDesc_F64> alg ) {
-		return new General(name,alg);
+		greedy = FactoryAssociation.greedy(score, Double.MAX_VALUE, false);
+		greedyBackwards = FactoryAssociation.greedy(score, Double.MAX_VALUE, true);
+		randomForest = FactoryAssociation.kdRandomForest(null,DOF, 500, 15, 5, 1233445565);
 	}
 
-	public class General implements Performer {
+	private FastQueue<TupleDesc_F64> createSet( DetectDescribePoint<GrayF32,TupleDesc_F64> detector,
+												String imageName ) {
+		GrayF32 gray = UtilImageIO.loadImage(imageName,GrayF32.class);
+		if( gray == null )
+			throw new RuntimeException("Can't load "+imageName);
 
-		AssociateDescription<TupleDesc_F64> alg;
-		String name;
+		FastQueue<TupleDesc_F64> ret = new FastQueue<>(10, TupleDesc_F64.class, false);
 
-		public General(String name, AssociateDescription<TupleDesc_F64> alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+		detector.detect(gray);
 
-		@Override
-		public void process() {
-			alg.setSource(listA);
-			alg.setDestination(listB);
-			alg.associate();
+		for( int i = 0; i < detector.getNumberOfFeatures(); i++ ) {
+			ret.add( detector.getDescription(i).copy() );
 		}
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		return ret;
 	}
 
-	private FastQueue<TupleDesc_F64> createSet( String imageName ) {
+	private void associate( AssociateDescription<TupleDesc_F64> alg ) {
+		alg.setSource(listA);
+		alg.setDestination(listB);
+		alg.associate();
+	}
 
-		try {
-			BufferedImage image = ImageIO.read(new File(imageName));
-			GrayF32 gray = ConvertBufferedImage.convertFrom(image, (GrayF32) null);
+	@Benchmark
+	public void Greedy() {
+		associate(greedy);
+	}
 
-			FastQueue<TupleDesc_F64> ret = new FastQueue<>(10, TupleDesc_F64.class, false);
+	@Benchmark
+	public void GreedyBackwards() {
+		associate(greedyBackwards);
+	}
 
-			detector.detect(gray);
-			
-			for( int i = 0; i < detector.getNumberOfFeatures(); i++ ) {
-				ret.add( detector.getDescription(i).copy() );
-			}
-			
-			return ret;
-			
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+	@Benchmark
+	public void RandomForest() {
+		associate(randomForest);
 	}
 
-	public static void main( String argsp[ ] ) {
-		BenchmarkAssociationSpeedSurf app = new BenchmarkAssociationSpeedSurf();
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociationSpeedSurf.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
-		
-		int DOF = app.detector.createDescription().size();
-
-		ProfileOperation.printOpsPerSec(app.createProfile("Greedy",
-				FactoryAssociation.greedy(score, Double.MAX_VALUE,  false)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(app.createProfile("Greedy Backwards",
-				FactoryAssociation.greedy(score, Double.MAX_VALUE,  true)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(app.createProfile("Random Forest",
-				FactoryAssociation.kdRandomForest(null,DOF, 500, 15, 5, 1233445565)),TEST_TIME);
-		
+		new Runner(opt).run();
 	}
 }
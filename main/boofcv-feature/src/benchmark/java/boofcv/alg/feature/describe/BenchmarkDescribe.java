@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -15,74 +15,79 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package boofcv.alg.feature.describe;
 
 import boofcv.abst.feature.describe.ConfigSurfDescribe;
 import boofcv.abst.feature.describe.DescribeRegionPoint;
 import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
-import boofcv.alg.filter.derivative.GImageDerivativeOps;
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GConvertImage;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
-import boofcv.misc.Performer;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.image.Planar;
 import georegression.struct.point.Point2D_I32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for describing a fixed set of points with different region descriptors
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 @SuppressWarnings("unchecked")
-public class BenchmarkDescribe<I extends ImageGray<I>, D extends ImageGray<D>, II extends ImageGray<II>> {
+public class BenchmarkDescribe {
 
-	static final long TEST_TIME = 1000;
-	static Random rand = new Random(234234);
-	static int NUM_POINTS = 512;
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	final static int width = 640;
-	final static int height = 480;
+	public int width = 640, height = 480;
+	public int numPoints = 512;
 
-	I gray;
-	Planar<I> colorMS;
+	GrayF32 gray = new GrayF32(1,1);
+	Planar<GrayF32> colorMS = new Planar<>(GrayF32.class,1,1,3);
 
 	Point2D_I32 pts[];
 	double scales[];
 	double yaws[];
 
-	Class<I> imageType;
-	Class<D> derivType;
-	Class<II> integralType;
+	DescribeRegionPoint surfFast, surfFastColor, surfStable, surfStableColor;
+	DescribePointBrief<GrayF32> brief;
+	DescribePointBriefSO<GrayF32> briefSO;
+	int briefRadius = 16;
 
-	public BenchmarkDescribe( Class<I> imageType ) {
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234234);
 
-		this.imageType = imageType;
-
-		derivType = GImageDerivativeOps.getDerivativeType(imageType);
-		integralType = GIntegralImageOps.getIntegralType(imageType);
-
-		colorMS = new Planar<>(imageType, width, height, 3);
+		colorMS.reshape(width, height);
 		GImageMiscOps.fillUniform(colorMS, rand, 0, 100);
+		GConvertImage.average(colorMS,gray);
 
-		gray = GConvertImage.average(colorMS,gray);
-
-		pts = new Point2D_I32[ NUM_POINTS ];
-		scales = new double[ NUM_POINTS ];
-		yaws = new double[ NUM_POINTS ];
+		pts = new Point2D_I32[ numPoints ];
+		scales = new double[ numPoints ];
+		yaws = new double[ numPoints ];
 		int border = 20;
-		for( int i = 0; i < NUM_POINTS; i++ ) {
+		for( int i = 0; i < numPoints; i++ ) {
 			int x = rand.nextInt(width-border*2)+border;
 			int y = rand.nextInt(height-border*2)+border;
 			pts[i] = new Point2D_I32(x,y);
@@ -90,98 +95,79 @@ public class BenchmarkDescribe<I extends ImageGray<I>, D extends ImageGray<D>, I
 			yaws[i] = 2.0*(rand.nextDouble()-0.5)*Math.PI;
 		}
 
-	}
-
-	public class Brief512 extends PerformerBase {
+		ConfigSurfDescribe.Speed surfSpeed = new ConfigSurfDescribe.Speed();
+		ConfigSurfDescribe.Stability surfStability = new ConfigSurfDescribe.Stability();
 
-		DescribePointBrief<I> alg = FactoryDescribePointAlgs.brief(FactoryBriefDefinition.gaussian2(new Random(123), 16, 512),
-				FactoryBlurFilter.gaussian(ImageType.single(imageType), 0, 4));
+		surfFast = FactoryDescribeRegionPoint.surfFast(surfSpeed, GrayF32.class);
+		surfFastColor = FactoryDescribeRegionPoint.surfColorFast(surfSpeed, ImageType.pl(3, GrayF32.class));
+		surfStable = FactoryDescribeRegionPoint.surfStable(surfStability, GrayF32.class);
+		surfStableColor = FactoryDescribeRegionPoint.surfColorStable(surfStability, ImageType.pl(3, GrayF32.class));
 
-		@Override
-		public void process() {
-			alg.setImage(gray);
-			TupleDesc_B f = alg.createFeature();
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.process(p.x,p.y,f);
-			}
-		}
+		brief = FactoryDescribePointAlgs.brief(FactoryBriefDefinition.gaussian2(new Random(123), briefRadius, 512),
+				FactoryBlurFilter.gaussian(ImageType.single(GrayF32.class), 0, 4));
+		briefSO = FactoryDescribePointAlgs.briefso(FactoryBriefDefinition.gaussian2(new Random(123), briefRadius, 512),
+				FactoryBlurFilter.gaussian(ImageType.single(GrayF32.class), 0, 4));
 	}
 
-	public class BriefSO512 extends PerformerBase {
-
-		int briefRadius = 16;
-		DescribePointBriefSO<I> alg = FactoryDescribePointAlgs.
-				briefso(FactoryBriefDefinition.gaussian2(new Random(123), briefRadius, 512),
-				FactoryBlurFilter.gaussian(ImageType.single(imageType), 0, 4));
-
-		@Override
-		public void process() {
+	private void describe( DescribeRegionPoint alg ) {
+		if( alg.getImageType().getFamily() == ImageType.Family.GRAY)
 			alg.setImage(gray);
-			TupleDesc_B f = alg.createFeature();
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.process(p.x,p.y,(float)yaws[i],(float)(briefRadius*scales[i]),f);
-			}
+		else
+			alg.setImage(colorMS);
+
+		TupleDesc d = alg.createDescription();
+		for( int i = 0; i < pts.length; i++ ) {
+			Point2D_I32 p = pts[i];
+			alg.process(p.x,p.y,yaws[i],scales[i],d);
 		}
 	}
 
-	public class Describe<D extends TupleDesc> implements Performer {
+	@Benchmark
+	public void SURF_Fast() {
+		describe(surfFast);
+	}
 
-		DescribeRegionPoint alg;
-		String name;
+	@Benchmark
+	public void SURF_FastColor() {
+		describe(surfFastColor);
+	}
 
-		public Describe(String name, DescribeRegionPoint alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+	@Benchmark
+	public void SURF_Stable() {
+		describe(surfStable);
+	}
 
-		@Override
-		public void process() {
-			if( alg.getImageType().getFamily() == ImageType.Family.GRAY)
-				alg.setImage(gray);
-			else
-				alg.setImage(colorMS);
-
-			D d = (D)alg.createDescription();
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.process(p.x,p.y,yaws[i],scales[i],d);
-			}
-		}
+	@Benchmark
+	public void SURF_StableColor() {
+		describe(surfStableColor);
+	}
 
-		@Override
-		public String getName() {
-			return name;
+	@Benchmark
+	public void Brief512() {
+		brief.setImage(gray);
+		TupleDesc_B f = brief.createFeature();
+		for( int i = 0; i < pts.length; i++ ) {
+			Point2D_I32 p = pts[i];
+			brief.process(p.x,p.y,f);
 		}
 	}
 
-	public void perform() {
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
-		System.out.println();
-
-		ConfigSurfDescribe.Speed surfSpeed = new ConfigSurfDescribe.Speed();
-		ConfigSurfDescribe.Stability surfStable = new ConfigSurfDescribe.Stability();
-
-		ProfileOperation.printOpsPerSec(new Describe("SURF-F",
-				FactoryDescribeRegionPoint.<I,II>surfFast(surfSpeed, imageType)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Describe("SURF-F Color",
-				FactoryDescribeRegionPoint.surfColorFast(surfSpeed, ImageType.pl(3, imageType))),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Describe("SURF-S",
-				FactoryDescribeRegionPoint.<I,II>surfStable(surfStable,  imageType)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Describe("SURF-S Color",
-				FactoryDescribeRegionPoint.surfColorStable(surfStable,  ImageType.pl(3, imageType))),TEST_TIME);
-
-//		if( imageType == GrayF32.class )
-//			ProfileOperation.printOpsPerSec(new Describe("SIFT", FactoryDescribeRegionPoint.sift(null,null)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Brief512(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new BriefSO512(),TEST_TIME);
+	@Benchmark
+	public void BriefSO512() {
+		briefSO.setImage(gray);
+		TupleDesc_B f = briefSO.createFeature();
+		for( int i = 0; i < pts.length; i++ ) {
+			Point2D_I32 p = pts[i];
+			briefSO.process(p.x,p.y,(float)yaws[i],(float)(briefRadius*scales[i]),f);
+		}
 	}
 
-	public static void main( String arg[ ] ) {
-		BenchmarkDescribe<GrayF32,?,?> alg = new BenchmarkDescribe(GrayF32.class);
-//		BenchmarkDescribe<GrayU8,?,?> alg = new BenchmarkDescribe(GrayU8.class);
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDescribe.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		alg.perform();
+		new Runner(opt).run();
 	}
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.io.UtilIO;
+import boofcv.io.image.UtilImageIO;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for detecting and describing SIFT features using {@link CompleteSift} on an image from the
+ * example data set
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkCompleteSift {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	GrayF32 image;
+
+	DetectDescribePoint<GrayF32,BrightFeature> sift;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		image = UtilImageIO.loadImage(UtilIO.pathExample("apartment_building_01.jpg"),GrayF32.class);
+		sift = FactoryDetectDescribe.sift(null);
+	}
+
+	@Benchmark
+	public int DetectDescribe() {
+		sift.detect(image);
+		return sift.getNumberOfFeatures();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkCompleteSift.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
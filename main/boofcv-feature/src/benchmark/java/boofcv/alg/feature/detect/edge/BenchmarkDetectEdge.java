@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,82 +19,81 @@
 package boofcv.alg.feature.detect.edge;
 
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.edge.FactoryEdgeDetectors;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for Canny edge detection on an image filled with random rectangles
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkDetectEdge {
-	static final long TEST_TIME = 1000;
-
-	int width = 640;
-	int height = 480;
 
-	Random rand = new Random(234);
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	GrayF32 input = new GrayF32(width,height);
+	public int width = 640, height = 480;
 
-	public void createImage() {
-		for( int i = 0; i < 1000; i++ ) {
-			int width = 10+rand.nextInt(50);
-			int height = 10+rand.nextInt(50);
+	GrayF32 input = new GrayF32(1,1);
+	GrayU8 output = new GrayU8(1,1);
 
-			int x = rand.nextInt(input.width);
-			int y = rand.nextInt(input.height);
+	CannyEdge<GrayF32,GrayF32> cannyMark;
+	CannyEdge<GrayF32,GrayF32> cannyTrace;
 
-			int x1 = x+width;
-			int y1 = y+height;
-			if( x1 > input.width ) x1 = input.width;
-			if( y1 > input.height ) y1 = input.height;
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
 
-			width = x1-x;
-			height = y1-y;
+		input.reshape(width,height);
+		output.reshape(width,height);
+		ImageMiscOps.fill(input,0);
+		for( int i = 0; i < 1000; i++ ) {
+			int x = rand.nextInt(width);
+			int y = rand.nextInt(height);
+			int x1 = Math.min(width,x+10+rand.nextInt(50));
+			int y1 = Math.min(height,y+10+rand.nextInt(50));
 
-			ImageMiscOps.fillRectangle(input,rand.nextInt(100),x,y,width,height);
+			ImageMiscOps.fillRectangle(input,rand.nextInt(100),x,y,x1-x,y1-y);
 		}
-	}
-
-	public class CannyMark extends PerformerBase {
 
-		CannyEdge<GrayF32,GrayF32> alg = FactoryEdgeDetectors.canny(2,false, false, GrayF32.class, GrayF32.class);
-		GrayU8 output = new GrayU8(width,height);
-
-		@Override
-		public void process() {
-			alg.process(input,5,10,output);
-		}
+		cannyMark = FactoryEdgeDetectors.canny(2,false, false, GrayF32.class, GrayF32.class);
+		cannyTrace = FactoryEdgeDetectors.canny(2,true, false, GrayF32.class, GrayF32.class);
 	}
 
-	public class CannyTrace extends PerformerBase {
-
-		CannyEdge<GrayF32,GrayF32> alg = FactoryEdgeDetectors.canny(2,true, false, GrayF32.class, GrayF32.class);
-		GrayU8 output = new GrayU8(width,height);
-
-		@Override
-		public void process() {
-			alg.process(input,5,10,output);
-		}
+	@Benchmark
+	public void CannyMark() {
+		cannyMark.process(input,5,10,output);
 	}
 
-	public void performTests() {
-		createImage();
-
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println();
-
-		ProfileOperation.printOpsPerSec(new CannyMark(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new CannyTrace(), TEST_TIME);
+	@Benchmark
+	public void CannyTrace() {
+		cannyTrace.process(input,5,10,output);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkDetectEdge benchmark = new BenchmarkDetectEdge();
-		benchmark.performTests();
-	}
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDetectEdge.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
+		new Runner(opt).run();
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,93 +19,95 @@
 package boofcv.alg.feature.detect.edge;
 
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for converting image gradient into edge intensity and direction
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkGradientToEdge {
 
-	static final long TEST_TIME = 1000;
-	static Random rand = new Random(234234);
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	final static int width = 640;
-	final static int height = 480;
+	public int width = 640, height = 480;
 
-	static GrayF32 derivX_F32 = new GrayF32(width,height);
-	static GrayF32 derivY_F32 = new GrayF32(width,height);
+	GrayF32 derivX = new GrayF32(1,1);
+	GrayF32 derivY = new GrayF32(1,1);
+	GrayF32 intensity = new GrayF32(1,1);
+	GrayF32 orientation = new GrayF32(1,1);
+	GrayS8 direction = new GrayS8(1,1);
 
-	static GrayF32 intensity_F32 = new GrayF32(width,height);
-	static GrayF32 orientation_F32 = new GrayF32(width,height);
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234234);
 
-	static GrayS8 direction = new GrayS8(width,height);
+		derivX.reshape(width,height);
+		derivY.reshape(width,height);
+		intensity.reshape(width,height);
+		orientation.reshape(width,height);
+		direction.reshape(width,height);
 
-	public static class Euclidian_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			GradientToEdgeFeatures.intensityE(derivX_F32,derivY_F32,intensity_F32);
-		}
+		ImageMiscOps.fillUniform(derivX, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivY, rand, 0, 255);
+		ImageMiscOps.fillUniform(orientation, rand, (float)(-Math.PI/2.0), (float)(Math.PI/2.0));
 	}
 
-	public static class Abs_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			GradientToEdgeFeatures.intensityAbs(derivX_F32,derivY_F32,intensity_F32);
-		}
+	@Benchmark
+	public void Euclidean() {
+		GradientToEdgeFeatures.intensityE(derivX,derivY,intensity);
 	}
 
-	public static class Orientation_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			GradientToEdgeFeatures.direction(derivX_F32,derivY_F32,orientation_F32);
-		}
+	@Benchmark
+	public void Abs() {
+		GradientToEdgeFeatures.intensityAbs(derivX,derivY,intensity);
 	}
 
-	public static class Orientation2_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			GradientToEdgeFeatures.direction2(derivX_F32,derivY_F32,orientation_F32);
-		}
+	@Benchmark
+	public void Direction() {
+		GradientToEdgeFeatures.direction(derivX,derivY,intensity);
 	}
 
-	public static class Discretize4 extends PerformerBase {
-		@Override
-		public void process() {
-			GradientToEdgeFeatures.discretizeDirection4(intensity_F32,direction);
-		}
+	@Benchmark
+	public void Direction2() {
+		GradientToEdgeFeatures.direction2(derivX,derivY,intensity);
 	}
 
-	public static class Discretize8 extends PerformerBase {
-
-		@Override
-		public void process() {
-			GradientToEdgeFeatures.discretizeDirection8(intensity_F32,direction);
-		}
+	@Benchmark
+	public void Discretize4() {
+		GradientToEdgeFeatures.discretizeDirection4(orientation,direction);
 	}
 
-	public static void main(String args[]) {
-		ImageMiscOps.fillUniform(derivX_F32, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivY_F32, rand, 0, 255);
-		ImageMiscOps.fillUniform(orientation_F32, rand, (float)(-Math.PI/2.0), (float)(Math.PI/2.0));
+	@Benchmark
+	public void Discretize8() {
+		GradientToEdgeFeatures.discretizeDirection8(orientation,direction);
+	}
 
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println();
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkGradientToEdge.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		ProfileOperation.printOpsPerSec(new Euclidian_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Abs_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Orientation_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Orientation2_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Discretize4(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Discretize8(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
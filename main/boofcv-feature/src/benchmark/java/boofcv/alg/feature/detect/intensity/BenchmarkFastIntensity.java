@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -15,90 +15,92 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package boofcv.alg.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner12_U8;
 import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner9_U8;
-import boofcv.alg.misc.GImageMiscOps;
-import boofcv.core.image.GeneralizedImageOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
-import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for FAST corner detectors. A random image is the worst case and an image with a single value the
+ * best case.
+ *
  * @author Peter Abeles
  */
-public class BenchmarkFastIntensity<T extends ImageGray<T>> {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static long TEST_TIME = 1000;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkFastIntensity {
 
-	T input;
-	GrayF32 intensity;
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	public BenchmarkFastIntensity(Class<T> imageType) {
-		input = GeneralizedImageOps.createSingleBand(imageType,imgWidth,imgHeight);
-		intensity = new GrayF32(input.width,input.height);
-	}
+	@Param({"random","constant"})
+	public String image;
 
-	public class FAST_NAIVE_9 extends PerformerBase {
-		DetectorFastNaive corner = new DetectorFastNaive(3,9,60);
+	public int width = 640, height = 480;
 
-		@Override
-		public void process() {
-			corner.process((GrayU8)input);
-		}
-	}
+	GrayU8 input = new GrayU8(1,1);
+	GrayF32 intensity = new GrayF32(1,1);
 
-	public class FAST9 extends PerformerBase {
-		FastCornerDetector<GrayU8> corner = new FastCornerDetector<>(new ImplFastCorner9_U8(60));
+	DetectorFastNaive naive9;
+	FastCornerDetector<GrayU8> fast9;
+	FastCornerDetector<GrayU8> fast12;
 
-		@Override
-		public void process() {
-			corner.process((GrayU8)input,intensity);
-		}
-	}
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
 
-	public class FAST12 extends PerformerBase {
-		FastCornerDetector<GrayU8> corner = new FastCornerDetector<>(new ImplFastCorner12_U8(60));
+		input.reshape(width,height);
+		intensity.reshape(width,height);
 
-		@Override
-		public void process() {
-			corner.process((GrayU8)input,intensity);
+		if( image.equals("random") ) {
+			ImageMiscOps.fillUniform(input, new Random(234), 0, 255);
+		} else {
+			ImageMiscOps.fill(input,125);
 		}
-	}
-
-	public void evaluate() {
-		Random rand = new Random(234);
-
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println("           Random");
-		System.out.println();
 
-		GImageMiscOps.fillUniform(input, rand, 0, 255);
-		ProfileOperation.printOpsPerSec(new FAST_NAIVE_9(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new FAST9(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new FAST12(), TEST_TIME);
+		naive9 = new DetectorFastNaive(3,9,60);
+		fast9 = new FastCornerDetector<>(new ImplFastCorner9_U8(60));
+		fast12 = new FastCornerDetector<>(new ImplFastCorner12_U8(60));
+	}
 
-		System.out.println();
-		System.out.println("           Single Value");
-		System.out.println();
+	@Benchmark
+	public void FastNaive9() {
+		naive9.process(input);
+	}
 
-		GImageMiscOps.fill(input,125);
-		ProfileOperation.printOpsPerSec(new FAST_NAIVE_9(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new FAST9(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new FAST12(), TEST_TIME);
+	@Benchmark
+	public void Fast9() {
+		fast9.process(input,intensity);
+	}
 
+	@Benchmark
+	public void Fast12() {
+		fast12.process(input,intensity);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkFastIntensity benchmark = new BenchmarkFastIntensity(GrayU8.class);
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFastIntensity.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		benchmark.evaluate();
+		new Runner(opt).run();
 	}
 }
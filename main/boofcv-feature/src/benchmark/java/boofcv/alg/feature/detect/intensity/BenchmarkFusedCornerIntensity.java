@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.ImplSsdCornerFused_F32;
+import boofcv.alg.feature.detect.intensity.impl.ImplSsdCornerFused_F32_MT;
+import boofcv.alg.feature.detect.intensity.impl.ShiTomasiCorner_F32;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares computing a blurred Shi-Tomasi corner intensity one operation at a time against the fused implementation
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkFusedCornerIntensity {
+	@Param({"true","false"})
+	public boolean concurrent=false;
+
+	@Param({"2","5"})
+	public int radius=2;
+
+	// 4K video frame
+	public int width=3840,height=2160;
+
+	public double sigma=1.5;
+
+	GrayF32 input = new GrayF32(1,1);
+	GrayF32 blurred = new GrayF32(1,1);
+	GrayF32 storage = new GrayF32(1,1);
+	GrayF32 derivX = new GrayF32(1,1);
+	GrayF32 derivY = new GrayF32(1,1);
+	GrayF32 intensity = new GrayF32(1,1);
+
+	ImageBorder_F32 border = (ImageBorder_F32)FactoryImageBorder.single(GrayF32.class, BorderType.EXTENDED);
+	GradientCornerIntensity<GrayF32> unfused;
+	ImplSsdCornerFused_F32<GrayF32> fused;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		input.reshape(width, height);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+
+		unfused = FactoryIntensityPointAlg.shiTomasi(radius,false,GrayF32.class);
+
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,sigma,-1);
+		if( concurrent )
+			fused = new ImplSsdCornerFused_F32_MT<>(kernel,radius,new ShiTomasiCorner_F32());
+		else
+			fused = new ImplSsdCornerFused_F32<>(kernel,radius,new ShiTomasiCorner_F32());
+	}
+
+	@Benchmark
+	public void Unfused() {
+		BlurImageOps.gaussian(input,blurred,sigma,-1,storage);
+		GradientSobel.process(blurred,derivX,derivY,border);
+		unfused.process(derivX,derivY,intensity);
+	}
+
+	@Benchmark
+	public void Fused() {
+		fused.process(input,intensity);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFusedCornerIntensity.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -15,62 +15,74 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package boofcv.alg.feature.detect.interest;
 
 import boofcv.alg.feature.detect.intensity.IntegralImageFeatureIntensity;
 import boofcv.alg.feature.detect.intensity.impl.ImplIntegralImageFeatureIntensity;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.alg.transform.ii.IntegralImageOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for computing the Fast Hessian feature intensity from an integral image
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkFastHessianFeatureIntensity {
-	static int width = 640;
-	static int height = 480;
-	static long TEST_TIME = 1000;
 
-	static int skip = 1;
-	static int size = 15;
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	static Random rand = new Random(234);
+	public int width = 640, height = 480;
+	public int skip = 1;
+	public int size = 15;
 
-	static GrayF32 original = new GrayF32(width,height);
-	static GrayF32 integral = new GrayF32(width,height);
-	static GrayF32 intensity = new GrayF32(width,height);
+	GrayF32 original = new GrayF32(1,1);
+	GrayF32 integral = new GrayF32(1,1);
+	GrayF32 intensity = new GrayF32(1,1);
 
-	public static class Naive extends PerformerBase {
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
 
-		@Override
-		public void process() {
-			ImplIntegralImageFeatureIntensity.hessianNaive(integral,skip,size,intensity);
-		}
+		original.reshape(width,height);
+		intensity.reshape(width,height);
+		ImageMiscOps.fillUniform(original,new Random(234),0,200);
+		IntegralImageOps.transform(original,integral);
 	}
 
-	public static class Standard extends PerformerBase {
-
-		@Override
-		public void process() {
-			IntegralImageFeatureIntensity.hessian(integral,skip,size,intensity);
-		}
+	@Benchmark
+	public void Naive() {
+		ImplIntegralImageFeatureIntensity.hessianNaive(integral,skip,size,intensity);
 	}
 
-	public static void main(String args[]) {
-		ImageMiscOps.fillUniform(original,rand,0,200);
-		IntegralImageOps.transform(original,integral);
+	@Benchmark
+	public void Standard() {
+		IntegralImageFeatureIntensity.hessian(integral,skip,size,intensity);
+	}
 
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println("     skip = "+skip+" size = "+size);
-		System.out.println();
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFastHessianFeatureIntensity.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		ProfileOperation.printOpsPerSec(new Naive(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Standard(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,79 +19,81 @@
 package boofcv.alg.feature.detect.template;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.factory.feature.detect.template.FactoryTemplateMatching;
 import boofcv.factory.feature.detect.template.TemplateScoreType;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for template matching intensity with random images
+ *
  * @author Peter Abeles
  */
-public class BenchmarkTemplateIntensity<T extends ImageGray<T>> {
-
-	Random rand = new Random(234);
-	long TEST_TIME = 2000;
-
-	int width = 320;
-	int height = 240;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkTemplateIntensity {
 
-	Class<T> imageType;
-	T image;
-	T template;
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	public BenchmarkTemplateIntensity(Class<T> imageType) {
-		this.imageType = imageType;
-		image = GeneralizedImageOps.createSingleBand(imageType,width,height);
-		template = GeneralizedImageOps.createSingleBand(imageType,20,30);
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
-		GImageMiscOps.fillUniform(image, rand, 0, 200);
-		GImageMiscOps.fillUniform(template, rand, 0, 200);
-	}
+	public int width = 320, height = 240;
 
-	public class TemplatePerformer implements Performer {
+	ImageGray image;
+	ImageGray template;
 
-		TemplateMatchingIntensity<T> alg;
-		String name;
+	TemplateMatchingIntensity sumDiffSq;
+	TemplateMatchingIntensity ncc;
 
-		public TemplatePerformer(TemplateScoreType type) {
-			this.alg = FactoryTemplateMatching.createIntensity(type,imageType);
-			this.name = type.toString();
-		}
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
 
-		@Override
-		public void process() {
-			alg.process(image,template);
-		}
+		Class<ImageGray> type = imageType.equals("GrayU8") ? (Class)GrayU8.class : (Class)GrayF32.class;
+		image = GeneralizedImageOps.createSingleBand(type,width,height);
+		template = GeneralizedImageOps.createSingleBand(type,20,30);
+		GImageMiscOps.fillUniform(image, rand, 0, 200);
+		GImageMiscOps.fillUniform(template, rand, 0, 200);
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		sumDiffSq = FactoryTemplateMatching.createIntensity(TemplateScoreType.SUM_DIFF_SQ,type);
+		ncc = FactoryTemplateMatching.createIntensity(TemplateScoreType.NCC,type);
 	}
 
-	public void evaluateAll() {
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
-		System.out.println();
-
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.SUM_DIFF_SQ), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.NCC), TEST_TIME);
+	@Benchmark
+	public void SumDiffSq() {
+		sumDiffSq.process(image,template);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkTemplateIntensity<GrayU8>
-				benchmark_U8 = new BenchmarkTemplateIntensity<>(GrayU8.class);
-
-		benchmark_U8.evaluateAll();
+	@Benchmark
+	public void NCC() {
+		ncc.process(image,template);
+	}
 
-		BenchmarkTemplateIntensity<GrayF32>
-				benchmark_F32 = new BenchmarkTemplateIntensity<>(GrayF32.class);
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkTemplateIntensity.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		benchmark_F32.evaluateAll();
+		new Runner(opt).run();
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -15,126 +15,130 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package boofcv.alg.feature.disparity;
 
-import boofcv.alg.feature.disparity.impl.*;
+import boofcv.alg.feature.disparity.impl.ImplSelectRectStandard_F32_U8;
+import boofcv.alg.feature.disparity.impl.ImplSelectRectStandard_S32_U8;
+import boofcv.alg.feature.disparity.impl.SelectRectSubpixel;
+import boofcv.alg.feature.disparity.impl.StereoDisparityWtoNaive;
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GConvertImage;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.factory.feature.disparity.ConfigDisparitySGM;
+import boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for dense stereo disparity algorithms
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkDisparityAlgs {
-	static final long TEST_TIME = 1000;
-	static final Random rand = new Random(234234);
 
-	static final int width=640;
-	static final int height=480;
-	static final int min=0;
-	static final int max=20;
-	static final int radiusX=2;
-	static final int radiusY=2;
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	static final GrayU8 left = new GrayU8(width,height);
-	static final GrayU8 right = new GrayU8(width,height);
+	public int width=640, height=480;
+	public int min=0, max=20;
+	public int radiusX=2, radiusY=2;
 
-	static final GrayF32 left_F32 = new GrayF32(width,height);
-	static final GrayF32 right_F32 = new GrayF32(width,height);
+	GrayU8 left = new GrayU8(1,1);
+	GrayU8 right = new GrayU8(1,1);
+	GrayF32 left_F32 = new GrayF32(1,1);
+	GrayF32 right_F32 = new GrayF32(1,1);
 
-	static final GrayU8 outU8 = new GrayU8(width,height);
-	static final GrayF32 out_F32 = new GrayF32(width,height);
+	GrayU8 outU8 = new GrayU8(1,1);
+	GrayF32 out_F32 = new GrayF32(1,1);
 
-	public static class Naive extends PerformerBase {
+	StereoDisparityWtoNaive<GrayU8> naive;
+	DisparityScoreSadRect<GrayU8,GrayU8> sad_U8;
+	DisparityScoreSadRect<GrayF32,GrayU8> sad_F32;
+	DisparityScoreSadRect<GrayU8,GrayF32> sadSubpixel;
+	DisparityScoreWindowFive<GrayU8,GrayU8> sadFive_U8;
+	SgmStereoDisparity sgm;
 
-		StereoDisparityWtoNaive<GrayU8> alg =
-				new StereoDisparityWtoNaive<>(0, max, radiusX, radiusY);
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234234);
 
-		@Override
-		public void process() {
-			alg.process(left,right,out_F32);
-		}
-	}
+		left.reshape(width,height);
+		right.reshape(width,height);
+		left_F32.reshape(width,height);
+		right_F32.reshape(width,height);
+		outU8.reshape(width,height);
+		out_F32.reshape(width,height);
 
-	public static class EfficientSad_U8 extends PerformerBase {
-
-//		DisparitySelect<int[],GrayU8> compDisp =
-//				new ImplSelectRectBasicWta_S32_U8();
-		DisparitySelect<int[],GrayU8> compDisp =
-				new ImplSelectRectStandard_S32_U8(250,2,0.1);
-		ImplDisparityScoreSadRect_U8<GrayU8> alg =
-				new ImplDisparityScoreSadRect_U8<>(min,max,radiusX,radiusY,compDisp);
+		GImageMiscOps.fillUniform(left, rand, 0, 30);
+		GImageMiscOps.fillUniform(right, rand, 0, 30);
+		GConvertImage.convert(left, left_F32);
+		GConvertImage.convert(right,right_F32);
 
-		@Override
-		public void process() {
-			alg.process(left,right, outU8);
-		}
+		naive = new StereoDisparityWtoNaive<>(0, max, radiusX, radiusY);
+		sad_U8 = FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(min,max,radiusX,radiusY,
+				new ImplSelectRectStandard_S32_U8(250,2,0.1));
+		sad_F32 = FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(min,max,radiusX,radiusY,
+				new ImplSelectRectStandard_F32_U8(250,2,0.1));
+		sadSubpixel = FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(min,max,radiusX,radiusY,
+				new SelectRectSubpixel.S32_F32(250,2,0.1));
+		sadFive_U8 = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(min,max,radiusX,radiusY,
+				new ImplSelectRectStandard_S32_U8(250,2,0.1));
+		sgm = FactoryStereoDisparityAlgs.sgm(new ConfigDisparitySGM(min,max));
 	}
 
-	public static class EfficientSad_F32 extends PerformerBase {
-
-		//		DisparitySelect<int[],GrayU8> compDisp =
-//				new ImplSelectRectBasicWta_S32_U8();
-		DisparitySelect<float[],GrayU8> compDisp =
-				new ImplSelectRectStandard_F32_U8(250,2,0.1);
-		ImplDisparityScoreSadRect_F32<GrayU8> alg =
-				new ImplDisparityScoreSadRect_F32<>(min,max,radiusX,radiusY,compDisp);
-
-		@Override
-		public void process() {
-			alg.process(left_F32,right_F32, outU8);
-		}
+	@Benchmark
+	public void Naive() {
+		naive.process(left,right,out_F32);
 	}
 
-	public static class EfficientSubpixelSad extends PerformerBase {
-
-		DisparitySelect<int[],GrayF32> compDisp =
-				new SelectRectSubpixel.S32_F32(250,2,0.1);
-		ImplDisparityScoreSadRect_U8<GrayF32> alg =
-				new ImplDisparityScoreSadRect_U8<>(min,max,radiusX,radiusY,compDisp);
-
-		@Override
-		public void process() {
-			alg.process(left,right, out_F32);
-		}
+	@Benchmark
+	public void SadRect_U8() {
+		sad_U8.process(left,right,outU8);
 	}
 
-	public static class EfficientSadFive_U8 extends PerformerBase {
-
-		//		DisparitySelect<int[],GrayU8> compDisp =
-//				new ImplSelectRectBasicWta_S32_U8();
-		DisparitySelect<int[],GrayU8> compDisp =
-				new ImplSelectRectStandard_S32_U8(250,2,0.1);
-		ImplDisparityScoreSadRectFive_U8<GrayU8> alg =
-				new ImplDisparityScoreSadRectFive_U8<>(min,max,radiusX,radiusY,compDisp);
+	@Benchmark
+	public void SadRect_F32() {
+		sad_F32.process(left_F32,right_F32,outU8);
+	}
 
-		@Override
-		public void process() {
-			alg.process(left,right, outU8);
-		}
+	@Benchmark
+	public void SadRectSubpixel_U8() {
+		sadSubpixel.process(left,right,out_F32);
 	}
 
-	public static void main( String argsp[ ] ) {
-		System.out.println("=========  Image Size "+ width +" "+height+"  disparity "+max);
-		System.out.println();
+	@Benchmark
+	public void SadRectFive_U8() {
+		sadFive_U8.process(left,right,outU8);
+	}
 
-		GImageMiscOps.fillUniform(left, rand, 0, 30);
-		GImageMiscOps.fillUniform(right, rand, 0, 30);
-		GConvertImage.convert(left, left_F32);
-		GConvertImage.convert(right,right_F32);
+	@Benchmark
+	public void SGM_U8() {
+		sgm.process(left,right,outU8);
+	}
 
-		// the "fastest" seems to always be the first one tested
-		ProfileOperation.printOpsPerSec(new EfficientSad_U8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new EfficientSadFive_U8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new EfficientSad_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new EfficientSubpixelSad(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Naive(), TEST_TIME);
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDisparityAlgs.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
+		new Runner(opt).run();
 	}
 }
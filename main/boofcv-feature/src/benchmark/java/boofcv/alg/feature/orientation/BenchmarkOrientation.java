@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -15,191 +15,156 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package boofcv.alg.feature.orientation;
 
 import boofcv.abst.feature.orientation.*;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.transform.ii.GIntegralImageOps;
-import boofcv.core.image.GeneralizedImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.orientation.FactoryOrientation;
 import boofcv.factory.filter.derivative.FactoryDerivative;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.GrayS32;
-import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_I32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import static boofcv.factory.feature.orientation.FactoryOrientationAlgs.*;
 
-
 /**
+ * Benchmark for estimating the orientation of a fixed set of points
+ *
  * @author Peter Abeles
  */
-public class BenchmarkOrientation<I extends ImageGray<I>, D extends ImageGray<D>> {
-
-	static final long TEST_TIME = 1000;
-	static Random rand = new Random(234234);
-	static int NUM_POINTS = 1000;
-	static int RADIUS = 6;
-	static double OBJECt_TO_SCALE = 1.0/2.0;
-
-	final static int width = 640;
-	final static int height = 480;
-
-	I image;
-	D derivX;
-	D derivY;
-	ImageGray ii;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkOrientation {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	public int width = 640, height = 480;
+	public int numPoints = 1000;
+	public int radius = 6;
+	public double objectToScale = 1.0/2.0;
+
+	GrayF32 image = new GrayF32(1,1);
+	GrayF32 derivX = new GrayF32(1,1);
+	GrayF32 derivY = new GrayF32(1,1);
+	GrayF32 ii = new GrayF32(1,1);
 
 	Point2D_I32 pts[];
 	double radiuses[];
 
-	Class<I> imageType;
-	Class<D> derivType;
+	OrientationImage<GrayF32> sift, noGradient;
+	OrientationGradient<GrayF32> average, averageW, histogram, histogramW, sliding, slidingW;
+	OrientationIntegral<GrayF32> imageII, imageIIW, averageII, averageIIW, slidingII, slidingIIW;
 
-	public BenchmarkOrientation( Class<I> imageType , Class<D> derivType ) {
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234234);
 
-		this.imageType = imageType;
-		this.derivType = derivType;
-
-		Class integralType = GrayF32.class == imageType ? GrayF32.class : GrayS32.class;
-
-		image = GeneralizedImageOps.createSingleBand(imageType, width, height);
-		ii = GeneralizedImageOps.createSingleBand(integralType, width, height);
-		derivX = GeneralizedImageOps.createSingleBand(derivType, width, height);
-		derivY = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		image.reshape(width, height);
+		derivX.reshape(width, height);
+		derivY.reshape(width, height);
 
 		GImageMiscOps.fillUniform(image, rand, 0, 100);
 		GIntegralImageOps.transform(image,ii);
 
-		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
+		ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class,GrayF32.class);
 		gradient.process(image,derivX,derivY);
 
-		pts = new Point2D_I32[NUM_POINTS];
-		radiuses = new double[NUM_POINTS];
+		pts = new Point2D_I32[numPoints];
+		radiuses = new double[numPoints];
 		int border = 6;
-		for( int i = 0; i < NUM_POINTS; i++ ) {
+		for( int i = 0; i < numPoints; i++ ) {
 			int x = rand.nextInt(width-border*2)+border;
 			int y = rand.nextInt(height-border*2)+border;
 			pts[i] = new Point2D_I32(x,y);
 			radiuses[i] = rand.nextDouble()*100+10;
 		}
 
-	}
-
-	public class Gradient implements Performer {
-
-		OrientationGradient<D> alg;
-		String name;
-
-		public Gradient(String name, OrientationGradient<D> alg) {
-			this.alg = alg;
-			this.name = name;
-		}
-
-		@Override
-		public void process() {
-			alg.setImage(derivX,derivY);
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.setObjectRadius(radiuses[i]);
-				alg.compute(p.x,p.y);
-			}
-		}
+		ConfigAverageIntegral confAverageIIW = new ConfigAverageIntegral();
+		confAverageIIW.weightSigma = -1;
+		ConfigSlidingIntegral confSlidingIIW = new ConfigSlidingIntegral();
+		confSlidingIIW.weightSigma = -1;
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		sift = FactoryOrientation.sift(null,null,GrayF32.class);
+		noGradient = nogradient(objectToScale,radius,GrayF32.class);
+		average = average(objectToScale,radius,false,GrayF32.class);
+		averageW = average(objectToScale,radius,true,GrayF32.class);
+		histogram = histogram(0.5,15,radius,false,GrayF32.class);
+		histogramW = histogram(0.5,15,radius,true,GrayF32.class);
+		sliding = sliding(objectToScale,15,Math.PI/3.0,radius,false,GrayF32.class);
+		slidingW = sliding(objectToScale,15,Math.PI/3.0,radius,true,GrayF32.class);
+		imageII = image_ii(1.0/2.0,radius,1,4,0,GrayF32.class);
+		imageIIW = image_ii(1.0/2.0,radius,1,4,-1,GrayF32.class);
+		averageII = average_ii(null,GrayF32.class);
+		averageIIW = average_ii(confAverageIIW,GrayF32.class);
+		slidingII = sliding_ii(null,GrayF32.class);
+		slidingIIW = sliding_ii(confSlidingIIW,GrayF32.class);
 	}
 
-	public class Image implements Performer {
-
-		OrientationImage alg;
-		String name;
-
-		public Image(String name, OrientationImage alg) {
-			this.alg = alg;
-			this.name = name;
-		}
-
-		@Override
-		public void process() {
-			alg.setImage(image);
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.setObjectRadius(radiuses[i]);
-				alg.compute(p.x,p.y);
-			}
-		}
-
-		@Override
-		public String getName() {
-			return name;
+	private void process( OrientationImage<GrayF32> alg ) {
+		alg.setImage(image);
+		for( int i = 0; i < pts.length; i++ ) {
+			Point2D_I32 p = pts[i];
+			alg.setObjectRadius(radiuses[i]);
+			alg.compute(p.x,p.y);
 		}
 	}
 
-	public class Integral implements Performer {
-
-		OrientationIntegral alg;
-		String name;
-
-		public Integral(String name, OrientationIntegral alg) {
-			this.alg = alg;
-			this.name = name;
-		}
-
-		@Override
-		public void process() {
-			alg.setImage(ii);
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.setObjectRadius(radiuses[i]);
-				alg.compute(p.x,p.y);
-			}
-		}
-
-		@Override
-		public String getName() {
-			return name;
+	private void process( OrientationGradient<GrayF32> alg ) {
+		alg.setImage(derivX,derivY);
+		for( int i = 0; i < pts.length; i++ ) {
+			Point2D_I32 p = pts[i];
+			alg.setObjectRadius(radiuses[i]);
+			alg.compute(p.x,p.y);
 		}
 	}
 
-	public void perform() {
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
-		System.out.println();
-
-
-		ConfigAverageIntegral confAverageIIW = new ConfigAverageIntegral();
-		confAverageIIW.weightSigma = -1;
-		ConfigSlidingIntegral confSlidingIIW = new ConfigSlidingIntegral();
-		confSlidingIIW.weightSigma = -1;
-
-		ProfileOperation.printOpsPerSec(new Image("SIFT", FactoryOrientation.sift(null,null,imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Image("No Gradient", nogradient(OBJECt_TO_SCALE,RADIUS,imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Average", average(OBJECt_TO_SCALE,RADIUS,false,derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Average W", average(OBJECt_TO_SCALE,RADIUS, true, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Histogram", histogram(0.5,15, RADIUS, false, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Histogram W", histogram(0.5,15, RADIUS, true, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Sliding", sliding(OBJECt_TO_SCALE,15, Math.PI / 3.0, RADIUS, false, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Sliding W", sliding(OBJECt_TO_SCALE,15, Math.PI / 3.0, RADIUS, true, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Image II", image_ii(1.0/2.0,RADIUS, 1, 4, 0, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Image II W", image_ii(1.0/2.0,RADIUS, 1, 4, -1, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Average II", average_ii(null, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Average II W", average_ii(confAverageIIW, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Sliding II", sliding_ii(null, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Sliding II W", sliding_ii(confSlidingIIW, imageType)), TEST_TIME);
+	private void process( OrientationIntegral<GrayF32> alg ) {
+		alg.setImage(ii);
+		for( int i = 0; i < pts.length; i++ ) {
+			Point2D_I32 p = pts[i];
+			alg.setObjectRadius(radiuses[i]);
+			alg.compute(p.x,p.y);
+		}
 	}
 
-	public static void main( String argsp[ ] ) {
-		BenchmarkOrientation<GrayF32,GrayF32> alg = new BenchmarkOrientation<>(GrayF32.class, GrayF32.class);
-//		BenchmarkOrientation<GrayU8,GrayS16> alg = new BenchmarkOrientation<GrayU8,GrayS16>(GrayU8.class, GrayS16.class);
-
-		alg.perform();
+	@Benchmark public void SIFT() { process(sift); }
+	@Benchmark public void NoGradient() { process(noGradient); }
+	@Benchmark public void Average() { process(average); }
+	@Benchmark public void AverageW() { process(averageW); }
+	@Benchmark public void Histogram() { process(histogram); }
+	@Benchmark public void HistogramW() { process(histogramW); }
+	@Benchmark public void Sliding() { process(sliding); }
+	@Benchmark public void SlidingW() { process(slidingW); }
+	@Benchmark public void ImageII() { process(imageII); }
+	@Benchmark public void ImageIIW() { process(imageIIW); }
+	@Benchmark public void AverageII() { process(averageII); }
+	@Benchmark public void AverageIIW() { process(averageIIW); }
+	@Benchmark public void SlidingII() { process(slidingII); }
+	@Benchmark public void SlidingIIW() { process(slidingIIW); }
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkOrientation.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
+
+		new Runner(opt).run();
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,106 +21,97 @@ package boofcv.alg.feature.peak;
 import boofcv.alg.feature.detect.peak.MeanShiftPeak;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.weights.WeightPixelGaussian_F32;
-import boofcv.alg.weights.WeightPixel_F32;
+import boofcv.alg.weights.WeightPixelUniform_F32;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_F32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Benchmark for mean-shift peak finding started at random locations in a random image
+ *
  * @author Peter Abeles
  */
-public class BenchmarkPeakFinding<T extends ImageGray<T>> {
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkPeakFinding {
+
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	Random rand = new Random(234);
-	long TEST_TIME = 2000;
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
-	int width = 320;
-	int height = 240;
+	public int width = 320, height = 240;
+	public int radius = 2;
 
-	T image;
-	Class<T> imageType;
+	ImageGray image;
 	List<Point2D_F32> locations = new ArrayList<>();
 
-	public BenchmarkPeakFinding( Class<T> imageType ) {
-		this.imageType = imageType;
-		image = GeneralizedImageOps.createSingleBand(imageType,width,height);
-		GImageMiscOps.fillUniform(image, rand, 0, 200);
+	MeanShiftPeak gaussian;
+	MeanShiftPeak uniform;
 
-		for( int i = 0; i < 3000; i++ ) {
-			Point2D_F32 p = new Point2D_F32();
-			p.x = rand.nextFloat()*width;
-			p.y = rand.nextFloat()*height;
-			locations.add(p);
-		}
-	}
-
-	public class MeanShiftGaussian extends PerformerBase {
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
 
-		MeanShiftPeak alg;
+		Class<ImageGray> type = imageType.equals("GrayU8") ? (Class)GrayU8.class : (Class)GrayF32.class;
+		image = GeneralizedImageOps.createSingleBand(type,width,height);
+		GImageMiscOps.fillUniform(image, rand, 0, 200);
 
-		public MeanShiftGaussian( int radius ) {
-			WeightPixel_F32 weight = new WeightPixelGaussian_F32();
-			this.alg = new MeanShiftPeak(30,0.1f,weight,imageType);
-			alg.setRadius(radius);
+		locations.clear();
+		for( int i = 0; i < 3000; i++ ) {
+			locations.add(new Point2D_F32(rand.nextFloat()*width,rand.nextFloat()*height));
 		}
 
-		@Override
-		public void process() {
-			alg.setImage(image);
-			for( int i = 0; i < locations.size(); i++ ) {
-				Point2D_F32 p = locations.get(i);
-				alg.search(p.x,p.y);
-			}
-		}
+		gaussian = new MeanShiftPeak(30,0.1f,new WeightPixelGaussian_F32(),type);
+		gaussian.setRadius(radius);
+		uniform = new MeanShiftPeak(30,0.1f,new WeightPixelUniform_F32(),type);
+		uniform.setRadius(radius);
 	}
 
-	public class MeanShiftUniform extends PerformerBase {
-
-		MeanShiftPeak alg;
-
-		public MeanShiftUniform( int radius ) {
-			WeightPixel_F32 weight = new WeightPixelGaussian_F32();
-			this.alg = new MeanShiftPeak(30,0.1f,weight,imageType);
-			alg.setRadius(radius);
-		}
-
-		@Override
-		public void process() {
-			alg.setImage(image);
-			for( int i = 0; i < locations.size(); i++ ) {
-				Point2D_F32 p = locations.get(i);
-				alg.search(p.x,p.y);
-			}
+	private void search( MeanShiftPeak alg ) {
+		alg.setImage(image);
+		for( int i = 0; i < locations.size(); i++ ) {
+			Point2D_F32 p = locations.get(i);
+			alg.search(p.x,p.y);
 		}
 	}
 
-	public void evaluateAll() {
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
-		System.out.println();
-
-		int radius = 2;
-
-		ProfileOperation.printOpsPerSec(new MeanShiftGaussian(radius), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new MeanShiftUniform(radius), TEST_TIME);
+	@Benchmark
+	public void MeanShiftGaussian() {
+		search(gaussian);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkPeakFinding<GrayU8>
-				benchmark_U8 = new BenchmarkPeakFinding<>(GrayU8.class);
-
-		benchmark_U8.evaluateAll();
+	@Benchmark
+	public void MeanShiftUniform() {
+		search(uniform);
+	}
 
-		BenchmarkPeakFinding<GrayF32>
-				benchmark_F32 = new BenchmarkPeakFinding<>(GrayF32.class);
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkPeakFinding.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
 
-		benchmark_F32.evaluateAll();
+		new Runner(opt).run();
 	}
 }
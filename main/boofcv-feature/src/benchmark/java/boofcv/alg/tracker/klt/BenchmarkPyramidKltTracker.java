@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.tracker.klt;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.tracker.FactoryTrackerAlg;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link PyramidKltTracker}. A grid of features is described in a randomly textured image and then
+ * tracked into a second image which has been shifted by a known amount.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkPyramidKltTracker {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	public int width = 640, height = 480;
+	public int featureRadius = 5;
+	public int spacing = 10;
+	public int offsetX = 3, offsetY = -2;
+
+	GrayF32 imageA = new GrayF32(1,1);
+	GrayF32 imageB = new GrayF32(1,1);
+
+	PyramidDiscrete<GrayF32> pyramidA, pyramidB;
+	GrayF32[] derivX, derivY;
+
+	PyramidKltTracker<GrayF32,GrayF32> tracker;
+	PyramidKltFeature[] features;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		// smooth the noise so that there's structure across several pyramid layers
+		GrayF32 noise = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(noise,new Random(234),0,255);
+		imageA.reshape(width,height);
+		GBlurImageOps.gaussian(noise,imageA,-1,2,null);
+
+		// second frame is the first one shifted
+		imageB.reshape(width,height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int xx = Math.min(width-1,Math.max(0,x-offsetX));
+				int yy = Math.min(height-1,Math.max(0,y-offsetY));
+				imageB.unsafe_set(x,y,imageA.unsafe_get(xx,yy));
+			}
+		}
+
+		int[] scales = new int[]{1,2,4,8};
+		pyramidA = FactoryPyramid.discreteGaussian(scales,-1,2,false, ImageType.single(GrayF32.class));
+		pyramidB = FactoryPyramid.discreteGaussian(scales,-1,2,false, ImageType.single(GrayF32.class));
+		pyramidA.process(imageA);
+		pyramidB.process(imageB);
+
+		derivX = PyramidOps.declareOutput(pyramidA,GrayF32.class);
+		derivY = PyramidOps.declareOutput(pyramidA,GrayF32.class);
+		ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class,GrayF32.class);
+		PyramidOps.gradient(pyramidA,gradient,derivX,derivY);
+
+		tracker = FactoryTrackerAlg.kltPyramid(null,GrayF32.class,GrayF32.class);
+
+		int border = featureRadius*scales[scales.length-1];
+		int cols = (width-2*border)/spacing;
+		int rows = (height-2*border)/spacing;
+		features = new PyramidKltFeature[rows*cols];
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				PyramidKltFeature f = new PyramidKltFeature(scales.length,featureRadius);
+				f.setPosition(border+j*spacing,border+i*spacing);
+				features[i*cols+j] = f;
+			}
+		}
+
+		// tracking requires a description to have already been computed
+		Describe();
+	}
+
+	@Benchmark
+	public void Describe() {
+		tracker.setImage(pyramidA,derivX,derivY);
+		for (int i = 0; i < features.length; i++) {
+			tracker.setDescription(features[i]);
+		}
+	}
+
+	@Benchmark
+	public int Track() {
+		tracker.setImage(pyramidB);
+		int success = 0;
+		for (int i = 0; i < features.length; i++) {
+			PyramidKltFeature f = features[i];
+			float x = f.x, y = f.y;
+			if( tracker.track(f) == KltTrackFault.SUCCESS )
+				success++;
+			// reset so that every iteration tracks the same motion
+			f.setPosition(x,y);
+		}
+		return success;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkPyramidKltTracker.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
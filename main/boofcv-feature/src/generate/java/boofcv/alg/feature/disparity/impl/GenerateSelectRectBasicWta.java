@@ -56,7 +56,8 @@ public class GenerateSelectRectBasicWta extends CodeGeneratorBase {
 	}
 
 	private void printPreamble() {
-		out.print("import boofcv.alg.feature.disparity.SelectRectBasicWta;\n" +
+		out.print("import boofcv.alg.feature.disparity.DisparitySelect;\n" +
+				"import boofcv.alg.feature.disparity.SelectRectBasicWta;\n" +
 				"import boofcv.struct.image."+typeDisparity+";\n" +
 				"\n" +
 				"/**\n" +
@@ -103,6 +104,11 @@ public class GenerateSelectRectBasicWta extends CodeGeneratorBase {
 				"\tpublic Class<"+typeDisparity+"> getDisparityType() {\n" +
 				"\t\treturn "+typeDisparity+".class;\n" +
 				"\t}\n" +
+				"\n" +
+				"\t@Override\n" +
+				"\tpublic DisparitySelect<"+sumType+"[],"+typeDisparity+"> concurrentCopy() {\n" +
+				"\t\treturn new "+className+"();\n" +
+				"\t}\n" +
 				"}");
 	}
 
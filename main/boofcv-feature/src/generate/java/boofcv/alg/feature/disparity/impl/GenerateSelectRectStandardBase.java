@@ -94,6 +94,11 @@ public class GenerateSelectRectStandardBase extends CodeGeneratorBase {
 		out.print("\n" +
 				"\tpublic "+className+"(int maxError, int rightToLeftTolerance, double texture) {\n" +
 				"\t\tsuper(maxError,rightToLeftTolerance,texture);\n" +
+				"\t}\n" +
+				"\n" +
+				"\tprotected "+className+"( "+className+"<T> original ) {\n" +
+				"\t\tsuper(original);\n" +
+				"\t\tthis.textureThreshold = original.textureThreshold;\n" +
 				"\t}\n\n");
 	}
 
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * {@link NearestNeighbor} which can be searched by multiple threads at the same time. The data structure is
+ * read only while searching and all the state used by a search is contained inside of a {@link Search}.
+ * Each thread should have its own {@link Search}.
+ *
+ * @author Peter Abeles
+ */
+public interface ConcurrentNearestNeighbor<P> extends NearestNeighbor<P> {
+
+	/**
+	 * Creates a new search which references this data structure. A search must be created again after
+	 * the points have been changed.
+	 */
+	Search<P> createSearch();
+
+	/**
+	 * Storage for the state of a search. See {@link NearestNeighbor} for a description of each function.
+	 */
+	interface Search<P> {
+		/**
+		 * @see NearestNeighbor#findNearest(Object, double, NnData)
+		 */
+		boolean findNearest( P p , double maxDistance , NnData<P> result );
+
+		/**
+		 * @see NearestNeighbor#findNearest(Object, double, int, FastQueue)
+		 */
+		void findNearest( P p , double maxDistance , int numNeighbors , FastQueue<NnData<P>> results );
+	}
+}
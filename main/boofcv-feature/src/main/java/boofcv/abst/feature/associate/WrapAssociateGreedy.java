@@ -121,4 +121,8 @@ public class WrapAssociateGreedy<T> implements AssociateDescription<T> {
 	public boolean uniqueDestination() {
 		return alg.isBackwardsValidation();
 	}
+
+	public AssociateGreedy<T> getAlgorithm() {
+		return alg;
+	}
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.abst.feature.describe.ConfigBrief;
+import boofcv.abst.feature.detect.interest.ConfigFastCorner;
+import boofcv.alg.feature.detdesc.CompleteOrb;
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for {@link CompleteOrb}.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigCompleteOrb implements Configuration {
+
+	/**
+	 * Total number of features it will try to detect across all the levels
+	 */
+	public int maxFeatures = 1000;
+
+	/**
+	 * Number of levels in the scale pyramid
+	 */
+	public int numLevels = 8;
+
+	/**
+	 * Scale factor between two levels in the pyramid
+	 */
+	public double scaleFactor = 1.2;
+
+	/**
+	 * FAST corner detector. maxFeatures is ignored.
+	 */
+	public ConfigFastCorner fast = new ConfigFastCorner(20,9);
+
+	/**
+	 * If true then corners are ranked by their Harris score. Otherwise the FAST score is used.
+	 */
+	public boolean harrisRanking = true;
+
+	/**
+	 * Radius of the square region the Harris score is computed inside of
+	 */
+	public int harrisRadius = 3;
+
+	/**
+	 * Width of a grid cell in pixels. Features are spread out so that each cell gets its share of the features
+	 * before the remaining best features are selected. If &le; 0 then the grid is disabled.
+	 */
+	public int gridCellWidth = 32;
+
+	/**
+	 * Radius of the circle which the intensity centroid is computed inside of to find the orientation
+	 */
+	public int orientationRadius = 15;
+
+	/**
+	 * BRIEF descriptor. The 'fixed' flag is ignored since it's always oriented.
+	 */
+	public ConfigBrief brief = new ConfigBrief(15,256,2,3,false);
+
+	@Override
+	public void checkValidity() {
+		if( maxFeatures <= 0 )
+			throw new IllegalArgumentException("maxFeatures must be more than zero");
+		if( numLevels <= 0 )
+			throw new IllegalArgumentException("Must have at least one level");
+		if( scaleFactor <= 1.0 )
+			throw new IllegalArgumentException("scaleFactor must be more than one");
+		if( harrisRadius <= 0 || harrisRadius >= orientationRadius )
+			throw new IllegalArgumentException("harrisRadius must be more than zero and less than orientationRadius");
+		fast.checkValidity();
+		brief.checkValidity();
+	}
+}
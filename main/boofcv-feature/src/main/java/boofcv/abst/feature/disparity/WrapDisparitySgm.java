@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.disparity;
+
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * Wrapper around {@link SgmStereoDisparity} for {@link StereoDisparity}
+ *
+ * @author Peter Abeles
+ */
+public class WrapDisparitySgm implements StereoDisparity<GrayU8,GrayU8>
+{
+	SgmStereoDisparity alg;
+	GrayU8 disparity = new GrayU8(1,1);
+
+	public WrapDisparitySgm(SgmStereoDisparity alg) {
+		this.alg = alg;
+	}
+
+	@Override
+	public void process(GrayU8 imageLeft, GrayU8 imageRight) {
+		alg.process(imageLeft,imageRight,disparity);
+	}
+
+	@Override
+	public GrayU8 getDisparity() {
+		return disparity;
+	}
+
+	@Override
+	public int getMinDisparity() {
+		return alg.getMinDisparity();
+	}
+
+	@Override
+	public int getMaxDisparity() {
+		return alg.getMaxDisparity();
+	}
+
+	@Override
+	public int getBorderX() {
+		return 0;
+	}
+
+	@Override
+	public int getBorderY() {
+		return 0;
+	}
+
+	@Override
+	public Class<GrayU8> getInputType() {
+		return GrayU8.class;
+	}
+
+	@Override
+	public Class<GrayU8> getDisparityType() {
+		return GrayU8.class;
+	}
+
+	public SgmStereoDisparity getAlg() {
+		return alg;
+	}
+}
@@ -19,11 +19,13 @@
 package boofcv.alg.background.moving;
 
 import boofcv.struct.distort.Point2Transform2Model_F32;
+import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
 import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
 
 /**
  * Implementation of {@link BackgroundMovingGmm} for {@link ImageGray}.
@@ -46,20 +48,32 @@ public class BackgroundMovingGmm_MB<T extends ImageMultiBand<T>, Motion extends
 		transform.setModel(worldToCurrent);
 
 		for (int y = y0; y < y1; y++) {
-			float modelRow[] = common.model.data[y];
-			for (int x = x0; x < x1; x++) {
-				int indexModel = x*common.modelStride;
+			updateRow(x0, x1, y, frame, transform, work, common.inputPixel);
+		}
+	}
+
+	/**
+	 * Updates the background model along a row inside the specified columns
+	 *
+	 * @param transform Transform from background to the current frame
+	 * @param work Storage for the transformed point
+	 * @param inputPixel Storage for the value of a pixel
+	 */
+	protected void updateRow( int x0 , int x1 , int y , T frame ,
+							  Point2Transform2_F32 transform , Point2D_F32 work , float[] inputPixel ) {
+		float modelRow[] = common.model.data[y];
+		for (int x = x0; x < x1; x++) {
+			int indexModel = x*common.modelStride;
 
-				transform.compute(x,y,work);
-				int xx = (int)(work.x+0.5f);
-				int yy = (int)(work.y+0.5f);
+			transform.compute(x,y,work);
+			int xx = (int)(work.x+0.5f);
+			int yy = (int)(work.y+0.5f);
 
-				if( work.x >= 0 && xx < frame.width && work.y >= 0 && yy < frame.height) {
+			if( work.x >= 0 && xx < frame.width && work.y >= 0 && yy < frame.height) {
 
-					common.inputWrapperMB.get(xx,yy,common.inputPixel);
+				common.inputWrapperMB.get(xx,yy,inputPixel);
 
-					common.updateMixture(common.inputPixel,modelRow,indexModel); // TODO assigned mask here
-				}
+				common.updateMixture(inputPixel,modelRow,indexModel); // TODO assigned mask here
 			}
 		}
 	}
@@ -71,26 +85,38 @@ public class BackgroundMovingGmm_MB<T extends ImageMultiBand<T>, Motion extends
 		common.unknownValue = unknownValue;
 
 		for (int y = 0; y < frame.height; y++) {
-			int indexOut = segmented.startIndex + y*segmented.stride;
-			for (int x = 0; x < frame.width; x++, indexOut++) {
+			segmentRow(y, frame, segmented, transform, work, common.inputPixel);
+		}
+	}
+
+	/**
+	 * Segments a row in the current frame
+	 *
+	 * @param transform Transform from the current frame to the background
+	 * @param work Storage for the transformed point
+	 * @param inputPixel Storage for the value of a pixel
+	 */
+	protected void segmentRow( int y , T frame , GrayU8 segmented ,
+							   Point2Transform2_F32 transform , Point2D_F32 work , float[] inputPixel ) {
+		int indexOut = segmented.startIndex + y*segmented.stride;
+		for (int x = 0; x < frame.width; x++, indexOut++) {
 
-				transform.compute(x,y,work);
+			transform.compute(x,y,work);
 
-				int xx = (int)(work.x+0.5f);
-				int yy = (int)(work.y+0.5f);
+			int xx = (int)(work.x+0.5f);
+			int yy = (int)(work.y+0.5f);
 
-				if( work.x >= 0 && xx < backgroundWidth && work.y >= 0 && yy < backgroundHeight) {
+			if( work.x >= 0 && xx < backgroundWidth && work.y >= 0 && yy < backgroundHeight) {
 
-					common.inputWrapperMB.get(x,y,common.inputPixel);
+				common.inputWrapperMB.get(x,y,inputPixel);
 
-					float modelRow[] = common.model.data[yy];
-					int indexModel = xx*common.modelStride;
+				float modelRow[] = common.model.data[yy];
+				int indexModel = xx*common.modelStride;
 
-					segmented.data[indexOut] = (byte)common.checkBackground(common.inputPixel, modelRow, indexModel);
-				}else {
-					// there is no background here.  Just mark it as not moving to avoid false positives
-					segmented.data[indexOut] = unknownValue;
-				}
+				segmented.data[indexOut] = (byte)common.checkBackground(inputPixel, modelRow, indexModel);
+			}else {
+				// there is no background here.  Just mark it as not moving to avoid false positives
+				segmented.data[indexOut] = unknownValue;
 			}
 		}
 	}
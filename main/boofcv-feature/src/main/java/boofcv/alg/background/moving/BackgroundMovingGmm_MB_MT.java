@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.moving;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.Point2Transform2Model_F32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageMultiBand;
+import boofcv.struct.image.ImageType;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
+
+import java.util.ArrayDeque;
+
+/**
+ * Concurrent implementation of {@link BackgroundMovingGmm_MB}. When updating, each thread is assigned a
+ * block of rows in the background model. When segmenting, each thread is assigned a block of rows in the
+ * current frame. Every thread has its own copy of the point transform. The results are identical to the
+ * single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundMovingGmm_MB_MT<T extends ImageMultiBand<T>, Motion extends InvertibleTransform<Motion>>
+	extends BackgroundMovingGmm_MB<T,Motion>
+{
+	// storage for each thread which is recycled between calls
+	private final ArrayDeque<ThreadData> available = new ArrayDeque<>();
+
+	public BackgroundMovingGmm_MB_MT(float learningPeriod, float decayCoef, int maxGaussians,
+									 Point2Transform2Model_F32<Motion> transformImageType, ImageType<T> imageType)
+	{
+		super(learningPeriod, decayCoef, maxGaussians, transformImageType, imageType);
+	}
+
+	@Override
+	protected void updateBackground(int x0, int y0, int x1, int y1, T frame) {
+		common.inputWrapperMB.wrap(frame);
+
+		BoofConcurrency.loopBlocks(y0,y1,(row0,row1)->{
+			ThreadData data = popThreadData(worldToCurrent);
+			for (int y = row0; y < row1; y++) {
+				updateRow(x0,x1,y,frame,data.transform,data.work,data.inputPixel);
+			}
+			pushThreadData(data);
+		});
+	}
+
+	@Override
+	protected void _segment(Motion currentToWorld, T frame, GrayU8 segmented) {
+		common.inputWrapperMB.wrap(frame);
+		common.unknownValue = unknownValue;
+
+		BoofConcurrency.loopBlocks(0,frame.height,(row0,row1)->{
+			ThreadData data = popThreadData(currentToWorld);
+			for (int y = row0; y < row1; y++) {
+				segmentRow(y,frame,segmented,data.transform,data.work,data.inputPixel);
+			}
+			pushThreadData(data);
+		});
+	}
+
+	private ThreadData popThreadData( Motion model ) {
+		ThreadData data;
+		synchronized (available) {
+			data = available.isEmpty() ? new ThreadData() : available.pop();
+		}
+		data.transform.setModel(model);
+		return data;
+	}
+
+	private void pushThreadData( ThreadData data ) {
+		synchronized (available) {
+			available.push(data);
+		}
+	}
+
+	private class ThreadData {
+		final Point2Transform2Model_F32<Motion> transform;
+		final Point2D_F32 work = new Point2D_F32();
+		final float[] inputPixel = new float[common.numBands];
+
+		@SuppressWarnings("unchecked")
+		ThreadData() {
+			Point2Transform2Model_F32<Motion> original = BackgroundMovingGmm_MB_MT.this.transform;
+			transform = (Point2Transform2Model_F32<Motion>)original.copy();
+		}
+	}
+}
@@ -56,26 +56,42 @@ public class BackgroundStationaryGmm_MB<T extends ImageMultiBand<T>>
 		super.updateBackground(frame, mask);
 
 		common.inputWrapperMB.wrap(frame);
-		final int pixelStride = common.inputWrapperMB.getPixelStride();
+		updateRows(frame, mask);
+	}
+
+	/**
+	 * Updates the model for every row in the image
+	 */
+	protected void updateRows( T frame , @Nullable GrayU8 mask ) {
 		for (int row = 0; row < common.imageHeight; row++) {
-			int inputIndex = frame.getIndex(0,row);
-			float[] dataRow = common.model.data[row];
-
-			if( mask == null ) {
-				for (int col = 0; col < common.imageWidth; col++, inputIndex += pixelStride) {
-					common.inputWrapperMB.getF(inputIndex,common.inputPixel);
-					int modelIndex = col * common.modelStride;
-
-					common.updateMixture(common.inputPixel, dataRow, modelIndex);
-				}
-			} else {
-				int indexMask = mask.startIndex + row*mask.stride;
-				for (int col = 0; col < common.imageWidth; col++, inputIndex += pixelStride) {
-					common.inputWrapperMB.getF(inputIndex,common.inputPixel);
-					int modelIndex = col * common.modelStride;
-
-					mask.data[indexMask++] = (byte)common.updateMixture(common.inputPixel, dataRow, modelIndex);
-				}
+			updateRow(row, frame, mask, common.inputPixel);
+		}
+	}
+
+	/**
+	 * Updates the model for every pixel in a row and optionally marks the pixel in the mask
+	 *
+	 * @param inputPixel Storage for the value of a pixel
+	 */
+	protected void updateRow( int row , T frame , @Nullable GrayU8 mask , float[] inputPixel ) {
+		final int pixelStride = common.inputWrapperMB.getPixelStride();
+		int inputIndex = frame.getIndex(0,row);
+		float[] dataRow = common.model.data[row];
+
+		if( mask == null ) {
+			for (int col = 0; col < common.imageWidth; col++, inputIndex += pixelStride) {
+				common.inputWrapperMB.getF(inputIndex,inputPixel);
+				int modelIndex = col * common.modelStride;
+
+				common.updateMixture(inputPixel, dataRow, modelIndex);
+			}
+		} else {
+			int indexMask = mask.startIndex + row*mask.stride;
+			for (int col = 0; col < common.imageWidth; col++, inputIndex += pixelStride) {
+				common.inputWrapperMB.getF(inputIndex,inputPixel);
+				int modelIndex = col * common.modelStride;
+
+				mask.data[indexMask++] = (byte)common.updateMixture(inputPixel, dataRow, modelIndex);
 			}
 		}
 	}
@@ -89,18 +105,34 @@ public class BackgroundStationaryGmm_MB<T extends ImageMultiBand<T>>
 		}
 		common.unknownValue = unknownValue;
 		common.inputWrapperMB.wrap(frame);
-		final int pixelStride = common.inputWrapperMB.getPixelStride();
+		segmentRows(frame, segmented);
+	}
+
+	/**
+	 * Segments every row in the image
+	 */
+	protected void segmentRows( T frame , GrayU8 segmented ) {
 		for (int row = 0; row < common.imageHeight; row++) {
-			int indexIn = frame.getIndex(0,row);
-			int indexOut = segmented.startIndex + row*segmented.stride;
-			float[] dataRow = common.model.data[row];
+			segmentRow(row, frame, segmented, common.inputPixel);
+		}
+	}
 
-			for (int col = 0; col < common.imageWidth; col++, indexIn += pixelStride) {
-				common.inputWrapperMB.getF(indexIn,common.inputPixel);
-				int modelIndex = col * common.modelStride;
+	/**
+	 * Segments every pixel in a row
+	 *
+	 * @param inputPixel Storage for the value of a pixel
+	 */
+	protected void segmentRow( int row , T frame , GrayU8 segmented , float[] inputPixel ) {
+		final int pixelStride = common.inputWrapperMB.getPixelStride();
+		int indexIn = frame.getIndex(0,row);
+		int indexOut = segmented.startIndex + row*segmented.stride;
+		float[] dataRow = common.model.data[row];
 
-				segmented.data[indexOut++] = (byte)common.checkBackground(common.inputPixel, dataRow, modelIndex);
-			}
+		for (int col = 0; col < common.imageWidth; col++, indexIn += pixelStride) {
+			common.inputWrapperMB.getF(indexIn,inputPixel);
+			int modelIndex = col * common.modelStride;
+
+			segmented.data[indexOut++] = (byte)common.checkBackground(inputPixel, dataRow, modelIndex);
 		}
 	}
 }
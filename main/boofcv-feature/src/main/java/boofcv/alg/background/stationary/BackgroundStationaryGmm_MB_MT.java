@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.FWorkArrays;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageMultiBand;
+import boofcv.struct.image.ImageType;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent implementation of {@link BackgroundStationaryGmm_MB}. The mixture for each pixel only depends on
+ * that pixel, so the rows are split up between the threads. The results are identical to the single threaded
+ * version.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundStationaryGmm_MB_MT<T extends ImageMultiBand<T>>
+		extends BackgroundStationaryGmm_MB<T>
+{
+	// storage for the value of a pixel in each thread
+	private final FWorkArrays workArrays;
+
+	/**
+	 * @see BackgroundStationaryGmm_MB#BackgroundStationaryGmm_MB
+	 */
+	public BackgroundStationaryGmm_MB_MT(float learningPeriod, float decayCoef,
+										 int maxGaussians, ImageType<T> imageType )
+	{
+		super(learningPeriod, decayCoef, maxGaussians, imageType);
+		workArrays = new FWorkArrays(imageType.getNumBands());
+	}
+
+	@Override
+	protected void updateRows( T frame , @Nullable GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(0,common.imageHeight,(row0,row1)->{
+			float[] inputPixel = workArrays.pop();
+			for (int row = row0; row < row1; row++) {
+				updateRow(row,frame,mask,inputPixel);
+			}
+			workArrays.recycle(inputPixel);
+		});
+	}
+
+	@Override
+	protected void segmentRows( T frame , GrayU8 segmented ) {
+		BoofConcurrency.loopBlocks(0,common.imageHeight,(row0,row1)->{
+			float[] inputPixel = workArrays.pop();
+			for (int row = row0; row < row1; row++) {
+				segmentRow(row,frame,segmented,inputPixel);
+			}
+			workArrays.recycle(inputPixel);
+		});
+	}
+}
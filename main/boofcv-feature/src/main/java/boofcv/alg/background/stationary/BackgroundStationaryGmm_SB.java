@@ -52,25 +52,39 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 		super.updateBackground(frame, mask);
 
 		common.inputWrapperG.wrap(frame);
+		updateRows(frame, mask);
+	}
+
+	/**
+	 * Updates the model for every row in the image
+	 */
+	protected void updateRows( T frame , @Nullable GrayU8 mask ) {
 		for (int row = 0; row < common.imageHeight; row++) {
-			int inputIndex = frame.startIndex + row*frame.stride;
-			float[] dataRow = common.model.data[row];
-
-			if( mask == null ) {
-				for (int col = 0; col < common.imageWidth; col++) {
-					float pixelValue = common.inputWrapperG.getF(inputIndex++);
-					int modelIndex = col * common.modelStride;
-
-					common.updateMixture(pixelValue, dataRow, modelIndex);
-				}
-			} else {
-				int indexMask = mask.startIndex + row*mask.stride;
-				for (int col = 0; col < common.imageWidth; col++) {
-					float pixelValue = common.inputWrapperG.getF(inputIndex++);
-					int modelIndex = col * common.modelStride;
-
-					mask.data[indexMask++] = (byte)common.updateMixture(pixelValue, dataRow, modelIndex);
-				}
+			updateRow(row, frame, mask);
+		}
+	}
+
+	/**
+	 * Updates the model for every pixel in a row and optionally marks the pixel in the mask
+	 */
+	protected void updateRow( int row , T frame , @Nullable GrayU8 mask ) {
+		int inputIndex = frame.startIndex + row*frame.stride;
+		float[] dataRow = common.model.data[row];
+
+		if( mask == null ) {
+			for (int col = 0; col < common.imageWidth; col++) {
+				float pixelValue = common.inputWrapperG.getF(inputIndex++);
+				int modelIndex = col * common.modelStride;
+
+				common.updateMixture(pixelValue, dataRow, modelIndex);
+			}
+		} else {
+			int indexMask = mask.startIndex + row*mask.stride;
+			for (int col = 0; col < common.imageWidth; col++) {
+				float pixelValue = common.inputWrapperG.getF(inputIndex++);
+				int modelIndex = col * common.modelStride;
+
+				mask.data[indexMask++] = (byte)common.updateMixture(pixelValue, dataRow, modelIndex);
 			}
 		}
 	}
@@ -85,17 +99,31 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 
 		common.unknownValue = unknownValue;
 		common.inputWrapperG.wrap(frame);
+		segmentRows(frame, segmented);
+	}
+
+	/**
+	 * Segments every row in the image
+	 */
+	protected void segmentRows( T frame , GrayU8 segmented ) {
 		for (int row = 0; row < common.imageHeight; row++) {
-			int indexIn = frame.startIndex + row*frame.stride;
-			int indexOut = segmented.startIndex + row*segmented.stride;
-			float[] dataRow = common.model.data[row];
+			segmentRow(row, frame, segmented);
+		}
+	}
 
-			for (int col = 0; col < common.imageWidth; col++) {
-				float pixelValue = common.inputWrapperG.getF(indexIn++);
-				int modelIndex = col * common.modelStride;
+	/**
+	 * Segments every pixel in a row
+	 */
+	protected void segmentRow( int row , T frame , GrayU8 segmented ) {
+		int indexIn = frame.startIndex + row*frame.stride;
+		int indexOut = segmented.startIndex + row*segmented.stride;
+		float[] dataRow = common.model.data[row];
 
-				segmented.data[indexOut++] = (byte)common.checkBackground(pixelValue, dataRow, modelIndex);
-			}
+		for (int col = 0; col < common.imageWidth; col++) {
+			float pixelValue = common.inputWrapperG.getF(indexIn++);
+			int modelIndex = col * common.modelStride;
+
+			segmented.data[indexOut++] = (byte)common.checkBackground(pixelValue, dataRow, modelIndex);
 		}
 	}
 }
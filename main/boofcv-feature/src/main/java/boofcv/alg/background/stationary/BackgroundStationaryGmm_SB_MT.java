@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent implementation of {@link BackgroundStationaryGmm_SB}. The mixture for each pixel only depends on
+ * that pixel, so the rows are split up between the threads. The results are identical to the single threaded
+ * version.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundStationaryGmm_SB_MT<T extends ImageGray<T>>
+		extends BackgroundStationaryGmm_SB<T>
+{
+	/**
+	 * @see BackgroundStationaryGmm_SB#BackgroundStationaryGmm_SB
+	 */
+	public BackgroundStationaryGmm_SB_MT(float learningPeriod, float decayCoef,
+										 int maxGaussians, ImageType<T> imageType )
+	{
+		super(learningPeriod, decayCoef, maxGaussians, imageType);
+	}
+
+	@Override
+	protected void updateRows( T frame , @Nullable GrayU8 mask ) {
+		BoofConcurrency.loopFor(0,common.imageHeight,row->updateRow(row,frame,mask));
+	}
+
+	@Override
+	protected void segmentRows( T frame , GrayU8 segmented ) {
+		BoofConcurrency.loopFor(0,common.imageHeight,row->segmentRow(row,frame,segmented));
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.descriptor;
+
+import boofcv.abst.feature.associate.ConcurrentNearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.nn.alg.*;
+import org.ddogleg.nn.alg.searches.KdTreeSearch1Bbf;
+import org.ddogleg.nn.alg.searches.KdTreeSearchNBbf;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.List;
+
+/**
+ * Approximate nearest neighbor search using one or more K-D trees and a best-bin-first search, like
+ * {@link org.ddogleg.nn.wrap.KdForestBbfSearch}, but the trees can be searched by multiple threads at the same time.
+ * With a single tree and {@link AxisSplitterMedian} it's equivalent to
+ * {@link org.ddogleg.nn.FactoryNearestNeighbor#kdtree(KdTreeDistance, int)} and with multiple trees and
+ * {@link AxisSplitRuleRandomK} it's equivalent to
+ * {@link org.ddogleg.nn.FactoryNearestNeighbor#kdRandomForest(KdTreeDistance, int, int, int, long)}.
+ *
+ * @author Peter Abeles
+ */
+public class KdForestBbfSearch_MT<P> implements ConcurrentNearestNeighbor<P> {
+
+	// the trees which are searched
+	private final KdTree[] forest;
+
+	// used to construct the trees
+	private final KdTreeMemory<P> memory = new KdTreeMemory<>();
+	private final KdTreeConstructor<P> constructor;
+	private final KdTreeDistance<P> distance;
+
+	// Maximum number of nodes it will search
+	private final int maxNodesSearched;
+
+	// search used when called from the NearestNeighbor interface
+	private Search<P> search;
+
+	/**
+	 * Configures the search
+	 *
+	 * @param numTrees Number of trees
+	 * @param maxNodesSearched Maximum number of nodes it will search. Controls speed and accuracy.
+	 * @param distance Distance between two points
+	 * @param splitter Splits the points when constructing a tree
+	 */
+	public KdForestBbfSearch_MT( int numTrees, int maxNodesSearched,
+								 KdTreeDistance<P> distance, AxisSplitter<P> splitter ) {
+		this.forest = new KdTree[numTrees];
+		this.maxNodesSearched = maxNodesSearched;
+		this.distance = distance;
+		this.constructor = new KdTreeConstructor<>(memory, splitter);
+	}
+
+	@Override
+	public void setPoints(List<P> points, boolean trackIndicies) {
+		if( forest[0] != null ) {
+			for (int i = 0; i < forest.length; i++) {
+				memory.recycleGraph(forest[i]);
+			}
+		}
+
+		for (int i = 0; i < forest.length; i++) {
+			forest[i] = constructor.construct(points, trackIndicies);
+		}
+
+		search = createSearch();
+	}
+
+	@Override
+	public boolean findNearest(P p, double maxDistance, NnData<P> result) {
+		return search.findNearest(p, maxDistance, result);
+	}
+
+	@Override
+	public void findNearest(P p, double maxDistance, int numNeighbors, FastQueue<NnData<P>> results) {
+		search.findNearest(p, maxDistance, numNeighbors, results);
+	}
+
+	@Override
+	public Search<P> createSearch() {
+		if( forest[0] == null )
+			throw new IllegalArgumentException("Points must be set first");
+		return new ForestSearch();
+	}
+
+	/**
+	 * Search state. The forest is shared but the search objects are not
+	 */
+	private class ForestSearch implements Search<P> {
+		KdTreeSearch1Bbf<P> search1 = new KdTreeSearch1Bbf<>(distance, maxNodesSearched);
+		KdTreeSearchNBbf<P> searchN = new KdTreeSearchNBbf<>(distance, maxNodesSearched);
+		FastQueue<KdTreeResult> found = new FastQueue<>(KdTreeResult.class, true);
+
+		ForestSearch() {
+			search1.setTrees(forest.clone());
+			searchN.setTrees(forest.clone());
+		}
+
+		@Override
+		public boolean findNearest(P p, double maxDistance, NnData<P> result) {
+			search1.setMaxDistance(maxDistance < 0 ? Double.MAX_VALUE : maxDistance);
+
+			KdTree.Node node = search1.findNeighbor(p);
+			if( node == null )
+				return false;
+
+			result.point = (P)node.point;
+			result.index = node.index;
+			result.distance = search1.getDistance();
+			return true;
+		}
+
+		@Override
+		public void findNearest(P p, double maxDistance, int numNeighbors, FastQueue<NnData<P>> results) {
+			results.reset();
+			searchN.setMaxDistance(maxDistance <= 0 ? Double.MAX_VALUE : maxDistance);
+
+			found.reset();
+			searchN.findNeighbor(p, numNeighbors, found);
+			for (int i = 0; i < found.size; i++) {
+				KdTreeResult k = found.get(i);
+				NnData<P> r = results.grow();
+				r.point = (P)k.node.point;
+				r.index = k.node.index;
+				r.distance = k.distance;
+			}
+		}
+	}
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.descriptor;
+
+import boofcv.abst.feature.associate.ConcurrentNearestNeighbor;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Exact nearest neighbor search in hamming space for binary descriptors using Multi-Index Hashing [1]. Each
+ * descriptor is split up into m disjoint substrings and each substring is used as the key in its own hash table.
+ * If two descriptors have a hamming distance less than m*(r+1) then at least one of their substrings must
+ * differ by r bits or less. The search starts by looking up the buckets which exactly match the query's
+ * substrings then the buckets which differ by one bit, two bits, ... and stops once the k-th best distance
+ * found is guaranteed to be the best possible. If the search becomes more expensive than a brute force search
+ * then it switches to brute force.
+ * </p>
+ *
+ * <p>
+ * Points can be added incrementally with {@link #addPoint}. Bits in each descriptor are copied into a packed
+ * array so that distances can be computed without jumping around in memory. Multiple threads can search at the
+ * same time if each has its own {@link #createSearch() search}, but points can't be added while searching.
+ * </p>
+ *
+ * <p>
+ * [1] Norouzi, Mohammad, Ali Punjani, and David J. Fleet. "Fast search in hamming space with multi-index hashing."
+ * CVPR 2012
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MultiIndexHashing_B implements ConcurrentNearestNeighbor<TupleDesc_B> {
+
+	// number of bits in each substring
+	private final int bitsPerSubstring;
+
+	// shape of the descriptor. Determined by the first point added
+	private int numBits = -1;
+	private int numWords;
+	private int numSubstrings;
+	// length of the smallest substring
+	private int minSubstringLength;
+
+	// hash table for each substring. Buckets are only declared when needed
+	private GrowQueue_I32[][] tables;
+
+	// the descriptor for each point
+	private final List<TupleDesc_B> points = new ArrayList<>();
+	// bits for each point packed into a single array
+	private final GrowQueue_I32 codes = new GrowQueue_I32();
+
+	// search used when called from the NearestNeighbor interface
+	private final MihSearch search = new MihSearch();
+
+	/**
+	 * Configures the search
+	 *
+	 * @param bitsPerSubstring Number of bits in each substring. Each hash table has 2^bitsPerSubstring buckets.
+	 *                         A good value is close to log2 of the number of points. Try 16.
+	 */
+	public MultiIndexHashing_B( int bitsPerSubstring ) {
+		if( bitsPerSubstring < 1 || bitsPerSubstring > 20 )
+			throw new IllegalArgumentException("bitsPerSubstring must be from 1 to 20");
+		this.bitsPerSubstring = bitsPerSubstring;
+	}
+
+	@Override
+	public void setPoints(List<TupleDesc_B> points, boolean trackIndicies) {
+		clear();
+		for (int i = 0; i < points.size(); i++) {
+			addPoint(points.get(i));
+		}
+	}
+
+	/**
+	 * Removes all the points but keeps the hash tables so that memory can be recycled
+	 */
+	public void clear() {
+		points.clear();
+		codes.reset();
+		if( tables != null ) {
+			for (int i = 0; i < tables.length; i++) {
+				for( GrowQueue_I32 bucket : tables[i] ) {
+					if( bucket != null )
+						bucket.reset();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a point to the end of the list. Its index is the number of points which had been added before it.
+	 * The descriptor is copied, but a reference to it is returned in the search results.
+	 */
+	public void addPoint( TupleDesc_B p ) {
+		if( numBits == -1 )
+			initialize(p.numBits);
+		else if( p.numBits != numBits )
+			throw new IllegalArgumentException("All descriptors must have the same number of bits");
+
+		int index = points.size();
+		points.add(p);
+		for (int i = 0; i < numWords; i++) {
+			codes.add(p.data[i]);
+		}
+
+		for (int sub = 0; sub < numSubstrings; sub++) {
+			int key = substring(p.data, 0, sub);
+			GrowQueue_I32[] table = tables[sub];
+			if( table[key] == null )
+				table[key] = new GrowQueue_I32(4);
+			table[key].add(index);
+		}
+	}
+
+	private void initialize( int numBits ) {
+		this.numBits = numBits;
+		this.numWords = (numBits+31)/32;
+		this.numSubstrings = (numBits+bitsPerSubstring-1)/bitsPerSubstring;
+		this.minSubstringLength = Math.min(bitsPerSubstring, numBits-(numSubstrings-1)*bitsPerSubstring);
+		this.tables = new GrowQueue_I32[numSubstrings][1 << bitsPerSubstring];
+	}
+
+	@Override
+	public boolean findNearest(TupleDesc_B p, double maxDistance, NnData<TupleDesc_B> result) {
+		return search.findNearest(p, maxDistance, result);
+	}
+
+	@Override
+	public void findNearest(TupleDesc_B p, double maxDistance, int numNeighbors,
+							FastQueue<NnData<TupleDesc_B>> results) {
+		search.findNearest(p, maxDistance, numNeighbors, results);
+	}
+
+	@Override
+	public Search<TupleDesc_B> createSearch() {
+		return new MihSearch();
+	}
+
+	/**
+	 * Extracts the bits in a substring and returns them as an integer
+	 */
+	int substring( int[] words , int offset , int sub ) {
+		int bit0 = sub*bitsPerSubstring;
+		int length = substringLength(sub);
+		int w = bit0 >>> 5;
+		int shift = bit0 & 31;
+
+		long value = words[offset+w] & 0xFFFFFFFFL;
+		if( shift + length > 32 )
+			value |= (words[offset+w+1] & 0xFFFFFFFFL) << 32;
+		return (int)((value >>> shift) & ((1L << length)-1));
+	}
+
+	private int substringLength( int sub ) {
+		return Math.min(bitsPerSubstring, numBits-sub*bitsPerSubstring);
+	}
+
+	/**
+	 * Returns the number of points which have been added
+	 */
+	public int size() {
+		return points.size();
+	}
+
+	public int getBitsPerSubstring() {
+		return bitsPerSubstring;
+	}
+
+	/**
+	 * Storage for everything which is modified during a search
+	 */
+	private class MihSearch implements Search<TupleDesc_B> {
+		// ID of the last query a point was examined in. Used to avoid checking the same point twice
+		int[] lastQuery = new int[0];
+		int queryID = 0;
+
+		// substrings of the query
+		int[] querySubstrings = new int[0];
+
+		// the best points found so far sorted by distance
+		int[] bestIndex = new int[0];
+		int[] bestDistance = new int[0];
+		int bestSize;
+		// maximum number of best points and the largest allowed distance
+		int numNeighbors;
+		int maxDistance;
+
+		@Override
+		public boolean findNearest(TupleDesc_B p, double maxDistance, NnData<TupleDesc_B> result) {
+			search(p, maxDistance, 1);
+			if( bestSize == 0 )
+				return false;
+
+			result.index = bestIndex[0];
+			result.distance = bestDistance[0];
+			result.point = points.get(result.index);
+			return true;
+		}
+
+		@Override
+		public void findNearest(TupleDesc_B p, double maxDistance, int numNeighbors,
+								FastQueue<NnData<TupleDesc_B>> results) {
+			results.reset();
+			search(p, maxDistance, numNeighbors);
+			for (int i = 0; i < bestSize; i++) {
+				NnData<TupleDesc_B> r = results.grow();
+				r.index = bestIndex[i];
+				r.distance = bestDistance[i];
+				r.point = points.get(r.index);
+			}
+		}
+
+		/**
+		 * Finds the closest points to the query point
+		 *
+		 * @param maxDistance Maximum hamming distance. If negative then there is no limit.
+		 */
+		void search( TupleDesc_B p , double maxDistance, int numNeighbors ) {
+			bestSize = 0;
+			if( points.isEmpty() )
+				return;
+			if( p.numBits != numBits )
+				throw new IllegalArgumentException("Number of bits doesn't match the points");
+
+			this.numNeighbors = numNeighbors;
+			this.maxDistance = maxDistance < 0 || maxDistance >= numBits ? numBits : (int)maxDistance;
+			if( bestIndex.length < numNeighbors ) {
+				bestIndex = new int[numNeighbors];
+				bestDistance = new int[numNeighbors];
+			}
+
+			// points could have been added since the last search
+			if( lastQuery.length < points.size() )
+				lastQuery = Arrays.copyOf(lastQuery, points.size()+points.size()/4);
+			if( querySubstrings.length != numSubstrings )
+				querySubstrings = new int[numSubstrings];
+
+			// mark all points as not being examined in this query
+			if( ++queryID == Integer.MAX_VALUE ) {
+				queryID = 1;
+				Arrays.fill(lastQuery, 0);
+			}
+
+			for (int sub = 0; sub < numSubstrings; sub++) {
+				querySubstrings[sub] = substring(p.data, 0, sub);
+			}
+
+			// number of bucket lookups so far and the number of buckets at the current radius
+			long lookups = 0;
+			long combinations = 1;
+			for (int radius = 0; radius < minSubstringLength; radius++) {
+				// If it's going to be more expensive than brute force then just use brute force
+				lookups += combinations*numSubstrings;
+				if( lookups > points.size() ) {
+					bruteForce(p);
+					return;
+				}
+
+				for (int sub = 0; sub < numSubstrings; sub++) {
+					probeTable(p, sub, radius);
+				}
+
+				// All points with a distance less than this have been examined
+				int guaranteed = numSubstrings*(radius+1)-1;
+				if( guaranteed >= this.maxDistance )
+					return;
+				if( bestSize == numNeighbors && bestDistance[bestSize-1] <= guaranteed )
+					return;
+
+				combinations = combinations*(bitsPerSubstring-radius)/(radius+1);
+			}
+
+			// Highly unusual. Only happens when the substrings are tiny. Examine the remaining points
+			bruteForce(p);
+		}
+
+		/**
+		 * Examines all the buckets in a table which differ from the query's substring by exactly 'radius' bits
+		 */
+		void probeTable( TupleDesc_B p , int sub , int radius ) {
+			GrowQueue_I32[] table = tables[sub];
+			int key = querySubstrings[sub];
+			int length = substringLength(sub);
+
+			if( radius == 0 ) {
+				examineBucket(p, table[key]);
+				return;
+			}
+
+			// iterate through all bit masks with 'radius' bits set using Gosper's hack
+			int limit = 1 << length;
+			int mask = (1 << radius)-1;
+			while( mask < limit ) {
+				examineBucket(p, table[key ^ mask]);
+
+				int c = mask & -mask;
+				int r = mask + c;
+				mask = (((r ^ mask) >>> 2)/c) | r;
+			}
+		}
+
+		void examineBucket( TupleDesc_B p , GrowQueue_I32 bucket ) {
+			if( bucket == null )
+				return;
+			for (int i = 0; i < bucket.size; i++) {
+				examinePoint(p, bucket.data[i]);
+			}
+		}
+
+		void bruteForce( TupleDesc_B p ) {
+			for (int index = 0; index < points.size(); index++) {
+				examinePoint(p, index);
+			}
+		}
+
+		/**
+		 * Computes the distance to the point, if it hasn't already been examined, and updates the list of best points
+		 */
+		void examinePoint( TupleDesc_B p , int index ) {
+			if( lastQuery[index] == queryID )
+				return;
+			lastQuery[index] = queryID;
+
+			final int[] data = codes.data;
+			final int offset = index*numWords;
+			int distance = 0;
+			for (int i = 0; i < numWords; i++) {
+				distance += Integer.bitCount(data[offset+i] ^ p.data[i]);
+			}
+
+			if( distance > maxDistance )
+				return;
+			if( bestSize == numNeighbors ) {
+				if( distance >= bestDistance[bestSize-1] )
+					return;
+				bestSize--;
+			}
+
+			// insertion sort
+			int location = bestSize;
+			while( location > 0 && bestDistance[location-1] > distance ) {
+				bestDistance[location] = bestDistance[location-1];
+				bestIndex[location] = bestIndex[location-1];
+				location--;
+			}
+			bestDistance[location] = distance;
+			bestIndex[location] = index;
+			bestSize++;
+		}
+	}
+}
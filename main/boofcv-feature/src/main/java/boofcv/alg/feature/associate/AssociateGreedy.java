@@ -24,6 +24,9 @@ import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_F64;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
 
 /**
  * <p>
@@ -39,6 +42,13 @@ import org.ddogleg.struct.GrowQueue_I32;
  * associated with feature in src.
  * </p>
  *
+ * <p>
+ * The score matrix is never saved. Instead the dst list is processed in tiles so that the dst descriptors in a
+ * tile stay in the cache while it's compared against a block of src descriptors. The best and second best score
+ * for each dst feature is recorded while the scores are computed, which is all that backwards validation needs.
+ * Memory usage is O(N+M) instead of O(N*M).
+ * </p>
+ *
  * @param <D> Feature description type.
  *
  * @author Peter Abeles
@@ -46,17 +56,19 @@ import org.ddogleg.struct.GrowQueue_I32;
 public class AssociateGreedy<D> {
 
 	// computes association score
-	private ScoreAssociation<D> score;
+	protected ScoreAssociation<D> score;
 	// worst allowed fit score to associate
-	private double maxFitError = Double.MAX_VALUE;
+	protected double maxFitError = Double.MAX_VALUE;
 	// stores the quality of fit score
-	private GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
+	protected GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
 	// stores indexes of associated
-	private GrowQueue_I32 pairs = new GrowQueue_I32(100);
-	// various
-	private GrowQueue_F64 workBuffer = new GrowQueue_F64(100);
+	protected GrowQueue_I32 pairs = new GrowQueue_I32(100);
+	// best scores for each dst feature
+	protected ColumnScores columns = new ColumnScores();
 	// if true backwardsValidation is done
-	private boolean backwardsValidation;
+	protected boolean backwardsValidation;
+	// number of dst features which are processed at once
+	protected int tileSize = 256;
 
 	/**
 	 * Configure association
@@ -81,46 +93,71 @@ public class AssociateGreedy<D> {
 	{
 		fitQuality.reset();
 		pairs.reset();
-		workBuffer.reset();
+		fitQuality.resize(src.size);
+		pairs.resize(src.size);
+		columns.reset(dst.size);
 
-//		System.out.println("Associate: "+src.size+"*"+dst.size+" = "+(src.size*dst.size)+" or "+(src.size*dst.size*8/1024/1024)+"MB");
-		fitQuality.setMaxSize(src.size);
-		workBuffer.setMaxSize(src.size*dst.size);
-		for( int i = 0; i < src.size; i++ ) {
-			D a = src.data[i];
-			double bestScore = maxFitError;
-			int bestIndex = -1;
+		associateAll(src, dst);
 
-			for( int j = 0; j < dst.size; j++ ) {
-				D b = dst.data[j];
+		if( backwardsValidation ) {
+			for( int i = 0; i < src.size; i++ ) {
+				int match = pairs.data[i];
+				if( match == -1 )
+					continue;
 
-				double fit = score.score(a,b);
-				workBuffer.push(fit);
+				// best score for the dst feature from any other src feature
+				double scoreToBeat = fitQuality.data[i];
+				double scoreOther = columns.bestIndex[match] == i ? columns.second[match] : columns.best[match];
 
-				if( fit <= bestScore ) {
-					bestIndex = j;
-					bestScore = fit;
+				if( scoreOther <= scoreToBeat ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
 				}
 			}
-			pairs.push(bestIndex);
-			fitQuality.push(bestScore);
 		}
+	}
 
-		if( backwardsValidation ) {
-			for( int i = 0; i < src.size; i++ ) {
-				int match = pairs.data[i];
-				if( match == -1 )
-					continue;
+	/**
+	 * Finds the best dst for every src feature and updates the best score for every dst feature
+	 */
+	protected void associateAll( FastQueue<D> src , FastQueue<D> dst ) {
+		associateRows(src, dst, 0, src.size, backwardsValidation ? columns : null);
+	}
+
+	/**
+	 * Finds the best dst for src features in the specified range.
+	 *
+	 * @param row0 first src feature, inclusive
+	 * @param row1 last src feature, exclusive
+	 * @param columns (Output) Best scores for each dst feature. If null then they are not computed.
+	 */
+	protected void associateRows( FastQueue<D> src , FastQueue<D> dst , int row0 , int row1 ,
+								  @Nullable ColumnScores columns ) {
+		for( int i = row0; i < row1; i++ ) {
+			pairs.data[i] = -1;
+			fitQuality.data[i] = maxFitError;
+		}
 
-				double scoreToBeat = workBuffer.data[i*dst.size+match];
+		for( int tile0 = 0; tile0 < dst.size; tile0 += tileSize ) {
+			int tile1 = Math.min(dst.size, tile0 + tileSize);
 
-				for( int j = 0; j < src.size; j++ , match += dst.size ) {
-					if( workBuffer.data[match] <= scoreToBeat && j != i) {
-						pairs.data[i] = -1;
-						fitQuality.data[i] = Double.MAX_VALUE;
-						break;
+			for( int i = row0; i < row1; i++ ) {
+				D a = src.data[i];
+				double bestScore = fitQuality.data[i];
+				int bestIndex = pairs.data[i];
+
+				for( int j = tile0; j < tile1; j++ ) {
+					double fit = score.score(a,dst.data[j]);
+
+					if( fit <= bestScore ) {
+						bestIndex = j;
+						bestScore = fit;
 					}
+					if( columns != null )
+						columns.update(j, i, fit);
 				}
+				pairs.data[i] = bestIndex;
+				fitQuality.data[i] = bestScore;
 			}
 		}
 	}
@@ -157,4 +194,63 @@ public class AssociateGreedy<D> {
 	public boolean isBackwardsValidation() {
 		return backwardsValidation;
 	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * Specifies the number of dst features which are compared against src features at once. Tune so that
+	 * the descriptors in a tile fit inside the CPU's cache.
+	 */
+	public void setTileSize(int tileSize) {
+		if( tileSize <= 0 )
+			throw new IllegalArgumentException("Tile size must be more than zero");
+		this.tileSize = tileSize;
+	}
+
+	/**
+	 * The best and second best score for each dst feature and which src feature had the best score
+	 */
+	protected static class ColumnScores {
+		public double[] best = new double[0];
+		public double[] second = new double[0];
+		public int[] bestIndex = new int[0];
+
+		public void reset( int size ) {
+			if( best.length < size ) {
+				best = new double[size];
+				second = new double[size];
+				bestIndex = new int[size];
+			}
+			Arrays.fill(best, 0, size, Double.MAX_VALUE);
+			Arrays.fill(second, 0, size, Double.MAX_VALUE);
+			Arrays.fill(bestIndex, 0, size, -1);
+		}
+
+		public final void update( int col , int row , double fit ) {
+			if( fit < best[col] ) {
+				second[col] = best[col];
+				best[col] = fit;
+				bestIndex[col] = row;
+			} else if( fit < second[col] ) {
+				second[col] = fit;
+			}
+		}
+
+		/**
+		 * Combines the scores found in a different set of src features into this one
+		 */
+		public void merge( ColumnScores other , int size ) {
+			for( int col = 0; col < size; col++ ) {
+				if( other.best[col] < best[col] ) {
+					second[col] = Math.min(best[col], other.second[col]);
+					best[col] = other.best[col];
+					bestIndex[col] = other.bestIndex[col];
+				} else {
+					second[col] = Math.min(second[col], other.best[col]);
+				}
+			}
+		}
+	}
 }
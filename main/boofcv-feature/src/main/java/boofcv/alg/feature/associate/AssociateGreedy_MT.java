@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayDeque;
+
+/**
+ * Concurrent implementation of {@link AssociateGreedy}. The src features are split into blocks which are
+ * processed by different threads. Each thread keeps track of the best scores for each dst feature and these are
+ * merged together once all the threads are done. The {@link ScoreAssociation} must be thread safe.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedy_MT<D> extends AssociateGreedy<D> {
+
+	// storage for the best scores found by each thread
+	private final ArrayDeque<ColumnScores> storage = new ArrayDeque<>();
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedy_MT(ScoreAssociation<D> score, boolean backwardsValidation) {
+		super(score, backwardsValidation);
+	}
+
+	@Override
+	protected void associateAll( FastQueue<D> src, FastQueue<D> dst ) {
+		BoofConcurrency.loopBlocks(0,src.size,(row0,row1)->{
+			if( !backwardsValidation ) {
+				associateRows(src,dst,row0,row1,null);
+				return;
+			}
+
+			ColumnScores local = pop();
+			local.reset(dst.size);
+			associateRows(src,dst,row0,row1,local);
+
+			synchronized (storage) {
+				columns.merge(local,dst.size);
+				storage.push(local);
+			}
+		});
+	}
+
+	private ColumnScores pop() {
+		synchronized (storage) {
+			if( storage.isEmpty() )
+				return new ColumnScores();
+			return storage.pop();
+		}
+	}
+}
@@ -26,6 +26,7 @@ import org.ddogleg.nn.NnData;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 /**
@@ -49,12 +50,12 @@ public class AssociateNearestNeighbor<D>
 		implements AssociateDescription<D>
 {
 	// Nearest Neighbor algorithm and storage for the results
-	private NearestNeighbor<D> alg;
+	protected NearestNeighbor<D> alg;
 	private NnData<D> result = new NnData<>();
 	private FastQueue<NnData<D>> result2 = new FastQueue(NnData.class,true);
 
 	// list of features in destination set that are to be searched for in the source list
-	private FastQueue<D> listDst;
+	protected FastQueue<D> listDst;
 
 	int sizeSrc;
 
@@ -65,13 +66,13 @@ public class AssociateNearestNeighbor<D>
 	double scoreRatioThreshold =1.0;
 
 	// List of final associated points
-	private FastQueue<AssociatedIndex> matches = new FastQueue<>(100, AssociatedIndex.class, true);
+	protected FastQueue<AssociatedIndex> matches = new FastQueue<>(100, AssociatedIndex.class, true);
 
 	// creates a list of unassociated features from the list of matches
 	private FindUnassociated unassociated = new FindUnassociated();
 
 	// maximum distance away two points can be
-	private double maxDistance = -1;
+	protected double maxDistance = -1;
 
 	public AssociateNearestNeighbor(NearestNeighbor<D> alg) {
 		this.alg = alg;
@@ -104,32 +105,44 @@ public class AssociateNearestNeighbor<D>
 			for (int i = 0; i < listDst.size; i++) {
 				alg.findNearest(listDst.data[i], maxDistance,2, result2);
 
-				if( result2.size == 1 ) {
-					NnData<D> r = result2.getTail();
+				NnData<D> r = ratioTest(result2);
+				if( r != null )
 					matches.grow().setAssociation(r.index, i, r.distance);
-				} else if( result2.size == 2 ) {
-					NnData<D> r0 = result2.get(0);
-					NnData<D> r1 = result2.get(1);
-
-					// ensure that r0 is the closest
-					if( r0.distance > r1.distance ) {
-						NnData<D> tmp = r0;
-						r0 = r1;
-						r1 = tmp;
-					}
-
-					double foundRatio = ratioUsesSqrt ?Math.sqrt(r0.distance)/Math.sqrt(r1.distance) :r0.distance/r1.distance;
-					if( foundRatio <= scoreRatioThreshold) {
-						matches.grow().setAssociation(r0.index, i, r0.distance);
-					}
-				} else if( result2.size != 0 ){
-					throw new RuntimeException("BUG! 0,1,2 are acceptable not "+result2.size);
-				}
 			}
 		}
 
 	}
 
+	/**
+	 * Selects the best match if it passes the ratio test
+	 *
+	 * @param found The two best matches
+	 * @return The best match or null if it fails the ratio test
+	 */
+	protected @Nullable NnData<D> ratioTest( FastQueue<NnData<D>> found ) {
+		if( found.size == 1 ) {
+			return found.getTail();
+		} else if( found.size == 2 ) {
+			NnData<D> r0 = found.get(0);
+			NnData<D> r1 = found.get(1);
+
+			// ensure that r0 is the closest
+			if( r0.distance > r1.distance ) {
+				NnData<D> tmp = r0;
+				r0 = r1;
+				r1 = tmp;
+			}
+
+			double foundRatio = ratioUsesSqrt ?Math.sqrt(r0.distance)/Math.sqrt(r1.distance) :r0.distance/r1.distance;
+			if( foundRatio <= scoreRatioThreshold) {
+				return r0;
+			}
+		} else if( found.size != 0 ){
+			throw new RuntimeException("BUG! 0,1,2 are acceptable not "+found.size);
+		}
+		return null;
+	}
+
 	@Override
 	public FastQueue<AssociatedIndex> getMatches() {
 		return matches;
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ConcurrentNearestNeighbor;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayDeque;
+
+/**
+ * Concurrent implementation of {@link AssociateNearestNeighbor}. Destination features are split into blocks and
+ * each thread searches with its own {@link ConcurrentNearestNeighbor.Search}. The best match for each destination
+ * feature is saved in an array and the matches are then created in order, so the results are identical to
+ * the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateNearestNeighbor_MT<D> extends AssociateNearestNeighbor<D> {
+
+	// Nearest Neighbor algorithm which can be searched concurrently
+	private final ConcurrentNearestNeighbor<D> concurrent;
+
+	// search state for each thread
+	private final ArrayDeque<ThreadData> storage = new ArrayDeque<>();
+
+	// best match for each destination feature. -1 if there's no match
+	private final GrowQueue_I32 bestSrc = new GrowQueue_I32();
+	private final GrowQueue_F64 bestDistance = new GrowQueue_F64();
+
+	public AssociateNearestNeighbor_MT(ConcurrentNearestNeighbor<D> alg) {
+		super(alg);
+		this.concurrent = alg;
+	}
+
+	@Override
+	public void setSource(FastQueue<D> listSrc) {
+		super.setSource(listSrc);
+		// searches need to be created again now that the points have changed
+		storage.clear();
+	}
+
+	@Override
+	public void associate() {
+		bestSrc.resize(listDst.size);
+		bestDistance.resize(listDst.size);
+
+		BoofConcurrency.loopBlocks(0,listDst.size,(i0,i1)->{
+			ThreadData data = pop();
+
+			for (int i = i0; i < i1; i++) {
+				NnData<D> best = null;
+				if( scoreRatioThreshold >= 1.0 ) {
+					// if score ratio is not turned on then just use the best match
+					if( data.search.findNearest(listDst.data[i], maxDistance, data.result) )
+						best = data.result;
+				} else {
+					data.search.findNearest(listDst.data[i], maxDistance, 2, data.result2);
+					best = ratioTest(data.result2);
+				}
+
+				if( best == null ) {
+					bestSrc.data[i] = -1;
+				} else {
+					bestSrc.data[i] = best.index;
+					bestDistance.data[i] = best.distance;
+				}
+			}
+
+			synchronized (storage) {
+				storage.push(data);
+			}
+		});
+
+		matches.resize(listDst.size);
+		matches.reset();
+		for (int i = 0; i < listDst.size; i++) {
+			if( bestSrc.data[i] >= 0 )
+				matches.grow().setAssociation(bestSrc.data[i], i, bestDistance.data[i]);
+		}
+	}
+
+	private ThreadData pop() {
+		synchronized (storage) {
+			if( storage.isEmpty() )
+				return new ThreadData(concurrent.createSearch());
+			return storage.pop();
+		}
+	}
+
+	/**
+	 * Search state and storage for the results used by a single thread
+	 */
+	private class ThreadData {
+		ConcurrentNearestNeighbor.Search<D> search;
+		NnData<D> result = new NnData<>();
+		FastQueue<NnData<D>> result2 = new FastQueue(NnData.class,true);
+
+		ThreadData(ConcurrentNearestNeighbor.Search<D> search) {
+			this.search = search;
+		}
+	}
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.BoofDefaults;
+import boofcv.alg.feature.describe.DescribePointBriefSO;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.pyramid.PyramidFloat;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.sorting.QuickSort_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Detects and describes features using FAST corners and steered BRIEF, similar to ORB [1]. Corners are detected
+ * across a scale pyramid and the number of features in each level is proportional to its area. Inside of a level
+ * FAST corners are non-maximum suppressed, ranked by their Harris corner score, and spread out across the image
+ * using a grid. The orientation of each feature is found using the intensity centroid of a circular region
+ * and then a BRIEF descriptor is computed which has been rotated by the orientation.
+ * </p>
+ *
+ * <p>
+ * All the storage is recycled between calls so that no memory is allocated once it has processed a few images.
+ * </p>
+ *
+ * <p>
+ * [1] Rublee, Ethan, et al. "ORB: An efficient alternative to SIFT or SURF." ICCV 2011
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CompleteOrb {
+
+	// total number of features it will try to detect
+	protected int maxFeatures;
+	// scale factor between two pyramid levels
+	protected double scaleFactor;
+	// if true then features are ranked using the Harris corner score, otherwise the FAST score is used
+	protected boolean harrisRanking = true;
+	// radius of the region the Harris corner score is computed inside of
+	protected int harrisRadius = 3;
+	// width of a grid cell in pixels used to spread out the features. If <= 0 then it's disabled
+	protected int gridCellWidth = 32;
+	// radius of the circle used to compute the orientation
+	protected int orientationRadius = 15;
+
+	// pyramid for every level after the first. The first level is the input image. null if there's one level
+	protected @Nullable PyramidFloat<GrayU8> pyramid;
+
+	// storage for each level in the pyramid
+	protected Level[] levels;
+
+	// half width of the circle used to compute the orientation in each row
+	protected int[] circleHalfWidth;
+
+	// found features
+	protected FastQueue<ScalePoint> locations = new FastQueue<>(ScalePoint.class,true);
+	protected GrowQueue_F64 orientations = new GrowQueue_F64();
+	protected FastQueue<TupleDesc_B> descriptions;
+
+	/**
+	 * Configures the detector
+	 *
+	 * @param maxFeatures Total number of features it will try to detect across all levels
+	 * @param pyramid Pyramid containing levels 1 to N-1. Level 0 is the input image. null if there's only one level.
+	 * @param factoryFast Creates the FAST corner detector for each level
+	 * @param factoryDescribe Creates the BRIEF descriptor for each level
+	 */
+	public CompleteOrb(int maxFeatures, @Nullable PyramidFloat<GrayU8> pyramid,
+					   Supplier<FastCornerDetector<GrayU8>> factoryFast,
+					   Supplier<DescribePointBriefSO<GrayU8>> factoryDescribe ) {
+		this.maxFeatures = maxFeatures;
+		this.pyramid = pyramid;
+
+		int numLevels = 1 + (pyramid == null ? 0 : pyramid.getNumLayers());
+		levels = new Level[numLevels];
+		for (int i = 0; i < numLevels; i++) {
+			levels[i] = new Level(factoryFast.get(), factoryDescribe.get());
+		}
+		DescribePointBriefSO<GrayU8> describe = levels[0].describe;
+		descriptions = new FastQueue<>(TupleDesc_B.class, describe::createFeature);
+
+		setRadii(harrisRadius, orientationRadius);
+	}
+
+	/**
+	 * Detects and describes features inside the image
+	 */
+	public void process( GrayU8 input ) {
+		locations.reset();
+		orientations.reset();
+		descriptions.reset();
+
+		if( pyramid != null )
+			pyramid.process(input);
+
+		// number of features in each level is proportional to its area
+		double totalArea = 0;
+		for (int i = 0; i < levels.length; i++) {
+			Level level = levels[i];
+			level.image = i == 0 ? input : pyramid.getLayer(i-1);
+			level.scale = input.width/(double)level.image.width;
+			totalArea += level.image.width*(double)level.image.height;
+		}
+		for (int i = 0; i < levels.length; i++) {
+			GrayU8 image = levels[i].image;
+			levels[i].target = (int)Math.ceil(maxFeatures*image.width*(double)image.height/totalArea);
+		}
+
+		processLevels();
+
+		// combine the results from each level
+		for (int i = 0; i < levels.length; i++) {
+			Level level = levels[i];
+			double radius = BoofDefaults.BRIEF_SCALE_TO_RADIUS*level.scale;
+			for (int j = 0; j < level.features.size; j++) {
+				Point2D_I16 p = level.features.get(j);
+				locations.grow().set(p.x*level.scale, p.y*level.scale, radius);
+				orientations.add(level.orientations.get(j));
+				descriptions.grow().setTo(level.descriptions.get(j));
+			}
+		}
+	}
+
+	/**
+	 * Detects and describes features in all the levels
+	 */
+	protected void processLevels() {
+		for (int i = 0; i < levels.length; i++) {
+			processLevel(levels[i]);
+		}
+	}
+
+	/**
+	 * Detects and describes features inside a single level
+	 */
+	protected void processLevel( Level level ) {
+		level.features.reset();
+		level.orientations.reset();
+		level.descriptions.reset();
+
+		GrayU8 image = level.image;
+		int border = orientationRadius+1;
+		if( image.width <= 2*border || image.height <= 2*border )
+			return;
+
+		level.intensity.reshape(image.width,image.height);
+		level.fast.process(image,level.intensity);
+
+		// non-maximum suppression and scoring
+		level.candidates.reset();
+		level.scores.reset();
+		selectCandidates(level, level.fast.getCornersLow(), border);
+		selectCandidates(level, level.fast.getCornersHigh(), border);
+
+		selectFeatures(level);
+
+		if( level.features.size == 0 )
+			return;
+
+		level.describe.setImage(image);
+		for (int i = 0; i < level.features.size; i++) {
+			Point2D_I16 p = level.features.get(i);
+			double angle = computeOrientation(image, p.x, p.y);
+			level.orientations.add(angle);
+			level.describe.process(p.x, p.y, (float)angle, (float)BoofDefaults.BRIEF_SCALE_TO_RADIUS,
+					level.descriptions.grow());
+		}
+	}
+
+	/**
+	 * Removes corners which are too close to the border or are not a local maximum in a 3x3 region and
+	 * computes the score of the remaining ones
+	 */
+	void selectCandidates( Level level , QueueCorner corners , int border ) {
+		final GrayF32 intensity = level.intensity;
+		final int stride = intensity.stride;
+
+		for (int i = 0; i < corners.size; i++) {
+			Point2D_I16 p = corners.get(i);
+			if( p.x < border || p.y < border || p.x >= intensity.width-border || p.y >= intensity.height-border )
+				continue;
+
+			int index = intensity.startIndex + p.y*stride + p.x;
+			float value = Math.abs(intensity.data[index]);
+
+			// ties are broken by only allowing the first pixel to be a maximum
+			if( Math.abs(intensity.data[index-stride-1]) >= value ||
+				Math.abs(intensity.data[index-stride]) >= value ||
+				Math.abs(intensity.data[index-stride+1]) >= value ||
+				Math.abs(intensity.data[index-1]) >= value ||
+				Math.abs(intensity.data[index+1]) > value ||
+				Math.abs(intensity.data[index+stride-1]) > value ||
+				Math.abs(intensity.data[index+stride]) > value ||
+				Math.abs(intensity.data[index+stride+1]) > value )
+				continue;
+
+			level.candidates.add(p.x, p.y);
+			level.scores.add(harrisRanking ? harrisScore(level.image, p.x, p.y) : value);
+		}
+	}
+
+	/**
+	 * Selects the best candidates. If the grid is enabled then features are first selected so that each
+	 * cell has at most its share of features. If there are still too few features then the best remaining
+	 * features are added.
+	 */
+	void selectFeatures( Level level ) {
+		final int N = level.candidates.size;
+		if( N == 0 || level.target <= 0 )
+			return;
+
+		// sort candidates from best to worst
+		level.order.resize(N);
+		if( level.sortScores.length < N )
+			level.sortScores = new double[N];
+		for (int i = 0; i < N; i++) {
+			level.sortScores[i] = -level.scores.data[i];
+		}
+		level.sorter.sort(level.sortScores, 0, N, level.order.data);
+
+		if( level.selected.length < N )
+			level.selected = new boolean[N];
+		Arrays.fill(level.selected, 0, N, false);
+
+		int total = 0;
+		if( gridCellWidth > 0 ) {
+			int cols = (level.image.width+gridCellWidth-1)/gridCellWidth;
+			int rows = (level.image.height+gridCellWidth-1)/gridCellWidth;
+			int quota = Math.max(1,(level.target+cols*rows-1)/(cols*rows));
+			level.cellCounts.resize(cols*rows);
+			level.cellCounts.fill(0);
+
+			for (int i = 0; i < N && total < level.target; i++) {
+				int idx = level.order.data[i];
+				Point2D_I16 p = level.candidates.get(idx);
+				int cell = (p.y/gridCellWidth)*cols + p.x/gridCellWidth;
+				if( level.cellCounts.data[cell] < quota ) {
+					level.cellCounts.data[cell]++;
+					level.selected[idx] = true;
+					total++;
+				}
+			}
+		}
+
+		for (int i = 0; i < N && total < level.target; i++) {
+			int idx = level.order.data[i];
+			if( !level.selected[idx] ) {
+				level.selected[idx] = true;
+				total++;
+			}
+		}
+
+		// add features from best to worst
+		for (int i = 0; i < N; i++) {
+			int idx = level.order.data[i];
+			if( level.selected[idx] ) {
+				Point2D_I16 p = level.candidates.get(idx);
+				level.features.grow().set(p.x, p.y);
+			}
+		}
+	}
+
+	/**
+	 * Computes the Harris corner score using the image gradient inside a square region
+	 */
+	double harrisScore( GrayU8 image , int cx , int cy ) {
+		final int r = harrisRadius;
+		final int stride = image.stride;
+		int xx = 0, yy = 0, xy = 0;
+		for (int y = cy-r; y <= cy+r; y++) {
+			int index = image.startIndex + y*stride + cx-r;
+			for (int x = cx-r; x <= cx+r; x++, index++) {
+				int dx = (image.data[index+1] & 0xFF) - (image.data[index-1] & 0xFF);
+				int dy = (image.data[index+stride] & 0xFF) - (image.data[index-stride] & 0xFF);
+				xx += dx*dx;
+				yy += dy*dy;
+				xy += dx*dy;
+			}
+		}
+		double trace = xx + (double)yy;
+		return xx*(double)yy - xy*(double)xy - 0.04*trace*trace;
+	}
+
+	/**
+	 * Computes the orientation using the intensity centroid inside a circle
+	 */
+	double computeOrientation( GrayU8 image , int cx , int cy ) {
+		final int r = orientationRadius;
+		int m10 = 0, m01 = 0;
+		for (int dy = -r; dy <= r; dy++) {
+			int w = circleHalfWidth[dy+r];
+			int index = image.startIndex + (cy+dy)*image.stride + cx-w;
+			int sum = 0;
+			for (int dx = -w; dx <= w; dx++, index++) {
+				int v = image.data[index] & 0xFF;
+				m10 += dx*v;
+				sum += v;
+			}
+			m01 += dy*sum;
+		}
+		return Math.atan2(m01, m10);
+	}
+
+	public FastQueue<ScalePoint> getLocations() {
+		return locations;
+	}
+
+	public GrowQueue_F64 getOrientations() {
+		return orientations;
+	}
+
+	public FastQueue<TupleDesc_B> getDescriptions() {
+		return descriptions;
+	}
+
+	public int getDescriptorBits() {
+		return levels[0].describe.getDefinition().getLength();
+	}
+
+	public int getNumLevels() {
+		return levels.length;
+	}
+
+	public void setHarrisRanking(boolean harrisRanking) {
+		this.harrisRanking = harrisRanking;
+	}
+
+	public void setHarrisRadius(int harrisRadius) {
+		setRadii(harrisRadius, orientationRadius);
+	}
+
+	public void setGridCellWidth(int gridCellWidth) {
+		this.gridCellWidth = gridCellWidth;
+	}
+
+	public void setOrientationRadius(int orientationRadius) {
+		setRadii(harrisRadius, orientationRadius);
+	}
+
+	/**
+	 * Changes the Harris and orientation radius at the same time. Since each radius is constrained by the other
+	 * this is the way to change both without passing through an invalid intermediate state.
+	 *
+	 * @param harrisRadius Radius of the Harris score region. Must be less than orientationRadius.
+	 * @param orientationRadius Radius of the intensity centroid circle.
+	 */
+	public void setRadii(int harrisRadius, int orientationRadius) {
+		if( harrisRadius <= 0 || harrisRadius >= orientationRadius )
+			throw new IllegalArgumentException("Harris radius must be more than zero and less than the orientation radius");
+		this.harrisRadius = harrisRadius;
+		this.orientationRadius = orientationRadius;
+		this.circleHalfWidth = new int[2*orientationRadius+1];
+		for (int dy = -orientationRadius; dy <= orientationRadius; dy++) {
+			circleHalfWidth[dy+orientationRadius] =
+					(int)Math.sqrt(orientationRadius*orientationRadius - dy*dy);
+		}
+	}
+
+	/**
+	 * Storage for processing a single level in the pyramid
+	 */
+	protected static class Level {
+		// image for this level and its scale relative to the input image
+		GrayU8 image;
+		double scale;
+		// the number of features it should detect
+		int target;
+
+		FastCornerDetector<GrayU8> fast;
+		GrayF32 intensity = new GrayF32(1,1);
+
+		// corners which passed non-maximum suppression and their score
+		QueueCorner candidates = new QueueCorner(100);
+		GrowQueue_F64 scores = new GrowQueue_F64();
+
+		// storage for sorting and selecting features
+		QuickSort_F64 sorter = new QuickSort_F64();
+		double[] sortScores = new double[0];
+		GrowQueue_I32 order = new GrowQueue_I32();
+		boolean[] selected = new boolean[0];
+		GrowQueue_I32 cellCounts = new GrowQueue_I32();
+
+		DescribePointBriefSO<GrayU8> describe;
+
+		// selected features
+		QueueCorner features = new QueueCorner(100);
+		GrowQueue_F64 orientations = new GrowQueue_F64();
+		FastQueue<TupleDesc_B> descriptions;
+
+		Level(FastCornerDetector<GrayU8> fast, DescribePointBriefSO<GrayU8> describe) {
+			this.fast = fast;
+			this.describe = describe;
+			this.descriptions = new FastQueue<>(TupleDesc_B.class, describe::createFeature);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.alg.feature.describe.DescribePointBriefSO;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.pyramid.PyramidFloat;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent implementation of {@link CompleteOrb}. Each level in the pyramid has its own storage and is
+ * processed by a different thread. Results are combined in the same order as the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class CompleteOrb_MT extends CompleteOrb {
+
+	public CompleteOrb_MT(int maxFeatures, @Nullable PyramidFloat<GrayU8> pyramid,
+						  Supplier<FastCornerDetector<GrayU8>> factoryFast,
+						  Supplier<DescribePointBriefSO<GrayU8>> factoryDescribe) {
+		super(maxFeatures, pyramid, factoryFast, factoryDescribe);
+	}
+
+	@Override
+	protected void processLevels() {
+		BoofConcurrency.loopFor(0,levels.length,i->processLevel(levels[i]));
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftDetector;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link CompleteSift}. Features are detected in every scale of an octave at the same
+ * time, each scale with its own detector. Then, one scale at a time, the orientations of the detected features
+ * are estimated in parallel and all of the features are described in parallel. Each thread has its own
+ * orientation estimator and descriptor so that the histograms they use are not shared.
+ * </p>
+ *
+ * <p>
+ * Output storage is assigned before the features are described so the results are identical to and in the same
+ * order as the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CompleteSift_MT extends CompleteSift {
+
+	// detector for each scale in an octave
+	final List<SiftDetector> scaleDetectors = new ArrayList<>();
+
+	// orientation estimators and descriptors which are not being used by a thread
+	final ArrayDeque<ThreadData> available = new ArrayDeque<>();
+	final Supplier<OrientationHistogramSift<GrayF32>> factoryOrientation;
+	final Supplier<DescribePointSift<GrayF32>> factoryDescribe;
+
+	// found orientations for each detection in the current scale
+	final FastQueue<GrowQueue_F64> detectionAngles = new FastQueue<>(GrowQueue_F64.class,true);
+
+	/**
+	 * Configures SIFT
+	 *
+	 * @param scaleSpace Scale-space that features are computed inside of
+	 * @param edgeR Edge threshold.  See {@link SiftDetector#SiftDetector(SiftScaleSpace, double, NonMaxLimiter)}
+	 * @param factoryExtractor Creates the extractors which find minimums and maximums.
+	 * @param factoryOrientation Creates the estimators of feature orientation(s)
+	 * @param factoryDescribe Creates the SIFT descriptors
+	 */
+	public CompleteSift_MT(SiftScaleSpace scaleSpace, double edgeR,
+						   Supplier<NonMaxLimiter> factoryExtractor,
+						   Supplier<OrientationHistogramSift<GrayF32>> factoryOrientation,
+						   Supplier<DescribePointSift<GrayF32>> factoryDescribe) {
+		super(scaleSpace, edgeR, factoryExtractor.get(), factoryOrientation.get(), factoryDescribe.get());
+		this.factoryOrientation = factoryOrientation;
+		this.factoryDescribe = factoryDescribe;
+
+		for (int i = 0; i < scaleSpace.getNumScales(); i++) {
+			scaleDetectors.add(new SiftDetector(scaleSpace,edgeR,factoryExtractor.get()));
+		}
+	}
+
+	@Override
+	protected void processOctave() {
+		pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
+
+		BoofConcurrency.loopFor(0,scaleDetectors.size(),i->{
+			SiftDetector detector = scaleDetectors.get(i);
+			detector.getDetections().reset();
+			detector.processScale(i+1);
+		});
+
+		for (int i = 0; i < scaleDetectors.size(); i++) {
+			// compute image derivative for this scale
+			GrayF32 input = scaleSpace.getImageScale(i+1);
+			derivX.reshape(input.width,input.height);
+			derivY.reshape(input.width,input.height);
+			gradient.process(input,derivX,derivY);
+
+			int first = detections.size;
+			FastQueue<ScalePoint> found = scaleDetectors.get(i).getDetections();
+			for (int j = 0; j < found.size; j++) {
+				detections.grow().set(found.get(j));
+			}
+
+			describeDetections(first,detections.size);
+		}
+	}
+
+	/**
+	 * Estimates the orientations of the detections in the range and then describes each orientation.
+	 *
+	 * @param first Index of the first detection. Inclusive.
+	 * @param last Index of the last detection. Exclusive.
+	 */
+	void describeDetections( int first , int last ) {
+		detectionAngles.reset();
+		for (int i = first; i < last; i++) {
+			detectionAngles.grow();
+		}
+
+		BoofConcurrency.loopBlocks(first,last,(idx0,idx1)->{
+			ThreadData data = popThreadData();
+			for (int i = idx0; i < idx1; i++) {
+				ScalePoint p = detections.get(i);
+				data.orientation.process(p.x/pixelScaleToInput, p.y/pixelScaleToInput, p.scale/pixelScaleToInput);
+				detectionAngles.get(i-first).setTo(data.orientation.getOrientations());
+			}
+			pushThreadData(data);
+		});
+
+		// Assign storage for each feature in the same order as the single threaded version
+		int firstFeature = features.size;
+		for (int i = first; i < last; i++) {
+			ScalePoint p = detections.get(i);
+			GrowQueue_F64 angles = detectionAngles.get(i-first);
+			for (int j = 0; j < angles.size; j++) {
+				features.grow().white = p.white;
+				orientations.add(angles.get(j));
+				locations.add(p);
+			}
+		}
+
+		BoofConcurrency.loopBlocks(firstFeature,features.size,(idx0,idx1)->{
+			ThreadData data = popThreadData();
+			for (int i = idx0; i < idx1; i++) {
+				ScalePoint p = locations.get(i);
+				data.describe.process(p.x/pixelScaleToInput, p.y/pixelScaleToInput, p.scale/pixelScaleToInput,
+						orientations.get(i),features.get(i));
+			}
+			pushThreadData(data);
+		});
+	}
+
+	/**
+	 * Returns storage for a thread which is configured to use the current image gradient
+	 */
+	private ThreadData popThreadData() {
+		ThreadData data;
+		synchronized (available) {
+			data = available.isEmpty() ? new ThreadData() : available.pop();
+		}
+		data.orientation.setImageGradient(derivX,derivY);
+		data.describe.setImageGradient(derivX,derivY);
+		return data;
+	}
+
+	private void pushThreadData( ThreadData data ) {
+		synchronized (available) {
+			available.push(data);
+		}
+	}
+
+	/**
+	 * Orientation estimator and descriptor used by a single thread
+	 */
+	class ThreadData {
+		final OrientationHistogramSift<GrayF32> orientation = factoryOrientation.get();
+		final DescribePointSift<GrayF32> describe = factoryDescribe.get();
+	}
+}
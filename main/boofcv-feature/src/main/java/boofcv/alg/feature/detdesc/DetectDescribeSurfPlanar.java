@@ -47,17 +47,20 @@ import java.util.List;
 public class DetectDescribeSurfPlanar<II extends ImageGray<II>>
 {
 	// SURF algorithms
-	private FastHessianFeatureDetector<II> detector;
-	private OrientationIntegral<II> orientation;
-	private DescribePointSurfPlanar<II> describe;
+	protected FastHessianFeatureDetector<II> detector;
+	protected OrientationIntegral<II> orientation;
+	protected DescribePointSurfPlanar<II> describe;
 
+	// integral images of the image being processed
+	protected II grayII;
+	protected Planar<II> colorII;
 
 	// storage for computed features
-	private SurfFeatureQueue descriptions;
+	protected SurfFeatureQueue descriptions;
 	// detected scale points
-	private List<ScalePoint> foundPoints;
+	protected List<ScalePoint> foundPoints;
 	// orientation of features
-	private GrowQueue_F64 featureAngles = new GrowQueue_F64(10);
+	protected GrowQueue_F64 featureAngles = new GrowQueue_F64(10);
 
 	public DetectDescribeSurfPlanar(FastHessianFeatureDetector<II> detector,
 									OrientationIntegral<II> orientation,
@@ -85,6 +88,8 @@ public class DetectDescribeSurfPlanar<II extends ImageGray<II>>
 	 * @param colorII Color integral image
 	 */
 	public void detect( II grayII , Planar<II> colorII ) {
+		this.grayII = grayII;
+		this.colorII = colorII;
 
 		orientation.setImage(grayII);
 		describe.setImage(grayII,colorII);
@@ -97,7 +102,13 @@ public class DetectDescribeSurfPlanar<II extends ImageGray<II>>
 
 		// describe the found interest points
 		foundPoints = detector.getFoundPoints();
+		describeDetections();
+	}
 
+	/**
+	 * Estimates the orientation of each detected point and computes its description
+	 */
+	protected void describeDetections() {
 		for( int i = 0; i < foundPoints.size(); i++ ) {
 			ScalePoint p = foundPoints.get(i);
 			orientation.setObjectRadius(p.scale);
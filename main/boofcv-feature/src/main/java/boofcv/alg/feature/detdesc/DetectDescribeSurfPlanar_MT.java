@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.orientation.OrientationIntegral;
+import boofcv.alg.feature.describe.DescribePointSurfPlanar;
+import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent implementation of {@link DetectDescribeSurfPlanar}. The detected points are split into batches and
+ * each batch is described by a thread with its own orientation estimator and descriptor. Output storage is
+ * assigned before describing, so the features are in the same order as the single threaded version.
+ *
+ * @param <II> Type of integral image
+ *
+ * @author Peter Abeles
+ */
+public class DetectDescribeSurfPlanar_MT<II extends ImageGray<II>> extends DetectDescribeSurfPlanar<II>
+{
+	// used to create the algorithms for each thread
+	private final Supplier<OrientationIntegral<II>> factoryOrientation;
+	private final Supplier<DescribePointSurfPlanar<II>> factoryDescribe;
+
+	// algorithms which are not being used by a thread
+	private final ArrayDeque<ThreadData> available = new ArrayDeque<>();
+
+	public DetectDescribeSurfPlanar_MT(FastHessianFeatureDetector<II> detector,
+									   Supplier<OrientationIntegral<II>> factoryOrientation,
+									   Supplier<DescribePointSurfPlanar<II>> factoryDescribe )
+	{
+		super(detector, factoryOrientation.get(), factoryDescribe.get());
+		this.factoryOrientation = factoryOrientation;
+		this.factoryDescribe = factoryDescribe;
+	}
+
+	@Override
+	protected void describeDetections() {
+		descriptions.resize(foundPoints.size());
+		featureAngles.resize(foundPoints.size());
+
+		BoofConcurrency.loopBlocks(0,foundPoints.size(),(idx0,idx1)->{
+			ThreadData data;
+			synchronized (available) {
+				data = available.isEmpty() ? new ThreadData() : available.pop();
+			}
+			data.orientation.setImage(grayII);
+			data.describe.setImage(grayII,colorII);
+
+			for( int i = idx0; i < idx1; i++ ) {
+				ScalePoint p = foundPoints.get(i);
+				data.orientation.setObjectRadius(p.scale);
+				double angle = data.orientation.compute(p.x,p.y);
+
+				data.describe.describe(p.x, p.y, angle, p.scale, descriptions.get(i));
+				featureAngles.data[i] = angle;
+			}
+
+			synchronized (available) {
+				available.push(data);
+			}
+		});
+	}
+
+	/**
+	 * Algorithms used by a single thread
+	 */
+	private class ThreadData {
+		final OrientationIntegral<II> orientation = factoryOrientation.get();
+		final DescribePointSurfPlanar<II> describe = factoryDescribe.get();
+	}
+}
@@ -28,9 +28,9 @@ import java.util.List;
 
 /**
  * <p>Concurrent implementation of {@link NonMaxBlock_MT}. Every row of block is run in its own threads.
- * All threads keep track of all the found mins/maxs in seperate lists which are then combined after
- * a thread has finished running. All searches and point lists declared for each thread
- * are saved for future use</p>
+ * All threads keep track of all the found mins/maxs in seperate lists which are then combined, in order
+ * of block row, after all threads have finished running. This way the output is in the same order as
+ * {@link NonMaxBlock}. All searches and point lists declared for each thread are saved for future use</p>
  *
  * @author Peter Abeles
  */
@@ -40,6 +40,9 @@ public class NonMaxBlock_MT extends NonMaxBlock {
 	final Object lock = new Object();
 	final List<Search> searches = new ArrayList<>();
 	final List<QueueCorner> cornerLists = new ArrayList<>();
+	// found mins/maxs in each block row. Used to combine the results in a deterministic order
+	final List<QueueCorner> rowsMin = new ArrayList<>();
+	final List<QueueCorner> rowsMax = new ArrayList<>();
 
 	public NonMaxBlock_MT(Search search) {
 		super(search);
@@ -74,6 +77,13 @@ public class NonMaxBlock_MT extends NonMaxBlock {
 		if( range > N*step )
 			N += 1;
 
+		rowsMin.clear();
+		rowsMax.clear();
+		for (int i = 0; i < N; i++) {
+			rowsMin.add(null);
+			rowsMax.add(null);
+		}
+
 		BoofConcurrency.loopFor(0,N, iterY -> {
 
 			NonMaxBlock.Search search;
@@ -108,16 +118,23 @@ public class NonMaxBlock_MT extends NonMaxBlock {
 
 			// Save the results and recycle thread working space
 			synchronized (lock) {
-				saveResults(localMin, threadMin);
-				saveResults(localMax, threadMax);
-
+				rowsMin.set(iterY,threadMin);
+				rowsMax.set(iterY,threadMax);
 				searches.add(search);
-				if( threadMin != null )
-					cornerLists.add(threadMin);
-				if( threadMax != null )
-					cornerLists.add(threadMax);
 			}
 		});
+
+		// combine the results in the same order as the single threaded version
+		for (int i = 0; i < N; i++) {
+			QueueCorner threadMin = rowsMin.get(i);
+			QueueCorner threadMax = rowsMax.get(i);
+			saveResults(localMin, threadMin);
+			saveResults(localMax, threadMax);
+			if( threadMin != null )
+				cornerLists.add(threadMin);
+			if( threadMax != null )
+				cornerLists.add(threadMax);
+		}
 	}
 
 	private QueueCorner pop() {
@@ -72,11 +72,11 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	// pixel index offsets for the circle
 	protected int []offsets;
 	// the image's stride.  Used to determine if the offsets need to be recomputed
-	private int stride = 0;
+	protected int stride = 0;
 
 	// list of pixels that might be corners.
-	private QueueCorner candidatesLow = new QueueCorner(10);
-	private QueueCorner candidatesHigh = new QueueCorner(10);
+	protected QueueCorner candidatesLow = new QueueCorner(10);
+	protected QueueCorner candidatesHigh = new QueueCorner(10);
 
 	// reference to the input image
 	protected T image;
@@ -121,18 +121,62 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	 * used
 	 */
 	public void process( T image , GrayF32 intensity ) {
-		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
 		candidatesLow.reset();
 		candidatesHigh.reset();
 		this.image = image;
 
+		updateOffsets(image);
+		helper.setImage(image,offsets);
+
+		processRows(helper,intensity,radius,image.height-radius,candidatesLow,candidatesHigh);
+	}
+
+	/**
+	 * Computes fast corner features
+	 */
+	public void process( T image ) {
+		candidatesLow.reset();
+		candidatesHigh.reset();
+		this.image = image;
+
+		updateOffsets(image);
+		helper.setImage(image,offsets);
+
+		processRows(helper,radius,image.height-radius,candidatesLow,candidatesHigh);
+	}
+
+	/**
+	 * Recomputes the circle's pixel offsets if the image's stride has changed
+	 */
+	protected void updateOffsets( T image ) {
 		if( stride != image.stride ) {
 			stride = image.stride;
 			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
 		}
-		helper.setImage(image,offsets);
+	}
 
-		for (int y = radius; y < image.height-radius; y++) {
+	/**
+	 * Maximum number of candidate corners it will detect in the image
+	 */
+	protected int maxFeatures( T image ) {
+		return (int)(maxFeaturesFraction*image.width*image.height);
+	}
+
+	/**
+	 * Detects corners and computes their intensity inside of the rows from y0 to y1-1
+	 *
+	 * @param helper Helper which has already been given the image
+	 * @param intensity (Output) Corner intensity
+	 * @param y0 First row. Inclusive.
+	 * @param y1 Last row. Exclusive.
+	 * @param candidatesLow (Output) Corners which are darker than their surroundings
+	 * @param candidatesHigh (Output) Corners which are brighter than their surroundings
+	 */
+	protected void processRows( FastCornerInterface<T> helper , GrayF32 intensity , int y0 , int y1 ,
+								QueueCorner candidatesLow , QueueCorner candidatesHigh ) {
+		final int maxFeatures = maxFeatures(image);
+
+		for (int y = y0; y < y1; y++) {
 			int indexIntensity = intensity.startIndex + y*intensity.stride + radius;
 			int index = image.startIndex + y*image.stride + radius;
 			for (int x = radius; x < image.width-radius; x++, index++,indexIntensity++) {
@@ -156,21 +200,15 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	}
 
 	/**
-	 * Computes fast corner features
+	 * Detects corners inside of the rows from y0 to y1-1
+	 *
+	 * @see #processRows(FastCornerInterface, GrayF32, int, int, QueueCorner, QueueCorner)
 	 */
-	public void process( T image ) {
-		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
-		candidatesLow.reset();
-		candidatesHigh.reset();
-		this.image = image;
-
-		if( stride != image.stride ) {
-			stride = image.stride;
-			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
-		}
-		helper.setImage(image,offsets);
+	protected void processRows( FastCornerInterface<T> helper , int y0 , int y1 ,
+								QueueCorner candidatesLow , QueueCorner candidatesHigh ) {
+		final int maxFeatures = maxFeatures(image);
 
-		for (int y = radius; y < image.height-radius; y++) {
+		for (int y = y0; y < y1; y++) {
 			int index = image.startIndex + y*image.stride + radius;
 			for (int x = radius; x < image.width-radius; x++, index++) {
 
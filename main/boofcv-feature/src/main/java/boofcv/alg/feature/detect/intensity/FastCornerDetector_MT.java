@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.FastCornerInterface;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link FastCornerDetector}. The image is split into bands of rows and each band
+ * is processed by a different thread with its own helper and list of candidate corners. Once all the bands have
+ * been processed their corners are added to the output lists in row order, producing the same output as the
+ * single threaded version. If the helper can't create {@link FastCornerInterface#newInstance() new instances}
+ * then the image is processed in a single thread.
+ * </p>
+ *
+ * <p>
+ * If {@link #getMaxFeaturesFraction() the maximum number of features} is exceeded then the same corners are
+ * returned, but the intensity image might be modified in more rows since each band stops independently.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FastCornerDetector_MT<T extends ImageGray<T>> extends FastCornerDetector<T> {
+
+	// minimum number of rows each thread will process
+	private static final int MIN_BLOCK = 10;
+
+	// storage for each band of rows which can be recycled
+	private final ArrayDeque<Band<T>> available = new ArrayDeque<>();
+	// bands which have been processed in the current image
+	private final List<Band<T>> processed = new ArrayList<>();
+	// if false then the helper can't be copied and the single threaded code is used
+	private final boolean concurrentHelper;
+
+	/**
+	 * Constructor
+	 *
+	 * @param helper Provide the image type specific helper.
+	 */
+	public FastCornerDetector_MT(FastCornerInterface<T> helper) {
+		super(helper);
+		this.concurrentHelper = helper.newInstance() != null;
+	}
+
+	@Override
+	public void process( T image , GrayF32 intensity ) {
+		if( !concurrentHelper ) {
+			super.process(image,intensity);
+			return;
+		}
+
+		candidatesLow.reset();
+		candidatesHigh.reset();
+		this.image = image;
+
+		updateOffsets(image);
+
+		BoofConcurrency.loopBlocks(radius,image.height-radius,MIN_BLOCK,(y0,y1)->{
+			Band<T> band = startBand(y0);
+			processRows(band.helper,intensity,y0,y1,band.low,band.high);
+			finishBand(band);
+		});
+
+		mergeBands();
+	}
+
+	@Override
+	public void process( T image ) {
+		if( !concurrentHelper ) {
+			super.process(image);
+			return;
+		}
+
+		candidatesLow.reset();
+		candidatesHigh.reset();
+		this.image = image;
+
+		updateOffsets(image);
+
+		BoofConcurrency.loopBlocks(radius,image.height-radius,MIN_BLOCK,(y0,y1)->{
+			Band<T> band = startBand(y0);
+			processRows(band.helper,y0,y1,band.low,band.high);
+			finishBand(band);
+		});
+
+		mergeBands();
+	}
+
+	/**
+	 * Gets storage for a band of rows and prepares it to process the image
+	 */
+	private Band<T> startBand( int y0 ) {
+		Band<T> band;
+		synchronized (available) {
+			band = available.isEmpty() ? new Band<>(helper.newInstance()) : available.pop();
+		}
+		band.y0 = y0;
+		band.low.reset();
+		band.high.reset();
+		band.helper.setImage(image,offsets);
+		return band;
+	}
+
+	private void finishBand( Band<T> band ) {
+		synchronized (available) {
+			processed.add(band);
+		}
+	}
+
+	/**
+	 * Adds the corners from each band into the output lists in row order then recycles the bands. Just like
+	 * the single threaded version it stops after the row which causes the maximum number of features to be exceeded.
+	 */
+	private void mergeBands() {
+		processed.sort((a,b)->Integer.compare(a.y0,b.y0));
+
+		final int maxFeatures = maxFeatures(image);
+		boolean full = false;
+		for (int i = 0; i < processed.size(); i++) {
+			Band<T> band = processed.get(i);
+			if( !full )
+				full = mergeBand(band.low,band.high,maxFeatures);
+			available.push(band);
+		}
+		processed.clear();
+	}
+
+	/**
+	 * Adds corners one row at a time until all have been added or the maximum number of features is exceeded
+	 *
+	 * @return true if the maximum number of features was exceeded
+	 */
+	private boolean mergeBand( QueueCorner low , QueueCorner high , int maxFeatures ) {
+		int indexLow = 0, indexHigh = 0;
+		while( indexLow < low.size || indexHigh < high.size ) {
+			int y = Integer.MAX_VALUE;
+			if( indexLow < low.size )
+				y = low.data[indexLow].y;
+			if( indexHigh < high.size )
+				y = Math.min(y,high.data[indexHigh].y);
+
+			while( indexLow < low.size && low.data[indexLow].y == y )
+				candidatesLow.add(low.data[indexLow++]);
+			while( indexHigh < high.size && high.data[indexHigh].y == y )
+				candidatesHigh.add(high.data[indexHigh++]);
+
+			if( candidatesLow.size + candidatesHigh.size >= maxFeatures )
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Storage for a band of rows processed by a single thread
+	 */
+	private static class Band<T extends ImageGray<T>> {
+		final FastCornerInterface<T> helper;
+		final QueueCorner low = new QueueCorner(10);
+		final QueueCorner high = new QueueCorner(10);
+		// first row in the band
+		int y0;
+
+		Band(FastCornerInterface<T> helper) {
+			this.helper = helper;
+		}
+	}
+}
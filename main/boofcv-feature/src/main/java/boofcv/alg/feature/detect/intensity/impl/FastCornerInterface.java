@@ -20,6 +20,8 @@ package boofcv.alg.feature.detect.intensity.impl;
 
 import boofcv.struct.image.ImageGray;
 
+import javax.annotation.Nullable;
+
 /**
  * @author Peter Abeles
  */
@@ -37,4 +39,14 @@ public interface FastCornerInterface<T extends ImageGray<T>> {
 	float scoreUpper( int index );
 
 	void setThreshold( int index );
+
+	/**
+	 * Creates a new instance with the same configuration. Used to create a helper for each thread. The default
+	 * implementation returns null, in which case concurrent detectors process the image in a single thread.
+	 *
+	 * @return A new instance or null if not supported
+	 */
+	default @Nullable FastCornerInterface<T> newInstance() {
+		return null;
+	}
 }
\ No newline at end of file
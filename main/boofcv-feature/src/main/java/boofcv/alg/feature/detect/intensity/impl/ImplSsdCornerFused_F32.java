@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity.impl;
+
+import boofcv.alg.filter.convolve.noborder.ConvolveImageStandard_SB;
+import boofcv.alg.filter.convolve.noborder.ConvolveImageUnrolled_SB_F32_F32;
+import boofcv.alg.filter.convolve.normalized.ConvolveNormalizedNaive_SB;
+import boofcv.alg.filter.convolve.normalized.ConvolveNormalized_JustBorder_SB;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.FWorkArrays;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Computes an unweighted SSD corner intensity (e.g. Harris or Shi-Tomasi) directly from the input image in a single
+ * pass. Gaussian blur, Sobel gradient, and the box window sums are fused together and computed one row at a time.
+ * Only a rolling window of rows for each stage is kept in memory, so the intermediate values stay in cache instead
+ * of being written to and then read back from several full resolution images.
+ * </p>
+ *
+ * <p>
+ * The output is equivalent to applying {@link boofcv.alg.filter.blur.BlurImageOps#gaussian} with a normalized
+ * border, then {@link boofcv.alg.filter.derivative.GradientSobel} with an extended border, and then
+ * {@link ImplSsdCorner_F32}. Only floating point arithmetic is used, even for {@link GrayU8} input,
+ * so the intensity has the same scale as when the input is first converted into a {@link GrayF32}.
+ * Pixels within radius of the image border are set to zero.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplSsdCornerFused_F32<T extends ImageGray<T>> {
+
+	// Gaussian blur kernel. If null then no blur is applied
+	protected @Nullable Kernel1D_F32 blur;
+	// radius of the box window that gradients are summed inside of
+	protected int radius;
+	// computes the corner intensity from the summed gradients
+	protected ImplSsdCornerBase.CornerIntensity_F32 intensity;
+
+	// storage for the rolling row buffers
+	protected FWorkArrays work = new FWorkArrays();
+
+	// references to the input and output images
+	protected T input;
+	protected GrayF32 output;
+	protected int width, height;
+
+	/**
+	 * Configures the operator
+	 *
+	 * @param blur Gaussian kernel which is applied before the gradient is computed. If null no blur is applied.
+	 * @param windowRadius Radius of the box window the gradient is summed inside of
+	 * @param intensity Computes the corner intensity from the summed gradients
+	 */
+	public ImplSsdCornerFused_F32( @Nullable Kernel1D_F32 blur, int windowRadius,
+								   ImplSsdCornerBase.CornerIntensity_F32 intensity ) {
+		this.blur = blur;
+		this.radius = windowRadius;
+		this.intensity = intensity;
+	}
+
+	/**
+	 * Computes the corner intensity of the input image
+	 *
+	 * @param input (Input) Image. {@link GrayU8} or {@link GrayF32}
+	 * @param output (Output) Corner intensity. Reshaped to match the input.
+	 */
+	public void process( T input, GrayF32 output ) {
+		if( !(input instanceof GrayU8 || input instanceof GrayF32) )
+			throw new IllegalArgumentException("Unsupported image type "+input.getClass().getSimpleName());
+
+		output.reshape(input.width,input.height);
+		this.input = input;
+		this.output = output;
+		this.width = input.width;
+		this.height = input.height;
+		work.reset(width);
+
+		// there is no intensity computed along the border. Make sure it's always zero
+		ImageMiscOps.fillBorder(output,0,radius);
+
+		if( width <= 2*radius || height <= 2*radius )
+			return;
+
+		processRows(radius,height-radius);
+	}
+
+	/**
+	 * Computes the intensity for output rows y0 to y1-1. Rows are streamed from the input and only the rows
+	 * needed to compute the current output row are kept. Independent calls share no state and can be run at
+	 * the same time.
+	 */
+	protected void processRows( int y0, int y1 ) {
+		Window w = new Window();
+		w.initialize(y0);
+
+		final int backStep = radius*2 + 1;
+		final float[] tempXX = work.pop();
+		final float[] tempXY = work.pop();
+		final float[] tempYY = work.pop();
+
+		// first row is computed by summing the entire window
+		for (int i = y0-radius; i <= y0+radius; i++) {
+			w.computeSums(i);
+		}
+		for (int x = radius; x < width-radius; x++) {
+			float totalXX = 0, totalXY = 0, totalYY = 0;
+			for (int i = y0-radius; i <= y0+radius; i++) {
+				int ring = w.ringSums(i);
+				totalXX += w.sumXX[ring][x];
+				totalXY += w.sumXY[ring][x];
+				totalYY += w.sumYY[ring][x];
+			}
+			tempXX[x] = totalXX;
+			tempXY[x] = totalXY;
+			tempYY[x] = totalYY;
+		}
+		computeIntensity(y0,tempXX,tempXY,tempYY);
+
+		// the rest are updated by adding the new row and removing the oldest row
+		for (int y = y0+1; y < y1; y++) {
+			w.computeSums(y+radius);
+			int ringAdd = w.ringSums(y+radius);
+			int ringSub = w.ringSums(y+radius-backStep);
+
+			final float[] addXX = w.sumXX[ringAdd], subXX = w.sumXX[ringSub];
+			final float[] addXY = w.sumXY[ringAdd], subXY = w.sumXY[ringSub];
+			final float[] addYY = w.sumYY[ringAdd], subYY = w.sumYY[ringSub];
+
+			for (int x = radius; x < width-radius; x++) {
+				float totalXX = tempXX[x] - subXX[x];
+				tempXX[x] = totalXX + addXX[x];
+				float totalXY = tempXY[x] - subXY[x];
+				tempXY[x] = totalXY + addXY[x];
+				float totalYY = tempYY[x] - subYY[x];
+				tempYY[x] = totalYY + addYY[x];
+			}
+			computeIntensity(y,tempXX,tempXY,tempYY);
+		}
+
+		work.recycle(tempXX);
+		work.recycle(tempXY);
+		work.recycle(tempYY);
+		w.recycle();
+	}
+
+	private void computeIntensity( int y, float[] tempXX, float[] tempXY, float[] tempYY ) {
+		final float[] inten = output.data;
+		int indexOut = output.startIndex + y*output.stride + radius;
+		for (int x = radius; x < width-radius; x++) {
+			inten[indexOut++] = intensity.compute(tempXX[x],tempXY[x],tempYY[x]);
+		}
+	}
+
+	/**
+	 * Copies a row from the input image into a float array
+	 */
+	private void convertRow( int y, float[] row ) {
+		if( input instanceof GrayU8 ) {
+			GrayU8 img = (GrayU8)input;
+			int index = img.startIndex + y*img.stride;
+			for (int x = 0; x < width; x++) {
+				row[x] = img.data[index++] & 0xFF;
+			}
+		} else {
+			GrayF32 img = (GrayF32)input;
+			System.arraycopy(img.data,img.startIndex + y*img.stride,row,0,width);
+		}
+	}
+
+	/**
+	 * Horizontal blur with a normalized border. The rows are wrapped inside of single row images so that the
+	 * same optimized convolution code used by {@link boofcv.alg.filter.blur.BlurImageOps} can be used.
+	 */
+	private void blurHorizontal( GrayF32 src, GrayF32 dst ) {
+		if( blur.width >= width ) {
+			ConvolveNormalizedNaive_SB.horizontal(blur,src,dst);
+		} else {
+			if( !ConvolveImageUnrolled_SB_F32_F32.horizontal(blur,src,dst) )
+				ConvolveImageStandard_SB.horizontal(blur,src,dst);
+			ConvolveNormalized_JustBorder_SB.horizontal(blur,src,dst);
+		}
+	}
+
+	/**
+	 * Storage for the rolling windows of rows used by each stage. A row is computed only once and is
+	 * stored in a ring buffer until it's no longer needed.
+	 */
+	protected class Window {
+		// input rows after being horizontally blurred
+		float[][] blurH;
+		// input rows after the full blur has been applied
+		float[][] blurred;
+		// horizontal sum of gradient products
+		float[][] sumXX, sumXY, sumYY;
+		// single row images used to wrap the input and output of the horizontal blur
+		GrayF32 rowInput = new GrayF32(), rowOutput = new GrayF32();
+		// storage for the gradient of a single row
+		float[] derivX, derivY;
+
+		// index of the next row which will be computed for each stage
+		int nextBlurH, nextBlurred, nextSums;
+
+		void initialize( int y0 ) {
+			int numBlurH = blur == null ? 0 : blur.width;
+			blurH = new float[numBlurH][];
+			for (int i = 0; i < numBlurH; i++) {
+				blurH[i] = work.pop();
+			}
+			blurred = new float[3][];
+			for (int i = 0; i < 3; i++) {
+				blurred[i] = work.pop();
+			}
+			int numSums = 2*radius + 2;
+			sumXX = new float[numSums][];
+			sumXY = new float[numSums][];
+			sumYY = new float[numSums][];
+			for (int i = 0; i < numSums; i++) {
+				sumXX[i] = work.pop();
+				sumXY[i] = work.pop();
+				sumYY[i] = work.pop();
+			}
+			rowInput.data = work.pop();
+			rowInput.width = rowOutput.width = width;
+			rowInput.height = rowOutput.height = 1;
+			rowInput.stride = rowOutput.stride = width;
+			derivX = work.pop();
+			derivY = work.pop();
+
+			nextSums = y0-radius;
+			nextBlurred = Math.max(0,nextSums-1);
+			nextBlurH = blur == null ? 0 : Math.max(0,nextBlurred-blur.offset);
+		}
+
+		void recycle() {
+			for (int i = 0; i < blurH.length; i++) {
+				work.recycle(blurH[i]);
+			}
+			for (int i = 0; i < blurred.length; i++) {
+				work.recycle(blurred[i]);
+			}
+			for (int i = 0; i < sumXX.length; i++) {
+				work.recycle(sumXX[i]);
+				work.recycle(sumXY[i]);
+				work.recycle(sumYY[i]);
+			}
+			work.recycle(rowInput.data);
+			work.recycle(derivX);
+			work.recycle(derivY);
+		}
+
+		int ringSums( int row ) {
+			return row % sumXX.length;
+		}
+
+		float[] getBlurred( int row ) {
+			// extended border
+			if( row < 0 ) row = 0;
+			else if( row >= height ) row = height-1;
+			return blurred[row % 3];
+		}
+
+		/**
+		 * Computes rows of the horizontally blurred image up to and including 'row'
+		 */
+		void computeBlurH( int row ) {
+			for (; nextBlurH <= row; nextBlurH++) {
+				convertRow(nextBlurH,rowInput.data);
+				rowOutput.data = blurH[nextBlurH % blurH.length];
+				blurHorizontal(rowInput,rowOutput);
+			}
+		}
+
+		/**
+		 * Computes rows of the blurred image up to and including 'row'
+		 */
+		void computeBlurred( int row ) {
+			row = Math.min(row,height-1);
+			for (; nextBlurred <= row; nextBlurred++) {
+				float[] dst = blurred[nextBlurred % 3];
+				if( blur == null ) {
+					convertRow(nextBlurred,dst);
+					continue;
+				}
+
+				final float[] k = blur.data;
+				final int offset = blur.offset;
+				int startY = nextBlurred - offset;
+				int endY = startY + blur.width;
+				computeBlurH(Math.min(endY,height)-1);
+
+				// rows outside the image are skipped and the kernel is normalized
+				float weight = 0;
+				int kernelStart = 0;
+				if( startY < 0 ) {
+					kernelStart = -startY;
+					startY = 0;
+				}
+				if( endY > height ) endY = height;
+
+				float[] src = blurH[startY % blurH.length];
+				float v = k[kernelStart];
+				for (int x = 0; x < width; x++) {
+					dst[x] = src[x]*v;
+				}
+				weight += v;
+				for (int i = startY+1, j = kernelStart+1; i < endY; i++, j++) {
+					src = blurH[i % blurH.length];
+					v = k[j];
+					for (int x = 0; x < width; x++) {
+						dst[x] += src[x]*v;
+					}
+					weight += v;
+				}
+				if( kernelStart != 0 || endY-startY != blur.width ) {
+					for (int x = 0; x < width; x++) {
+						dst[x] /= weight;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Computes rows of horizontal gradient sums up to and including 'row'
+		 */
+		void computeSums( int row ) {
+			for (; nextSums <= row; nextSums++) {
+				computeBlurred(nextSums+1);
+				computeGradient(nextSums);
+				horizontal(sumXX[ringSums(nextSums)],sumXY[ringSums(nextSums)],sumYY[ringSums(nextSums)]);
+			}
+		}
+
+		/**
+		 * Sobel gradient with an extended border
+		 */
+		void computeGradient( int row ) {
+			final float[] a = getBlurred(row-1);
+			final float[] b = getBlurred(row);
+			final float[] c = getBlurred(row+1);
+
+			gradient(a,b,c,0,0,Math.min(1,width-1));
+			for (int x = 1; x < width-1; x++) {
+				float v = (c[x+1] - a[x-1])*0.25F;
+				float w = (c[x-1] - a[x+1])*0.25F;
+
+				derivY[x] = (c[x] - a[x])*0.5F + v + w;
+				derivX[x] = (b[x+1] - b[x-1])*0.5F + v - w;
+			}
+			if( width > 1 )
+				gradient(a,b,c,width-1,width-2,width-1);
+		}
+
+		/**
+		 * Computes the gradient at a single pixel with the neighbors explicitly specified, for the image border
+		 */
+		void gradient( float[] a, float[] b, float[] c, int x, int xm, int xp ) {
+			float v = (c[xp] - a[xm])*0.25F;
+			float w = (c[xm] - a[xp])*0.25F;
+
+			derivY[x] = (c[x] - a[x])*0.5F + v + w;
+			derivX[x] = (b[xp] - b[xm])*0.5F + v - w;
+		}
+
+		/**
+		 * Sums the gradient products along the row inside the window
+		 */
+		void horizontal( float[] hXX, float[] hXY, float[] hYY ) {
+			final int windowWidth = radius*2 + 1;
+
+			float totalXX = 0, totalXY = 0, totalYY = 0;
+			for (int x = 0; x < windowWidth; x++) {
+				float dx = derivX[x];
+				float dy = derivY[x];
+
+				totalXX += dx*dx;
+				totalXY += dx*dy;
+				totalYY += dy*dy;
+			}
+			hXX[radius] = totalXX;
+			hXY[radius] = totalXY;
+			hYY[radius] = totalYY;
+
+			for (int x = windowWidth; x < width; x++) {
+				float dx = derivX[x-windowWidth];
+				float dy = derivY[x-windowWidth];
+
+				totalXX -= dx*dx;
+				totalXY -= dx*dy;
+				totalYY -= dy*dy;
+
+				dx = derivX[x];
+				dy = derivY[x];
+
+				totalXX += dx*dx;
+				totalXY += dx*dy;
+				totalYY += dy*dy;
+
+				hXX[x-radius] = totalXX;
+				hXY[x-radius] = totalXY;
+				hYY[x-radius] = totalYY;
+			}
+		}
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public int getIgnoreBorder() {
+		return radius;
+	}
+
+	public @Nullable Kernel1D_F32 getBlur() {
+		return blur;
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.ImageGray;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>Concurrent implementation of {@link ImplSsdCornerFused_F32}. The output rows are split into horizontal bands
+ * and each thread streams through its own band. Every band maintains its own rolling window of rows, which means
+ * the rows that overlap with the band above it are computed twice.</p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplSsdCornerFused_F32_MT<T extends ImageGray<T>> extends ImplSsdCornerFused_F32<T> {
+
+	public ImplSsdCornerFused_F32_MT( @Nullable Kernel1D_F32 blur, int windowRadius,
+									  ImplSsdCornerBase.CornerIntensity_F32 intensity ) {
+		super(blur, windowRadius, intensity);
+	}
+
+	@Override
+	protected void processRows( int y0, int y1 ) {
+		// bands should be large relative to the overlap or else the redundant computations will dominate
+		int overlap = 2*radius + 2 + (blur == null ? 0 : blur.width);
+		BoofConcurrency.loopBlocks(y0,y1,4*overlap,(blockY0,blockY1)->super.processRows(blockY0,blockY1));
+	}
+}
@@ -30,6 +30,7 @@ import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_I16;
 import org.ddogleg.struct.FastQueue;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 
@@ -87,9 +88,9 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 	// finds features from 2D intensity image
 	private NonMaxSuppression extractor;
 	// sorts feature by their intensity
-	private SelectNBestFeatures sortBest;
+	private @Nullable SelectNBestFeatures sortBest;
 	// the maximum number of returned feature per scale
-	private int maxFeaturesPerScale;
+	protected int maxFeaturesPerScale;
 
 	// local sub-space
 	private GrayF32 intensity[];
@@ -97,7 +98,7 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 	private QueueCorner foundFeatures = new QueueCorner(100);
 
 	// List of found feature points
-	private FastQueue<ScalePoint> foundPoints = new FastQueue<>(10, ScalePoint.class, true);
+	protected FastQueue<ScalePoint> foundPoints = new FastQueue<>(10, ScalePoint.class, true);
 
 	// size of detected feature at the smallest scale
 	private int initialSize;
@@ -154,12 +155,6 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 	 * @param integral Image transformed into an integral image.
 	 */
 	public void detect( II integral ) {
-		if( intensity == null ) {
-			intensity = new GrayF32[3];
-			for( int i = 0; i < intensity.length; i++ ) {
-				intensity[i] = new GrayF32(integral.width,integral.height);
-			}
-		}
 		foundPoints.reset();
 
 		// computes feature intensity every 'skip' pixels
@@ -200,6 +195,13 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 		int w = integral.width/skip;
 		int h = integral.height/skip;
 
+		if( intensity == null ) {
+			intensity = new GrayF32[3];
+			for( int i = 0; i < intensity.length; i++ ) {
+				intensity[i] = new GrayF32(w,h);
+			}
+		}
+
 		// resize the output intensity image taking in account subsampling
 		for( int i = 0; i < intensity.length; i++ ) {
 			intensity[i].reshape(w,h);
@@ -215,7 +217,12 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 
 			// find maximum in scale space
 			if( i >= 2 ) {
-				findLocalScaleSpaceMax(featureSize,i-1,skip);
+				int index0 = spaceIndex;
+				int index1 = (spaceIndex + 1) % 3;
+				int index2 = (spaceIndex + 2) % 3;
+
+				findLocalScaleSpaceMax(intensity[index0],intensity[index1],intensity[index2],featureSize,i-1,skip,
+						extractor,sortBest,foundFeatures,foundPoints);
 			}
 		}
 	}
@@ -223,31 +230,37 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 	/**
 	 * Looks for features which are local maximums in the image and scale-space.
 	 *
+	 * @param intensityLower Feature intensity in the scale below
+	 * @param intensityTarget Feature intensity in the scale which features are detected in
+	 * @param intensityUpper Feature intensity in the scale above
 	 * @param size Size of features in different scale-spaces.
 	 * @param level Which level in the scale-space
 	 * @param skip How many pixels are skipped over.
+	 * @param extractor Finds local maximums in the target scale
+	 * @param sortBest If not null, used to select the features with the highest intensity
+	 * @param foundFeatures Work space for local maximums
+	 * @param foundPoints (Output) Storage for found features
 	 */
-	private void findLocalScaleSpaceMax(int []size, int level, int skip) {
-		int index0 = spaceIndex;
-		int index1 = (spaceIndex + 1) % 3;
-		int index2 = (spaceIndex + 2) % 3;
-
-		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index0], 0);
-		GrayF32 inten1 = intensity[index1];
-		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index2], 0);
+	protected void findLocalScaleSpaceMax( GrayF32 intensityLower, GrayF32 intensityTarget, GrayF32 intensityUpper,
+										   int []size, int level, int skip,
+										   NonMaxSuppression extractor , @Nullable SelectNBestFeatures sortBest,
+										   QueueCorner foundFeatures , FastQueue<ScalePoint> foundPoints ) {
+		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensityLower, 0);
+		GrayF32 inten1 = intensityTarget;
+		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensityUpper, 0);
 
 		// find local maximums in image 2D space.  Borders need to be ignored since
 		// false positives are found around them as an artifact of pixels outside being
 		// treated as being zero.
 		foundFeatures.reset();
 		extractor.setIgnoreBorder(size[level] / (2 * skip));
-		extractor.process(intensity[index1],null,null,null,foundFeatures);
+		extractor.process(intensityTarget,null,null,null,foundFeatures);
 
 		// Can't consider feature which are right up against the border since they might not be a true local
 		// maximum when you consider the features on the other side of the ignore border
 		int ignoreRadius = extractor.getIgnoreBorder() + extractor.getSearchRadius();
-		int ignoreWidth = intensity[index1].width-ignoreRadius;
-		int ignoreHeight = intensity[index1].height-ignoreRadius;
+		int ignoreWidth = intensityTarget.width-ignoreRadius;
+		int ignoreHeight = intensityTarget.height-ignoreRadius;
 
 		// number of features which can be added
 		int numberRemaining;
@@ -255,7 +268,7 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 		// if configured to do so, only select the features with the highest intensity
 		QueueCorner features;
 		if( sortBest != null ) {
-			sortBest.process(intensity[index1],foundFeatures,true);
+			sortBest.process(intensityTarget,foundFeatures,true);
 			features = sortBest.getBestCorners();
 			numberRemaining = maxFeaturesPerScale;
 		} else {
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.detect.extract.SelectNBestFeatures;
+import boofcv.alg.feature.detect.intensity.GIntegralImageFeatureIntensity;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent implementation of {@link FastHessianFeatureDetector}. Inside each octave the feature intensity of
+ * every scale is computed at the same time and then local maximums are found in every scale at the same time.
+ * Each scale has its own intensity image and feature extractor. Features are added in the same order as
+ * the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class FastHessianFeatureDetector_MT<II extends ImageGray<II>> extends FastHessianFeatureDetector<II> {
+
+	// used to create an extractor for each scale
+	private final Supplier<NonMaxSuppression> factoryExtractor;
+
+	// storage for each scale inside an octave
+	private final List<Scale> scales = new ArrayList<>();
+
+	/**
+	 * @see FastHessianFeatureDetector#FastHessianFeatureDetector(NonMaxSuppression, int, int, int, int, int, int)
+	 */
+	public FastHessianFeatureDetector_MT(Supplier<NonMaxSuppression> factoryExtractor, int maxFeaturesPerScale,
+										 int initialSampleRate, int initialSize,
+										 int numberScalesPerOctave,
+										 int numberOfOctaves, int scaleStepSize) {
+		super(factoryExtractor.get(), maxFeaturesPerScale, initialSampleRate, initialSize,
+				numberScalesPerOctave, numberOfOctaves, scaleStepSize);
+		this.factoryExtractor = factoryExtractor;
+	}
+
+	@Override
+	protected void detectOctave( II integral , int skip , int ...featureSize ) {
+		int w = integral.width/skip;
+		int h = integral.height/skip;
+
+		while( scales.size() < featureSize.length ) {
+			scales.add(new Scale());
+		}
+
+		// compute feature intensity in each scale
+		BoofConcurrency.loopFor(0,featureSize.length,i->{
+			Scale scale = scales.get(i);
+			scale.intensity.reshape(w,h);
+			GIntegralImageFeatureIntensity.hessian(integral,skip,featureSize[i],scale.intensity);
+		});
+
+		// find maximums in scale space
+		BoofConcurrency.loopFor(1,featureSize.length-1,i->{
+			Scale scale = scales.get(i);
+			scale.foundPoints.reset();
+			findLocalScaleSpaceMax(scales.get(i-1).intensity,scale.intensity,scales.get(i+1).intensity,
+					featureSize,i,skip,scale.extractor,scale.sortBest,scale.foundFeatures,scale.foundPoints);
+		});
+
+		for (int i = 1; i < featureSize.length-1; i++) {
+			FastQueue<ScalePoint> found = scales.get(i).foundPoints;
+			for (int j = 0; j < found.size; j++) {
+				foundPoints.grow().set(found.get(j));
+			}
+		}
+	}
+
+	/**
+	 * Storage for processing a single scale
+	 */
+	private class Scale {
+		final GrayF32 intensity = new GrayF32(1,1);
+		final NonMaxSuppression extractor = factoryExtractor.get();
+		final @Nullable SelectNBestFeatures sortBest =
+				maxFeaturesPerScale > 0 ? new SelectNBestFeatures(maxFeaturesPerScale) : null;
+		final QueueCorner foundFeatures = new QueueCorner(100);
+		final FastQueue<ScalePoint> foundPoints = new FastQueue<>(ScalePoint.class, true);
+	}
+}
@@ -168,26 +168,42 @@ public class SiftDetector {
 		detections.reset();
 
 		do {
-			// scale from octave to input image
-			pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
-
-			// detect features in the image
-			for (int j = 1; j < scaleSpace.getNumScales()+1; j++) {
-
-				// not really sure how to compute the scale for features found at a particular DoG image
-				// using the average resulted in less visually appealing circles in a test image
-				sigmaLower  = scaleSpace.computeSigmaScale( j - 1);
-				sigmaTarget = scaleSpace.computeSigmaScale( j    );
-				sigmaUpper  = scaleSpace.computeSigmaScale( j + 1);
+			processOctave();
+		} while( scaleSpace.computeNextOctave() );
+	}
 
-				// grab the local DoG scale space images
-				dogLower  = scaleSpace.getDifferenceOfGaussian(j-1);
-				dogTarget = scaleSpace.getDifferenceOfGaussian(j  );
-				dogUpper  = scaleSpace.getDifferenceOfGaussian(j+1);
+	/**
+	 * Detects features in every scale of the scale-space's current octave
+	 */
+	protected void processOctave() {
+		for (int j = 1; j < scaleSpace.getNumScales()+1; j++) {
+			processScale(j);
+		}
+	}
 
-				detectFeatures(j);
-			}
-		} while( scaleSpace.computeNextOctave() );
+	/**
+	 * Detects features in a single scale of the scale-space's current octave and adds them to the list of
+	 * detections. The scale-space is only read from, allowing several detectors which share it to process
+	 * different scales at the same time.
+	 *
+	 * @param scaleIndex Index of the DoG image that features are detected in. 1 to numScales, inclusive.
+	 */
+	public void processScale( int scaleIndex ) {
+		// scale from octave to input image
+		pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
+
+		// not really sure how to compute the scale for features found at a particular DoG image
+		// using the average resulted in less visually appealing circles in a test image
+		sigmaLower  = scaleSpace.computeSigmaScale( scaleIndex - 1);
+		sigmaTarget = scaleSpace.computeSigmaScale( scaleIndex    );
+		sigmaUpper  = scaleSpace.computeSigmaScale( scaleIndex + 1);
+
+		// grab the local DoG scale space images
+		dogLower  = scaleSpace.getDifferenceOfGaussian(scaleIndex-1);
+		dogTarget = scaleSpace.getDifferenceOfGaussian(scaleIndex  );
+		dogUpper  = scaleSpace.getDifferenceOfGaussian(scaleIndex+1);
+
+		detectFeatures(scaleIndex);
 	}
 
 	/**
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.ScalePoint;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent implementation of {@link SiftDetector}. Each scale inside an octave is processed by a different
+ * thread using its own detector. The scale-space is shared between detectors since it's only read from.
+ * Once every scale has been processed the detections are added in the same order as the single threaded
+ * version.
+ *
+ * @author Peter Abeles
+ */
+public class SiftDetector_MT extends SiftDetector {
+
+	// detector for each scale in an octave
+	final List<SiftDetector> scaleDetectors = new ArrayList<>();
+
+	/**
+	 * Configures SIFT detector
+	 *
+	 * @param scaleSpace Provides the scale space
+	 * @param edgeR Threshold used to remove edge responses.  Larger values means its less strict.  Try 10
+	 * @param factoryExtractor Creates the spatial feature detectors.
+	 * @see SiftDetector#SiftDetector(SiftScaleSpace, double, NonMaxLimiter)
+	 */
+	public SiftDetector_MT(SiftScaleSpace scaleSpace, double edgeR, Supplier<NonMaxLimiter> factoryExtractor) {
+		super(scaleSpace, edgeR, factoryExtractor.get());
+		for (int i = 0; i < scaleSpace.getNumScales(); i++) {
+			scaleDetectors.add(new SiftDetector(scaleSpace,edgeR,factoryExtractor.get()));
+		}
+	}
+
+	@Override
+	protected void processOctave() {
+		pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
+
+		BoofConcurrency.loopFor(0,scaleDetectors.size(),i->{
+			SiftDetector detector = scaleDetectors.get(i);
+			detector.getDetections().reset();
+			detector.processScale(i+1);
+		});
+
+		// add the detections in the same order as the single threaded version
+		for (int i = 0; i < scaleDetectors.size(); i++) {
+			FastQueue<ScalePoint> found = scaleDetectors.get(i).getDetections();
+			for (int j = 0; j < found.size; j++) {
+				ScalePoint p = detections.grow();
+				p.set(found.get(j));
+				handleDetection(p);
+			}
+		}
+	}
+}
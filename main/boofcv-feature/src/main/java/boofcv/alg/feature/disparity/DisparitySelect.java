@@ -20,6 +20,8 @@ package boofcv.alg.feature.disparity;
 
 import boofcv.struct.image.ImageGray;
 
+import javax.annotation.Nullable;
+
 /**
  * <p>
  * Selects the best disparity given the set of scores calculated by
@@ -64,4 +66,15 @@ public interface DisparitySelect<Array , T extends ImageGray> {
 	 * @return Image type for disparity
 	 */
 	public Class<T> getDisparityType();
+
+	/**
+	 * Creates a new instance with the same configuration but its own internal work space. This allows
+	 * different rows to be processed at the same time by different threads. The default implementation
+	 * returns null, in which case concurrent algorithms process every row with this instance in a single thread.
+	 *
+	 * @return A new instance which can be used concurrently with this one or null if not supported
+	 */
+	public default @Nullable DisparitySelect<Array,T> concurrentCopy() {
+		return null;
+	}
 }
@@ -82,6 +82,14 @@ public abstract class SelectRectStandard <Array , T extends ImageGray>
 		setTexture(texture);
 	}
 
+	/**
+	 * Copies the configuration from the original
+	 */
+	protected SelectRectStandard( SelectRectStandard<Array,T> original ) {
+		this.maxError = original.maxError;
+		this.rightToLeftTolerance = original.rightToLeftTolerance;
+	}
+
 	public abstract void setTexture( double threshold );
 
 	@Override
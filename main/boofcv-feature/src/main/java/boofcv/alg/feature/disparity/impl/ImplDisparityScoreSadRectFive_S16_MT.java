@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreWindowFive;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ImplDisparityScoreSadRectFive_S16}. The image is broken up into horizontal
+ * bands of output rows and each band is processed by a different thread. Bands overlap by twice the region's
+ * radius above and below so that the rolling window of vertical scores can be initialized. Each thread has its
+ * own scores and a copy of {@link DisparitySelect}, which are saved between calls.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplDisparityScoreSadRectFive_S16_MT<DI extends ImageGray<DI>>
+		extends DisparityScoreWindowFive<GrayS16, DI>
+{
+	// Computes disparity from scores. A copy is created for each thread
+	DisparitySelect<int[], DI> computeDisparity;
+	// if false then computeDisparity can't be copied and all the rows are processed by a single thread
+	boolean concurrentSelect;
+
+	// lock for the list of work space below
+	final Object lock = new Object();
+	// Work space for each thread. Saved for future use
+	final List<WorkSpace> workspace = new ArrayList<>();
+	ComputeBlock computeBlock = new ComputeBlock();
+
+	// references to input and output images
+	GrayS16 left, right;
+	DI disparity;
+
+	public ImplDisparityScoreSadRectFive_S16_MT(int minDisparity, int maxDisparity,
+											   int regionRadiusX, int regionRadiusY,
+											   DisparitySelect<int[], DI> computeDisparity) {
+		super(minDisparity,maxDisparity,regionRadiusX,regionRadiusY);
+		this.computeDisparity = computeDisparity;
+		this.concurrentSelect = computeDisparity.concurrentCopy() != null;
+	}
+
+	@Override
+	public void _process(GrayS16 left , GrayS16 right , DI disparity ) {
+		this.left = left;
+		this.right = right;
+		this.disparity = disparity;
+
+		if( concurrentSelect ) {
+			// each band must contain at least one full region to be worth the overhead
+			BoofConcurrency.loopBlocks(2*radiusY,left.height-2*radiusY,regionHeight,computeBlock);
+		} else {
+			computeBlock.accept(2*radiusY,left.height-2*radiusY);
+		}
+
+		this.left = null;
+		this.right = null;
+		this.disparity = null;
+	}
+
+	class WorkSpace {
+		// Computes disparity from scores
+		DisparitySelect<int[], DI> computeDisparity;
+		// stores the local scores for the width of the region
+		int elementScore[];
+		// scores along horizontal axis for current block
+		int horizontalScore[][];
+		// summed scores along vertical axis
+		// Save the last regionHeight scores in a rolling window
+		int verticalScore[][];
+		// In the rolling verticalScore window, which one is the active one
+		int activeVerticalScore;
+		// Where the final score it stored that has been computed from five regions
+		int fiveScore[];
+
+		public void checkSize() {
+			if( horizontalScore == null || verticalScore[0].length < lengthHorizontal ) {
+				horizontalScore = new int[regionHeight][lengthHorizontal];
+				verticalScore = new int[regionHeight][lengthHorizontal];
+				elementScore = new int[ left.width ];
+				fiveScore = new int[ lengthHorizontal ];
+			}
+			if( computeDisparity == null ) {
+				computeDisparity = ImplDisparityScoreSadRectFive_S16_MT.this.computeDisparity.concurrentCopy();
+				// only one thread is used when it can't be copied
+				if( computeDisparity == null )
+					computeDisparity = ImplDisparityScoreSadRectFive_S16_MT.this.computeDisparity;
+			}
+			computeDisparity.configure(disparity,minDisparity,maxDisparity,radiusX*2);
+		}
+	}
+
+	class ComputeBlock implements IntRangeConsumer {
+		@Override
+		public void accept(int row0, int row1) {
+			WorkSpace ws;
+			synchronized (lock) {
+				if( workspace.isEmpty() ) {
+					ws = new WorkSpace();
+				} else {
+					ws = workspace.remove(workspace.size()-1);
+				}
+			}
+			ws.checkSize();
+
+			// the top sub-region of the first output row in this band starts at this row
+			int firstRow = row0-2*radiusY;
+			// initialize computation
+			computeFirstRow(firstRow, ws);
+			// efficiently compute rest of the rows using previous results to avoid repeat computations
+			computeRemainingRows(firstRow, row1+2*radiusY, ws);
+
+			synchronized (lock) {
+				workspace.add(ws);
+			}
+		}
+	}
+
+	/**
+	 * Initializes disparity calculation by finding the scores for the initial block of horizontal
+	 * rows.
+	 */
+	private void computeFirstRow( int firstRow , WorkSpace ws ) {
+		final int horizontalScore[][] = ws.horizontalScore;
+		int firstRowScore[] = ws.verticalScore[0];
+		ws.activeVerticalScore = 1;
+
+		// compute horizontal scores for first row block
+		for( int row = 0; row < regionHeight; row++ ) {
+
+			int scores[] = horizontalScore[row];
+
+			UtilDisparityScore.computeScoreRow(left, right, firstRow+row, scores,
+					minDisparity, maxDisparity, regionWidth, ws.elementScore);
+		}
+
+		// compute score for the top possible row
+		for( int i = 0; i < lengthHorizontal; i++ ) {
+			int sum = 0;
+			for( int row = 0; row < regionHeight; row++ ) {
+				sum += horizontalScore[row][i];
+			}
+			firstRowScore[i] = sum;
+		}
+	}
+
+	/**
+	 * Using previously computed results it efficiently finds the disparity in the remaining rows.
+	 * When a new block is processes the last row/column is subtracted and the new row/column is
+	 * added.
+	 */
+	private void computeRemainingRows( int firstRow , int endRow , WorkSpace ws )
+	{
+		final int verticalScore[][] = ws.verticalScore;
+
+		for( int row = firstRow+regionHeight; row < endRow; row++ , ws.activeVerticalScore++) {
+			int activeVerticalScore = ws.activeVerticalScore;
+			int oldRow = (row-firstRow)%regionHeight;
+			int previous[] = verticalScore[ (activeVerticalScore -1) % regionHeight ];
+			int active[] = verticalScore[ activeVerticalScore % regionHeight ];
+
+			// subtract first row from vertical score
+			int scores[] = ws.horizontalScore[oldRow];
+			for( int i = 0; i < lengthHorizontal; i++ ) {
+				active[i] = previous[i] - scores[i];
+			}
+
+			UtilDisparityScore.computeScoreRow(left, right, row, scores,
+					minDisparity,maxDisparity,regionWidth,ws.elementScore);
+
+			// add the new score
+			for( int i = 0; i < lengthHorizontal; i++ ) {
+				active[i] += scores[i];
+			}
+
+			if( activeVerticalScore >= regionHeight-1 ) {
+				int top[] = verticalScore[ (activeVerticalScore -2*radiusY) % regionHeight ];
+				int middle[] = verticalScore[ (activeVerticalScore -radiusY) % regionHeight ];
+				int bottom[] = verticalScore[ activeVerticalScore % regionHeight ];
+
+				computeScoreFive(top,middle,bottom,ws.fiveScore,left.width);
+				ws.computeDisparity.process(row - (1 + 4*radiusY) + 2*radiusY+1, ws.fiveScore );
+			}
+		}
+	}
+
+	/**
+	 * Compute the final score by sampling the 5 regions.  Four regions are sampled around the center
+	 * region.  Out of those four only the two with the smallest score are used.
+	 */
+	protected void computeScoreFive( int top[] , int middle[] , int bottom[] , int score[] , int width ) {
+
+		// disparity as the outer loop to maximize common elements in inner loops, reducing redundant calculations
+		for( int d = minDisparity; d < maxDisparity; d++ ) {
+
+			// take in account the different in image border between the sub-regions and the effective region
+			int indexSrc = (d-minDisparity)*width + (d-minDisparity) + radiusX;
+			int indexDst = (d-minDisparity)*width + (d-minDisparity);
+			int end = indexSrc + (width-d-4*radiusX);
+			while( indexSrc < end ) {
+				int s = 0;
+
+				// sample four outer regions at the corners around the center region
+				int val0 = top[indexSrc-radiusX];
+				int val1 = top[indexSrc+radiusX];
+				int val2 = bottom[indexSrc-radiusX];
+				int val3 = bottom[indexSrc+radiusX];
+
+				// select the two best scores from outer for regions
+				if( val1 < val0 ) {
+					int temp = val0;
+					val0 = val1;
+					val1 = temp;
+				}
+
+				if( val3 < val2 ) {
+					int temp = val2;
+					val2 = val3;
+					val3 = temp;
+				}
+
+				if( val3 < val0 ) {
+					s += val2;
+					s += val3;
+				} else if( val2 < val1 ) {
+					s += val2;
+					s += val0;
+				} else {
+					s += val0;
+					s += val1;
+				}
+
+				score[indexDst++] = s + middle[indexSrc++];
+			}
+		}
+	}
+
+	@Override
+	public Class<GrayS16> getInputType() {
+		return GrayS16.class;
+	}
+
+	@Override
+	public Class<DI> getDisparityType() {
+		return computeDisparity.getDisparityType();
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreSadRect;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ImplDisparityScoreSadRect_F32}. The image is broken up into horizontal
+ * bands of output rows and each band is processed by a different thread. To compute the first output row in a band
+ * the horizontal scores from the preceding rows inside the region's radius need to be computed, so bands
+ * overlap by the region's height. Each thread has its own scores and a copy of {@link DisparitySelect}, which
+ * are saved between calls.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplDisparityScoreSadRect_F32_MT<DI extends ImageGray<DI>>
+	extends DisparityScoreSadRect<GrayF32, DI>
+{
+	// Computes disparity from scores. A copy is created for each thread
+	DisparitySelect<float[], DI> computeDisparity;
+	// if false then computeDisparity can't be copied and all the rows are processed by a single thread
+	boolean concurrentSelect;
+
+	// lock for the list of work space below
+	final Object lock = new Object();
+	// Work space for each thread. Saved for future use
+	final List<WorkSpace> workspace = new ArrayList<>();
+	ComputeBlock computeBlock = new ComputeBlock();
+
+	// references to input and output images
+	GrayF32 left, right;
+	DI disparity;
+
+	public ImplDisparityScoreSadRect_F32_MT( int minDisparity , int maxDisparity,
+										   int regionRadiusX, int regionRadiusY,
+										   DisparitySelect<float[], DI> computeDisparity) {
+		super(minDisparity,maxDisparity,regionRadiusX,regionRadiusY);
+
+		this.computeDisparity = computeDisparity;
+		this.concurrentSelect = computeDisparity.concurrentCopy() != null;
+	}
+
+	@Override
+	public void _process(GrayF32 left , GrayF32 right , DI disparity ) {
+		this.left = left;
+		this.right = right;
+		this.disparity = disparity;
+
+		if( concurrentSelect ) {
+			// each band must contain at least one full region to be worth the overhead
+			BoofConcurrency.loopBlocks(radiusY,left.height-radiusY,regionHeight,computeBlock);
+		} else {
+			computeBlock.accept(radiusY,left.height-radiusY);
+		}
+
+		this.left = null;
+		this.right = null;
+		this.disparity = null;
+	}
+
+	class WorkSpace {
+		// Computes disparity from scores
+		DisparitySelect<float[], DI> computeDisparity;
+		// stores the local scores for the width of the region
+		float elementScore[];
+		// scores along horizontal axis for current block
+		float horizontalScore[][];
+		// summed scores along vertical axis
+		float verticalScore[];
+
+		public void checkSize() {
+			if( horizontalScore == null || verticalScore.length < lengthHorizontal ) {
+				horizontalScore = new float[regionHeight][lengthHorizontal];
+				verticalScore = new float[lengthHorizontal];
+				elementScore = new float[ left.width ];
+			}
+			if( computeDisparity == null ) {
+				computeDisparity = ImplDisparityScoreSadRect_F32_MT.this.computeDisparity.concurrentCopy();
+				// only one thread is used when it can't be copied
+				if( computeDisparity == null )
+					computeDisparity = ImplDisparityScoreSadRect_F32_MT.this.computeDisparity;
+			}
+			computeDisparity.configure(disparity,minDisparity,maxDisparity,radiusX);
+		}
+	}
+
+	class ComputeBlock implements IntRangeConsumer {
+		@Override
+		public void accept(int row0, int row1) {
+			WorkSpace ws;
+			synchronized (lock) {
+				if( workspace.isEmpty() ) {
+					ws = new WorkSpace();
+				} else {
+					ws = workspace.remove(workspace.size()-1);
+				}
+			}
+			ws.checkSize();
+
+			// the first output row in this band is centered on row0
+			int firstRow = row0-radiusY;
+			// initialize computation
+			computeFirstRow(firstRow, ws);
+			// efficiently compute rest of the rows using previous results to avoid repeat computations
+			computeRemainingRows(firstRow, row1+radiusY, ws);
+
+			synchronized (lock) {
+				workspace.add(ws);
+			}
+		}
+	}
+
+	/**
+	 * Initializes disparity calculation by finding the scores for the initial block of horizontal
+	 * rows.
+	 */
+	private void computeFirstRow( int firstRow , WorkSpace ws ) {
+		final float horizontalScore[][] = ws.horizontalScore;
+		final float verticalScore[] = ws.verticalScore;
+
+		// compute horizontal scores for first row block
+		for( int row = 0; row < regionHeight; row++ ) {
+
+			float scores[] = horizontalScore[row];
+
+			UtilDisparityScore.computeScoreRow(left, right, firstRow+row, scores,
+					minDisparity,maxDisparity,regionWidth,ws.elementScore);
+		}
+
+		// compute score for the top possible row
+		for( int i = 0; i < lengthHorizontal; i++ ) {
+			float sum = 0;
+			for( int row = 0; row < regionHeight; row++ ) {
+				sum += horizontalScore[row][i];
+			}
+			verticalScore[i] = sum;
+		}
+
+		// compute disparity
+		ws.computeDisparity.process(firstRow+radiusY, verticalScore);
+	}
+
+	/**
+	 * Using previously computed results it efficiently finds the disparity in the remaining rows.
+	 * When a new block is processes the last row/column is subtracted and the new row/column is
+	 * added.
+	 */
+	private void computeRemainingRows( int firstRow , int endRow , WorkSpace ws )
+	{
+		final float verticalScore[] = ws.verticalScore;
+
+		for( int row = firstRow+regionHeight; row < endRow; row++ ) {
+			int oldRow = (row-firstRow)%regionHeight;
+
+			// subtract first row from vertical score
+			float scores[] = ws.horizontalScore[oldRow];
+			for( int i = 0; i < lengthHorizontal; i++ ) {
+				verticalScore[i] -= scores[i];
+			}
+
+			UtilDisparityScore.computeScoreRow(left, right, row, scores,
+					minDisparity,maxDisparity,regionWidth,ws.elementScore);
+
+			// add the new score
+			for( int i = 0; i < lengthHorizontal; i++ ) {
+				verticalScore[i] += scores[i];
+			}
+
+			// compute disparity
+			ws.computeDisparity.process(row - regionHeight + 1 + radiusY, verticalScore);
+		}
+	}
+
+	@Override
+	public Class<GrayF32> getInputType() {
+		return GrayF32.class;
+	}
+
+	@Override
+	public Class<DI> getDisparityType() {
+		return computeDisparity.getDisparityType();
+	}
+
+}
@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.disparity.impl;
 
+import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.alg.feature.disparity.SelectRectBasicWta;
 import boofcv.struct.image.GrayU8;
 
@@ -65,4 +66,9 @@ public class ImplSelectRectBasicWta_S32_U8 extends SelectRectBasicWta<int[],Gray
 	public Class<GrayU8> getDisparityType() {
 		return GrayU8.class;
 	}
+
+	@Override
+	public DisparitySelect<int[],GrayU8> concurrentCopy() {
+		return new ImplSelectRectBasicWta_S32_U8();
+	}
 }
\ No newline at end of file
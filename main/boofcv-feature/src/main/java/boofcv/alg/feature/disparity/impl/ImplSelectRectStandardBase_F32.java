@@ -47,6 +47,11 @@ public abstract class ImplSelectRectStandardBase_F32<T extends ImageGray<T>>
 		super(maxError,rightToLeftTolerance,texture);
 	}
 
+	protected ImplSelectRectStandardBase_F32( ImplSelectRectStandardBase_F32<T> original ) {
+		super(original);
+		this.textureThreshold = original.textureThreshold;
+	}
+
 	@Override
 	public void setTexture(double threshold) {
 		textureThreshold = (float)threshold;
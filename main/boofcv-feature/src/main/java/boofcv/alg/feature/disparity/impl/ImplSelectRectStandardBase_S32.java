@@ -48,6 +48,11 @@ public abstract class ImplSelectRectStandardBase_S32<T extends ImageGray<T>>
 		super(maxError,rightToLeftTolerance,texture);
 	}
 
+	protected ImplSelectRectStandardBase_S32( ImplSelectRectStandardBase_S32<T> original ) {
+		super(original);
+		this.textureThreshold = original.textureThreshold;
+	}
+
 	@Override
 	public void setTexture(double threshold) {
 		textureThreshold = (int)(discretizer*threshold);
@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.disparity.impl;
 
+import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.struct.image.GrayU8;
 
 /**
@@ -33,6 +34,10 @@ public class ImplSelectRectStandard_S32_U8 extends ImplSelectRectStandardBase_S3
 		super(maxError, rightToLeftTolerance, texture);
 	}
 
+	public ImplSelectRectStandard_S32_U8( ImplSelectRectStandard_S32_U8 original ) {
+		super(original);
+	}
+
 	@Override
 	public void configure(GrayU8 imageDisparity, int minDisparity, int maxDisparity, int radiusX) {
 		super.configure(imageDisparity, minDisparity, maxDisparity, radiusX);
@@ -49,4 +54,9 @@ public class ImplSelectRectStandard_S32_U8 extends ImplSelectRectStandardBase_S3
 	public Class<GrayU8> getDisparityType() {
 		return GrayU8.class;
 	}
+
+	@Override
+	public DisparitySelect<int[], GrayU8> concurrentCopy() {
+		return new ImplSelectRectStandard_S32_U8(this);
+	}
 }
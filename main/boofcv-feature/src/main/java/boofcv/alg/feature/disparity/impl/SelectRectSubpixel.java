@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.disparity.impl;
 
+import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.struct.image.GrayF32;
 
 /**
@@ -47,6 +48,10 @@ public class SelectRectSubpixel {
 			super(maxError, rightToLeftTolerance, texture);
 		}
 
+		public S32_F32( S32_F32 original ) {
+			super(original);
+		}
+
 		@Override
 		protected void setDisparity(int index, int disparityValue) {
 
@@ -67,6 +72,11 @@ public class SelectRectSubpixel {
 		public Class<GrayF32> getDisparityType() {
 			return GrayF32.class;
 		}
+
+		@Override
+		public DisparitySelect<int[], GrayF32> concurrentCopy() {
+			return new S32_F32(this);
+		}
 	}
 
 	/**
@@ -77,6 +87,10 @@ public class SelectRectSubpixel {
 			super(maxError, rightToLeftTolerance, texture);
 		}
 
+		public F32_F32( F32_F32 original ) {
+			super(original);
+		}
+
 		@Override
 		protected void setDisparity(int index, int disparityValue) {
 
@@ -97,5 +111,10 @@ public class SelectRectSubpixel {
 		public Class<GrayF32> getDisparityType() {
 			return GrayF32.class;
 		}
+
+		@Override
+		public DisparitySelect<float[], GrayF32> concurrentCopy() {
+			return new F32_F32(this);
+		}
 	}
 }
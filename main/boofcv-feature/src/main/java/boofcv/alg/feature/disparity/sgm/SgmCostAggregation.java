@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.IWorkArrays;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+
+/**
+ * <p>
+ * Aggregates the cost along different paths through the image to approximate a global 2D smoothness constraint
+ * using multiple 1D constraints, as described in [1]. Along each path r the cost is recursively computed as
+ * </p>
+ *
+ * <pre>
+ * L<sub>r</sub>(p,d) = C(p,d) + min( L<sub>r</sub>(p-r,d), L<sub>r</sub>(p-r,d&plusmn;1) + P1,
+ *                         min<sub>i</sub> L<sub>r</sub>(p-r,i) + P2 ) - min<sub>k</sub> L<sub>r</sub>(p-r,k)
+ * </pre>
+ *
+ * <p>
+ * and the cost from each path is summed together to form the aggregated cost. P1 penalizes small changes in
+ * disparity and P2 large changes. The cost and aggregated cost volumes have the same format, see
+ * {@link SgmCostHamming}. Work space is saved between calls so that after the first image no new memory
+ * is declared as long as the image shape doesn't change.
+ * </p>
+ *
+ * <p>
+ * [1] Hirschmuller, Heiko. "Stereo processing by semiglobal matching and mutual information."
+ * IEEE Transactions on pattern analysis and machine intelligence 30.2 (2007): 328-341.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregation {
+
+	/**
+	 * Direction of each path that can be considered. First four are horizontal and vertical, the last four
+	 * are diagonal.
+	 */
+	public static final int[][] DIRECTIONS = new int[][]{
+			{1,0},{-1,0},{0,1},{0,-1},{1,1},{-1,-1},{1,-1},{-1,1}};
+
+	// penalty for a change in disparity by one
+	protected int penalty1;
+	// penalty for a change in disparity by more than one
+	protected int penalty2;
+	// Number of paths it considers
+	protected int pathsConsidered;
+
+	// Aggregated cost. Same format as the cost volume
+	protected Planar<GrayU16> aggregated = new Planar<>(GrayU16.class,1,1,1);
+	// Reference to the cost volume
+	protected Planar<GrayU16> costYXD;
+
+	// shape of the cost volume
+	protected int width,height,rangeDisparity;
+
+	// Storage for path costs of the previous and current pixel along a horizontal path
+	protected IWorkArrays workArrays = new IWorkArrays();
+
+	// Path costs for every pixel in the previous and current row. Used when sweeping through the rows
+	protected int[] rowPrev = new int[0], rowCurr = new int[0];
+	// Minimum path cost for each pixel in the previous and current row
+	protected int[] minPrev = new int[0], minCurr = new int[0];
+
+	/**
+	 * Configures the aggregation
+	 *
+	 * @param penalty1 Penalty for a change in disparity by one
+	 * @param penalty2 Penalty for a change in disparity by more than one
+	 * @param pathsConsidered Number of paths which are considered. 1 to 8. Typically 4 or 8.
+	 */
+	public SgmCostAggregation( int penalty1 , int penalty2 , int pathsConsidered ) {
+		if( penalty1 < 0 || penalty2 < penalty1 )
+			throw new IllegalArgumentException("Penalties must be >= 0 and penalty2 >= penalty1");
+		if( pathsConsidered < 1 || pathsConsidered > DIRECTIONS.length )
+			throw new IllegalArgumentException("Paths considered must be from 1 to "+DIRECTIONS.length);
+		this.penalty1 = penalty1;
+		this.penalty2 = penalty2;
+		this.pathsConsidered = pathsConsidered;
+	}
+
+	/**
+	 * Aggregates the cost along all the paths
+	 *
+	 * @param costYXD (Input) Cost volume.
+	 * @param maxCost Largest possible value in the cost volume. Used to make sure the sum can't overflow.
+	 */
+	public void process( Planar<GrayU16> costYXD , int maxCost ) {
+		if( pathsConsidered*(maxCost+penalty2) > 0xFFFF )
+			throw new IllegalArgumentException("Aggregated cost can overflow. Reduce penalty2 or paths considered.");
+
+		this.costYXD = costYXD;
+		this.rangeDisparity = costYXD.width;
+		this.width = costYXD.height;
+		this.height = costYXD.getNumBands();
+
+		aggregated.reshape(rangeDisparity,width,height);
+		for (int y = 0; y < height; y++) {
+			ImageMiscOps.fill(aggregated.getBand(y),0);
+		}
+		workArrays.reset(rangeDisparity);
+		if( rowPrev.length < width*rangeDisparity ) {
+			rowPrev = new int[width*rangeDisparity];
+			rowCurr = new int[width*rangeDisparity];
+		}
+		if( minPrev.length < width ) {
+			minPrev = new int[width];
+			minCurr = new int[width];
+		}
+
+		for (int i = 0; i < pathsConsidered; i++) {
+			int dx = DIRECTIONS[i][0];
+			int dy = DIRECTIONS[i][1];
+			if( dy == 0 )
+				scoreHorizontal(dx);
+			else
+				scoreRows(dx,dy);
+		}
+	}
+
+	/**
+	 * Scores all the paths which travel along a row. Each row is its own path and is processed independently.
+	 */
+	protected void scoreHorizontal( int dx ) {
+		int[] workA = workArrays.pop();
+		int[] workB = workArrays.pop();
+		for (int y = 0; y < height; y++) {
+			scoreRowPath(y,dx,workA,workB);
+		}
+		workArrays.recycle(workA);
+		workArrays.recycle(workB);
+	}
+
+	/**
+	 * Computes the cost along the path which travels along row 'y' and adds it to the aggregated cost
+	 *
+	 * @param y Which row is being processed.
+	 * @param dx step along x-axis
+	 * @param workPrev Work space for path cost of the previous pixel
+	 * @param workCurr Work space for path cost of the current pixel
+	 */
+	protected void scoreRowPath( int y , int dx , int[] workPrev , int[] workCurr ) {
+		final short[] cost = costYXD.getBand(y).data;
+		final short[] agg = aggregated.getBand(y).data;
+		final int lengthD = rangeDisparity;
+
+		int x = dx > 0 ? 0 : width-1;
+		int minLr = initializePath(cost,x*lengthD,workPrev,0,agg);
+
+		for (x += dx; x >= 0 && x < width; x += dx) {
+			minLr = computePathCost(cost,x*lengthD,workPrev,0,minLr,workCurr,0,agg);
+
+			// swap the work arrays so that the current becomes the previous
+			int[] tmp = workPrev;
+			workPrev = workCurr;
+			workCurr = tmp;
+		}
+	}
+
+	/**
+	 * Scores all the paths which travel between rows by sweeping through the image one row at a time. The path
+	 * cost for every pixel in the previous row is saved, allowing all the paths to be processed together while
+	 * reading memory in the same order it's laid out in.
+	 */
+	protected void scoreRows( int dx , int dy ) {
+		final int lengthD = rangeDisparity;
+
+		// every pixel in the first row starts a path
+		int y = dy > 0 ? 0 : height-1;
+		short[] cost = costYXD.getBand(y).data;
+		short[] agg = aggregated.getBand(y).data;
+		for (int x = 0, index = 0; x < width; x++, index += lengthD) {
+			minPrev[x] = initializePath(cost,index,rowPrev,index,agg);
+		}
+
+		for (y += dy; y >= 0 && y < height; y += dy) {
+			scoreRowSegments(y,dx);
+
+			int[] tmp = rowPrev; rowPrev = rowCurr; rowCurr = tmp;
+			tmp = minPrev; minPrev = minCurr; minCurr = tmp;
+		}
+	}
+
+	/**
+	 * Scores all the pixels in a row. The previous row must have already been scored.
+	 */
+	protected void scoreRowSegments( int y , int dx ) {
+		scoreRowSegment(y,dx,0,width);
+	}
+
+	/**
+	 * Computes the path cost for pixels from x0 to x1 in a row, using the path cost of the previous row.
+	 */
+	protected void scoreRowSegment( int y , int dx , int x0 , int x1 ) {
+		final short[] cost = costYXD.getBand(y).data;
+		final short[] agg = aggregated.getBand(y).data;
+		final int lengthD = rangeDisparity;
+
+		for (int x = x0; x < x1; x++) {
+			int index = x*lengthD;
+			int px = x-dx;
+			if( px < 0 || px >= width ) {
+				// the previous pixel is outside the image so a new path starts here
+				minCurr[x] = initializePath(cost,index,rowCurr,index,agg);
+			} else {
+				minCurr[x] = computePathCost(cost,index,rowPrev,px*lengthD,minPrev[px],rowCurr,index,agg);
+			}
+		}
+	}
+
+	/**
+	 * Initializes the path cost for the first pixel along a path, which is just the cost
+	 *
+	 * @return the minimum path cost
+	 */
+	protected final int initializePath( short[] cost , int indexCost , int[] Lr , int indexLr , short[] agg ) {
+		int minLr = Integer.MAX_VALUE;
+		for (int d = 0; d < rangeDisparity; d++) {
+			int v = cost[indexCost+d] & 0xFFFF;
+			Lr[indexLr+d] = v;
+			agg[indexCost+d] = (short)((agg[indexCost+d] & 0xFFFF) + v);
+			minLr = Math.min(minLr,v);
+		}
+		return minLr;
+	}
+
+	/**
+	 * Computes the path cost for all disparities at a single pixel given the path cost of the previous pixel
+	 * and adds the results to the aggregated cost.
+	 *
+	 * @param cost Cost for the pixel's row
+	 * @param indexCost Index of the pixel's first disparity in the cost and aggregated arrays
+	 * @param prev Path cost of the previous pixel along the path
+	 * @param indexPrev Index of the previous pixel's first disparity in prev
+	 * @param minPrev Minimum path cost of the previous pixel
+	 * @param curr (Output) Path cost of this pixel
+	 * @param indexCurr Index of this pixel's first disparity in curr
+	 * @param agg Aggregated cost for the pixel's row
+	 * @return the minimum path cost
+	 */
+	protected final int computePathCost( short[] cost , int indexCost ,
+										 int[] prev , int indexPrev , int minPrev ,
+										 int[] curr , int indexCurr , short[] agg ) {
+		final int lengthD = rangeDisparity;
+		final int P1 = penalty1;
+		final int penaltyLarge = minPrev + penalty2;
+
+		if( lengthD == 1 ) {
+			int v = (cost[indexCost] & 0xFFFF) + Math.min(prev[indexPrev],penaltyLarge) - minPrev;
+			curr[indexCurr] = v;
+			agg[indexCost] = (short)((agg[indexCost] & 0xFFFF) + v);
+			return v;
+		}
+
+		// The first and last disparity only have one neighbor. Handling them outside the inner loop
+		// removes all the branches from it
+		int best = Math.min(prev[indexPrev],prev[indexPrev+1] + P1);
+		best = Math.min(best,penaltyLarge);
+		int v = (cost[indexCost] & 0xFFFF) + best - minPrev;
+		curr[indexCurr] = v;
+		agg[indexCost] = (short)((agg[indexCost] & 0xFFFF) + v);
+		int minLr = v;
+
+		// values of the neighbors are passed along to reduce the number of array accesses
+		final int end = lengthD-1;
+		int prevLower = prev[indexPrev];
+		int prevMiddle = prev[indexPrev+1];
+		for (int d = 1; d < end; d++) {
+			int prevUpper = prev[indexPrev+d+1];
+			best = Math.min(prevMiddle,Math.min(prevLower,prevUpper) + P1);
+			best = Math.min(best,penaltyLarge);
+			prevLower = prevMiddle;
+			prevMiddle = prevUpper;
+
+			int ic = indexCost+d;
+			v = (cost[ic] & 0xFFFF) + best - minPrev;
+			curr[indexCurr+d] = v;
+			agg[ic] = (short)((agg[ic] & 0xFFFF) + v);
+			minLr = Math.min(minLr,v);
+		}
+
+		best = Math.min(prev[indexPrev+end],prev[indexPrev+end-1] + P1);
+		best = Math.min(best,penaltyLarge);
+		v = (cost[indexCost+end] & 0xFFFF) + best - minPrev;
+		curr[indexCurr+end] = v;
+		agg[indexCost+end] = (short)((agg[indexCost+end] & 0xFFFF) + v);
+		return Math.min(minLr,v);
+	}
+
+	/**
+	 * Returns the aggregated cost volume
+	 */
+	public Planar<GrayU16> getAggregated() {
+		return aggregated;
+	}
+
+	public int getPenalty1() {
+		return penalty1;
+	}
+
+	public int getPenalty2() {
+		return penalty2;
+	}
+
+	public int getPathsConsidered() {
+		return pathsConsidered;
+	}
+}
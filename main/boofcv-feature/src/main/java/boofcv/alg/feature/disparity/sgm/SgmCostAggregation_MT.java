@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * <p>Concurrent implementation of {@link SgmCostAggregation}. Directions are processed one at a time.
+ * Horizontal paths are independent of each other so each row is processed in parallel. For the other directions
+ * each row depends on the previous row, so the pixels within a row are split up between the threads instead.
+ * Work arrays for each thread are recycled between calls.</p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregation_MT extends SgmCostAggregation {
+
+	// minimum number of pixels in a row each thread will process
+	private static final int MIN_BLOCK = 32;
+
+	public SgmCostAggregation_MT(int penalty1, int penalty2, int pathsConsidered) {
+		super(penalty1, penalty2, pathsConsidered);
+	}
+
+	@Override
+	protected void scoreHorizontal( int dx ) {
+		BoofConcurrency.loopBlocks(0,height,(y0,y1)->{
+			int[] workA = workArrays.pop();
+			int[] workB = workArrays.pop();
+			for (int y = y0; y < y1; y++) {
+				scoreRowPath(y,dx,workA,workB);
+			}
+			workArrays.recycle(workA);
+			workArrays.recycle(workB);
+		});
+	}
+
+	@Override
+	protected void scoreRowSegments( int y , int dx ) {
+		BoofConcurrency.loopBlocks(0,width,MIN_BLOCK,(x0,x1)->scoreRowSegment(y,dx,x0,x1));
+	}
+}
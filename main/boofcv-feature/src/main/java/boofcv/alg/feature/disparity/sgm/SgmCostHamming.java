@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+
+/**
+ * <p>
+ * Computes the matching cost between two census transformed images using the hamming distance. The cost for
+ * every pixel and every disparity is written into a cost volume. The cost volume is stored in a {@link Planar}
+ * image where each band corresponds to an image row, the band's width to the disparity, and the band's height
+ * to the image column, i.e. costYXD.getBand(y).get(d,x). This layout places all the disparities for a pixel
+ * next to each other in memory, which is the order they are accessed in during cost aggregation.
+ * </p>
+ *
+ * <p>
+ * Pixels in the left image are matched against pixels in the right image using x_right = x_left - disparity.
+ * If a disparity would go outside the right image then its cost is set to {@link #MAX_COST}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostHamming {
+	/**
+	 * Maximum possible cost. This is the number of bits in a 5x5 census descriptor
+	 */
+	public static final int MAX_COST = 24;
+
+	// the minimum disparity that it will check
+	protected int minDisparity;
+	// maximum allowed image disparity, exclusive
+	protected int maxDisparity;
+	// difference between max and min
+	protected int rangeDisparity;
+
+	// References to input and output images
+	protected GrayS32 left, right;
+	protected Planar<GrayU16> costYXD;
+
+	/**
+	 * Specifies the range of disparities which are considered
+	 *
+	 * @param minDisparity Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate, exclusive. Must be &gt; 0
+	 */
+	public void configure( int minDisparity , int maxDisparity ) {
+		if( maxDisparity <= 0 )
+			throw new IllegalArgumentException("Max disparity must be greater than zero");
+		if( minDisparity < 0 || minDisparity >= maxDisparity )
+			throw new IllegalArgumentException("Min disparity must be >= 0 and < maxDisparity");
+		this.minDisparity = minDisparity;
+		this.maxDisparity = maxDisparity;
+		this.rangeDisparity = maxDisparity-minDisparity;
+	}
+
+	/**
+	 * Computes the cost volume
+	 *
+	 * @param left (Input) Census transform of the left image
+	 * @param right (Input) Census transform of the right image
+	 * @param costYXD (Output) Cost volume. Reshaped to match the input.
+	 */
+	public void process( GrayS32 left , GrayS32 right , Planar<GrayU16> costYXD ) {
+		InputSanityCheck.checkSameShape(left,right);
+		if( rangeDisparity <= 0 )
+			throw new IllegalArgumentException("Must call configure() first");
+
+		this.left = left;
+		this.right = right;
+		this.costYXD = costYXD;
+
+		costYXD.reshape(rangeDisparity,left.width,left.height);
+
+		computeRows();
+	}
+
+	/**
+	 * Computes the cost for every row in the image
+	 */
+	protected void computeRows() {
+		for (int y = 0; y < left.height; y++) {
+			computeRow(y);
+		}
+	}
+
+	/**
+	 * Computes the cost for every pixel and disparity in a single row
+	 */
+	protected void computeRow( int y ) {
+		final short[] cost = costYXD.getBand(y).data;
+		final int[] dataLeft = left.data;
+		final int[] dataRight = right.data;
+		final int width = left.width;
+
+		final int indexLeft = left.startIndex + y*left.stride;
+		final int indexRight = right.startIndex + y*right.stride;
+
+		int indexCost = 0;
+		for (int x = 0; x < width; x++) {
+			final int valueLeft = dataLeft[indexLeft+x];
+
+			// number of disparities which are inside the right image
+			int localRange = Math.max(0,Math.min(rangeDisparity,x-minDisparity+1));
+
+			int xr = indexRight + x - minDisparity;
+			for (int d = 0; d < localRange; d++) {
+				cost[indexCost++] = (short)DescriptorDistance.hamming(valueLeft ^ dataRight[xr-d]);
+			}
+			for (int d = localRange; d < rangeDisparity; d++) {
+				cost[indexCost++] = (short)MAX_COST;
+			}
+		}
+	}
+
+	public int getMinDisparity() {
+		return minDisparity;
+	}
+
+	public int getMaxDisparity() {
+		return maxDisparity;
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.concurrency.IWorkArrays;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+
+/**
+ * <p>
+ * Selects the best disparity for each pixel from the aggregated cost volume using winner takes all. Optionally
+ * the selection can be validated by checking to see if the best match going from right to left is consistent
+ * and by checking to see if the best match is unique.
+ * </p>
+ *
+ * <p>
+ * The output disparity image follows the same format as {@link boofcv.abst.feature.disparity.StereoDisparity},
+ * the minimum disparity is subtracted from each value and invalid pixels have a value of rangeDisparity+1.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmDisparitySelector {
+	// tolerance for right to left validation. if < 0 then it's disabled
+	protected int rightToLeftTolerance = 1;
+	// texture threshold, use an integer value for speed.
+	protected int textureThreshold = 0;
+	protected static final int discretizer = 10000;
+
+	// the minimum disparity that it will check
+	protected int minDisparity;
+	// value assigned to invalid pixels
+	protected int invalidDisparity;
+
+	// References to input and output images
+	protected Planar<GrayU16> aggregatedYXD;
+	protected GrayU8 disparity;
+
+	// shape of the aggregated cost volume
+	protected int width,rangeDisparity;
+
+	// Storage for right to left validation
+	protected IWorkArrays workArrays = new IWorkArrays();
+
+	/**
+	 * Selects the disparity for each pixel
+	 *
+	 * @param aggregatedYXD (Input) Aggregated cost volume
+	 * @param minDisparity Minimum disparity used to compute the cost volume
+	 * @param disparity (Output) Selected disparity. Reshaped to match the input.
+	 */
+	public void select( Planar<GrayU16> aggregatedYXD , int minDisparity , GrayU8 disparity ) {
+		this.aggregatedYXD = aggregatedYXD;
+		this.minDisparity = minDisparity;
+		this.disparity = disparity;
+
+		this.rangeDisparity = aggregatedYXD.width;
+		this.width = aggregatedYXD.height;
+		this.invalidDisparity = rangeDisparity+1;
+
+		if( invalidDisparity > 255 )
+			throw new IllegalArgumentException("(max - min) disparity must be <= 254");
+
+		disparity.reshape(width,aggregatedYXD.getNumBands());
+		workArrays.reset(width);
+
+		selectRows();
+	}
+
+	/**
+	 * Selects the disparity for every row in the image
+	 */
+	protected void selectRows() {
+		for (int y = 0; y < disparity.height; y++) {
+			selectRow(y);
+		}
+	}
+
+	/**
+	 * Selects the disparity for every pixel in a row
+	 */
+	protected void selectRow( int y ) {
+		final short[] agg = aggregatedYXD.getBand(y).data;
+		final int lengthD = rangeDisparity;
+
+		int[] bestRtoL = null;
+		if( rightToLeftTolerance >= 0 ) {
+			bestRtoL = workArrays.pop();
+			int[] scoreRtoL = workArrays.pop();
+			selectRightToLeft(agg,bestRtoL,scoreRtoL);
+			workArrays.recycle(scoreRtoL);
+		}
+
+		int indexOut = disparity.startIndex + y*disparity.stride;
+		for (int x = 0; x < width; x++) {
+			// number of disparities which are inside the right image
+			int localRange = Math.min(lengthD,x-minDisparity+1);
+			if( localRange <= 0 ) {
+				disparity.data[indexOut++] = (byte)invalidDisparity;
+				continue;
+			}
+
+			int index = x*lengthD;
+			int bestDisparity = 0;
+			int scoreBest = agg[index] & 0xFFFF;
+			for (int d = 1; d < localRange; d++) {
+				int s = agg[index+d] & 0xFFFF;
+				if( s < scoreBest ) {
+					scoreBest = s;
+					bestDisparity = d;
+				}
+			}
+
+			if( bestRtoL != null ) {
+				// if the associate is different going the other direction it is probably noise
+				int disparityRtoL = bestRtoL[x-bestDisparity-minDisparity];
+
+				if( Math.abs(disparityRtoL-bestDisparity) > rightToLeftTolerance ) {
+					bestDisparity = invalidDisparity;
+				}
+			}
+
+			// test to see if the region lacks sufficient texture if:
+			// 1) not already eliminated 2) sufficient disparities to check, 3) it's activated
+			if( textureThreshold > 0 && bestDisparity != invalidDisparity && localRange >= 3 ) {
+				// find the second best disparity value and exclude its neighbors
+				int secondBest = Integer.MAX_VALUE;
+				for( int d = 0; d < bestDisparity-1; d++ ) {
+					int s = agg[index+d] & 0xFFFF;
+					if( s < secondBest ) {
+						secondBest = s;
+					}
+				}
+				for( int d = bestDisparity+2; d < localRange; d++ ) {
+					int s = agg[index+d] & 0xFFFF;
+					if( s < secondBest ) {
+						secondBest = s;
+					}
+				}
+
+				// similar scores indicate lack of texture
+				// C = (C2-C1)/C1
+				if( discretizer*(secondBest-scoreBest) <= textureThreshold*scoreBest )
+					bestDisparity = invalidDisparity;
+			}
+
+			disparity.data[indexOut++] = (byte)bestDisparity;
+		}
+
+		if( bestRtoL != null )
+			workArrays.recycle(bestRtoL);
+	}
+
+	/**
+	 * Finds the best disparity for every pixel in the right image. Instead of searching along the pixels in
+	 * the left image which could match a right pixel, which would jump around in memory, the aggregated cost
+	 * is traversed in order and the best match for each right pixel is updated as it's encountered.
+	 *
+	 * @param agg Aggregated cost for the row
+	 * @param bestRtoL (Output) Best disparity for each column in the right image
+	 * @param scoreRtoL Work space for the score of the best disparity
+	 */
+	protected void selectRightToLeft( short[] agg , int[] bestRtoL , int[] scoreRtoL ) {
+		final int lengthD = rangeDisparity;
+
+		for (int i = 0; i < width; i++) {
+			scoreRtoL[i] = Integer.MAX_VALUE;
+		}
+
+		for (int x = minDisparity; x < width; x++) {
+			int localRange = Math.min(lengthD,x-minDisparity+1);
+			int index = x*lengthD;
+			int col = x-minDisparity;
+			for (int d = 0; d < localRange; d++, col--) {
+				int s = agg[index+d] & 0xFFFF;
+				if( s < scoreRtoL[col] ) {
+					scoreRtoL[col] = s;
+					bestRtoL[col] = d;
+				}
+			}
+		}
+	}
+
+	public int getRightToLeftTolerance() {
+		return rightToLeftTolerance;
+	}
+
+	/**
+	 * Tolerance for how different the disparity can be when matched from right to left. If &lt; 0 then it's disabled.
+	 */
+	public void setRightToLeftTolerance(int rightToLeftTolerance) {
+		this.rightToLeftTolerance = rightToLeftTolerance;
+	}
+
+	/**
+	 * Tolerance for how similar the best disparity's cost can be to the second best. Closer to zero is more
+	 * tolerant. If &le; 0 then it's disabled.
+	 */
+	public void setTexture(double threshold) {
+		textureThreshold = (int)(discretizer*threshold);
+	}
+
+	public int getInvalidDisparity() {
+		return invalidDisparity;
+	}
+}
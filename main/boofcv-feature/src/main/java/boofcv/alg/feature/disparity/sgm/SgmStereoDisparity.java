@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.transform.census.CensusTransform;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_S32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+
+/**
+ * <p>
+ * Dense stereo disparity using Semi Global Matching (SGM) [1] with a census transform and hamming distance as
+ * the matching cost. Processing steps:
+ * </p>
+ * <ol>
+ *     <li>Census transform the left and right images using a 5x5 region</li>
+ *     <li>Compute the cost volume using the hamming distance. {@link SgmCostHamming}</li>
+ *     <li>Aggregate the cost along multiple paths. {@link SgmCostAggregation}</li>
+ *     <li>Select the best disparity for each pixel. {@link SgmDisparitySelector}</li>
+ * </ol>
+ *
+ * <p>
+ * All intermediate images are saved and recycled between calls, so after the first image pair no additional
+ * memory is declared as long as the image shape doesn't change. Memory usage is dominated by the cost and
+ * aggregated cost volumes, each of which is width*height*(maxDisparity-minDisparity) 16-bit integers.
+ * </p>
+ *
+ * <p>
+ * [1] Hirschmuller, Heiko. "Stereo processing by semiglobal matching and mutual information."
+ * IEEE Transactions on pattern analysis and machine intelligence 30.2 (2007): 328-341.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmStereoDisparity {
+	// Algorithms for each step
+	protected SgmCostHamming cost;
+	protected SgmCostAggregation aggregation;
+	protected SgmDisparitySelector selector;
+
+	// How the image border is handled when computing the census transform
+	protected ImageBorder_S32<GrayU8> border =
+			(ImageBorder_S32)FactoryImageBorder.single(GrayU8.class,BorderType.EXTENDED);
+
+	// Census transform of left and right images
+	protected GrayS32 censusLeft = new GrayS32(1,1);
+	protected GrayS32 censusRight = new GrayS32(1,1);
+
+	// Cost for every pixel and every disparity
+	protected Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,1,1,1);
+
+	/**
+	 * Specifies the algorithms used in each step
+	 *
+	 * @param minDisparity Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate, exclusive. Must be &gt; 0
+	 * @param cost Computes the cost volume
+	 * @param aggregation Aggregates the cost along different paths
+	 * @param selector Selects the best disparity
+	 */
+	public SgmStereoDisparity( int minDisparity , int maxDisparity ,
+							   SgmCostHamming cost,
+							   SgmCostAggregation aggregation,
+							   SgmDisparitySelector selector ) {
+		if( maxDisparity-minDisparity > 254 )
+			throw new IllegalArgumentException("(max - min) disparity must be <= 254");
+		this.cost = cost;
+		this.aggregation = aggregation;
+		this.selector = selector;
+
+		cost.configure(minDisparity,maxDisparity);
+	}
+
+	/**
+	 * Computes the disparity between the two rectified images.
+	 *
+	 * @param left (Input) left rectified stereo image
+	 * @param right (Input) right rectified stereo image
+	 * @param disparity (Output) disparity image. Reshaped to match the input.
+	 */
+	public void process( GrayU8 left , GrayU8 right , GrayU8 disparity ) {
+		InputSanityCheck.checkSameShape(left,right);
+
+		CensusTransform.region5x5(left,censusLeft,border);
+		CensusTransform.region5x5(right,censusRight,border);
+
+		cost.process(censusLeft,censusRight,costYXD);
+		aggregation.process(costYXD,SgmCostHamming.MAX_COST);
+		selector.select(aggregation.getAggregated(),cost.getMinDisparity(),disparity);
+	}
+
+	public int getMinDisparity() {
+		return cost.getMinDisparity();
+	}
+
+	public int getMaxDisparity() {
+		return cost.getMaxDisparity();
+	}
+
+	public SgmCostHamming getCost() {
+		return cost;
+	}
+
+	public SgmCostAggregation getAggregation() {
+		return aggregation;
+	}
+
+	public SgmDisparitySelector getSelector() {
+		return selector;
+	}
+
+	public Planar<GrayU16> getCostYXD() {
+		return costYXD;
+	}
+}
@@ -242,7 +242,6 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 								GrayF32 deriv2XX , GrayF32 deriv2YY, GrayF32 deriv2XY) {
 
 		int N = image1.width*image1.height;
-		int stride = image1.stride;
 
 		// outer Taylor expansion iterations
 		for( int indexOuter = 0; indexOuter < numOuter; indexOuter++ ) {
@@ -279,16 +278,8 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 				int iter = 0;
 
 				do {
-					// inner SOR iteration.
-					error = 0;
-
-					// inner portion
-					for (int y = 1; y < image1.height - 1; y++) {
-						int i = y * image1.width + 1;
-						for (int x = 1; x < image1.width - 1; x++, i++) {
-							error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
-						}
-					}
+					// inner SOR iteration. Starting with the inner portion
+					error = iterationSorInner(image1, deriv1X, deriv1Y);
 
 					// border regions require special treatment
 					int y0 = 0;
@@ -318,6 +309,24 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 		}
 	}
 
+	/**
+	 * Performs a single SOR iteration across all the inner pixels in the image
+	 *
+	 * @return sum of the squared change in flow
+	 */
+	protected float iterationSorInner(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y) {
+		final int stride = image1.stride;
+
+		float error = 0;
+		for (int y = 1; y < image1.height - 1; y++) {
+			int i = y * image1.width + 1;
+			for (int x = 1; x < image1.width - 1; x++, i++) {
+				error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
+			}
+		}
+		return error;
+	}
+
 	/**
 	 * Inner SOR iteration step
 	 *
@@ -327,7 +336,7 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	 * @param ipy (x,y+1)
 	 * @param imy (x,y-1)
 	 */
-	private float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y,
+	protected float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y,
 							   int i, int ipx, int imx, int ipy, int imy) {
 		float w = SOR_RELAXATION;
 
@@ -374,11 +383,18 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	/**
 	 * Equation 5.  Psi_s
 	 */
-	private void computePsiSmooth(GrayF32 ux , GrayF32 uy , GrayF32 vx , GrayF32 vy ,
-								  GrayF32 psiSmooth ) {
+	protected void computePsiSmooth(GrayF32 ux , GrayF32 uy , GrayF32 vx , GrayF32 vy ,
+									GrayF32 psiSmooth ) {
 		int N = derivFlowUX.width * derivFlowUX.height;
+		computePsiSmooth(ux, uy, vx, vy, psiSmooth, 0, N);
+	}
 
-		for( int i = 0; i < N; i++ ) {
+	/**
+	 * Equation 5.  Psi_s for pixels with an index from idx0 to idx1
+	 */
+	protected void computePsiSmooth(GrayF32 ux , GrayF32 uy , GrayF32 vx , GrayF32 vy ,
+									GrayF32 psiSmooth , int idx0 , int idx1 ) {
+		for( int i = idx0; i < idx1; i++ ) {
 			float vux = ux.data[i];
 			float vuy = uy.data[i];
 			float vvx = vx.data[i];
@@ -401,8 +417,21 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 											 GrayF32 du, GrayF32 dv,
 											 GrayF32 psiData, GrayF32 psiGradient ) {
 		int N = image1.width * image1.height;
+		computePsiDataPsiGradient(image1, image2, deriv1x, deriv1y, deriv2x, deriv2y, deriv2xx, deriv2yy, deriv2xy,
+				du, dv, psiData, psiGradient, 0, N);
+	}
 
-		for( int i = 0; i < N; i++ ) {
+	/**
+	 * Compute Psi-data and Psi-gradient for pixels with an index from idx0 to idx1
+	 */
+	protected void computePsiDataPsiGradient(GrayF32 image1, GrayF32 image2,
+											 GrayF32 deriv1x, GrayF32 deriv1y,
+											 GrayF32 deriv2x, GrayF32 deriv2y,
+											 GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
+											 GrayF32 du, GrayF32 dv,
+											 GrayF32 psiData, GrayF32 psiGradient,
+											 int idx0 , int idx1 ) {
+		for( int i = idx0; i < idx1; i++ ) {
 
 			float du_ = du.data[i];
 			float dv_ = dv.data[i];
@@ -425,13 +454,24 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	/**
 	 * Computes the divergence for u,v, and d. Equation 8 and Equation 10.
 	 */
-	private void computeDivUVD(GrayF32 u , GrayF32 v , GrayF32 psi ,
-							   GrayF32 divU , GrayF32 divV , GrayF32 divD ) {
+	protected void computeDivUVD(GrayF32 u , GrayF32 v , GrayF32 psi ,
+								 GrayF32 divU , GrayF32 divV , GrayF32 divD ) {
+
+		// compute the inside pixel
+		computeDivUVD_inner(u, v, psi, divU, divV, divD, 1, psi.height-1);
+
+		// handle the image borders
+		computeDivUVD_border(u, v, psi, divU, divV, divD);
+	}
 
+	/**
+	 * Computes the divergence for inner pixels in rows y0 to y1
+	 */
+	protected void computeDivUVD_inner(GrayF32 u , GrayF32 v , GrayF32 psi ,
+									   GrayF32 divU , GrayF32 divV , GrayF32 divD , int y0 , int y1 ) {
 		final int stride = psi.stride;
 
-		// compute the inside pixel
-		for (int y = 1; y < psi.height-1; y++) {
+		for (int y = y0; y < y1; y++) {
 
 			// index of the current pixel
 			int index = y*stride + 1;
@@ -458,8 +498,13 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 				divD.data[index] = coef0 + coef1 + coef2 + coef3;
 			}
 		}
+	}
 
-		// handle the image borders
+	/**
+	 * Computes the divergence along the image border
+	 */
+	protected void computeDivUVD_border(GrayF32 u , GrayF32 v , GrayF32 psi ,
+										GrayF32 divU , GrayF32 divV , GrayF32 divD ) {
 		for( int x = 0; x < psi.width; x++ ) {
 			computeDivUVD_safe(x,0,u,v,psi,divU,divV,divD);
 			computeDivUVD_safe(x,psi.height-1,u,v,psi,divU,divV,divD);
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayDeque;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link BroxWarpingSpacial}. Operations which are independent for each pixel
+ * (warping, interpolation between layers, psi functions, and divergence) are done on blocks of rows in parallel.
+ * Each thread has its own copy of the interpolation.
+ * </p>
+ *
+ * <p>
+ * The SOR update for a pixel only depends on its 4-neighborhood, so the inner pixels are updated using red-black
+ * ordering. All the pixels where (x+y) is even are updated in parallel, followed by all the pixels where
+ * (x+y) is odd. Since the update order is different the results will not be identical
+ * to the single threaded version, but will converge to the same solution.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BroxWarpingSpacial_MT<T extends ImageGray<T>> extends BroxWarpingSpacial<T> {
+
+	// interpolation which is not being used by a thread
+	private final ArrayDeque<InterpolatePixelS<GrayF32>> available = new ArrayDeque<>();
+	// the border which the interpolation in 'available' was copied from
+	private ImageBorder<GrayF32> copiedBorder;
+	// the single threaded version always warps with an extended border
+	private final ImageBorder<GrayF32> extended = FactoryImageBorder.single(GrayF32.class, BorderType.EXTENDED);
+
+	// change in flow for each row in the most recent SOR iteration
+	private float[] rowError = new float[0];
+
+	public BroxWarpingSpacial_MT(ConfigBroxWarping config, InterpolatePixelS<GrayF32> interp) {
+		super(config, interp);
+	}
+
+	@Override
+	protected void interpolateFlowScale(GrayF32 prev, GrayF32 curr) {
+		checkBorder();
+		BoofConcurrency.loopBlocks(0,curr.height,(y0,y1)->{
+			InterpolatePixelS<GrayF32> interp = popInterpolate();
+			interp.setImage(prev);
+			interpolateFlowScale(interp, prev, curr, y0, y1);
+			pushInterpolate(interp);
+		});
+	}
+
+	@Override
+	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX , GrayF32 flowY , GrayF32 after) {
+		interp.setBorder(extended);
+		checkBorder();
+		BoofConcurrency.loopBlocks(0,before.height,(y0,y1)->{
+			InterpolatePixelS<GrayF32> interp = popInterpolate();
+			interp.setImage(before);
+			warpImageTaylor(interp, before, flowX, flowY, after, y0, y1);
+			pushInterpolate(interp);
+		});
+	}
+
+	@Override
+	protected void computePsiSmooth(GrayF32 ux, GrayF32 uy, GrayF32 vx, GrayF32 vy, GrayF32 psiSmooth) {
+		final int width = ux.width;
+		BoofConcurrency.loopBlocks(0,ux.height,(y0,y1)->
+				computePsiSmooth(ux, uy, vx, vy, psiSmooth, y0*width, y1*width));
+	}
+
+	@Override
+	protected void computePsiDataPsiGradient(GrayF32 image1, GrayF32 image2,
+											 GrayF32 deriv1x, GrayF32 deriv1y,
+											 GrayF32 deriv2x, GrayF32 deriv2y,
+											 GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
+											 GrayF32 du, GrayF32 dv,
+											 GrayF32 psiData, GrayF32 psiGradient) {
+		final int width = image1.width;
+		BoofConcurrency.loopBlocks(0,image1.height,(y0,y1)->
+				computePsiDataPsiGradient(image1, image2, deriv1x, deriv1y, deriv2x, deriv2y,
+						deriv2xx, deriv2yy, deriv2xy, du, dv, psiData, psiGradient, y0*width, y1*width));
+	}
+
+	@Override
+	protected void computeDivUVD(GrayF32 u, GrayF32 v, GrayF32 psi, GrayF32 divU, GrayF32 divV, GrayF32 divD) {
+		if( psi.height > 2 ) {
+			BoofConcurrency.loopBlocks(1, psi.height - 1, (y0, y1) ->
+					computeDivUVD_inner(u, v, psi, divU, divV, divD, y0, y1));
+		}
+		computeDivUVD_border(u, v, psi, divU, divV, divD);
+	}
+
+	@Override
+	protected float iterationSorInner(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y) {
+		final int width = image1.width;
+		final int height = image1.height;
+		final int stride = image1.stride;
+
+		if( height <= 2 )
+			return 0;
+		if( rowError.length < height )
+			rowError = new float[height];
+
+		// red pixels are where (x+y) is even and black pixels are where it's odd
+		for (int color = 0; color < 2; color++) {
+			final int _color = color;
+			BoofConcurrency.loopBlocks(1,height-1,(y0,y1)->{
+				for (int y = y0; y < y1; y++) {
+					float error = _color == 0 ? 0 : rowError[y];
+
+					int x = 1 + ((1+y+_color)&1);
+					int i = y*width + x;
+					for (; x < width - 1; x += 2, i += 2) {
+						error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
+					}
+					rowError[y] = error;
+				}
+			});
+		}
+
+		// sum up the error in a consistent order
+		float error = 0;
+		for (int y = 1; y < height-1; y++) {
+			error += rowError[y];
+		}
+		return error;
+	}
+
+	/**
+	 * Discards the interpolation for each thread if the border has changed since they were copied
+	 */
+	private void checkBorder() {
+		if( copiedBorder != interp.getBorder() ) {
+			copiedBorder = interp.getBorder();
+			available.clear();
+		}
+	}
+
+	private InterpolatePixelS<GrayF32> popInterpolate() {
+		synchronized (available) {
+			if( !available.isEmpty() )
+				return available.pop();
+		}
+		InterpolatePixelS<GrayF32> copy = interp.copy();
+		// the border has its own state so it's copied too
+		if( interp.getBorder() != null )
+			copy.setBorder(interp.getBorder().copy());
+		return copy;
+	}
+
+	private void pushInterpolate( InterpolatePixelS<GrayF32> interp ) {
+		synchronized (available) {
+			available.push(interp);
+		}
+	}
+}
@@ -95,14 +95,23 @@ public abstract class DenseFlowPyramidBase<T extends ImageGray<T>> {
 	 */
 	protected void interpolateFlowScale(GrayF32 prev, GrayF32 curr) {
 		interp.setImage(prev);
+		interpolateFlowScale(interp, prev, curr, 0, curr.height);
+	}
 
+	/**
+	 * Interpolates the flow from the previous layer for rows y0 to y1 in the current layer.
+	 *
+	 * @param interp Interpolation which has already been set to the previous layer.
+	 */
+	protected void interpolateFlowScale(InterpolatePixelS<GrayF32> interp, GrayF32 prev, GrayF32 curr,
+										int y0, int y1) {
 		float scaleX = (float)prev.width/(float)curr.width;
 		float scaleY = (float)prev.height/(float)curr.height;
 
 		float scale = (float)prev.width/(float)curr.width;
 
-		int indexCurr = 0;
-		for( int y = 0; y < curr.height; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
+			int indexCurr = y*curr.width;
 			float yy = y*scaleY;
 			for( int x = 0; x < curr.width; x++ ) {
 				float xx = x*scaleX;
@@ -122,8 +131,17 @@ public abstract class DenseFlowPyramidBase<T extends ImageGray<T>> {
 	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX , GrayF32 flowY , GrayF32 after) {
 		interp.setBorder(FactoryImageBorder.single(before.getImageType().getImageClass(), BorderType.EXTENDED));
 		interp.setImage(before);
+		warpImageTaylor(interp, before, flowX, flowY, after, 0, before.height);
+	}
 
-		for( int y = 0; y < before.height; y++ ) {
+	/**
+	 * Warps rows y0 to y1 in the image.
+	 *
+	 * @param interp Interpolation which has already been set to 'before'
+	 */
+	protected void warpImageTaylor(InterpolatePixelS<GrayF32> interp, GrayF32 before,
+								   GrayF32 flowX , GrayF32 flowY , GrayF32 after, int y0, int y1) {
+		for( int y = y0; y < y1; y++ ) {
 			int pixelIndex = y*before.width;
 			for (int x = 0; x < before.width; x++, pixelIndex++ ) {
 				float u = flowX.data[pixelIndex];
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DenseOpticalFlowBlockPyramid}. Each layer is processed in two passes.
+ * First the best match for the region centered at every pixel is found, with bands of rows being processed in
+ * parallel. Each thread has its own instance of the single threaded algorithm, which provides storage for the
+ * template. Then the flow for each pixel is selected from all the regions which overlap it, with bands of rows
+ * again being processed in parallel.
+ * </p>
+ *
+ * <p>
+ * The single threaded version assigns a region's flow to all the pixels it overlaps as soon as the region's best
+ * match has been found. Here each pixel looks at the regions which overlap it instead, in the same order as they
+ * are processed in the single threaded version, which produces identical results without threads writing to the
+ * same pixel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DenseOpticalFlowBlockPyramid_MT<T extends ImageGray<T>> extends DenseOpticalFlowBlockPyramid<T> {
+
+	// status of the region centered at each pixel
+	private static final byte SKIPPED = 0;
+	private static final byte VALID = 1;
+	private static final byte INVALID = 2;
+
+	// creates the algorithm used by each thread
+	private final Supplier<DenseOpticalFlowBlockPyramid<T>> factory;
+	// instance of the single threaded algorithm which has the image type specific code
+	private final DenseOpticalFlowBlockPyramid<T> alg;
+
+	// algorithms which are not being used by a thread
+	private final ArrayDeque<DenseOpticalFlowBlockPyramid<T>> available = new ArrayDeque<>();
+
+	// Results for the region centered at each pixel
+	private byte[] centerStatus = new byte[0];
+	private ImageFlow centerFlow = new ImageFlow(1,1);
+	private float[] centerScores = new float[0];
+
+	/**
+	 * Configures the search
+	 *
+	 * @param factory Creates instances of the single threaded algorithm. All must have the same configuration.
+	 */
+	public DenseOpticalFlowBlockPyramid_MT(Supplier<DenseOpticalFlowBlockPyramid<T>> factory) {
+		this(factory, factory.get());
+	}
+
+	@SuppressWarnings("unchecked")
+	private DenseOpticalFlowBlockPyramid_MT(Supplier<DenseOpticalFlowBlockPyramid<T>> factory,
+											DenseOpticalFlowBlockPyramid<T> alg) {
+		super(alg.searchRadius, alg.regionRadius, alg.maxError/(alg.template.width*alg.template.height),
+				(Class<T>)alg.template.getClass());
+		this.factory = factory;
+		this.alg = alg;
+	}
+
+	@Override
+	protected void processLayer(T prev, T curr, double scale) {
+		int N = prev.width*prev.height;
+		if( centerStatus.length < N ) {
+			centerStatus = new byte[N];
+			centerScores = new float[N];
+		}
+		centerFlow.reshape(prev.width, prev.height);
+
+		int y1 = prev.height-regionRadius;
+
+		// find the flow for the region centered at each pixel
+		if( y1 > regionRadius ) {
+			BoofConcurrency.loopBlocks(regionRadius, y1, (idx0, idx1) -> {
+				DenseOpticalFlowBlockPyramid<T> alg;
+				synchronized (available) {
+					alg = available.isEmpty() ? factory.get() : available.pop();
+				}
+				for (int y = idx0; y < idx1; y++) {
+					findFlowRow(alg, y, prev, curr, scale);
+				}
+				synchronized (available) {
+					available.push(alg);
+				}
+			});
+		}
+
+		// select the flow for each pixel from the regions which overlap it
+		BoofConcurrency.loopBlocks(0, prev.height, (idx0, idx1) -> {
+			for (int y = idx0; y < idx1; y++) {
+				for (int x = 0; x < prev.width; x++) {
+					selectFlow(x, y);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Finds the flow for the region centered at each pixel in the row
+	 */
+	private void findFlowRow( DenseOpticalFlowBlockPyramid<T> alg , int y , T prev , T curr , double scale ) {
+		int x1 = prev.width-regionRadius;
+		int index = y*prev.width + regionRadius;
+		ImageFlow.D flow = alg.tmp;
+
+		for( int x = regionRadius; x < x1; x++ , index++ ) {
+			float score;
+			if( scale <= 0 ) {
+				// the top most layer in the pyramid has no hint
+				alg.extractTemplate(x,y,prev);
+				score = alg.findFlow(x,y,curr,flow);
+			} else {
+				// grab the flow in higher level pyramid
+				ImageFlow.D p = flowPrevLayer.get((int)(x/scale),(int)(y/scale));
+				if( !p.isValid() ) {
+					centerStatus[index] = SKIPPED;
+					continue;
+				}
+
+				// get the template around the current point in this layer
+				alg.extractTemplate(x,y,prev);
+
+				// add the flow from the higher layer (adjusting for scale and rounding) as the start of
+				// this search
+				int deltaX = (int)(p.x*scale+0.5);
+				int deltaY = (int)(p.y*scale+0.5);
+
+				score = alg.findFlow(x + deltaX,y + deltaY,curr,flow);
+
+				// find flow only does it relative to the starting point
+				flow.x += deltaX;
+				flow.y += deltaY;
+			}
+
+			if( flow.isValid() ) {
+				centerStatus[index] = VALID;
+				centerFlow.data[index].set(flow);
+				centerScores[index] = score;
+			} else {
+				centerStatus[index] = INVALID;
+			}
+		}
+	}
+
+	/**
+	 * Selects the flow for pixel (px,py) by going through every region which overlaps it in the same
+	 * order they would have been processed by the single threaded algorithm
+	 */
+	private void selectFlow( int px , int py ) {
+		final int width = flowCurrLayer.width;
+		final int height = flowCurrLayer.height;
+
+		// regions are only centered at pixels which are at least regionRadius away from the image border
+		int x0 = Math.max(regionRadius, px-regionRadius);
+		int x1 = Math.min(width-regionRadius, px+regionRadius+1);
+		int y0 = Math.max(regionRadius, py-regionRadius);
+		int y1 = Math.min(height-regionRadius, py+regionRadius+1);
+
+		int indexP = py*width + px;
+		ImageFlow.D f = flowCurrLayer.data[indexP];
+
+		for( int cy = y0; cy < y1; cy++ ) {
+			int indexC = cy*width + x0;
+			for( int cx = x0; cx < x1; cx++ , indexC++ ) {
+				switch( centerStatus[indexC] ) {
+					case VALID: {
+						ImageFlow.D flow = centerFlow.data[indexC];
+						float score = centerScores[indexC];
+						float s = scores[indexP];
+						if( s > score ) {
+							f.set(flow);
+							scores[indexP] = score;
+						} else if( s == score ) {
+							// Pick solution with the least motion when ambiguous
+							float m0 = f.x*f.x + f.y*f.y;
+							float m1 = flow.x*flow.x + flow.y*flow.y;
+							if( m1 < m0 ) {
+								f.set(flow);
+								scores[indexP] = score;
+							}
+						}
+					} break;
+
+					case INVALID:
+						if( indexC == indexP )
+							f.markInvalid();
+						break;
+
+					default:
+						break;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void extractTemplate(int cx, int cy, T prev) {
+		alg.extractTemplate(cx, cy, prev);
+	}
+
+	@Override
+	protected float computeError(int cx, int cy, T curr) {
+		return alg.computeError(cx, cy, curr);
+	}
+}
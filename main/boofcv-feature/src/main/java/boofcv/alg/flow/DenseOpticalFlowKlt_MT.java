@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.tracker.klt.KltTrackFault;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.ImagePyramid;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DenseOpticalFlowKlt}. Processing is done in two passes. First a feature
+ * centered at every pixel is tracked, with bands of rows being processed in parallel. Each thread has its own
+ * tracker and feature. Then the flow for each pixel is selected from all the templates which overlap it,
+ * with bands of rows again being processed in parallel.
+ * </p>
+ *
+ * <p>
+ * The single threaded version assigns a template's flow to all the pixels it overlaps as soon as it's been
+ * tracked. Here each pixel looks at the templates which overlap it instead, in the same order as they are
+ * processed in the single threaded version, which produces identical results without threads writing to the
+ * same pixel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DenseOpticalFlowKlt_MT<I extends ImageGray<I>, D extends ImageGray<D>>
+		extends DenseOpticalFlowKlt<I,D>
+{
+	// creates trackers for each thread
+	private final Supplier<PyramidKltTracker<I,D>> factoryTracker;
+	private final int numLayers;
+
+	// trackers which are not being used by a thread
+	private final ArrayDeque<ThreadData> available = new ArrayDeque<>();
+
+	// Flow and score of the template centered at each pixel. Flow is invalid if tracking failed
+	private ImageFlow centerFlow = new ImageFlow(1,1);
+	private float[] centerScores = new float[1];
+
+	public DenseOpticalFlowKlt_MT(Supplier<PyramidKltTracker<I, D>> factoryTracker, int numLayers, int radius) {
+		super(factoryTracker.get(), numLayers, radius);
+		this.factoryTracker = factoryTracker;
+		this.numLayers = numLayers;
+	}
+
+	@Override
+	public void process( ImagePyramid<I> prev, D[] prevDerivX, D[] prevDerivY,
+						 ImagePyramid<I> curr , ImageFlow output ) {
+
+		this.width = output.width;
+		this.height = output.height;
+
+		int N = width*height;
+		if( scores.length < N)
+			scores = new float[N];
+		if( centerScores.length < N )
+			centerScores = new float[N];
+		centerFlow.reshape(width,height);
+
+		// track a template centered at every pixel
+		BoofConcurrency.loopBlocks(0,height,(y0,y1)->{
+			ThreadData data;
+			synchronized (available) {
+				data = available.isEmpty() ? new ThreadData() : available.pop();
+			}
+			for (int y = y0; y < y1; y++) {
+				trackRow(data, y, prev, prevDerivX, prevDerivY, curr);
+			}
+			synchronized (available) {
+				available.push(data);
+			}
+		});
+
+		// initialize and set the score for each pixel to be very high
+		Arrays.fill(scores,0,N,Float.MAX_VALUE);
+
+		for (int i = 0; i < N; i++) {
+			output.data[i].markInvalid();
+		}
+
+		// select the flow for each pixel from the templates which overlap it
+		BoofConcurrency.loopBlocks(0,height,(y0,y1)->{
+			for (int y = y0; y < y1; y++) {
+				for (int x = 0; x < width; x++) {
+					selectFlow(x, y, output);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Tracks the templates centered at each pixel in the row
+	 */
+	private void trackRow( ThreadData data , int y ,
+						   ImagePyramid<I> prev, D[] prevDerivX, D[] prevDerivY, ImagePyramid<I> curr ) {
+		PyramidKltTracker<I,D> tracker = data.tracker;
+		PyramidKltFeature feature = data.feature;
+
+		int index = y*width;
+		for( int x = 0; x < width; x++ , index++ ) {
+			ImageFlow.D flow = centerFlow.data[index];
+			flow.markInvalid();
+
+			tracker.setImage(prev,prevDerivX,prevDerivY);
+			feature.setPosition(x,y);
+
+			if( tracker.setDescription(feature) ) {
+				// derivX and derivY are not used, but can't be null for setImage()
+				tracker.setImage(curr);
+				KltTrackFault fault = tracker.track(feature);
+				if( fault == KltTrackFault.SUCCESS ) {
+					centerScores[index] = tracker.getError();
+					flow.set(feature.x-x,feature.y-y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Selects the flow for pixel (px,py) by going through every template which overlaps it in the same
+	 * order they would have been processed by the single threaded algorithm
+	 */
+	private void selectFlow( int px , int py , ImageFlow output ) {
+		int x0 = Math.max(0,px-regionRadius);
+		int x1 = Math.min(width, px + regionRadius + 1);
+		int y0 = Math.max(0,py-regionRadius);
+		int y1 = Math.min(height, py + regionRadius + 1);
+
+		int indexP = py*width + px;
+		ImageFlow.D f = output.data[indexP];
+
+		for( int cy = y0; cy < y1; cy++ ) {
+			int indexC = cy*width + x0;
+			for( int cx = x0; cx < x1; cx++ , indexC++ ) {
+				ImageFlow.D flow = centerFlow.data[indexC];
+				if( !flow.isValid() )
+					continue;
+
+				float score = centerScores[indexC];
+
+				if( indexC == indexP ) {
+					// bias the result to prefer the central template
+					scores[indexP] = score*MAGIC_ADJUSTMENT;
+					f.set(flow.x,flow.y);
+				}
+
+				float s = scores[indexP];
+				if( s > score ) {
+					f.set(flow.x,flow.y);
+					scores[indexP] = score;
+				} else if( s == score ) {
+					// Pick solution with the least motion when ambiguous
+					float m0 = f.x*f.x + f.y*f.y;
+					float m1 = flow.x*flow.x + flow.y*flow.y;
+					if( m1 < m0 ) {
+						f.set(flow.x,flow.y);
+						scores[indexP] = score;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tracker and feature used by a single thread
+	 */
+	private class ThreadData {
+		final PyramidKltTracker<I,D> tracker = factoryTracker.get();
+		final PyramidKltFeature feature = new PyramidKltFeature(numLayers,regionRadius);
+	}
+}
@@ -174,14 +174,23 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 	 */
 	protected void interpolateFlowScale(GrayF32 prev, GrayF32 curr) {
 		interp.setImage(prev);
+		interpolateFlowScale(interp, prev, curr, 0, curr.height);
+	}
 
+	/**
+	 * Interpolates the flow from the previous layer for rows y0 to y1 in the current layer.
+	 *
+	 * @param interp Interpolation which has already been set to the previous layer.
+	 */
+	protected void interpolateFlowScale(InterpolatePixelS<GrayF32> interp, GrayF32 prev, GrayF32 curr,
+										int y0, int y1) {
 		float scaleX = (float)(prev.width-1)/(float)(curr.width-1)*0.999f;
 		float scaleY = (float)(prev.height-1)/(float)(curr.height-1)*0.999f;
 
 		float scale = (float)prev.width/(float)curr.width;
 
-		int indexCurr = 0;
-		for( int y = 0; y < curr.height; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
+			int indexCurr = y*curr.width;
 			for( int x = 0; x < curr.width; x++ ) {
 				curr.data[indexCurr++] = interp.get(x*scaleX,y*scaleY)/scale;
 			}
@@ -194,8 +203,17 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 	 */
 	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX , GrayF32 flowY , GrayF32 after) {
 		interp.setImage(before);
+		warpImageTaylor(interp, before, flowX, flowY, after, 0, before.height);
+	}
 
-		for( int y = 0; y < before.height; y++ ) {
+	/**
+	 * Warps rows y0 to y1 in the image. Pixels which are warped outside the image are set to zero.
+	 *
+	 * @param interp Interpolation which has already been set to 'before'
+	 */
+	protected void warpImageTaylor(InterpolatePixelS<GrayF32> interp, GrayF32 before,
+								   GrayF32 flowX , GrayF32 flowY , GrayF32 after, int y0, int y1) {
+		for( int y = y0; y < y1; y++ ) {
 			int pixelIndex = y*before.width;
 			for (int x = 0; x < before.width; x++, pixelIndex++ ) {
 				float u = flowX.data[pixelIndex];
@@ -220,9 +238,6 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 	 */
 	protected void processLayer(GrayF32 image1 , GrayF32 image2 , GrayF32 derivX2 , GrayF32 derivY2) {
 
-		float w = SOR_RELAXATION;
-		float uf,vf;
-
 		// outer Taylor expansion iterations
 		for( int warp = 0; warp < numWarps; warp++ ) {
 
@@ -237,35 +252,8 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 			int iter = 0;
 
 			do {
-				// inner SOR iteration.
-				error = 0;
-
-				// inner portion
-				for( int y = 1; y < image1.height-1; y++ ) {
-					int pixelIndex = y*image1.width+1;
-					for (int x = 1; x < image1.width-1; x++, pixelIndex++ ) {
-						// could speed this up a bit more by precomputing the constant portion before the do-while loop
-						float ui = initFlowX.data[pixelIndex];
-						float vi = initFlowY.data[pixelIndex];
-
-						float u = flowX.data[pixelIndex];
-						float v = flowY.data[pixelIndex];
-
-						float I1 = image1.data[pixelIndex];
-						float I2 = warpImage2.data[pixelIndex];
-
-						float I2x = warpDeriv2X.data[pixelIndex];
-						float I2y = warpDeriv2Y.data[pixelIndex];
-
-						float AU = A(x,y,flowX);
-						float AV = A(x,y,flowY);
-
-						flowX.data[pixelIndex] = uf = (1-w)*u + w*((I1-I2+I2x*ui - I2y*(v-vi))*I2x + alpha2*AU)/(I2x*I2x + alpha2);
-						flowY.data[pixelIndex] = vf = (1-w)*v + w*((I1-I2+I2y*vi - I2x*(uf-ui))*I2y + alpha2*AV)/(I2y*I2y + alpha2);
-
-						error += (uf - u)*(uf - u) + (vf - v)*(vf - v);
-					}
-				}
+				// inner SOR iteration. Starting with the inner portion
+				error = iterationSorInner(image1);
 
 				// border regions require special treatment
 				int pixelIndex0 = 0;
@@ -289,6 +277,56 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 		}
 	}
 
+	/**
+	 * Performs a single SOR iteration across all the inner pixels in the image
+	 *
+	 * @return sum of the squared change in flow
+	 */
+	protected float iterationSorInner(GrayF32 image1) {
+		float error = 0;
+		for( int y = 1; y < image1.height-1; y++ ) {
+			error += iterationSorRow(image1, y);
+		}
+		return error;
+	}
+
+	/**
+	 * Performs a single SOR iteration across the inner pixels in a row. Pixels are updated in place
+	 * from left to right.
+	 *
+	 * @return sum of the squared change in flow
+	 */
+	protected float iterationSorRow(GrayF32 image1, int y) {
+		final float w = SOR_RELAXATION;
+		float uf,vf;
+		float error = 0;
+
+		int pixelIndex = y*image1.width+1;
+		for (int x = 1; x < image1.width-1; x++, pixelIndex++ ) {
+			// could speed this up a bit more by precomputing the constant portion before the do-while loop
+			float ui = initFlowX.data[pixelIndex];
+			float vi = initFlowY.data[pixelIndex];
+
+			float u = flowX.data[pixelIndex];
+			float v = flowY.data[pixelIndex];
+
+			float I1 = image1.data[pixelIndex];
+			float I2 = warpImage2.data[pixelIndex];
+
+			float I2x = warpDeriv2X.data[pixelIndex];
+			float I2y = warpDeriv2Y.data[pixelIndex];
+
+			float AU = A(x,y,flowX);
+			float AV = A(x,y,flowY);
+
+			flowX.data[pixelIndex] = uf = (1-w)*u + w*((I1-I2+I2x*ui - I2y*(v-vi))*I2x + alpha2*AU)/(I2x*I2x + alpha2);
+			flowY.data[pixelIndex] = vf = (1-w)*v + w*((I1-I2+I2y*vi - I2x*(uf-ui))*I2y + alpha2*AV)/(I2y*I2y + alpha2);
+
+			error += (uf - u)*(uf - u) + (vf - v)*(vf - v);
+		}
+		return error;
+	}
+
 	/**
 	 * SOR iteration for border pixels
 	 */
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.flow.ConfigHornSchunckPyramid;
+import boofcv.struct.border.ImageBorder;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayDeque;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HornSchunckPyramid}. Warping and interpolation of the flow between layers
+ * are done on blocks of rows in parallel, with each thread having its own copy of the interpolation.
+ * </p>
+ *
+ * <p>
+ * The SOR solver uses a red-black ordering of rows. The update for a pixel depends on its entire 8-neighborhood
+ * so a checkerboard pattern of pixels would not be independent. Instead all the odd rows are updated in parallel,
+ * followed by all the even rows. Inside a row pixels are updated in place from left to right, the same as
+ * the single threaded version. Since the update order is different the results will not be identical
+ * to the single threaded version, but will converge to the same solution.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunckPyramid_MT<T extends ImageGray<T>>
+		extends HornSchunckPyramid<T>
+{
+	// interpolation which is not being used by a thread
+	private final ArrayDeque<InterpolatePixelS<GrayF32>> available = new ArrayDeque<>();
+	// the border which the interpolation in 'available' was copied from
+	private ImageBorder<GrayF32> copiedBorder;
+
+	// change in flow for each row in the most recent SOR iteration
+	private float[] rowError = new float[0];
+
+	public HornSchunckPyramid_MT(ConfigHornSchunckPyramid config, InterpolatePixelS<GrayF32> interp) {
+		super(config, interp);
+	}
+
+	@Override
+	protected void interpolateFlowScale(GrayF32 prev, GrayF32 curr) {
+		checkBorder();
+		BoofConcurrency.loopBlocks(0,curr.height,(y0,y1)->{
+			InterpolatePixelS<GrayF32> interp = popInterpolate();
+			interp.setImage(prev);
+			interpolateFlowScale(interp, prev, curr, y0, y1);
+			pushInterpolate(interp);
+		});
+	}
+
+	@Override
+	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX , GrayF32 flowY , GrayF32 after) {
+		checkBorder();
+		BoofConcurrency.loopBlocks(0,before.height,(y0,y1)->{
+			InterpolatePixelS<GrayF32> interp = popInterpolate();
+			interp.setImage(before);
+			warpImageTaylor(interp, before, flowX, flowY, after, y0, y1);
+			pushInterpolate(interp);
+		});
+	}
+
+	@Override
+	protected float iterationSorInner(GrayF32 image1) {
+		final int height = image1.height;
+		if( rowError.length < height )
+			rowError = new float[height];
+
+		// first process the odd rows then the even rows
+		for (int first = 1; first <= 2; first++) {
+			final int _first = first;
+			int numRows = Math.max(0,(height-first)/2);
+			if( numRows == 0 )
+				continue;
+			BoofConcurrency.loopBlocks(0,numRows,(idx0,idx1)->{
+				for (int i = idx0; i < idx1; i++) {
+					int y = _first + 2*i;
+					rowError[y] = iterationSorRow(image1, y);
+				}
+			});
+		}
+
+		// sum up the error in a consistent order
+		float error = 0;
+		for (int y = 1; y < height-1; y++) {
+			error += rowError[y];
+		}
+		return error;
+	}
+
+	/**
+	 * Discards the interpolation for each thread if the border has changed since they were copied
+	 */
+	private void checkBorder() {
+		if( copiedBorder != interp.getBorder() ) {
+			copiedBorder = interp.getBorder();
+			available.clear();
+		}
+	}
+
+	private InterpolatePixelS<GrayF32> popInterpolate() {
+		synchronized (available) {
+			if( !available.isEmpty() )
+				return available.pop();
+		}
+		InterpolatePixelS<GrayF32> copy = interp.copy();
+		// the border has its own state so it's copied too
+		if( interp.getBorder() != null )
+			copy.setBorder(interp.getBorder().copy());
+		return copy;
+	}
+
+	private void pushInterpolate( InterpolatePixelS<GrayF32> interp ) {
+		synchronized (available) {
+			available.push(interp);
+		}
+	}
+}
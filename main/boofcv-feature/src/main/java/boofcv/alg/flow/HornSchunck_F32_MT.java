@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+
+/**
+ * Concurrent implementation of {@link HornSchunck_F32}. Each iteration is a Jacobi update, the average flow is
+ * computed from the previous iteration and every pixel is then updated independently, so the image is split into
+ * blocks of rows which are processed in parallel. Results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunck_F32_MT extends HornSchunck_F32 {
+
+	public HornSchunck_F32_MT(float alpha, int numIterations) {
+		super(alpha, numIterations);
+	}
+
+	@Override
+	protected void findFlow(GrayF32 derivX , GrayF32 derivY ,
+							GrayF32 derivT , ImageFlow output) {
+
+		final int width = output.width;
+
+		for( int iter = 0; iter < numIterations; iter++ ) {
+
+			borderAverageFlow(output,averageFlow);
+			if( output.height > 2 )
+				BoofConcurrency.loopBlocks(1,output.height-1,(y0,y1)->innerAverageFlow(output,averageFlow,y0,y1));
+
+			BoofConcurrency.loopBlocks(0,output.height,(y0,y1)->
+					updateFlow(derivX, derivY, derivT, output, y0*width, y1*width));
+		}
+	}
+}
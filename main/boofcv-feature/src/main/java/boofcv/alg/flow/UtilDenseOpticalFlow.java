@@ -20,7 +20,10 @@ package boofcv.alg.flow;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.transform.pyramid.PyramidFloatGaussianScale;
+import boofcv.alg.transform.pyramid.PyramidFloatGaussianScale_MT;
 import boofcv.alg.transform.pyramid.PyramidFloatScale;
+import boofcv.alg.transform.pyramid.PyramidFloatScale_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.image.ImageGray;
@@ -106,7 +109,10 @@ public class UtilDenseOpticalFlow {
 				scaleSigmas[i] = layerSigma;
 			}
 
-			return new PyramidFloatGaussianScale<>(interp, scaleFactors, scaleSigmas, imageType);
+			if( BoofConcurrency.USE_CONCURRENT )
+				return new PyramidFloatGaussianScale_MT<>(interp, scaleFactors, scaleSigmas, imageType);
+			else
+				return new PyramidFloatGaussianScale<>(interp, scaleFactors, scaleSigmas, imageType);
 		} else {
 			double scaleFactors[] = new double[ numScales ];
 
@@ -115,7 +121,10 @@ public class UtilDenseOpticalFlow {
 				scaleFactors[i] = scaleFactors[i-1]/scale;
 			}
 
-			return new PyramidFloatScale<>(interp, scaleFactors, imageType);
+			if( BoofConcurrency.USE_CONCURRENT )
+				return new PyramidFloatScale_MT<>(interp, scaleFactors, imageType);
+			else
+				return new PyramidFloatScale<>(interp, scaleFactors, imageType);
 		}
 	}
 }
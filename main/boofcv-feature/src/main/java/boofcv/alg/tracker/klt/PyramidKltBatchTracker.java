@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.ImagePyramid;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Pyramidal KLT tracker which processes all of its features as a single batch. Tracking and description are
+ * done the same way as {@link PyramidKltTracker}, but instead of each feature owning a {@link PyramidKltFeature}
+ * the feature's templates are stored in a structure-of-arrays layout. For each layer in the pyramid there is a
+ * single array containing the template, template gradients, and spatial gradient matrix for every feature.
+ * This keeps the memory for all the features contiguous and avoids creating objects for every feature.
+ * </p>
+ *
+ * <p>
+ * Internally a {@link KltTracker} is used to process one feature at a time. The feature's template is copied
+ * into a work space {@link KltFeature} before it's tracked and copied out after its description has been updated.
+ * Features are referenced by their index, which will change when features are removed.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidKltBatchTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
+
+	// creates a new KLT tracker for each work space
+	protected final Supplier<KltTracker<I, D>> factoryTracker;
+
+	// number of layers in the image pyramid
+	protected final int numLayers;
+	// radius of the square template
+	protected final int templateRadius;
+	// number of pixels in the template
+	protected final int lengthTemplate;
+
+	// image pyramid for raw input image
+	protected ImagePyramid<I> image;
+	// image pyramid for image gradient
+	protected D[] derivX;
+	protected D[] derivY;
+
+	// number of features being tracked
+	protected int size;
+	// location of each feature in the original image
+	protected float[] x = new float[0];
+	protected float[] y = new float[0];
+	// user specified data for each feature, not used by the tracker
+	protected Object[] cookies = new Object[0];
+	// result of the most recent operation on each feature
+	protected KltTrackFault[] faults = new KltTrackFault[0];
+
+	// Templates for each layer. Indexed by [layer][feature*lengthTemplate + pixel]
+	protected float[][] templateDesc;
+	protected float[][] templateDerivX;
+	protected float[][] templateDerivY;
+	// spatial gradient matrix for each layer. Indexed by [layer][feature]
+	protected float[][] templateGxx;
+	protected float[][] templateGxy;
+	protected float[][] templateGyy;
+
+	// work space used when processing features in this thread
+	protected final Workspace workspace;
+
+	/**
+	 * Configures the tracker
+	 *
+	 * @param factoryTracker Creates the KLT tracker used on a single layer
+	 * @param numLayers Number of layers in the image pyramid
+	 * @param templateRadius Radius of the square template that's tracked in each layer
+	 */
+	public PyramidKltBatchTracker(Supplier<KltTracker<I, D>> factoryTracker, int numLayers, int templateRadius) {
+		this.factoryTracker = factoryTracker;
+		this.numLayers = numLayers;
+		this.templateRadius = templateRadius;
+
+		int width = templateRadius*2+1;
+		this.lengthTemplate = width*width;
+
+		templateDesc = new float[numLayers][0];
+		templateDerivX = new float[numLayers][0];
+		templateDerivY = new float[numLayers][0];
+		templateGxx = new float[numLayers][0];
+		templateGxy = new float[numLayers][0];
+		templateGyy = new float[numLayers][0];
+
+		workspace = new Workspace();
+	}
+
+	/**
+	 * Sets the current input images for the tracker to use.
+	 *
+	 * @param image Original image pyramid.
+	 * @param derivX Derivative along x-axis.
+	 * @param derivY Derivative along y-axis.
+	 */
+	public void setImage(ImagePyramid<I> image, D[] derivX, D[] derivY) {
+		if( image.getNumLayers() != numLayers )
+			throw new IllegalArgumentException("Number of layers in the pyramid does not match.");
+		if( numLayers != derivX.length || numLayers != derivY.length )
+			throw new IllegalArgumentException("Number of layers does not match.");
+
+		this.image = image;
+		this.derivX = derivX;
+		this.derivY = derivY;
+	}
+
+	/**
+	 * Adds a new feature. Its description is not set.
+	 *
+	 * @param x x-coordinate in the original image
+	 * @param y y-coordinate in the original image
+	 * @param cookie User specified data
+	 * @return index of the new feature
+	 */
+	public int addFeature( float x , float y , Object cookie ) {
+		if( size == this.x.length ) {
+			grow(Math.max(10,size*2));
+		}
+
+		int index = size++;
+		this.x[index] = x;
+		this.y[index] = y;
+		this.cookies[index] = cookie;
+		this.faults[index] = KltTrackFault.SUCCESS;
+		return index;
+	}
+
+	/**
+	 * Sets the description of features in the specified range using their current location. The result
+	 * can be found by calling {@link #getFault(int)}. Either {@link KltTrackFault#SUCCESS} or
+	 * {@link KltTrackFault#FAILED}.
+	 *
+	 * @param first Index of the first feature, inclusive
+	 * @param last Index of the last feature, exclusive
+	 */
+	public void setDescription( int first , int last ) {
+		processFeatures(first,last,(w,index)->
+				faults[index] = setDescription(w,index) ? KltTrackFault.SUCCESS : KltTrackFault.FAILED);
+	}
+
+	/**
+	 * Finds the new location of every feature in the image then updates its description. If the feature's
+	 * center after tracking is outside of the input image it's marked as {@link KltTrackFault#OUT_OF_BOUNDS} and
+	 * if a description can't be computed it's marked as {@link KltTrackFault#FAILED}. Otherwise the result from
+	 * tracking is saved. See {@link #getFault(int)}.
+	 *
+	 * @param width Width of the input image
+	 * @param height Height of the input image
+	 */
+	public void trackAndDescribe( int width , int height ) {
+		processFeatures(0,size,(w,index)->{
+			KltTrackFault fault = track(w,index);
+			if( fault == KltTrackFault.SUCCESS ) {
+				// discard a track if its center drifts outside the image.
+				int px = (int)x[index], py = (int)y[index];
+				if( px < 0 || px >= width || py < 0 || py >= height )
+					fault = KltTrackFault.OUT_OF_BOUNDS;
+				else if( !setDescription(w,index) )
+					fault = KltTrackFault.FAILED;
+			}
+			faults[index] = fault;
+		});
+	}
+
+	/**
+	 * Applies the operation to every feature in the range. Intended to be overloaded by concurrent
+	 * implementations.
+	 */
+	protected void processFeatures( int first , int last , FeatureOperation<Workspace> op ) {
+		for (int i = first; i < last; i++) {
+			op.process(workspace,i);
+		}
+	}
+
+	/**
+	 * Tracks a single feature from the top of the pyramid to the bottom. Its location is only updated if
+	 * tracking was successful.
+	 */
+	protected KltTrackFault track( Workspace w , int index ) {
+		final KltTracker<I, D> tracker = w.tracker;
+		final KltFeature f = w.feature;
+
+		float x = this.x[index];
+		float y = this.y[index];
+
+		// track from the top of the pyramid to the bottom
+		for (int layer = numLayers-1; layer >= 0; layer--) {
+			float scale = (float)image.getScale(layer);
+			x /= scale;
+			y /= scale;
+
+			// tracking never needs the derivative
+			tracker.unsafe_setImage(image.getLayer(layer), null, null);
+
+			loadTemplate(layer,index,f);
+			f.setPosition(x, y);
+			KltTrackFault ret = tracker.track(f);
+
+			if (ret != KltTrackFault.SUCCESS)
+				return ret;
+
+			x = f.x*scale;
+			y = f.y*scale;
+		}
+
+		this.x[index] = x;
+		this.y[index] = y;
+		return KltTrackFault.SUCCESS;
+	}
+
+	/**
+	 * Sets the description of a single feature in every layer of the pyramid
+	 *
+	 * @return true if there was sufficient information to create a feature or false if not
+	 */
+	protected boolean setDescription( Workspace w , int index ) {
+		final KltTracker<I, D> tracker = w.tracker;
+		final KltFeature f = w.feature;
+
+		for (int layer = 0; layer < numLayers; layer++) {
+			float scale = (float)image.getScale(layer);
+
+			tracker.unsafe_setImage(image.getLayer(layer), derivX[layer], derivY[layer]);
+
+			f.setPosition(x[index]/scale, y[index]/scale);
+			boolean success = tracker.setDescription(f);
+			saveTemplate(layer,index,f);
+			if( !success )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the feature's template in the specified layer into the work space feature
+	 */
+	protected void loadTemplate( int layer , int index , KltFeature f ) {
+		int offset = index*lengthTemplate;
+		System.arraycopy(templateDesc[layer],offset,f.desc.data,0,lengthTemplate);
+		System.arraycopy(templateDerivX[layer],offset,f.derivX.data,0,lengthTemplate);
+		System.arraycopy(templateDerivY[layer],offset,f.derivY.data,0,lengthTemplate);
+		f.Gxx = templateGxx[layer][index];
+		f.Gxy = templateGxy[layer][index];
+		f.Gyy = templateGyy[layer][index];
+	}
+
+	/**
+	 * Copies the template in the work space feature into the specified layer
+	 */
+	protected void saveTemplate( int layer , int index , KltFeature f ) {
+		int offset = index*lengthTemplate;
+		System.arraycopy(f.desc.data,0,templateDesc[layer],offset,lengthTemplate);
+		System.arraycopy(f.derivX.data,0,templateDerivX[layer],offset,lengthTemplate);
+		System.arraycopy(f.derivY.data,0,templateDerivY[layer],offset,lengthTemplate);
+		templateGxx[layer][index] = f.Gxx;
+		templateGxy[layer][index] = f.Gxy;
+		templateGyy[layer][index] = f.Gyy;
+	}
+
+	/**
+	 * Removes all features which don't have a fault of {@link KltTrackFault#SUCCESS}. The order of the remaining
+	 * features is not changed.
+	 *
+	 * @param removed (Output) Cookies of the removed features are added to this list in order.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> void removeFaults( List<T> removed ) {
+		int dst = 0;
+		for (int src = 0; src < size; src++) {
+			if( faults[src] != KltTrackFault.SUCCESS ) {
+				removed.add((T)cookies[src]);
+				continue;
+			}
+			if( dst != src )
+				copyFeature(src,dst);
+			dst++;
+		}
+		Arrays.fill(cookies,dst,size,null);
+		size = dst;
+	}
+
+	/**
+	 * Removes a single feature. The order of the remaining features is not changed.
+	 */
+	public void remove( int index ) {
+		if( index < 0 || index >= size )
+			throw new IllegalArgumentException("Index out of bounds. "+index);
+		int N = size-index-1;
+		System.arraycopy(x,index+1,x,index,N);
+		System.arraycopy(y,index+1,y,index,N);
+		System.arraycopy(cookies,index+1,cookies,index,N);
+		System.arraycopy(faults,index+1,faults,index,N);
+		for (int layer = 0; layer < numLayers; layer++) {
+			int offset = index*lengthTemplate;
+			System.arraycopy(templateDesc[layer],offset+lengthTemplate,templateDesc[layer],offset,N*lengthTemplate);
+			System.arraycopy(templateDerivX[layer],offset+lengthTemplate,templateDerivX[layer],offset,N*lengthTemplate);
+			System.arraycopy(templateDerivY[layer],offset+lengthTemplate,templateDerivY[layer],offset,N*lengthTemplate);
+			System.arraycopy(templateGxx[layer],index+1,templateGxx[layer],index,N);
+			System.arraycopy(templateGxy[layer],index+1,templateGxy[layer],index,N);
+			System.arraycopy(templateGyy[layer],index+1,templateGyy[layer],index,N);
+		}
+		cookies[--size] = null;
+	}
+
+	/**
+	 * Removes all the features
+	 */
+	public void reset() {
+		Arrays.fill(cookies,0,size,null);
+		size = 0;
+	}
+
+	private void copyFeature( int src , int dst ) {
+		x[dst] = x[src];
+		y[dst] = y[src];
+		cookies[dst] = cookies[src];
+		faults[dst] = faults[src];
+		for (int layer = 0; layer < numLayers; layer++) {
+			System.arraycopy(templateDesc[layer],src*lengthTemplate,templateDesc[layer],dst*lengthTemplate,lengthTemplate);
+			System.arraycopy(templateDerivX[layer],src*lengthTemplate,templateDerivX[layer],dst*lengthTemplate,lengthTemplate);
+			System.arraycopy(templateDerivY[layer],src*lengthTemplate,templateDerivY[layer],dst*lengthTemplate,lengthTemplate);
+			templateGxx[layer][dst] = templateGxx[layer][src];
+			templateGxy[layer][dst] = templateGxy[layer][src];
+			templateGyy[layer][dst] = templateGyy[layer][src];
+		}
+	}
+
+	private void grow( int capacity ) {
+		x = Arrays.copyOf(x,capacity);
+		y = Arrays.copyOf(y,capacity);
+		cookies = Arrays.copyOf(cookies,capacity);
+		faults = Arrays.copyOf(faults,capacity);
+		for (int layer = 0; layer < numLayers; layer++) {
+			templateDesc[layer] = Arrays.copyOf(templateDesc[layer],capacity*lengthTemplate);
+			templateDerivX[layer] = Arrays.copyOf(templateDerivX[layer],capacity*lengthTemplate);
+			templateDerivY[layer] = Arrays.copyOf(templateDerivY[layer],capacity*lengthTemplate);
+			templateGxx[layer] = Arrays.copyOf(templateGxx[layer],capacity);
+			templateGxy[layer] = Arrays.copyOf(templateGxy[layer],capacity);
+			templateGyy[layer] = Arrays.copyOf(templateGyy[layer],capacity);
+		}
+	}
+
+	/**
+	 * Number of features
+	 */
+	public int size() {
+		return size;
+	}
+
+	public float getX( int index ) {
+		return x[index];
+	}
+
+	public float getY( int index ) {
+		return y[index];
+	}
+
+	public <T> T getCookie( int index ) {
+		return (T)cookies[index];
+	}
+
+	/**
+	 * Result of the most recent operation which was applied to the feature
+	 */
+	public KltTrackFault getFault( int index ) {
+		return faults[index];
+	}
+
+	public int getNumLayers() {
+		return numLayers;
+	}
+
+	public int getTemplateRadius() {
+		return templateRadius;
+	}
+
+	/**
+	 * Operation which is applied to a single feature
+	 */
+	protected interface FeatureOperation<W> {
+		void process( W w , int index );
+	}
+
+	/**
+	 * Tracker and storage used to process a single feature at a time
+	 */
+	protected class Workspace {
+		final KltTracker<I, D> tracker = factoryTracker.get();
+		final KltFeature feature = new KltFeature(templateRadius);
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent implementation of {@link PyramidKltBatchTracker}. Features are split into blocks and each block
+ * is processed by a thread with its own {@link KltTracker} and work space. Features are independent of each other
+ * so the results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class PyramidKltBatchTracker_MT<I extends ImageGray<I>, D extends ImageGray<D>>
+		extends PyramidKltBatchTracker<I,D>
+{
+	// work spaces which are not being used by a thread
+	private final ArrayDeque<Workspace> available = new ArrayDeque<>();
+
+	public PyramidKltBatchTracker_MT(Supplier<KltTracker<I, D>> factoryTracker, int numLayers, int templateRadius) {
+		super(factoryTracker, numLayers, templateRadius);
+	}
+
+	@Override
+	protected void processFeatures( int first , int last , FeatureOperation<Workspace> op ) {
+		BoofConcurrency.loopBlocks(first,last,(idx0,idx1)->{
+			Workspace w;
+			synchronized (available) {
+				w = available.isEmpty() ? new Workspace() : available.pop();
+			}
+
+			for (int i = idx0; i < idx1; i++) {
+				op.process(w,i);
+			}
+
+			synchronized (available) {
+				available.push(w);
+			}
+		});
+	}
+}
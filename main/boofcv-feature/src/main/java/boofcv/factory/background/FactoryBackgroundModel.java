@@ -21,6 +21,7 @@ package boofcv.factory.background;
 import boofcv.alg.background.BackgroundModelStationary;
 import boofcv.alg.background.moving.*;
 import boofcv.alg.background.stationary.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.distort.Point2Transform2Model_F32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -202,14 +203,22 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret = new BackgroundStationaryGmm_SB(config.learningPeriod,config.decayCoefient,
-						config.numberOfGaussian,imageType);
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundStationaryGmm_SB_MT(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,imageType);
+				else
+					ret = new BackgroundStationaryGmm_SB(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,imageType);
 				break;
 
 			case PLANAR:
 			case INTERLEAVED:
-				ret =  new BackgroundStationaryGmm_MB(config.learningPeriod,config.decayCoefient,
-						config.numberOfGaussian,imageType);
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundStationaryGmm_MB_MT(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,imageType);
+				else
+					ret = new BackgroundStationaryGmm_MB(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,imageType);
 				break;
 
 			default:
@@ -245,14 +254,22 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret = new BackgroundMovingGmm_SB(config.learningPeriod,config.decayCoefient,
-						config.numberOfGaussian,transform,imageType);
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundMovingGmm_SB_MT(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,transform,imageType);
+				else
+					ret = new BackgroundMovingGmm_SB(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,transform,imageType);
 				break;
 
 			case PLANAR:
 			case INTERLEAVED:
-				ret = new BackgroundMovingGmm_MB(config.learningPeriod,config.decayCoefient,
-						config.numberOfGaussian,transform,imageType);
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundMovingGmm_MB_MT(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,transform,imageType);
+				else
+					ret = new BackgroundMovingGmm_MB(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,transform,imageType);
 				break;
 
 			default:
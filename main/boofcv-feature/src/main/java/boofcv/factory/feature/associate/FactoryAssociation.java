@@ -19,14 +19,22 @@
 package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
+import boofcv.alg.descriptor.KdForestBbfSearch_MT;
 import boofcv.alg.descriptor.KdTreeTuple_F64;
+import boofcv.alg.descriptor.MultiIndexHashing_B;
 import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedy_MT;
 import boofcv.alg.feature.associate.AssociateNearestNeighbor;
+import boofcv.alg.feature.associate.AssociateNearestNeighbor_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.alg.AxisSplitRuleRandomK;
+import org.ddogleg.nn.alg.AxisSplitterMedian;
 
 import javax.annotation.Nullable;
+import java.util.Random;
 
 
 /**
@@ -39,7 +47,8 @@ public class FactoryAssociation {
 
 	/**
 	 * Returns an algorithm for associating features together which uses a brute force greedy algorithm.
-	 * See {@link AssociateGreedy} for details.
+	 * See {@link AssociateGreedy} for details. If concurrency is turned on then {@link AssociateGreedy_MT} is used
+	 * and the score function must be thread safe.
 	 * 
 	 * @param score Computes the fit score between two features.
 	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
@@ -53,7 +62,12 @@ public class FactoryAssociation {
 			double maxError ,
 			boolean backwardsValidation )
 	{
-		AssociateGreedy<D> alg = new AssociateGreedy<>(score, backwardsValidation);
+		AssociateGreedy<D> alg;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			alg = new AssociateGreedy_MT<>(score, backwardsValidation);
+		} else {
+			alg = new AssociateGreedy<>(score, backwardsValidation);
+		}
 		alg.setMaxFitError(maxError);
 		WrapAssociateGreedy<D> ret = new WrapAssociateGreedy<>(alg);
 		return ret;
@@ -73,7 +87,13 @@ public class FactoryAssociation {
 	 */
 	public static AssociateDescription<TupleDesc_F64> kdtree( ConfigAssociateNearestNeighbor configNN ,
 															  int dimension, int maxNodesSearched ) {
-		NearestNeighbor nn = FactoryNearestNeighbor.kdtree(new KdTreeTuple_F64(dimension),maxNodesSearched);
+		NearestNeighbor nn;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			KdTreeTuple_F64 distance = new KdTreeTuple_F64(dimension);
+			nn = new KdForestBbfSearch_MT<>(1,maxNodesSearched,distance,new AxisSplitterMedian<>(distance));
+		} else {
+			nn = FactoryNearestNeighbor.kdtree(new KdTreeTuple_F64(dimension),maxNodesSearched);
+		}
 
 		return associateNearestNeighbor(configNN,nn);
 	}
@@ -99,14 +119,46 @@ public class FactoryAssociation {
 																	  int numTrees ,
 																	  int numConsiderSplit ,
 																	  long randomSeed) {
-		NearestNeighbor nn = FactoryNearestNeighbor.kdRandomForest(
-				new KdTreeTuple_F64(dimension),
-				maxNodesSearched,numTrees,numConsiderSplit,randomSeed);
+		NearestNeighbor nn;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			KdTreeTuple_F64 distance = new KdTreeTuple_F64(dimension);
+			AxisSplitRuleRandomK splitRule = new AxisSplitRuleRandomK(new Random(randomSeed),numConsiderSplit);
+			nn = new KdForestBbfSearch_MT<>(numTrees,maxNodesSearched,distance,
+					new AxisSplitterMedian<>(distance,splitRule));
+		} else {
+			nn = FactoryNearestNeighbor.kdRandomForest(
+					new KdTreeTuple_F64(dimension),
+					maxNodesSearched,numTrees,numConsiderSplit,randomSeed);
+		}
 
 		return associateNearestNeighbor(configNN,nn);
 	}
 
-	public static AssociateNearestNeighbor<TupleDesc_F64>
+	/**
+	 * Exact association for binary descriptors using Multi-Index Hashing. Much faster than brute force when
+	 * there are a large number of descriptors. The distance is hamming distance, which is not squared, and
+	 * {@link ConfigAssociateNearestNeighbor#distanceIsSquared} is ignored.
+	 *
+	 * @see AssociateNearestNeighbor
+	 * @see MultiIndexHashing_B
+	 *
+	 * @param bitsPerSubstring Number of bits in each substring. Try 16 or the log2 of the number of features.
+	 * @return Association using multi-index hashing
+	 */
+	public static AssociateDescription<TupleDesc_B> multiIndexHashing( @Nullable ConfigAssociateNearestNeighbor configNN ,
+																	   int bitsPerSubstring ) {
+		AssociateNearestNeighbor<TupleDesc_B> assoc =
+				associateNearestNeighbor(configNN,new MultiIndexHashing_B(bitsPerSubstring));
+		assoc.setRatioUsesSqrt(false);
+		return assoc;
+	}
+
+	/**
+	 * Creates {@link AssociateNearestNeighbor} from the configuration. If concurrency is turned on and the
+	 * nearest neighbor search is a {@link ConcurrentNearestNeighbor} then {@link AssociateNearestNeighbor_MT}
+	 * is returned.
+	 */
+	public static <D> AssociateNearestNeighbor<D>
 	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config ,
 							  NearestNeighbor nn )
 	{
@@ -115,7 +167,12 @@ public class FactoryAssociation {
 
 		config.checkValidity();
 
-		AssociateNearestNeighbor<TupleDesc_F64> assoc = new AssociateNearestNeighbor<>(nn);
+		AssociateNearestNeighbor<D> assoc;
+		if( BoofConcurrency.USE_CONCURRENT && nn instanceof ConcurrentNearestNeighbor ) {
+			assoc = new AssociateNearestNeighbor_MT<>((ConcurrentNearestNeighbor)nn);
+		} else {
+			assoc = new AssociateNearestNeighbor<>(nn);
+		}
 		assoc.setRatioUsesSqrt(config.distanceIsSquared);
 		assoc.setMaxScoreThreshold(config.maxErrorThreshold);
 		assoc.setScoreRatioThreshold(config.scoreRatioThreshold);
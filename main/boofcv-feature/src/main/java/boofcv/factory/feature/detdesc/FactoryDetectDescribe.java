@@ -18,39 +18,56 @@
 
 package boofcv.factory.feature.detdesc;
 
+import boofcv.abst.feature.describe.ConfigBrief;
 import boofcv.abst.feature.describe.ConfigSiftDescribe;
 import boofcv.abst.feature.describe.ConfigSiftScaleSpace;
 import boofcv.abst.feature.describe.ConfigSurfDescribe;
 import boofcv.abst.feature.describe.DescribeRegionPoint;
 import boofcv.abst.feature.detdesc.*;
 import boofcv.abst.feature.detect.extract.NonMaxLimiter;
-import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.abst.feature.detect.interest.ConfigFastCorner;
 import boofcv.abst.feature.detect.interest.ConfigFastHessian;
 import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
 import boofcv.abst.feature.detect.interest.InterestPointDetector;
 import boofcv.abst.feature.orientation.*;
+import boofcv.alg.feature.describe.DescribePointBriefSO;
 import boofcv.alg.feature.describe.DescribePointSift;
 import boofcv.alg.feature.describe.DescribePointSurf;
-import boofcv.alg.feature.describe.DescribePointSurfMod;
 import boofcv.alg.feature.describe.DescribePointSurfPlanar;
+import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
+import boofcv.alg.feature.detdesc.CompleteOrb;
+import boofcv.alg.feature.detdesc.CompleteOrb_MT;
 import boofcv.alg.feature.detdesc.CompleteSift;
+import boofcv.alg.feature.detdesc.CompleteSift_MT;
 import boofcv.alg.feature.detdesc.DetectDescribeSurfPlanar;
+import boofcv.alg.feature.detdesc.DetectDescribeSurfPlanar_MT;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
 import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
 import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
 import boofcv.struct.feature.BrightFeature;
 import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.PyramidFloat;
 
 import javax.annotation.Nullable;
+import java.util.Random;
+import java.util.function.Supplier;
 
 /**
  * Creates instances of {@link DetectDescribePoint} for different feature detectors/describers.
@@ -80,19 +97,70 @@ public class FactoryDetectDescribe {
 
 		SiftScaleSpace scaleSpace = new SiftScaleSpace(
 				configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
-		OrientationHistogramSift<GrayF32> orientation = new OrientationHistogramSift<>(
+		Supplier<OrientationHistogramSift<GrayF32>> orientation = ()->new OrientationHistogramSift<>(
 				configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
-		DescribePointSift<GrayF32> describe = new DescribePointSift<>(
+		Supplier<DescribePointSift<GrayF32>> describe = ()->new DescribePointSift<>(
 				configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
 				configDesc.sigmaToPixels, configDesc.weightingSigmaFraction,
 				configDesc.maxDescriptorElementValue,GrayF32.class);
+		Supplier<NonMaxLimiter> nonMax = ()->new NonMaxLimiter(
+				FactoryFeatureExtractor.nonmax(configDetector.extract),configDetector.maxFeaturesPerScale);
 
-		NonMaxSuppression nns = FactoryFeatureExtractor.nonmax(configDetector.extract);
-		NonMaxLimiter nonMax = new NonMaxLimiter(nns,configDetector.maxFeaturesPerScale);
-		CompleteSift dds = new CompleteSift(scaleSpace,configDetector.edgeR,nonMax,orientation,describe);
+		CompleteSift dds;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			dds = new CompleteSift_MT(scaleSpace,configDetector.edgeR,nonMax,orientation,describe);
+		} else {
+			dds = new CompleteSift(scaleSpace,configDetector.edgeR,nonMax.get(),orientation.get(),describe.get());
+		}
 		return new DetectDescribe_CompleteSift<>(dds);
 	}
 
+	/**
+	 * Creates a FAST corner detector with a steered BRIEF descriptor that's similar to ORB. Only
+	 * {@link GrayU8} images are supported.
+	 *
+	 * @see CompleteOrb
+	 *
+	 * @param config Configuration. If null then the default is used.
+	 * @return ORB-like detector and descriptor
+	 */
+	public static DetectDescribePoint<GrayU8,TupleDesc_B> orb( @Nullable ConfigCompleteOrb config ) {
+		if( config == null )
+			config = new ConfigCompleteOrb();
+		config.checkValidity();
+
+		PyramidFloat<GrayU8> pyramid = null;
+		if( config.numLevels > 1 ) {
+			double[] scales = new double[config.numLevels-1];
+			for (int i = 0; i < scales.length; i++) {
+				scales[i] = Math.pow(config.scaleFactor, i+1);
+			}
+			pyramid = FactoryPyramid.floatScale(scales, GrayU8.class);
+		}
+
+		ConfigFastCorner configFast = config.fast;
+		ConfigBrief configBrief = config.brief;
+		BinaryCompareDefinition_I32 definition =
+				FactoryBriefDefinition.gaussian2(new Random(123), configBrief.radius, configBrief.numPoints);
+
+		Supplier<FastCornerDetector<GrayU8>> factoryFast = () ->
+				FactoryIntensityPointAlg.fast(configFast.pixelTol, configFast.minContinuous, GrayU8.class);
+		Supplier<DescribePointBriefSO<GrayU8>> factoryDescribe = () -> FactoryDescribePointAlgs.briefso(definition,
+				FactoryBlurFilter.gaussian(ImageType.single(GrayU8.class),configBrief.blurSigma,configBrief.blurRadius));
+
+		CompleteOrb alg;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			alg = new CompleteOrb_MT(config.maxFeatures, pyramid, factoryFast, factoryDescribe);
+		} else {
+			alg = new CompleteOrb(config.maxFeatures, pyramid, factoryFast, factoryDescribe);
+		}
+		alg.setHarrisRanking(config.harrisRanking);
+		alg.setRadii(config.harrisRadius, config.orientationRadius);
+		alg.setGridCellWidth(config.gridCellWidth);
+
+		return new DetectDescribe_CompleteOrb(alg);
+	}
+
 	/**
 	 * <p>
 	 * Creates a SURF descriptor.  SURF descriptors are invariant to illumination, orientation, and scale.
@@ -122,10 +190,14 @@ public class FactoryDetectDescribe {
 		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
-		DescribePointSurf<II> describe = FactoryDescribePointAlgs.surfSpeed(configDesc, integralType);
-		OrientationIntegral<II> orientation = FactoryOrientationAlgs.average_ii(configOrientation, integralType);
+		Supplier<DescribePointSurf<II>> describe = ()->FactoryDescribePointAlgs.surfSpeed(configDesc, integralType);
+		Supplier<OrientationIntegral<II>> orientation =
+				()->FactoryOrientationAlgs.average_ii(configOrientation, integralType);
 
-		return new WrapDetectDescribeSurf<>(detector, orientation, describe);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new WrapDetectDescribeSurf_MT<>(detector, orientation, describe);
+		else
+			return new WrapDetectDescribeSurf<>(detector, orientation.get(), describe.get());
 	}
 
 	/**
@@ -154,15 +226,14 @@ public class FactoryDetectDescribe {
 		Class<II> integralType = GIntegralImageOps.getIntegralType(bandType);
 
 		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
-		DescribePointSurf<II> describe = FactoryDescribePointAlgs.surfSpeed(configDesc, integralType);
-		OrientationIntegral<II> orientation = FactoryOrientationAlgs.average_ii(configOrientation, integralType);
+		Supplier<OrientationIntegral<II>> orientation =
+				()->FactoryOrientationAlgs.average_ii(configOrientation, integralType);
 
 		if( imageType.getFamily() == ImageType.Family.PLANAR) {
-			DescribePointSurfPlanar<II> describeMulti =
-					new DescribePointSurfPlanar<>(describe, imageType.getNumBands());
+			Supplier<DescribePointSurfPlanar<II>> describeMulti = ()->new DescribePointSurfPlanar<>(
+					FactoryDescribePointAlgs.surfSpeed(configDesc, integralType), imageType.getNumBands());
 
-			DetectDescribeSurfPlanar<II> deteDesc =
-					new DetectDescribeSurfPlanar<>(detector, orientation, describeMulti);
+			DetectDescribeSurfPlanar<II> deteDesc = createDescribeSurfPlanar(detector, orientation, describeMulti);
 
 			return new SurfPlanar_to_DetectDescribePoint( deteDesc,bandType,integralType );
 		} else {
@@ -200,10 +271,15 @@ public class FactoryDetectDescribe {
 		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
-		DescribePointSurfMod<II> describe = FactoryDescribePointAlgs.surfStability(configDescribe, integralType);
-		OrientationIntegral<II> orientation = FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
+		Supplier<DescribePointSurf<II>> describe =
+				()->FactoryDescribePointAlgs.surfStability(configDescribe, integralType);
+		Supplier<OrientationIntegral<II>> orientation =
+				()->FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
 
-		return new WrapDetectDescribeSurf( detector, orientation, describe );
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new WrapDetectDescribeSurf_MT<>(detector, orientation, describe);
+		else
+			return new WrapDetectDescribeSurf<>(detector, orientation.get(), describe.get());
 	}
 
 	/**
@@ -233,15 +309,14 @@ public class FactoryDetectDescribe {
 		Class<II> integralType = GIntegralImageOps.getIntegralType(bandType);
 
 		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
-		DescribePointSurfMod<II> describe = FactoryDescribePointAlgs.surfStability(configDescribe, integralType);
-		OrientationIntegral<II> orientation = FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
+		Supplier<OrientationIntegral<II>> orientation =
+				()->FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
 
 		if( imageType.getFamily() == ImageType.Family.PLANAR) {
-			DescribePointSurfPlanar<II> describeMulti =
-					new DescribePointSurfPlanar<>(describe, imageType.getNumBands());
+			Supplier<DescribePointSurfPlanar<II>> describeMulti = ()->new DescribePointSurfPlanar<>(
+					FactoryDescribePointAlgs.surfStability(configDescribe, integralType), imageType.getNumBands());
 
-			DetectDescribeSurfPlanar<II> deteDesc =
-					new DetectDescribeSurfPlanar<>(detector, orientation, describeMulti);
+			DetectDescribeSurfPlanar<II> deteDesc = createDescribeSurfPlanar(detector, orientation, describeMulti);
 
 			return new SurfPlanar_to_DetectDescribePoint( deteDesc,bandType,integralType );
 		} else {
@@ -249,6 +324,16 @@ public class FactoryDetectDescribe {
 		}
 	}
 
+	private static <II extends ImageGray<II>> DetectDescribeSurfPlanar<II>
+	createDescribeSurfPlanar( FastHessianFeatureDetector<II> detector,
+							  Supplier<OrientationIntegral<II>> orientation,
+							  Supplier<DescribePointSurfPlanar<II>> describe ) {
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new DetectDescribeSurfPlanar_MT<>(detector, orientation, describe);
+		else
+			return new DetectDescribeSurfPlanar<>(detector, orientation.get(), describe.get());
+	}
+
 	/**
 	 * Given independent algorithms for feature detection, orientation, and describing, create a new
 	 * {@link DetectDescribePoint}.
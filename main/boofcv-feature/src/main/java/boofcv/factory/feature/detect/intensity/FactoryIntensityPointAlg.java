@@ -19,6 +19,7 @@
 package boofcv.factory.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector_MT;
 import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.impl.*;
 import boofcv.concurrency.BoofConcurrency;
@@ -76,7 +77,10 @@ public class FactoryIntensityPointAlg {
 		} else {
 			throw new IllegalArgumentException("Unknown image type");
 		}
-		return new FastCornerDetector(helper);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new FastCornerDetector_MT(helper);
+		else
+			return new FastCornerDetector(helper);
 	}
 
 	/**
@@ -28,11 +28,17 @@ import boofcv.abst.filter.blur.BlurStorageFilter;
 import boofcv.alg.feature.detect.intensity.FastCornerDetector;
 import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
+import boofcv.alg.feature.detect.intensity.impl.*;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.intensity.FactoryIntensityPoint;
 import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 
@@ -92,6 +98,63 @@ public class FactoryDetectPoint {
 		return createGeneral(cornerIntensity, configDetector);
 	}
 
+	/**
+	 * Detects Harris corners directly from the input image. Gaussian blur, Sobel gradient, and the corner
+	 * intensity are fused into a single row streaming operation, which avoids writing out several full sized
+	 * intermediate images. The gradient is computed internally, so {@link GeneralFeatureDetector#getRequiresGradient()}
+	 * returns false.
+	 *
+	 * @param configDetector Configuration for feature detector.
+	 * @param blurSigma Sigma of the Gaussian blur. If &le; 0 and blurRadius &le; 0 then no blur is applied.
+	 * @param blurRadius Radius of the Gaussian blur. If &le; 0 then it's computed from sigma.
+	 * @param imageType Type of input image. {@link GrayU8} or {@link GrayF32}.
+	 * @see ImplSsdCornerFused_F32
+	 */
+	public static <T extends ImageGray<T>, D extends ImageGray<D>>
+	GeneralFeatureDetector<T, D> createFusedHarris( @Nullable ConfigGeneralDetector configDetector,
+													double blurSigma , int blurRadius , Class<T> imageType) {
+		return createFused(configDetector,blurSigma,blurRadius,new HarrisCorner_F32(0.04f),imageType);
+	}
+
+	/**
+	 * Detects Shi-Tomasi corners directly from the input image. See {@link #createFusedHarris} for details.
+	 *
+	 * @param configDetector Configuration for feature detector.
+	 * @param blurSigma Sigma of the Gaussian blur. If &le; 0 and blurRadius &le; 0 then no blur is applied.
+	 * @param blurRadius Radius of the Gaussian blur. If &le; 0 then it's computed from sigma.
+	 * @param imageType Type of input image. {@link GrayU8} or {@link GrayF32}.
+	 * @see ImplSsdCornerFused_F32
+	 */
+	public static <T extends ImageGray<T>, D extends ImageGray<D>>
+	GeneralFeatureDetector<T, D> createFusedShiTomasi( @Nullable ConfigGeneralDetector configDetector,
+													   double blurSigma , int blurRadius , Class<T> imageType) {
+		return createFused(configDetector,blurSigma,blurRadius,new ShiTomasiCorner_F32(),imageType);
+	}
+
+	private static <T extends ImageGray<T>, D extends ImageGray<D>>
+	GeneralFeatureDetector<T, D> createFused( @Nullable ConfigGeneralDetector configDetector,
+											  double blurSigma , int blurRadius ,
+											  ImplSsdCornerBase.CornerIntensity_F32 cornerIntensity,
+											  Class<T> imageType ) {
+		if( configDetector == null)
+			configDetector = new ConfigGeneralDetector();
+		if( imageType != GrayU8.class && imageType != GrayF32.class )
+			throw new IllegalArgumentException("Unsupported image type "+imageType.getSimpleName());
+
+		Kernel1D_F32 blur = null;
+		if( blurSigma > 0 || blurRadius > 0 )
+			blur = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,blurSigma,blurRadius);
+
+		ImplSsdCornerFused_F32<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new ImplSsdCornerFused_F32_MT<>(blur,configDetector.radius,cornerIntensity);
+		else
+			alg = new ImplSsdCornerFused_F32<>(blur,configDetector.radius,cornerIntensity);
+
+		GeneralFeatureIntensity<T, D> intensity = new WrapperFusedCornerIntensity<>(alg);
+		return createGeneral(intensity, configDetector);
+	}
+
 	/**
 	 * Detects Kitchen and Rosenfeld corners.
 	 *
@@ -33,12 +33,14 @@ import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
 import boofcv.alg.feature.detect.interest.*;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
 import boofcv.factory.filter.derivative.FactoryDerivativeSparse;
 import boofcv.struct.image.ImageGray;
 
 import javax.annotation.Nullable;
+import java.util.function.Supplier;
 
 /**
  * Factory for non-generic specific implementations of interest point detection algorithms.
@@ -175,11 +177,17 @@ public class FactoryInterestPointAlgs {
 		config.checkValidity();
 
 		// ignore border is overwritten by Fast Hessian at detection time
-		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(
-				new ConfigExtract(config.extractRadius, config.detectThreshold, 0, true));
-		return new FastHessianFeatureDetector<>(extractor, config.maxFeaturesPerScale,
-				config.initialSampleSize, config.initialSize, config.numberScalesPerOctave,
-				config.numberOfOctaves, config.scaleStepSize);
+		ConfigExtract configExtract = new ConfigExtract(config.extractRadius, config.detectThreshold, 0, true);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new FastHessianFeatureDetector_MT<>(()->FactoryFeatureExtractor.nonmax(configExtract),
+					config.maxFeaturesPerScale, config.initialSampleSize, config.initialSize,
+					config.numberScalesPerOctave, config.numberOfOctaves, config.scaleStepSize);
+		} else {
+			NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(configExtract);
+			return new FastHessianFeatureDetector<>(extractor, config.maxFeaturesPerScale,
+					config.initialSampleSize, config.initialSize, config.numberScalesPerOctave,
+					config.numberOfOctaves, config.scaleStepSize);
+		}
 	}
 
 	/**
@@ -193,10 +201,14 @@ public class FactoryInterestPointAlgs {
 		if( configDetector == null )
 			configDetector = new ConfigSiftDetector();
 
-		NonMaxLimiter nonmax = FactoryFeatureExtractor.nonmaxLimiter(
-				configDetector.extract,configDetector.maxFeaturesPerScale);
+		ConfigExtract configExtract = configDetector.extract;
+		int maxFeaturesPerScale = configDetector.maxFeaturesPerScale;
+		Supplier<NonMaxLimiter> nonmax = ()->FactoryFeatureExtractor.nonmaxLimiter(configExtract,maxFeaturesPerScale);
 		SiftScaleSpace ss = new SiftScaleSpace(configSS.firstOctave,configSS.lastOctave,
 				configSS.numScales,configSS.sigma0);
-		return new SiftDetector(ss,configDetector.edgeR,nonmax);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new SiftDetector_MT(ss,configDetector.edgeR,nonmax);
+		else
+			return new SiftDetector(ss,configDetector.edgeR,nonmax.get());
 	}
 }
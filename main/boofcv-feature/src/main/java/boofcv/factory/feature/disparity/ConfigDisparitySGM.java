@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.feature.disparity;
+
+import boofcv.alg.feature.disparity.sgm.SgmCostHamming;
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity;
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for {@link SgmStereoDisparity Semi Global Matching}
+ *
+ * @author Peter Abeles
+ */
+public class ConfigDisparitySGM implements Configuration {
+	/**
+	 * Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
+	 */
+	public int minDisparity = 0;
+
+	/**
+	 * Maximum disparity that it will calculate, exclusive. (max - min) must be &le; 254
+	 */
+	public int maxDisparity = 64;
+
+	/**
+	 * Penalty for a change in disparity by one between neighboring pixels. Same units as the hamming distance.
+	 */
+	public int penaltySmallChange = 4;
+
+	/**
+	 * Penalty for a change in disparity by more than one between neighboring pixels.
+	 * Same units as the hamming distance. Must be &ge; penaltySmallChange
+	 */
+	public int penaltyLargeChange = 45;
+
+	/**
+	 * Number of paths the cost is aggregated along. 1 to 8. Try 4 for speed or 8 for quality.
+	 */
+	public int paths = 8;
+
+	/**
+	 * Tolerance for how different the left to right and right to left disparity can be. Set to &lt; 0 to disable.
+	 */
+	public int validateRtoL = 1;
+
+	/**
+	 * Tolerance for how similar the best disparity's cost can be to the second best. Closer to zero is
+	 * more tolerant. Set to &le; 0 to disable.
+	 */
+	public double texture = 0.1;
+
+	public ConfigDisparitySGM(int minDisparity, int maxDisparity) {
+		this.minDisparity = minDisparity;
+		this.maxDisparity = maxDisparity;
+	}
+
+	public ConfigDisparitySGM() {
+	}
+
+	@Override
+	public void checkValidity() {
+		if( maxDisparity <= 0 )
+			throw new IllegalArgumentException("Max disparity must be greater than zero");
+		if( minDisparity < 0 || minDisparity >= maxDisparity )
+			throw new IllegalArgumentException("Min disparity must be >= 0 and < maxDisparity");
+		if( maxDisparity-minDisparity > 254 )
+			throw new IllegalArgumentException("(max - min) disparity must be <= 254");
+		if( penaltySmallChange < 0 || penaltyLargeChange < penaltySmallChange )
+			throw new IllegalArgumentException("Penalties must be >= 0 and penaltyLargeChange >= penaltySmallChange");
+		if( paths < 1 || paths > 8 )
+			throw new IllegalArgumentException("paths must be from 1 to 8");
+		if( paths*(SgmCostHamming.MAX_COST+penaltyLargeChange) > 0xFFFF )
+			throw new IllegalArgumentException("penaltyLargeChange is too large and the aggregated cost can overflow");
+	}
+}
@@ -21,6 +21,7 @@ package boofcv.factory.feature.disparity;
 import boofcv.abst.feature.disparity.StereoDisparity;
 import boofcv.abst.feature.disparity.StereoDisparitySparse;
 import boofcv.abst.feature.disparity.WrapDisparitySadRect;
+import boofcv.abst.feature.disparity.WrapDisparitySgm;
 import boofcv.abst.feature.disparity.WrapDisparitySparseSadRect;
 import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
 import boofcv.alg.feature.disparity.DisparitySelect;
@@ -31,6 +32,8 @@ import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 
+import javax.annotation.Nullable;
+
 import static boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs.*;
 
 /**
@@ -273,4 +276,23 @@ public class FactoryStereoDisparity {
 		} else
 			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
 	}
+
+	/**
+	 * <p>
+	 * Dense disparity using Semi Global Matching (SGM) with a census transform and hamming distance as the
+	 * matching cost. Smoothness is enforced by aggregating the cost along several paths through the image,
+	 * which removes most of the streaking artifacts found in region based WTA approaches.
+	 * </p>
+	 *
+	 * @see boofcv.alg.feature.disparity.sgm.SgmStereoDisparity
+	 *
+	 * @param config Configuration. If null then the default is used.
+	 * @return SGM disparity algorithm
+	 */
+	public static StereoDisparity<GrayU8,GrayU8> sgm( @Nullable ConfigDisparitySGM config ) {
+		if( config == null )
+			config = new ConfigDisparitySGM();
+
+		return new WrapDisparitySgm(FactoryStereoDisparityAlgs.sgm(config));
+	}
 }
@@ -25,6 +25,7 @@ import boofcv.alg.flow.*;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.tracker.klt.PkltConfig;
 import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.factory.tracker.FactoryTrackerAlg;
@@ -37,6 +38,7 @@ import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.PyramidDiscrete;
 
 import javax.annotation.Nullable;
+import java.util.function.Supplier;
 
 /**
  * Creates implementations of {@link DenseOpticalFlow}.
@@ -74,8 +76,16 @@ public class FactoryDenseOpticalFlow {
 		PyramidDiscrete<I> pyramidA = FactoryPyramid.discreteGaussian(configKlt.pyramidScaling, -1, 2, true, imagetype);
 		PyramidDiscrete<I> pyramidB = FactoryPyramid.discreteGaussian(configKlt.pyramidScaling, -1, 2, true, imagetype);
 
-		PyramidKltTracker<I, D> tracker = FactoryTrackerAlg.kltPyramid(configKlt.config, inputType, derivType);
-		DenseOpticalFlowKlt<I, D> flowKlt = new DenseOpticalFlowKlt<>(tracker, numLayers, radius);
+		DenseOpticalFlowKlt<I, D> flowKlt;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			final PkltConfig _configKlt = configKlt;
+			final Class<D> _derivType = derivType;
+			flowKlt = new DenseOpticalFlowKlt_MT<>(
+					()->FactoryTrackerAlg.kltPyramid(_configKlt.config, inputType, _derivType), numLayers, radius);
+		} else {
+			PyramidKltTracker<I, D> tracker = FactoryTrackerAlg.kltPyramid(configKlt.config, inputType, derivType);
+			flowKlt = new DenseOpticalFlowKlt<>(tracker, numLayers, radius);
+		}
 		ImageGradient<I, D> gradient = FactoryDerivative.sobel(inputType,derivType);
 
 		return new FlowKlt_to_DenseOpticalFlow<>(flowKlt, gradient, pyramidA, pyramidB, inputType, derivType);
@@ -97,16 +107,23 @@ public class FactoryDenseOpticalFlow {
 		if( config == null )
 			config = new ConfigOpticalFlowBlockPyramid();
 
-		DenseOpticalFlowBlockPyramid<T> alg;
+		final ConfigOpticalFlowBlockPyramid _config = config;
+		Supplier<DenseOpticalFlowBlockPyramid<T>> factory;
 		if( imageType == GrayU8.class )
-			alg = (DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.U8(
-					config.searchRadius,config.regionRadius,config.maxPerPixelError);
+			factory = ()->(DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.U8(
+					_config.searchRadius,_config.regionRadius,_config.maxPerPixelError);
 		else if( imageType == GrayF32.class )
-			alg = (DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.F32(
-					config.searchRadius,config.regionRadius,config.maxPerPixelError);
+			factory = ()->(DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.F32(
+					_config.searchRadius,_config.regionRadius,_config.maxPerPixelError);
 		else
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 
+		DenseOpticalFlowBlockPyramid<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new DenseOpticalFlowBlockPyramid_MT<>(factory);
+		else
+			alg = factory.get();
+
 		return new FlowBlock_to_DenseOpticalFlow<>(alg, config.pyramidScale, config.maxPyramidLayers, imageType);
 	}
 
@@ -126,12 +143,17 @@ public class FactoryDenseOpticalFlow {
 			config = new ConfigHornSchunck();
 
 		HornSchunck<T,D> alg;
-		if( imageType == GrayU8.class )
-			alg = (HornSchunck)new HornSchunck_U8(config.alpha,config.numIterations);
-		else
-		if( imageType == GrayF32.class )
-			alg = (HornSchunck)new HornSchunck_F32(config.alpha,config.numIterations);
-		else
+		if( imageType == GrayU8.class ) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				alg = (HornSchunck)new HornSchunck_U8_MT(config.alpha,config.numIterations);
+			else
+				alg = (HornSchunck)new HornSchunck_U8(config.alpha,config.numIterations);
+		} else if( imageType == GrayF32.class ) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				alg = (HornSchunck)new HornSchunck_F32_MT(config.alpha,config.numIterations);
+			else
+				alg = (HornSchunck)new HornSchunck_F32(config.alpha,config.numIterations);
+		} else
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 
 		return new HornSchunck_to_DenseOpticalFlow<>(alg, ImageType.single(imageType));
@@ -154,7 +176,11 @@ public class FactoryDenseOpticalFlow {
 		InterpolatePixelS<GrayF32> interpolate =
 				FactoryInterpolation.createPixelS(0,255,config.interpolation, BorderType.EXTENDED, GrayF32.class);
 
-		HornSchunckPyramid<T> alg = new HornSchunckPyramid<>(config, interpolate);
+		HornSchunckPyramid<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new HornSchunckPyramid_MT<>(config, interpolate);
+		else
+			alg = new HornSchunckPyramid<>(config, interpolate);
 
 		return new HornSchunckPyramid_to_DenseOpticalFlow<>(alg, imageType);
 	}
@@ -168,7 +194,11 @@ public class FactoryDenseOpticalFlow {
 		InterpolatePixelS<GrayF32> interpolate =
 				FactoryInterpolation.createPixelS(0,255,config.interpolation, BorderType.EXTENDED, GrayF32.class);
 
-		BroxWarpingSpacial<T> alg = new BroxWarpingSpacial<>(config, interpolate);
+		BroxWarpingSpacial<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new BroxWarpingSpacial_MT<>(config, interpolate);
+		else
+			alg = new BroxWarpingSpacial<>(config, interpolate);
 
 		return new BroxWarpingSpacial_to_DenseOpticalFlow<>(alg, imageType);
 	}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.moving;
+
+import boofcv.alg.background.BackgroundModelMoving;
+import boofcv.alg.distort.PointTransformHomography_F32;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import georegression.struct.homography.Homography2D_F32;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBackgroundMovingGmm_MB_MT extends GenericBackgroundMovingGaussianChecks
+{
+	TestBackgroundMovingGmm_MB_MT() {
+		imageTypes.add(ImageType.il(3,InterleavedU8.class));
+		imageTypes.add(ImageType.il(3,InterleavedF32.class));
+		imageTypes.add(ImageType.pl(3,GrayU8.class));
+		imageTypes.add(ImageType.pl(3,GrayF32.class));
+	}
+
+	@Override
+	public <T extends ImageBase<T>> BackgroundModelMoving<T,Homography2D_F32>
+	create(ImageType<T> imageType) {
+		PointTransformHomography_F32 transform = new PointTransformHomography_F32();
+		return new BackgroundMovingGmm_MB_MT(1000F,0.001F,10,transform,imageType);
+	}
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		for( ImageType type : imageTypes ) {
+			compareToSingleThread(type);
+		}
+	}
+
+	private <T extends ImageBase<T>> void compareToSingleThread( ImageType<T> imageType ) {
+		BackgroundModelMoving<T,Homography2D_F32> expected =
+				new BackgroundMovingGmm_MB(1000F,0.001F,10,new PointTransformHomography_F32(),imageType);
+		BackgroundModelMoving<T,Homography2D_F32> found = create(imageType);
+
+		Homography2D_F32 homeToWorld = new Homography2D_F32(1,0,width/2,0,1,height/2,0,0,1);
+		expected.initialize(width*2,height*2,homeToWorld);
+		found.initialize(width*2,height*2,homeToWorld);
+
+		T frame = imageType.createImage(width,height);
+		GrayU8 expectedSeg = new GrayU8(width,height);
+		GrayU8 foundSeg = new GrayU8(width,height);
+		Homography2D_F32 homeToCurrent = new Homography2D_F32();
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			for (int i = 0; i < 10; i++) {
+				GImageMiscOps.fillUniform(frame, rand, 90, 110);
+				GImageMiscOps.fillRectangle(frame, 200, 2*i, 5+i, 15, 12);
+				homeToCurrent.a13 = rand.nextFloat()*5 - 2.5f;
+				homeToCurrent.a23 = rand.nextFloat()*5 - 2.5f;
+
+				expected.updateBackground(homeToCurrent,frame);
+				found.updateBackground(homeToCurrent,frame);
+
+				expected.segment(homeToCurrent,frame,expectedSeg);
+				found.segment(homeToCurrent,frame,foundSeg);
+				BoofTesting.assertEquals(expectedSeg,foundSeg,0);
+			}
+		}
+	}
+}
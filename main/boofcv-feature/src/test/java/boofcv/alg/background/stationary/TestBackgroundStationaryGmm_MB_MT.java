@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.alg.background.BackgroundModelStationary;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBackgroundStationaryGmm_MB_MT extends GenericBackgroundModelStationaryChecks {
+
+	TestBackgroundStationaryGmm_MB_MT() {
+		imageTypes.add(ImageType.il(3,InterleavedU8.class));
+		imageTypes.add(ImageType.il(3,InterleavedF32.class));
+		imageTypes.add(ImageType.pl(3,GrayU8.class));
+		imageTypes.add(ImageType.pl(3,GrayF32.class));
+	}
+
+	@Override
+	public <T extends ImageBase<T>> BackgroundModelStationary<T> create(ImageType<T> imageType) {
+		return new BackgroundStationaryGmm_MB_MT(1000.0f,0.001f,10,imageType);
+	}
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		for( ImageType type : imageTypes ) {
+			compareToSingleThread(type);
+		}
+	}
+
+	private <T extends ImageBase<T>> void compareToSingleThread( ImageType<T> imageType ) {
+		BackgroundModelStationary<T> expected = new BackgroundStationaryGmm_MB(1000.0f,0.001f,10,imageType);
+		BackgroundModelStationary<T> found = create(imageType);
+
+		T frame = imageType.createImage(width,height);
+		GrayU8 expectedMask = new GrayU8(1,1);
+		GrayU8 foundMask = new GrayU8(1,1);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			for (int i = 0; i < 10; i++) {
+				GImageMiscOps.fillUniform(frame, rand, 90, 110);
+				GImageMiscOps.fillRectangle(frame, 200, 2*i, 5+i, 15, 12);
+
+				expected.updateBackground(frame,expectedMask);
+				found.updateBackground(frame,foundMask);
+				BoofTesting.assertEquals(expectedMask,foundMask,0);
+
+				expected.segment(frame,expectedMask);
+				found.segment(frame,foundMask);
+				BoofTesting.assertEquals(expectedMask,foundMask,0);
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.descriptor;
+
+import boofcv.abst.feature.associate.ConcurrentNearestNeighbor;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.nn.alg.AxisSplitRuleRandomK;
+import org.ddogleg.nn.alg.AxisSplitterMedian;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestKdForestBbfSearch_MT {
+	Random rand = new Random(234);
+	KdTreeTuple_F64 distance = new KdTreeTuple_F64(6);
+
+	/**
+	 * Should produce the same results as the equivalent ddogleg implementation
+	 */
+	@Test
+	void compareToKdTree() {
+		NearestNeighbor<TupleDesc_F64> expected = FactoryNearestNeighbor.kdtree(distance,15);
+		KdForestBbfSearch_MT<TupleDesc_F64> found =
+				new KdForestBbfSearch_MT<>(1,15,distance,new AxisSplitterMedian<>(distance));
+		compare(expected, found);
+	}
+
+	@Test
+	void compareToRandomForest() {
+		NearestNeighbor<TupleDesc_F64> expected = FactoryNearestNeighbor.kdRandomForest(distance,30,5,3,0xBEEF);
+		KdForestBbfSearch_MT<TupleDesc_F64> found = new KdForestBbfSearch_MT<>(5,30,distance,
+				new AxisSplitterMedian<>(distance,new AxisSplitRuleRandomK(new Random(0xBEEF),3)));
+		compare(expected, found);
+	}
+
+	private void compare( NearestNeighbor<TupleDesc_F64> expected , KdForestBbfSearch_MT<TupleDesc_F64> found ) {
+		List<TupleDesc_F64> points = createRandom(400);
+		expected.setPoints(points,true);
+		found.setPoints(points,true);
+
+		ConcurrentNearestNeighbor.Search<TupleDesc_F64> search = found.createSearch();
+
+		NnData<TupleDesc_F64> resultA = new NnData<>();
+		NnData<TupleDesc_F64> resultB = new NnData<>();
+		FastQueue<NnData<TupleDesc_F64>> resultsA = new FastQueue(NnData.class,true);
+		FastQueue<NnData<TupleDesc_F64>> resultsB = new FastQueue(NnData.class,true);
+
+		for( TupleDesc_F64 query : createRandom(50) ) {
+			expected.findNearest(query,-1,resultA);
+			search.findNearest(query,-1,resultB);
+			assertEquals(resultA.index, resultB.index);
+			assertEquals(resultA.distance, resultB.distance);
+
+			found.findNearest(query,-1,resultB);
+			assertEquals(resultA.index, resultB.index);
+
+			expected.findNearest(query,-1,4,resultsA);
+			search.findNearest(query,-1,4,resultsB);
+			assertEquals(resultsA.size, resultsB.size);
+			for (int i = 0; i < resultsA.size; i++) {
+				assertEquals(resultsA.get(i).index, resultsB.get(i).index);
+				assertEquals(resultsA.get(i).distance, resultsB.get(i).distance);
+			}
+		}
+	}
+
+	private List<TupleDesc_F64> createRandom( int total ) {
+		List<TupleDesc_F64> ret = new ArrayList<>();
+		for (int i = 0; i < total; i++) {
+			TupleDesc_F64 d = new TupleDesc_F64(6);
+			for (int j = 0; j < d.value.length; j++) {
+				d.value[j] = rand.nextGaussian();
+			}
+			ret.add(d);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.descriptor;
+
+import boofcv.abst.feature.associate.ConcurrentNearestNeighbor;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestMultiIndexHashing_B {
+	Random rand = new Random(234);
+
+	@Test
+	void substring() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(12);
+		TupleDesc_B desc = new TupleDesc_B(70);
+		for (int i = 0; i < desc.data.length; i++) {
+			desc.data[i] = rand.nextInt();
+		}
+		alg.addPoint(desc);
+
+		for (int sub = 0; sub < 6; sub++) {
+			int found = alg.substring(desc.data, 0, sub);
+			int length = Math.min(12, 70-sub*12);
+			for (int bit = 0; bit < length; bit++) {
+				assertEquals(desc.isBitTrue(sub*12+bit), ((found >> bit) & 1) == 1);
+			}
+			assertEquals(0, found >>> length);
+		}
+	}
+
+	/**
+	 * Compare the results against a brute force search for different descriptor and substring lengths
+	 */
+	@Test
+	void compareToBruteForce() {
+		compareToBruteForce(256, 16, 1, -1);
+		compareToBruteForce(256, 16, 5, -1);
+		compareToBruteForce(256, 12, 2, 20);
+		compareToBruteForce(100, 7, 3, -1);
+		compareToBruteForce(64, 3, 2, 10);
+	}
+
+	void compareToBruteForce( int numBits , int bitsPerSubstring , int numNeighbors , double maxDistance ) {
+		List<TupleDesc_B> points = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			points.add(randomDesc(numBits));
+		}
+
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(bitsPerSubstring);
+		alg.setPoints(points, true);
+		assertEquals(points.size(), alg.size());
+
+		NnData<TupleDesc_B> result = new NnData<>();
+		FastQueue<NnData<TupleDesc_B>> results = new FastQueue(NnData.class, true);
+		for (int trial = 0; trial < 100; trial++) {
+			// queries are either close to a point or completely random
+			TupleDesc_B query = trial%4 == 0 ? randomDesc(numBits) : perturb(points.get(rand.nextInt(points.size())), 12);
+
+			int[] expected = bruteForce(points, query, maxDistance);
+			alg.findNearest(query, maxDistance, numNeighbors, results);
+
+			assertEquals(Math.min(numNeighbors, expected.length), results.size);
+			for (int i = 0; i < results.size; i++) {
+				NnData<TupleDesc_B> r = results.get(i);
+				assertEquals(expected[i], r.distance);
+				assertSame(points.get(r.index), r.point);
+				assertEquals(DescriptorDistance.hamming(query, r.point), r.distance);
+			}
+
+			boolean found = alg.findNearest(query, maxDistance, result);
+			assertEquals(expected.length > 0, found);
+			if( found ) {
+				assertEquals(expected[0], result.distance);
+				assertSame(points.get(result.index), result.point);
+			}
+		}
+	}
+
+	/**
+	 * Points are added one at a time and searched for after each one
+	 */
+	@Test
+	void addPoint_incremental() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(8);
+		NnData<TupleDesc_B> result = new NnData<>();
+
+		assertFalse(alg.findNearest(randomDesc(128), -1, result));
+
+		List<TupleDesc_B> points = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			TupleDesc_B p = randomDesc(128);
+			points.add(p);
+			alg.addPoint(p);
+
+			assertTrue(alg.findNearest(p, -1, result));
+			assertEquals(0, result.distance);
+			assertEquals(i, result.index);
+		}
+
+		// the old points should be forgotten
+		alg.setPoints(points.subList(0,10), true);
+		assertEquals(10, alg.size());
+		assertTrue(alg.findNearest(points.get(20), 0, result) == false);
+	}
+
+	/**
+	 * Searches created separately should produce the same results and not interfere with each other
+	 */
+	@Test
+	void createSearch() {
+		List<TupleDesc_B> points = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			points.add(randomDesc(128));
+		}
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(10);
+		alg.setPoints(points, true);
+
+		ConcurrentNearestNeighbor.Search<TupleDesc_B> searchA = alg.createSearch();
+		ConcurrentNearestNeighbor.Search<TupleDesc_B> searchB = alg.createSearch();
+		NnData<TupleDesc_B> expected = new NnData<>();
+		NnData<TupleDesc_B> foundA = new NnData<>();
+		NnData<TupleDesc_B> foundB = new NnData<>();
+
+		for (int trial = 0; trial < 50; trial++) {
+			TupleDesc_B query = perturb(points.get(rand.nextInt(points.size())), 10);
+			alg.findNearest(query, -1, expected);
+			searchA.findNearest(query, -1, foundA);
+			searchB.findNearest(query, -1, foundB);
+			assertEquals(expected.distance, foundA.distance);
+			assertEquals(expected.distance, foundB.distance);
+		}
+
+		// points added after the search was created should be found
+		TupleDesc_B p = randomDesc(128);
+		alg.addPoint(p);
+		assertTrue(searchA.findNearest(p, 0, foundA));
+		assertEquals(500, foundA.index);
+	}
+
+	@Test
+	void addPoint_wrongSize() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(8);
+		alg.addPoint(randomDesc(128));
+		assertThrows(IllegalArgumentException.class, () -> alg.addPoint(randomDesc(256)));
+	}
+
+	private int[] bruteForce( List<TupleDesc_B> points , TupleDesc_B query , double maxDistance ) {
+		int[] distances = new int[points.size()];
+		int total = 0;
+		for (int i = 0; i < points.size(); i++) {
+			int d = DescriptorDistance.hamming(query, points.get(i));
+			if( maxDistance < 0 || d <= maxDistance )
+				distances[total++] = d;
+		}
+		distances = Arrays.copyOf(distances, total);
+		Arrays.sort(distances);
+		return distances;
+	}
+
+	private TupleDesc_B randomDesc( int numBits ) {
+		TupleDesc_B desc = new TupleDesc_B(numBits);
+		for (int bit = 0; bit < numBits; bit++) {
+			if( rand.nextBoolean() )
+				desc.data[bit/32] |= 1 << (bit%32);
+		}
+		return desc;
+	}
+
+	private TupleDesc_B perturb( TupleDesc_B original , int maxFlips ) {
+		TupleDesc_B desc = original.copy();
+		int flips = rand.nextInt(maxFlips+1);
+		for (int i = 0; i < flips; i++) {
+			int bit = rand.nextInt(desc.numBits);
+			desc.data[bit/32] ^= 1 << (bit%32);
+		}
+		return desc;
+	}
+}
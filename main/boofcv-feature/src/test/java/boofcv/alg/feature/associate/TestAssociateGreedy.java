@@ -24,6 +24,8 @@ import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 
@@ -101,6 +103,76 @@ public class TestAssociateGreedy {
 		assertEquals(2,fitScore[3],1e-5);
 	}
 
+	/**
+	 * Compare against a brute force implementation which computes the full score matrix. Small tiles are
+	 * used and the data has lots of ties to stress the book keeping.
+	 */
+	@Test
+	public void compareToBruteForce() {
+		Random rand = new Random(234);
+
+		for( boolean backwards : new boolean[]{false,true}) {
+			for (int trial = 0; trial < 20; trial++) {
+				FastQueue<TupleDesc_F64> a = createRandom(rand,5+rand.nextInt(30));
+				FastQueue<TupleDesc_F64> b = createRandom(rand,5+rand.nextInt(30));
+				double maxError = trial%2 == 0 ? Double.MAX_VALUE : 3;
+
+				AssociateGreedy<TupleDesc_F64> alg = new AssociateGreedy<>(score, backwards);
+				alg.setMaxFitError(maxError);
+				alg.setTileSize(1+rand.nextInt(8));
+				alg.associate(a,b);
+
+				checkBruteForce(a, b, backwards, maxError, alg);
+			}
+		}
+	}
+
+	/**
+	 * Reference implementation which saves the score matrix
+	 */
+	public static void checkBruteForce( FastQueue<TupleDesc_F64> src , FastQueue<TupleDesc_F64> dst,
+										boolean backwards, double maxError ,
+										AssociateGreedy<TupleDesc_F64> alg ) {
+		ScoreAssociation<TupleDesc_F64> score = alg.getScore();
+		double[] matrix = new double[src.size*dst.size];
+		for (int i = 0; i < src.size; i++) {
+			double bestScore = maxError;
+			int bestIndex = -1;
+			for (int j = 0; j < dst.size; j++) {
+				double fit = score.score(src.get(i),dst.get(j));
+				matrix[i*dst.size+j] = fit;
+				if( fit <= bestScore ) {
+					bestIndex = j;
+					bestScore = fit;
+				}
+			}
+
+			if( backwards && bestIndex != -1 ) {
+				for (int k = 0; k < src.size; k++) {
+					if( k == i )
+						continue;
+					if( score.score(src.get(k),dst.get(bestIndex)) <= bestScore ) {
+						bestIndex = -1;
+						bestScore = Double.MAX_VALUE;
+						break;
+					}
+				}
+			}
+
+			assertEquals(bestIndex, alg.getPairs()[i]);
+			assertEquals(bestScore, alg.getFitQuality()[i]);
+		}
+	}
+
+	public static FastQueue<TupleDesc_F64> createRandom( Random rand , int total ) {
+		FastQueue<TupleDesc_F64> ret = new FastQueue<>(TupleDesc_F64.class, ()->new TupleDesc_F64(2));
+		for (int i = 0; i < total; i++) {
+			// integer values to create ties
+			ret.grow().set(rand.nextInt(10),rand.nextInt(10));
+		}
+		return ret;
+	}
+
 	private FastQueue<TupleDesc_F64> createData( double ...values )
 	{
 		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(10,TupleDesc_F64.class, true) {
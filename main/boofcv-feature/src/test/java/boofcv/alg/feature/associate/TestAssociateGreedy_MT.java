@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateGreedy_MT {
+	Random rand = new Random(234);
+	ScoreAssociation<TupleDesc_F64> score = new ScoreAssociateEuclidean_F64();
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			for (boolean backwards : new boolean[]{false, true}) {
+				for (int trial = 0; trial < 5; trial++) {
+					FastQueue<TupleDesc_F64> a = TestAssociateGreedy.createRandom(rand, 200 + rand.nextInt(100));
+					FastQueue<TupleDesc_F64> b = TestAssociateGreedy.createRandom(rand, 200 + rand.nextInt(100));
+
+					AssociateGreedy<TupleDesc_F64> expected = new AssociateGreedy<>(score, backwards);
+					AssociateGreedy_MT<TupleDesc_F64> found = new AssociateGreedy_MT<>(score, backwards);
+					expected.setMaxFitError(4);
+					found.setMaxFitError(4);
+					found.setTileSize(32);
+
+					expected.associate(a, b);
+					found.associate(a, b);
+
+					for (int i = 0; i < a.size; i++) {
+						assertEquals(expected.getPairs()[i], found.getPairs()[i]);
+						assertEquals(expected.getFitQuality()[i], found.getFitQuality()[i]);
+					}
+					TestAssociateGreedy.checkBruteForce(a, b, backwards, 4, found);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.StandardAssociateDescriptionChecks;
+import boofcv.alg.descriptor.KdForestBbfSearch_MT;
+import boofcv.alg.descriptor.KdTreeTuple_F64;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.alg.AxisSplitterMedian;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateNearestNeighbor_MT extends StandardAssociateDescriptionChecks<TupleDesc_F64> {
+
+	Random rand = new Random(234);
+
+	TestAssociateNearestNeighbor_MT() {
+		super(TupleDesc_F64.class);
+	}
+
+	@Override
+	public AssociateDescription<TupleDesc_F64> createAlg() {
+		// search every node so that the results are perfect
+		return new AssociateNearestNeighbor_MT<>(createKdTree(1,10000));
+	}
+
+	@Override
+	protected TupleDesc_F64 c(double value) {
+		TupleDesc_F64 s = new TupleDesc_F64(1);
+		s.value[0] = value;
+		return s;
+	}
+
+	/**
+	 * Matches and their order should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		FastQueue<TupleDesc_F64> src = createRandom(500);
+		FastQueue<TupleDesc_F64> dst = createRandom(700);
+
+		for( double ratio : new double[]{1.0,0.8}) {
+			AssociateNearestNeighbor<TupleDesc_F64> expected = new AssociateNearestNeighbor<>(
+					FactoryNearestNeighbor.kdtree(new KdTreeTuple_F64(5),20));
+			AssociateNearestNeighbor_MT<TupleDesc_F64> found = new AssociateNearestNeighbor_MT<>(createKdTree(5,20));
+
+			expected.setScoreRatioThreshold(ratio);
+			found.setScoreRatioThreshold(ratio);
+
+			expected.setSource(src);
+			expected.setDestination(dst);
+			expected.associate();
+
+			try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+				found.setSource(src);
+				found.setDestination(dst);
+				found.associate();
+			}
+
+			FastQueue<AssociatedIndex> e = expected.getMatches();
+			FastQueue<AssociatedIndex> f = found.getMatches();
+			assertEquals(e.size, f.size);
+			for (int i = 0; i < e.size; i++) {
+				assertEquals(e.get(i).src, f.get(i).src);
+				assertEquals(e.get(i).dst, f.get(i).dst);
+				assertEquals(e.get(i).fitScore, f.get(i).fitScore);
+			}
+		}
+	}
+
+	private KdForestBbfSearch_MT<TupleDesc_F64> createKdTree( int dimension , int maxNodes ) {
+		KdTreeTuple_F64 distance = new KdTreeTuple_F64(dimension);
+		return new KdForestBbfSearch_MT<>(1,maxNodes,distance,new AxisSplitterMedian<>(distance));
+	}
+
+	private FastQueue<TupleDesc_F64> createRandom( int total ) {
+		FastQueue<TupleDesc_F64> ret = new FastQueue<>(TupleDesc_F64.class, ()->new TupleDesc_F64(5));
+		for (int i = 0; i < total; i++) {
+			TupleDesc_F64 d = ret.grow();
+			for (int j = 0; j < d.value.length; j++) {
+				d.value[j] = rand.nextGaussian();
+			}
+		}
+		return ret;
+	}
+}
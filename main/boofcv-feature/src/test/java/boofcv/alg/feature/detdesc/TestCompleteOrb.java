@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detdesc.ConfigCompleteOrb;
+import boofcv.abst.feature.detdesc.DetectDescribe_CompleteOrb;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I16;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCompleteOrb {
+	Random rand = new Random(234);
+
+	/**
+	 * Image with lots of corners at different scales
+	 */
+	GrayU8 createImage() {
+		GrayU8 image = new GrayU8(320,240);
+		ImageMiscOps.fill(image,40);
+		for (int i = 0; i < 150; i++) {
+			int w = 4+rand.nextInt(30);
+			int x = rand.nextInt(image.width-w);
+			int y = rand.nextInt(image.height-w);
+			ImageMiscOps.fillRectangle(image,60+rand.nextInt(190),x,y,w,w);
+		}
+		return image;
+	}
+
+	CompleteOrb create( int maxFeatures ) {
+		ConfigCompleteOrb config = new ConfigCompleteOrb();
+		config.maxFeatures = maxFeatures;
+		return ((DetectDescribe_CompleteOrb)FactoryDetectDescribe.orb(config)).getAlgorithm();
+	}
+
+	@Test
+	void process() {
+		GrayU8 image = createImage();
+		CompleteOrb alg = create(300);
+		alg.process(image);
+
+		int N = alg.getLocations().size;
+		assertTrue(N > 100, "found "+N);
+		// the target for each level is rounded up
+		assertTrue(N <= 300 + alg.getNumLevels());
+		assertEquals(N, alg.getOrientations().size);
+		assertEquals(N, alg.getDescriptions().size);
+
+		boolean multipleScales = false;
+		for (int i = 0; i < N; i++) {
+			ScalePoint p = alg.getLocations().get(i);
+			assertTrue(image.isInBounds((int)p.x,(int)p.y));
+			if( p.scale > alg.getLocations().get(0).scale*1.1 )
+				multipleScales = true;
+		}
+		assertTrue(multipleScales);
+
+		// processing the same image again should produce identical results
+		int[] bits = alg.getDescriptions().get(N/2).data.clone();
+		double x = alg.getLocations().get(N/2).x;
+		alg.process(image);
+		assertEquals(N, alg.getLocations().size);
+		assertEquals(x, alg.getLocations().get(N/2).x);
+		assertArrayEquals(bits, alg.getDescriptions().get(N/2).data);
+	}
+
+	/**
+	 * The concurrent version should produce identical results
+	 */
+	@Test
+	void compareToConcurrent() {
+		GrayU8 image = createImage();
+
+		boolean before = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = false;
+		CompleteOrb expected = create(500);
+		BoofConcurrency.USE_CONCURRENT = true;
+		CompleteOrb found = create(500);
+		BoofConcurrency.USE_CONCURRENT = before;
+
+		assertFalse(expected instanceof CompleteOrb_MT);
+		assertTrue(found instanceof CompleteOrb_MT);
+
+		expected.process(image);
+		found.process(image);
+
+		assertEquals(expected.getLocations().size, found.getLocations().size);
+		for (int i = 0; i < expected.getLocations().size; i++) {
+			assertEquals(0, expected.getLocations().get(i).distance(found.getLocations().get(i)), 1e-8);
+			assertEquals(expected.getOrientations().get(i), found.getOrientations().get(i));
+			assertArrayEquals(expected.getDescriptions().get(i).data, found.getDescriptions().get(i).data);
+		}
+	}
+
+	/**
+	 * Orientation should point towards the bright side
+	 */
+	@Test
+	void computeOrientation() {
+		CompleteOrb alg = create(10);
+		GrayU8 image = new GrayU8(40,40);
+
+		ImageMiscOps.fillRectangle(image,200,21,0,19,40);
+		assertEquals(0, alg.computeOrientation(image,20,20), 1e-6);
+
+		ImageMiscOps.fill(image,0);
+		ImageMiscOps.fillRectangle(image,200,0,21,40,19);
+		assertEquals(Math.PI/2, alg.computeOrientation(image,20,20), 1e-6);
+	}
+
+	/**
+	 * All the best corners are inside of a single cell. The grid should force features in other cells to be selected
+	 */
+	@Test
+	void selectFeatures_grid() {
+		CompleteOrb alg = create(10);
+		alg.setGridCellWidth(10);
+		CompleteOrb.Level level = alg.levels[0];
+		level.image = new GrayU8(20,10);
+		level.target = 4;
+
+		level.candidates.reset();
+		level.scores.reset();
+		for (int i = 0; i < 5; i++) {
+			level.candidates.add(i,i);
+			level.scores.add(100+i);
+		}
+		level.candidates.add(15,5);
+		level.scores.add(1);
+
+		alg.selectFeatures(level);
+		assertEquals(4, level.features.size);
+		// features are ordered from best to worst
+		assertEquals(4, level.features.get(0).x);
+		assertEquals(3, level.features.get(1).x);
+		assertEquals(2, level.features.get(2).x);
+		Point2D_I16 p = level.features.get(3);
+		assertEquals(15, p.x);
+
+		// turn off the grid and only the best will be selected
+		alg.setGridCellWidth(0);
+		level.features.reset();
+		alg.selectFeatures(level);
+		assertEquals(4, level.features.size);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(4-i, level.features.get(i).x);
+		}
+	}
+
+	/**
+	 * Radii which are valid together but not against the other's default value must be accepted by the factory
+	 */
+	@Test
+	void setRadii() {
+		ConfigCompleteOrb config = new ConfigCompleteOrb();
+		config.harrisRadius = 2;
+		config.orientationRadius = 3;
+		CompleteOrb alg = ((DetectDescribe_CompleteOrb)FactoryDetectDescribe.orb(config)).getAlgorithm();
+		assertEquals(2, alg.harrisRadius);
+		assertEquals(3, alg.orientationRadius);
+		assertEquals(7, alg.circleHalfWidth.length);
+
+		// both grow past the current orientation radius
+		alg.setRadii(20, 25);
+		assertEquals(20, alg.harrisRadius);
+		assertEquals(51, alg.circleHalfWidth.length);
+
+		assertThrows(IllegalArgumentException.class, () -> alg.setRadii(5, 5));
+		assertThrows(IllegalArgumentException.class, () -> alg.setRadii(0, 5));
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCompleteSift_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Features should be identical to and in the same order as the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		GrayF32 image = new GrayF32(300,290);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		Supplier<NonMaxLimiter> factoryLimiter = ()->FactoryFeatureExtractor.nonmaxLimiter(
+				new ConfigExtract(1,0,1,true,true,true),300);
+		Supplier<OrientationHistogramSift<GrayF32>> factoryOri =
+				()->new OrientationHistogramSift<>(36,1.5,GrayF32.class);
+		Supplier<DescribePointSift<GrayF32>> factoryDesc =
+				()->new DescribePointSift<>(4,4,8,1.5,0.5,0.2,GrayF32.class);
+
+		CompleteSift expected = new CompleteSift(new SiftScaleSpace(-1,4,3,1.6),10,
+				factoryLimiter.get(),factoryOri.get(),factoryDesc.get());
+		CompleteSift_MT found = new CompleteSift_MT(new SiftScaleSpace(-1,4,3,1.6),10,
+				factoryLimiter,factoryOri,factoryDesc);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			// process twice to make sure the storage is correctly recycled
+			for (int trial = 0; trial < 2; trial++) {
+				expected.process(image);
+				found.process(image);
+
+				int N = expected.getLocations().size;
+				assertTrue(N > 10);
+				assertEquals(N, found.getLocations().size);
+				assertEquals(N, found.getOrientations().size);
+				assertEquals(N, found.getDescriptions().size);
+
+				for (int i = 0; i < N; i++) {
+					ScalePoint a = expected.getLocations().get(i);
+					ScalePoint b = found.getLocations().get(i);
+					assertEquals(a.x, b.x);
+					assertEquals(a.y, b.y);
+					assertEquals(a.scale, b.scale);
+					assertEquals(expected.getOrientations().get(i), found.getOrientations().get(i));
+
+					BrightFeature descA = expected.getDescriptions().get(i);
+					BrightFeature descB = found.getDescriptions().get(i);
+					assertEquals(descA.white, descB.white);
+					for (int j = 0; j < descA.size(); j++) {
+						assertEquals(descA.value[j], descB.value[j]);
+					}
+				}
+			}
+		}
+	}
+}
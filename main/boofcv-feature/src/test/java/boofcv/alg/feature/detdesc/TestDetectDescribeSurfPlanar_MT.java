@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.orientation.OrientationIntegral;
+import boofcv.alg.feature.describe.DescribePointSurf;
+import boofcv.alg.feature.describe.DescribePointSurfPlanar;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.core.image.ConvertImage;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.Planar;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDetectDescribeSurfPlanar_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Features should be identical to and in the same order as the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		Planar<GrayF32> input = new Planar<>(GrayF32.class,200,250,3);
+		GImageMiscOps.addUniform(input, rand, 0, 200);
+
+		Supplier<DescribePointSurfPlanar<GrayF32>> factoryDescribe =
+				()->new DescribePointSurfPlanar<>(new DescribePointSurf<>(GrayF32.class),3);
+		Supplier<OrientationIntegral<GrayF32>> factoryOrientation =
+				()->FactoryOrientationAlgs.sliding_ii(null, GrayF32.class);
+
+		DetectDescribeSurfPlanar<GrayF32> expected = new DetectDescribeSurfPlanar<>(
+				FactoryInterestPointAlgs.fastHessian(null), factoryOrientation.get(), factoryDescribe.get());
+		DetectDescribeSurfPlanar_MT<GrayF32> found = new DetectDescribeSurfPlanar_MT<>(
+				FactoryInterestPointAlgs.fastHessian(null), factoryOrientation, factoryDescribe);
+
+		GrayF32 grayII = GIntegralImageOps.transform(ConvertImage.average(input, null),null);
+		Planar<GrayF32> colorII = new Planar<>(GrayF32.class,200,250,3);
+		for (int i = 0; i < 3; i++) {
+			GIntegralImageOps.transform(input.getBand(i),colorII.getBand(i));
+		}
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			// process twice to make sure the storage is correctly recycled
+			for (int trial = 0; trial < 2; trial++) {
+				expected.detect(grayII,colorII);
+				found.detect(grayII,colorII);
+
+				int N = expected.getNumberOfFeatures();
+				assertTrue(N > 10);
+				assertEquals(N, found.getNumberOfFeatures());
+				for (int i = 0; i < N; i++) {
+					assertEquals(0.0, expected.getLocation(i).distance(found.getLocation(i)));
+					assertEquals(expected.getOrientation(i), found.getOrientation(i));
+
+					BrightFeature descA = expected.getDescription(i);
+					BrightFeature descB = found.getDescription(i);
+					assertEquals(descA.white, descB.white);
+					for (int j = 0; j < descA.size(); j++) {
+						assertEquals(descA.value[j], descB.value[j]);
+					}
+				}
+			}
+		}
+	}
+}
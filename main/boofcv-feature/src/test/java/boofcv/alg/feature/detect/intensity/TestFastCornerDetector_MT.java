@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.FastCornerInterface;
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner9_F32;
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner9_U8;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFastCornerDetector_MT {
+	Random rand = new Random(234);
+	int width = 120, height = 100;
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		compareToSingleThread(new ImplFastCorner9_U8(20), new GrayU8(width,height));
+		compareToSingleThread(new ImplFastCorner9_F32(20), new GrayF32(width,height));
+	}
+
+	<T extends ImageGray<T>> void compareToSingleThread( FastCornerInterface<T> helper , T image ) {
+		GImageMiscOps.fillUniform(image,rand,0,255);
+
+		FastCornerDetector<T> expected = new FastCornerDetector<>(helper);
+		FastCornerDetector_MT<T> found = new FastCornerDetector_MT<>(helper.newInstance());
+
+		GrayF32 intensityA = new GrayF32(width,height);
+		GrayF32 intensityB = new GrayF32(width,height);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			// process twice to make sure the storage is correctly recycled
+			for (int trial = 0; trial < 2; trial++) {
+				expected.process(image,intensityA);
+				found.process(image,intensityB);
+
+				assertTrue(expected.getCornersLow().size > 0);
+				assertTrue(expected.getCornersHigh().size > 0);
+				checkIdentical(expected.getCornersLow(),found.getCornersLow());
+				checkIdentical(expected.getCornersHigh(),found.getCornersHigh());
+				BoofTesting.assertEquals(intensityA,intensityB,0);
+
+				expected.process(image);
+				found.process(image);
+				checkIdentical(expected.getCornersLow(),found.getCornersLow());
+				checkIdentical(expected.getCornersHigh(),found.getCornersHigh());
+			}
+		}
+	}
+
+	/**
+	 * The maximum number of features should be enforced exactly the same way
+	 */
+	@Test
+	void maxFeaturesFraction() {
+		GrayU8 image = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(image,rand,0,255);
+
+		FastCornerDetector<GrayU8> expected = new FastCornerDetector<>(new ImplFastCorner9_U8(20));
+		FastCornerDetector_MT<GrayU8> found = new FastCornerDetector_MT<>(new ImplFastCorner9_U8(20));
+
+		expected.process(image);
+		int total = expected.getCornersLow().size + expected.getCornersHigh().size;
+		double fraction = 0.3*total/(double)(width*height);
+		expected.setMaxFeaturesFraction(fraction);
+		found.setMaxFeaturesFraction(fraction);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			expected.process(image);
+			found.process(image);
+		}
+
+		int limited = expected.getCornersLow().size + expected.getCornersHigh().size;
+		assertTrue(limited < total);
+		checkIdentical(expected.getCornersLow(),found.getCornersLow());
+		checkIdentical(expected.getCornersHigh(),found.getCornersHigh());
+	}
+
+	/**
+	 * The helper doesn't support newInstance() so it should fall back to processing the image in one thread
+	 */
+	@Test
+	void helperWithoutNewInstance() {
+		GrayU8 image = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(image,rand,0,255);
+
+		FastCornerDetector<GrayU8> expected = new FastCornerDetector<>(new ImplFastCorner9_U8(20));
+		FastCornerDetector_MT<GrayU8> found = new FastCornerDetector_MT<>(new SingleHelper(new ImplFastCorner9_U8(20)));
+
+		GrayF32 intensityA = new GrayF32(width,height);
+		GrayF32 intensityB = new GrayF32(width,height);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			expected.process(image,intensityA);
+			found.process(image,intensityB);
+			checkIdentical(expected.getCornersLow(),found.getCornersLow());
+			checkIdentical(expected.getCornersHigh(),found.getCornersHigh());
+			BoofTesting.assertEquals(intensityA,intensityB,0);
+
+			expected.process(image);
+			found.process(image);
+			checkIdentical(expected.getCornersLow(),found.getCornersLow());
+			checkIdentical(expected.getCornersHigh(),found.getCornersHigh());
+		}
+	}
+
+	private static void checkIdentical( QueueCorner a , QueueCorner b ) {
+		assertEquals(a.size,b.size);
+		for (int i = 0; i < a.size; i++) {
+			assertEquals(a.get(i).x,b.get(i).x);
+			assertEquals(a.get(i).y,b.get(i).y);
+		}
+	}
+
+	/**
+	 * Wraps a helper without overriding newInstance() and makes sure it's only used by the thread which set the image
+	 */
+	private static class SingleHelper implements FastCornerInterface<GrayU8> {
+		FastCornerInterface<GrayU8> helper;
+		Thread owner;
+
+		SingleHelper(FastCornerInterface<GrayU8> helper) {
+			this.helper = helper;
+		}
+
+		@Override
+		public void setImage(GrayU8 image, int[] offsets) {
+			owner = Thread.currentThread();
+			helper.setImage(image,offsets);
+		}
+
+		@Override
+		public int checkPixel(int index) {
+			assertSame(owner,Thread.currentThread());
+			return helper.checkPixel(index);
+		}
+
+		@Override
+		public float scoreLower(int index) {
+			return helper.scoreLower(index);
+		}
+
+		@Override
+		public float scoreUpper(int index) {
+			return helper.scoreUpper(index);
+		}
+
+		@Override
+		public void setThreshold(int index) {
+			helper.setThreshold(index);
+		}
+	}
+}
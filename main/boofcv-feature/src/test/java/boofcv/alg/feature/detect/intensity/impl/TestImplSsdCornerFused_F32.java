@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity.impl;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.core.image.ConvertImage;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImplSsdCornerFused_F32 {
+	Random rand = new Random(234);
+	int width = 40, height = 35;
+
+	/**
+	 * Compare against the same operations being applied one at a time to the whole image
+	 */
+	@Test
+	void compareToUnfused() {
+		for( int radius : new int[]{1,2,4} ) {
+			compareToUnfused(-1,radius);
+			compareToUnfused(1.5,radius);
+			compareToUnfused(3,radius);
+		}
+	}
+
+	void compareToUnfused( double sigma , int radius ) {
+		GrayF32 input = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+
+		GrayF32 expected = unfused(input,sigma,radius);
+		GrayF32 found = new GrayF32(1,1);
+		ImplSsdCornerFused_F32<GrayF32> alg = create(sigma,radius);
+		alg.process(input,found);
+		BoofTesting.assertEqualsRelative(expected,found,1e-3);
+
+		// sub-images should produce identical results and calling it twice should be the same
+		GrayF32 sub = BoofTesting.createSubImageOf(input);
+		GrayF32 foundSub = new GrayF32(1,1);
+		alg.process(sub,foundSub);
+		BoofTesting.assertEquals(found,foundSub,0);
+	}
+
+	/**
+	 * U8 images should produce the same results as the same image converted into F32
+	 */
+	@Test
+	void inputU8() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		GrayF32 inputF = ConvertImage.convert(input,(GrayF32)null);
+
+		GrayF32 expected = new GrayF32(1,1);
+		GrayF32 found = new GrayF32(1,1);
+		create(1.5,2).process(inputF,expected);
+		new ImplSsdCornerFused_F32<GrayU8>(FactoryKernelGaussian.gaussian(Kernel1D_F32.class,1.5,-1),
+				2,new ShiTomasiCorner_F32()).process(input,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	/**
+	 * Border should be zero, even if the output had been filled with something else
+	 */
+	@Test
+	void borderIsZero() {
+		GrayF32 input = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		GrayF32 found = new GrayF32(width,height);
+		ImageMiscOps.fill(found,5);
+
+		int radius = 3;
+		create(1.5,radius).process(input,found);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if( x < radius || y < radius || x >= width-radius || y >= height-radius )
+					assertEquals(0,found.get(x,y));
+			}
+		}
+	}
+
+	/**
+	 * Images which are too small to contain a single window
+	 */
+	@Test
+	void smallImage() {
+		GrayF32 input = new GrayF32(4,12);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		GrayF32 found = new GrayF32(1,1);
+		create(1.5,2).process(input,found);
+		assertEquals(0,ImageStatistics.maxAbs(found));
+	}
+
+	static ImplSsdCornerFused_F32<GrayF32> create( double sigma , int radius ) {
+		Kernel1D_F32 blur = sigma > 0 ? FactoryKernelGaussian.gaussian(Kernel1D_F32.class,sigma,-1) : null;
+		return new ImplSsdCornerFused_F32<>(blur,radius,new ShiTomasiCorner_F32());
+	}
+
+	static GrayF32 unfused( GrayF32 input , double sigma , int radius ) {
+		GrayF32 blurred = input;
+		if( sigma > 0 )
+			blurred = BlurImageOps.gaussian(input,null,sigma,-1,null);
+
+		GrayF32 derivX = new GrayF32(1,1);
+		GrayF32 derivY = new GrayF32(1,1);
+		GradientSobel.process(blurred,derivX,derivY,
+				(ImageBorder_F32)FactoryImageBorder.single(GrayF32.class,BorderType.EXTENDED));
+
+		GrayF32 intensity = new GrayF32(1,1);
+		new ImplSsdCorner_F32(radius,new ShiTomasiCorner_F32()).process(derivX,derivY,intensity);
+		return intensity;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImplSsdCornerFused_F32_MT {
+	Random rand = new Random(234);
+
+	@Test
+	void compareToSingleThread() {
+		Kernel1D_F32 blur = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,1.5,-1);
+
+		for( int height : new int[]{20,150,400} ) {
+			GrayF32 input = new GrayF32(60,height);
+			ImageMiscOps.fillUniform(input,rand,0,100);
+
+			GrayF32 expected = new GrayF32(1,1);
+			GrayF32 found = new GrayF32(1,1);
+
+			new ImplSsdCornerFused_F32<GrayF32>(blur,2,new HarrisCorner_F32(0.04f)).process(input,expected);
+			// force it to use several threads so that the image is split into multiple bands
+			try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+				new ImplSsdCornerFused_F32_MT<GrayF32>(blur,2,new HarrisCorner_F32(0.04f)).process(input,found);
+			}
+
+			// the running sums start from different rows so there will be small differences due to round off
+			BoofTesting.assertEquals(expected,found,ImageStatistics.maxAbs(expected)*1e-5);
+		}
+	}
+}
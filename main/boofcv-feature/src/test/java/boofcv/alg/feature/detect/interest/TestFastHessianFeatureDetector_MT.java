@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFastHessianFeatureDetector_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Detections should be identical to and in the same order as the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		GrayF32 image = new GrayF32(200,250);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		GrayF32 integral = IntegralImageOps.transform(image,null);
+
+		ConfigExtract configExtract = new ConfigExtract(2, 0, 0, true);
+		for( int maxPerScale : new int[]{-1,20} ) {
+			FastHessianFeatureDetector<GrayF32> expected = new FastHessianFeatureDetector<>(
+					FactoryFeatureExtractor.nonmax(configExtract), maxPerScale, 1, 9, 4, 4, 6);
+			FastHessianFeatureDetector_MT<GrayF32> found = new FastHessianFeatureDetector_MT<>(
+					()->FactoryFeatureExtractor.nonmax(configExtract), maxPerScale, 1, 9, 4, 4, 6);
+
+			try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+				// process twice to make sure the storage is correctly recycled
+				for (int trial = 0; trial < 2; trial++) {
+					expected.detect(integral);
+					found.detect(integral);
+
+					List<ScalePoint> listA = expected.getFoundPoints();
+					List<ScalePoint> listB = found.getFoundPoints();
+
+					assertTrue(listA.size() > 10);
+					assertEquals(listA.size(), listB.size());
+					for (int i = 0; i < listA.size(); i++) {
+						ScalePoint a = listA.get(i);
+						ScalePoint b = listB.get(i);
+						assertEquals(a.x, b.x);
+						assertEquals(a.y, b.y);
+						assertEquals(a.scale, b.scale);
+					}
+				}
+			}
+		}
+	}
+}
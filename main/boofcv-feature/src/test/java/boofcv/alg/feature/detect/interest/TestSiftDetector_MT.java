@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSiftDetector_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Detections should be identical to and in the same order as the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		GrayF32 image = new GrayF32(200,180);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		Supplier<NonMaxLimiter> factory = ()->FactoryFeatureExtractor.nonmaxLimiter(
+				new ConfigExtract(1,0,1,true,true,true),200);
+		SiftDetector expected = new SiftDetector(new SiftScaleSpace(-1,4,3,1.6),10,factory.get());
+		SiftDetector_MT found = new SiftDetector_MT(new SiftScaleSpace(-1,4,3,1.6),10,factory);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			// process twice to make sure the storage is correctly recycled
+			for (int trial = 0; trial < 2; trial++) {
+				expected.process(image);
+				found.process(image);
+
+				FastQueue<ScalePoint> listA = expected.getDetections();
+				FastQueue<ScalePoint> listB = found.getDetections();
+
+				assertTrue(listA.size > 10);
+				assertEquals(listA.size, listB.size);
+				for (int i = 0; i < listA.size; i++) {
+					ScalePoint a = listA.get(i);
+					ScalePoint b = listB.get(i);
+					assertEquals(a.x, b.x);
+					assertEquals(a.y, b.y);
+					assertEquals(a.scale, b.scale);
+					assertEquals(a.white, b.white);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Compares the results of concurrent disparity score algorithms against their single threaded counterpart
+ *
+ * @author Peter Abeles
+ */
+public class ChecksDisparityScoreConcurrent {
+
+	/**
+	 * Creates a select algorithm with all the validation options turned on so that each thread's copy
+	 * will need to be configured correctly
+	 */
+	public static DisparitySelect createSelect( Class imageType ) {
+		if( imageType == GrayU8.class || imageType == GrayS16.class ) {
+			return new ImplSelectRectStandard_S32_U8(-1,2,0.1);
+		} else {
+			return new ImplSelectRectStandard_F32_U8(-1,2,0.1);
+		}
+	}
+
+	/**
+	 * Creates a select algorithm which relies on the default {@link DisparitySelect#concurrentCopy()} and
+	 * can't be copied. All rows must be processed by the same thread.
+	 */
+	public static DisparitySelect createSelectNoCopy( Class imageType ) {
+		return new NoCopySelect(createSelect(imageType));
+	}
+
+	/**
+	 * Processes a random image with more threads than rows per band so that it has to be broken up into
+	 * multiple bands. The output should be identical.
+	 */
+	public static <I extends ImageGray<I>>
+	void compare( Class<I> imageType , DisparityScoreRowFormat<I,GrayU8> single ,
+				  DisparityScoreRowFormat<I,GrayU8> concurrent ) {
+		Random rand = new Random(234);
+		int w = 45, h = 60;
+
+		I left = GeneralizedImageOps.createSingleBand(imageType,w, h);
+		I right = GeneralizedImageOps.createSingleBand(imageType,w, h);
+		GImageMiscOps.fillUniform(left, rand, 0, 30);
+		GImageMiscOps.fillUniform(right, rand, 0, 30);
+
+		GrayU8 expected = new GrayU8(w,h);
+		GrayU8 found = new GrayU8(w,h);
+
+		single.process(left,right,expected);
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(5);
+			concurrent.process(left,right,found);
+			BoofTesting.assertEquals(expected, found, 0);
+
+			// process it again to see if the saved work space is correctly reused
+			GImageMiscOps.fill(found,0);
+			concurrent.process(left,right,found);
+			BoofTesting.assertEquals(expected, found, 0);
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	/**
+	 * Wraps a select algorithm without overriding concurrentCopy() and makes sure it's only used by one thread
+	 */
+	private static class NoCopySelect implements DisparitySelect {
+		DisparitySelect alg;
+		Thread owner;
+
+		NoCopySelect(DisparitySelect alg) {
+			this.alg = alg;
+		}
+
+		@Override
+		public void configure(ImageGray imageDisparity, int minDisparity, int maxDisparity, int radiusX) {
+			owner = Thread.currentThread();
+			alg.configure(imageDisparity,minDisparity,maxDisparity,radiusX);
+		}
+
+		@Override
+		public void process(int row, Object scoresArray) {
+			assertSame(owner,Thread.currentThread());
+			alg.process(row,scoresArray);
+		}
+
+		@Override
+		public Class getDisparityType() {
+			return alg.getDisparityType();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreWindowFive;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplDisparityScoreSadRectFive_F32_MT extends ChecksImplDisparityScoreSadRectFive<GrayF32,GrayU8> {
+
+	public TestImplDisparityScoreSadRectFive_F32_MT() {
+		super(GrayF32.class, GrayU8.class);
+	}
+
+	@Override
+	protected DisparityScoreWindowFive<GrayF32, GrayU8>
+	createAlg(int minDisparity, int maxDisparity, int radiusX, int radiusY, DisparitySelect compDisp) {
+		return new ImplDisparityScoreSadRectFive_F32_MT<>(minDisparity,maxDisparity,radiusX,radiusY,compDisp);
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		ImplDisparityScoreSadRectFive_F32<GrayU8> single = new ImplDisparityScoreSadRectFive_F32<>(
+				3,15,2,1,ChecksDisparityScoreConcurrent.createSelect(imageType));
+		ImplDisparityScoreSadRectFive_F32_MT<GrayU8> concurrent = new ImplDisparityScoreSadRectFive_F32_MT<>(
+				3,15,2,1,ChecksDisparityScoreConcurrent.createSelect(imageType));
+
+		ChecksDisparityScoreConcurrent.compare(imageType,single,concurrent);
+	}
+
+	/**
+	 * The select algorithm can't be copied so everything should be done in a single thread
+	 */
+	@Test
+	public void compareToSingleThread_noCopy() {
+		ImplDisparityScoreSadRectFive_F32<GrayU8> single = new ImplDisparityScoreSadRectFive_F32<>(
+				3,15,2,1,ChecksDisparityScoreConcurrent.createSelect(imageType));
+		ImplDisparityScoreSadRectFive_F32_MT<GrayU8> concurrent = new ImplDisparityScoreSadRectFive_F32_MT<>(
+				3,15,2,1,ChecksDisparityScoreConcurrent.createSelectNoCopy(imageType));
+
+		ChecksDisparityScoreConcurrent.compare(imageType,single,concurrent);
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmCostAggregation {
+	Random rand = new Random(234);
+	int w = 22, h = 17, rangeD = 9;
+	int P1 = 3, P2 = 20;
+
+	/**
+	 * Compare against a brute force implementation which processes the image one pixel at a time in an order
+	 * that ensures the previous pixel along the path has already been computed
+	 */
+	@Test
+	void compareToNaive() {
+		Planar<GrayU16> cost = createCost();
+
+		for (int paths = 1; paths <= 8; paths++) {
+			SgmCostAggregation alg = new SgmCostAggregation(P1,P2,paths);
+			alg.process(cost,SgmCostHamming.MAX_COST);
+
+			int[][][] expected = new int[h][w][rangeD];
+			for (int i = 0; i < paths; i++) {
+				naiveDirection(cost,SgmCostAggregation.DIRECTIONS[i][0],SgmCostAggregation.DIRECTIONS[i][1],expected);
+			}
+
+			Planar<GrayU16> found = alg.getAggregated();
+			for (int y = 0; y < h; y++) {
+				for (int x = 0; x < w; x++) {
+					for (int d = 0; d < rangeD; d++) {
+						assertEquals(expected[y][x][d],found.getBand(y).get(d,x));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void compareToConcurrent() {
+		Planar<GrayU16> cost = createCost();
+
+		SgmCostAggregation alg = new SgmCostAggregation(P1,P2,8);
+		SgmCostAggregation algMT = new SgmCostAggregation_MT(P1,P2,8);
+
+		alg.process(cost,SgmCostHamming.MAX_COST);
+		algMT.process(cost,SgmCostHamming.MAX_COST);
+
+		BoofTesting.assertEquals(alg.getAggregated(),algMT.getAggregated(),0);
+
+		// process it again and make sure the previous results don't leak into the new results
+		algMT.process(cost,SgmCostHamming.MAX_COST);
+		BoofTesting.assertEquals(alg.getAggregated(),algMT.getAggregated(),0);
+	}
+
+	@Test
+	void detectOverflow() {
+		SgmCostAggregation alg = new SgmCostAggregation(P1,0xFFFF/8,8);
+		assertThrows(IllegalArgumentException.class,()->alg.process(createCost(),SgmCostHamming.MAX_COST));
+	}
+
+	private Planar<GrayU16> createCost() {
+		Planar<GrayU16> cost = new Planar<>(GrayU16.class,rangeD,w,h);
+		GImageMiscOps.fillUniform(cost,rand,0,SgmCostHamming.MAX_COST);
+		return cost;
+	}
+
+	private void naiveDirection( Planar<GrayU16> cost , int dx , int dy , int[][][] aggregated ) {
+		int[][][] Lr = new int[h][w][rangeD];
+
+		for (int i = 0; i < h; i++) {
+			int y = dy >= 0 ? i : h-1-i;
+			for (int j = 0; j < w; j++) {
+				int x = dx >= 0 ? j : w-1-j;
+
+				int px = x-dx, py = y-dy;
+				boolean first = px < 0 || px >= w || py < 0 || py >= h;
+
+				int minPrev = Integer.MAX_VALUE;
+				if( !first ) {
+					for (int d = 0; d < rangeD; d++) {
+						minPrev = Math.min(minPrev,Lr[py][px][d]);
+					}
+				}
+
+				for (int d = 0; d < rangeD; d++) {
+					int c = cost.getBand(y).get(d,x);
+					if( first ) {
+						Lr[y][x][d] = c;
+					} else {
+						int[] prev = Lr[py][px];
+						int best = prev[d];
+						if( d > 0 ) best = Math.min(best,prev[d-1]+P1);
+						if( d+1 < rangeD ) best = Math.min(best,prev[d+1]+P1);
+						best = Math.min(best,minPrev+P2);
+						Lr[y][x][d] = c + best - minPrev;
+					}
+					aggregated[y][x][d] += Lr[y][x][d];
+				}
+			}
+		}
+	}
+}
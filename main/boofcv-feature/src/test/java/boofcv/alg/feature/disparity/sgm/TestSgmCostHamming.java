@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmCostHamming {
+	Random rand = new Random(234);
+	int w = 30, h = 25;
+
+	@Test
+	void compareToNaive() {
+		GrayS32 left = new GrayS32(w,h);
+		GrayS32 right = new GrayS32(w,h);
+		ImageMiscOps.fillUniform(left,rand,0,1 << 24);
+		ImageMiscOps.fillUniform(right,rand,0,1 << 24);
+
+		int minDisparity = 3, maxDisparity = 12;
+		SgmCostHamming alg = new SgmCostHamming();
+		alg.configure(minDisparity,maxDisparity);
+
+		Planar<GrayU16> cost = new Planar<>(GrayU16.class,1,1,1);
+		alg.process(left,right,cost);
+
+		assertEquals(maxDisparity-minDisparity,cost.width);
+		assertEquals(w,cost.height);
+		assertEquals(h,cost.getNumBands());
+
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				for (int d = minDisparity; d < maxDisparity; d++) {
+					int found = cost.getBand(y).get(d-minDisparity,x);
+					if( x-d < 0 ) {
+						assertEquals(SgmCostHamming.MAX_COST,found);
+					} else {
+						int expected = Integer.bitCount(left.get(x,y)^right.get(x-d,y));
+						assertEquals(expected,found);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void compareToConcurrent() {
+		GrayS32 left = new GrayS32(w,h);
+		GrayS32 right = new GrayS32(w,h);
+		ImageMiscOps.fillUniform(left,rand,0,1 << 24);
+		ImageMiscOps.fillUniform(right,rand,0,1 << 24);
+
+		SgmCostHamming alg = new SgmCostHamming();
+		SgmCostHamming algMT = new SgmCostHamming_MT();
+		alg.configure(2,10);
+		algMT.configure(2,10);
+
+		Planar<GrayU16> expected = new Planar<>(GrayU16.class,1,1,1);
+		Planar<GrayU16> found = new Planar<>(GrayU16.class,1,1,1);
+		alg.process(left,right,expected);
+		algMT.process(left,right,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmDisparitySelector {
+	Random rand = new Random(234);
+	int w = 20, h = 15, rangeD = 6;
+
+	/**
+	 * Every pixel has a single clear minimum at the same disparity
+	 */
+	@Test
+	void simpleMinimum() {
+		int minDisparity = 2;
+		int expected = 3;
+		Planar<GrayU16> agg = new Planar<>(GrayU16.class,rangeD,w,h);
+		GImageMiscOps.fill(agg,100);
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				agg.getBand(y).set(expected,x,20);
+			}
+		}
+
+		SgmDisparitySelector alg = new SgmDisparitySelector();
+		alg.setRightToLeftTolerance(-1);
+		GrayU8 disparity = new GrayU8(1,1);
+		alg.select(agg,minDisparity,disparity);
+
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				if( x-minDisparity < expected ) {
+					// the disparity can't be reached at these pixels
+					if( x < minDisparity )
+						assertEquals(rangeD+1,disparity.get(x,y));
+				} else {
+					assertEquals(expected,disparity.get(x,y));
+				}
+			}
+		}
+	}
+
+	/**
+	 * If all the scores are the same then the texture test should fail
+	 */
+	@Test
+	void texture() {
+		Planar<GrayU16> agg = new Planar<>(GrayU16.class,rangeD,w,h);
+		GImageMiscOps.fill(agg,100);
+
+		SgmDisparitySelector alg = new SgmDisparitySelector();
+		alg.setRightToLeftTolerance(-1);
+		alg.setTexture(0.1);
+		GrayU8 disparity = new GrayU8(1,1);
+		alg.select(agg,0,disparity);
+
+		for (int x = 3; x < w; x++) {
+			assertEquals(rangeD+1,disparity.get(x,4));
+		}
+
+		alg.setTexture(0);
+		alg.select(agg,0,disparity);
+		for (int x = 3; x < w; x++) {
+			assertEquals(0,disparity.get(x,4));
+		}
+	}
+
+	/**
+	 * Create a scenario where left to right says one thing but right to left says another
+	 */
+	@Test
+	void rightToLeft() {
+		Planar<GrayU16> agg = new Planar<>(GrayU16.class,rangeD,w,h);
+		GImageMiscOps.fill(agg,100);
+
+		// left pixel at x=10 best matches disparity 2, i.e. right pixel 8
+		agg.getBand(4).set(2,10,20);
+		// left pixel at x=12 matches right pixel 8 even better
+		agg.getBand(4).set(4,12,5);
+
+		SgmDisparitySelector alg = new SgmDisparitySelector();
+		alg.setRightToLeftTolerance(0);
+		GrayU8 disparity = new GrayU8(1,1);
+		alg.select(agg,0,disparity);
+		assertEquals(rangeD+1,disparity.get(10,4));
+		assertEquals(4,disparity.get(12,4));
+
+		alg.setRightToLeftTolerance(-1);
+		alg.select(agg,0,disparity);
+		assertEquals(2,disparity.get(10,4));
+	}
+
+	@Test
+	void compareToConcurrent() {
+		Planar<GrayU16> agg = new Planar<>(GrayU16.class,rangeD,w,h);
+		GImageMiscOps.fillUniform(agg,rand,0,200);
+
+		SgmDisparitySelector alg = new SgmDisparitySelector();
+		SgmDisparitySelector algMT = new SgmDisparitySelector_MT();
+		alg.setTexture(0.05);
+		algMT.setTexture(0.05);
+
+		GrayU8 expected = new GrayU8(1,1);
+		GrayU8 found = new GrayU8(1,1);
+		alg.select(agg,1,expected);
+		algMT.select(agg,1,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.disparity.ConfigDisparitySGM;
+import boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmStereoDisparity {
+	Random rand = new Random(234);
+	int w = 80, h = 60;
+
+	/**
+	 * Random texture which is shifted by a constant disparity. Almost every pixel should be correct
+	 */
+	@Test
+	void constantDisparity() {
+		int minDisparity = 2;
+		int disparity = 7;
+
+		GrayU8 left = new GrayU8(w,h);
+		GrayU8 right = new GrayU8(w,h);
+		ImageMiscOps.fillUniform(left,rand,0,255);
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				right.set(x,y,x+disparity < w ? left.get(x+disparity,y) : 0);
+			}
+		}
+
+		SgmStereoDisparity alg = FactoryStereoDisparityAlgs.sgm(new ConfigDisparitySGM(minDisparity,20));
+
+		GrayU8 found = new GrayU8(1,1);
+		alg.process(left,right,found);
+
+		int total = 0, correct = 0;
+		for (int y = 2; y < h-2; y++) {
+			for (int x = disparity+2; x < w-disparity-2; x++) {
+				total++;
+				if( found.get(x,y)+minDisparity == disparity )
+					correct++;
+			}
+		}
+		assertTrue(correct >= total*0.98, correct+" / "+total);
+
+		// processing the same images again should produce the same results
+		GrayU8 found2 = new GrayU8(1,1);
+		alg.process(left,right,found2);
+		for (int i = 0; i < found.data.length; i++) {
+			assertTrue(found.data[i] == found2.data[i]);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.pyramid.PyramidFloat;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBroxWarpingSpacial_MT {
+	Random rand = new Random(234);
+	int width = 30;
+	int height = 40;
+
+	/**
+	 * The SOR update is done in a different order so the results will not be identical, but the same flow
+	 * should be found
+	 */
+	@Test
+	void process() {
+		process(BorderType.EXTENDED);
+		process(BorderType.ZERO);
+	}
+
+	void process( BorderType border ) {
+		GrayF32 original1 = new GrayF32(width,height);
+		GrayF32 original2 = new GrayF32(width,height);
+
+		ImageMiscOps.fillRectangle(original1,40,10,0,10,height);
+		ImageMiscOps.fillRectangle(original2,40,15,0,10,height);
+
+		PyramidFloat<GrayF32> pyr1 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,5,12,GrayF32.class);
+		PyramidFloat<GrayF32> pyr2 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,5,12,GrayF32.class);
+
+		pyr1.process(original1);
+		pyr2.process(original2);
+
+		BroxWarpingSpacial<GrayF32> expected = new BroxWarpingSpacial<>(new ConfigBroxWarping(),createInterpolate(border));
+		BroxWarpingSpacial<GrayF32> found = new BroxWarpingSpacial_MT<>(new ConfigBroxWarping(),createInterpolate(border));
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			expected.process(pyr1,pyr2);
+			found.process(pyr1,pyr2);
+		}
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 10; x < 20; x++ ) {
+				assertEquals(5,found.getFlowX().get(x,y),1);
+				assertEquals(0,found.getFlowY().get(x,y),1);
+				assertEquals(expected.getFlowX().get(x,y),found.getFlowX().get(x,y),0.1f);
+				assertEquals(expected.getFlowY().get(x,y),found.getFlowY().get(x,y),0.1f);
+			}
+		}
+	}
+
+	/**
+	 * The interpolation used by each thread must have the same border as the one the caller provided
+	 */
+	@Test
+	void interpolateFlowScale_border() {
+		GrayF32 prev = new GrayF32(width/2,height/2);
+		ImageMiscOps.fillUniform(prev,rand,1,100);
+
+		TestHornSchunckPyramid_MT.BorderInterpolate interpA = new TestHornSchunckPyramid_MT.BorderInterpolate();
+		TestHornSchunckPyramid_MT.BorderInterpolate interpB = new TestHornSchunckPyramid_MT.BorderInterpolate();
+
+		BroxWarpingSpacial<GrayF32> expected = new BroxWarpingSpacial<>(new ConfigBroxWarping(),interpA);
+		BroxWarpingSpacial<GrayF32> found = new BroxWarpingSpacial_MT<>(new ConfigBroxWarping(),interpB);
+
+		// the constructor sets an extended border so it's changed afterwards
+		interpA.setBorder(FactoryImageBorder.single(GrayF32.class, BorderType.ZERO));
+		interpB.setBorder(FactoryImageBorder.single(GrayF32.class, BorderType.ZERO));
+
+		GrayF32 currA = new GrayF32(width,height);
+		GrayF32 currB = new GrayF32(width,height);
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			expected.interpolateFlowScale(prev,currA);
+			found.interpolateFlowScale(prev,currB);
+		}
+		BoofTesting.assertEquals(currA,currB,1e-4);
+	}
+
+	private static InterpolatePixelS<GrayF32> createInterpolate( BorderType border ) {
+		return FactoryInterpolation.bilinearPixelS(GrayF32.class, border);
+	}
+}
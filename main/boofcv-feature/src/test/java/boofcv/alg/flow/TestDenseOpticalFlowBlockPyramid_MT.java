@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDenseOpticalFlowBlockPyramid_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		compareToSingleThread(GrayU8.class,()->new DenseOpticalFlowBlockPyramid.U8(2,3,20));
+		compareToSingleThread(GrayF32.class,()->new DenseOpticalFlowBlockPyramid.F32(2,3,20));
+	}
+
+	<T extends ImageGray<T>>
+	void compareToSingleThread( Class<T> imageType , Supplier<DenseOpticalFlowBlockPyramid<T>> factory ) {
+		T image0 = GeneralizedImageOps.createSingleBand(imageType,45,50);
+		T image1 = GeneralizedImageOps.createSingleBand(imageType,45,50);
+		GImageMiscOps.fillUniform(image0,rand,0,200);
+		for (int y = 0; y < image0.height; y++) {
+			for (int x = 0; x < image0.width; x++) {
+				double value = GeneralizedImageOps.get(image0,Math.max(0,x-2),Math.max(0,y-1));
+				GeneralizedImageOps.set(image1,x,y,value);
+			}
+		}
+		// add a region without texture so that some centers are skipped
+		GImageMiscOps.fillRectangle(image0,50,5,5,12,12);
+
+		ImagePyramid<T> prev = FactoryPyramid.discreteGaussian(new int[]{1,2,4},0,2,false, ImageType.single(imageType));
+		ImagePyramid<T> curr = FactoryPyramid.discreteGaussian(new int[]{1,2,4},0,2,false, ImageType.single(imageType));
+		prev.process(image0);
+		curr.process(image1);
+
+		DenseOpticalFlowBlockPyramid<T> expected = factory.get();
+		DenseOpticalFlowBlockPyramid<T> found = new DenseOpticalFlowBlockPyramid_MT<>(factory);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			// process twice to make sure the storage is correctly recycled
+			for (int trial = 0; trial < 2; trial++) {
+				expected.process(prev,curr);
+				found.process(prev,curr);
+
+				ImageFlow flowA = expected.getOpticalFlow();
+				ImageFlow flowB = found.getOpticalFlow();
+				assertEquals(flowA.width,flowB.width);
+				assertEquals(flowA.height,flowB.height);
+
+				int totalValid = 0;
+				for (int i = 0; i < flowA.data.length; i++) {
+					ImageFlow.D a = flowA.data[i];
+					ImageFlow.D b = flowB.data[i];
+					assertEquals(a.isValid(),b.isValid());
+					if( a.isValid() ) {
+						totalValid++;
+						assertEquals(a.x,b.x);
+						assertEquals(a.y,b.y);
+					}
+				}
+				assertTrue(totalValid > 0);
+			}
+		}
+	}
+}
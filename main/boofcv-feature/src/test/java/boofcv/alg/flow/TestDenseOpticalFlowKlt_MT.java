@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.tracker.FactoryTrackerAlg;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDenseOpticalFlowKlt_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Each pixel is assigned the same flow as the single threaded version, even where regions overlap
+	 */
+	@Test
+	void compareToSingleThread() {
+		PkltConfig config = new PkltConfig();
+		config.pyramidScaling = new int[]{1,2};
+		config.config.maxPerPixelError = 15;
+
+		GrayF32 image0 = new GrayF32(40,35);
+		GrayF32 image1 = new GrayF32(40,35);
+		ImageMiscOps.fillUniform(image0,rand,0,100);
+		for (int y = 0; y < image0.height; y++) {
+			for (int x = 0; x < image0.width; x++) {
+				image1.set(x,y,image0.get(Math.max(0,x-1),y));
+			}
+		}
+
+		ImagePyramid<GrayF32> prev = FactoryPyramid.discreteGaussian(config.pyramidScaling, -1, 2, true, ImageType.single(GrayF32.class));
+		ImagePyramid<GrayF32> curr = FactoryPyramid.discreteGaussian(config.pyramidScaling, -1, 2, true, ImageType.single(GrayF32.class));
+		prev.process(image0);
+		curr.process(image1);
+
+		ImageGradient<GrayF32, GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class, GrayF32.class);
+		GrayF32[] prevDerivX = PyramidOps.declareOutput(prev,GrayF32.class);
+		GrayF32[] prevDerivY = PyramidOps.declareOutput(prev,GrayF32.class);
+		PyramidOps.gradient(prev, gradient, prevDerivX,prevDerivY);
+
+		DenseOpticalFlowKlt<GrayF32,GrayF32> expected = new DenseOpticalFlowKlt<>(
+				FactoryTrackerAlg.kltPyramid(config.config, GrayF32.class, GrayF32.class),2,3);
+		DenseOpticalFlowKlt<GrayF32,GrayF32> found = new DenseOpticalFlowKlt_MT<>(
+				()->FactoryTrackerAlg.kltPyramid(config.config, GrayF32.class, GrayF32.class),2,3);
+
+		ImageFlow flowA = new ImageFlow(image0.width,image0.height);
+		ImageFlow flowB = new ImageFlow(image0.width,image0.height);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			// process twice to make sure the storage is correctly recycled
+			for (int trial = 0; trial < 2; trial++) {
+				expected.process(prev,prevDerivX,prevDerivY,curr,flowA);
+				found.process(prev,prevDerivX,prevDerivY,curr,flowB);
+
+				int totalValid = 0;
+				for (int i = 0; i < flowA.data.length; i++) {
+					ImageFlow.D a = flowA.data[i];
+					ImageFlow.D b = flowB.data[i];
+					assertEquals(a.isValid(),b.isValid());
+					if( a.isValid() ) {
+						totalValid++;
+						assertEquals(a.x,b.x);
+						assertEquals(a.y,b.y);
+					}
+				}
+				assertTrue(totalValid > flowA.data.length/2);
+			}
+		}
+	}
+}
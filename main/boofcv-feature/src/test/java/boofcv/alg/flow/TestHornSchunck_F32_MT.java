@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestHornSchunck_F32_MT extends ChecksHornSchunck<GrayF32,GrayF32> {
+
+	TestHornSchunck_F32_MT() {
+		super(GrayF32.class, GrayF32.class);
+	}
+
+	@Override
+	public HornSchunck<GrayF32, GrayF32> createAlg() {
+		return new HornSchunck_F32_MT(0.2f,1);
+	}
+
+	/**
+	 * The flow is updated using the previous iteration's average, so the results should be identical
+	 */
+	@Test
+	void compareToSingleThread() {
+		GrayF32 image1 = new GrayF32(width,height);
+		GrayF32 image2 = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(image1,rand,0,200);
+		GImageMiscOps.fillUniform(image2,rand,0,200);
+
+		HornSchunck<GrayF32,GrayF32> expected = new HornSchunck_F32(0.2f,5);
+		HornSchunck<GrayF32,GrayF32> found = new HornSchunck_F32_MT(0.2f,5);
+
+		ImageFlow flowA = new ImageFlow(width,height);
+		ImageFlow flowB = new ImageFlow(width,height);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			expected.process(image1,image2,flowA);
+			found.process(image1,image2,flowB);
+		}
+
+		for (int i = 0; i < flowA.data.length; i++) {
+			assertEquals(flowA.data[i].x,flowB.data[i].x);
+			assertEquals(flowA.data[i].y,flowB.data[i].y);
+		}
+	}
+}
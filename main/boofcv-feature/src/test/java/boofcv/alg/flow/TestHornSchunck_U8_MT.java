@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestHornSchunck_U8_MT extends ChecksHornSchunck<GrayU8,GrayS16> {
+
+	TestHornSchunck_U8_MT() {
+		super(GrayU8.class, GrayS16.class);
+	}
+
+	@Override
+	public HornSchunck<GrayU8, GrayS16> createAlg() {
+		return new HornSchunck_U8_MT(0.2f,1);
+	}
+
+	/**
+	 * The flow is updated using the previous iteration's average, so the results should be identical
+	 */
+	@Test
+	void compareToSingleThread() {
+		GrayU8 image1 = new GrayU8(width,height);
+		GrayU8 image2 = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(image1,rand,0,200);
+		GImageMiscOps.fillUniform(image2,rand,0,200);
+
+		HornSchunck<GrayU8,GrayS16> expected = new HornSchunck_U8(0.2f,5);
+		HornSchunck<GrayU8,GrayS16> found = new HornSchunck_U8_MT(0.2f,5);
+
+		ImageFlow flowA = new ImageFlow(width,height);
+		ImageFlow flowB = new ImageFlow(width,height);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			expected.process(image1,image2,flowA);
+			found.process(image1,image2,flowB);
+		}
+
+		for (int i = 0; i < flowA.data.length; i++) {
+			assertEquals(flowA.data[i].x,flowB.data[i].x);
+			assertEquals(flowA.data[i].y,flowB.data[i].y);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPyramidKltBatchTracker extends PyramidKltTestBase {
+
+	@BeforeEach
+	public void setup() {
+		super.setup();
+	}
+
+	PyramidKltBatchTracker<GrayF32,GrayF32> createBatch() {
+		return new PyramidKltBatchTracker<>(TestKltTracker::createDefaultTracker,
+				pyramid.getNumLayers(),featureReadius);
+	}
+
+	/**
+	 * Move the image and see if the results are identical to the tracker which processes one feature at a time
+	 */
+	@Test
+	void compareToPyramidKltTracker() {
+		compareToPyramidKltTracker(createBatch());
+	}
+
+	void compareToPyramidKltTracker( PyramidKltBatchTracker<GrayF32,GrayF32> alg ) {
+		// features inside, along the border, and outside the image
+		List<PyramidKltFeature> expected = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			PyramidKltFeature f = new PyramidKltFeature(pyramid.getNumLayers(),featureReadius);
+			f.setPosition(rand.nextFloat()*(width+4)-2,rand.nextFloat()*(height+4)-2);
+			expected.add(f);
+			alg.addFeature(f.x,f.y,f);
+		}
+
+		tracker.setImage(pyramid,derivX,derivY);
+		alg.setImage(pyramid,derivX,derivY);
+		alg.setDescription(0,alg.size());
+
+		for (int i = 0; i < expected.size(); i++) {
+			boolean success = tracker.setDescription(expected.get(i));
+			assertEquals(success, alg.getFault(i) == KltTrackFault.SUCCESS);
+		}
+
+		// shift the image
+		GrayF32 shifted = image.createSameShape();
+		ImageMiscOps.fillUniform(shifted,rand,0,10);
+		shifted.subimage(1,2,width,height).setTo(image.subimage(0,0,width-1,height-2));
+		pyramid.process(shifted);
+		PyramidOps.gradient(pyramid, FactoryDerivative.sobel(GrayF32.class,GrayF32.class),derivX,derivY);
+
+		alg.trackAndDescribe(width,height);
+		int total = 0;
+		for (int i = 0; i < expected.size(); i++) {
+			PyramidKltFeature f = expected.get(i);
+			assertSame(f, alg.getCookie(i));
+
+			KltTrackFault fault = tracker.track(f);
+			if( fault == KltTrackFault.SUCCESS ) {
+				assertEquals(f.x, alg.getX(i));
+				assertEquals(f.y, alg.getY(i));
+				if( !shifted.isInBounds((int)f.x,(int)f.y) ) {
+					fault = KltTrackFault.OUT_OF_BOUNDS;
+				} else if( !tracker.setDescription(f) ) {
+					fault = KltTrackFault.FAILED;
+				} else {
+					total++;
+				}
+			}
+			assertEquals(fault, alg.getFault(i));
+		}
+		assertTrue(total > 20);
+
+		// only successful features should remain and their order should be unchanged
+		List<PyramidKltFeature> removed = new ArrayList<>();
+		alg.removeFaults(removed);
+		assertEquals(total, alg.size());
+		assertEquals(expected.size()-total, removed.size());
+
+		int index = 0;
+		for (int i = 0; i < expected.size(); i++) {
+			PyramidKltFeature f = expected.get(i);
+			if( removed.contains(f) )
+				continue;
+			assertSame(f, alg.getCookie(index));
+			assertEquals(f.x, alg.getX(index));
+			assertEquals(f.y, alg.getY(index));
+			index++;
+		}
+	}
+
+	@Test
+	void remove() {
+		PyramidKltBatchTracker<GrayF32,GrayF32> alg = createBatch();
+		alg.setImage(pyramid,derivX,derivY);
+
+		for (int i = 0; i < 5; i++) {
+			alg.addFeature(15+i*5,20,i);
+		}
+		alg.setDescription(0,alg.size());
+
+		// the template should move with the feature
+		KltFeature expected = new KltFeature(featureReadius);
+		KltFeature found = new KltFeature(featureReadius);
+		alg.loadTemplate(1,3,expected);
+
+		alg.remove(1);
+		assertEquals(4, alg.size());
+		assertEquals(0, (int)alg.getCookie(0));
+		assertEquals(2, (int)alg.getCookie(1));
+		assertEquals(3, (int)alg.getCookie(2));
+		assertEquals(4, (int)alg.getCookie(3));
+		assertEquals(30, alg.getX(2));
+
+		alg.loadTemplate(1,2,found);
+		assertArrayEquals(expected.desc.data, found.desc.data);
+		assertArrayEquals(expected.derivX.data, found.derivX.data);
+		assertArrayEquals(expected.derivY.data, found.derivY.data);
+		assertEquals(expected.Gxx, found.Gxx);
+
+		alg.reset();
+		assertEquals(0, alg.size());
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPyramidKltBatchTracker_MT extends TestPyramidKltBatchTracker {
+
+	@Override
+	PyramidKltBatchTracker<GrayF32,GrayF32> createBatch() {
+		return new PyramidKltBatchTracker_MT<>(TestKltTracker::createDefaultTracker,
+				pyramid.getNumLayers(),featureReadius);
+	}
+
+	/**
+	 * Features are processed by multiple threads and should produce identical results
+	 */
+	@Test
+	void compareToPyramidKltTracker_threads() {
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			compareToPyramidKltTracker(createBatch());
+		}
+	}
+}
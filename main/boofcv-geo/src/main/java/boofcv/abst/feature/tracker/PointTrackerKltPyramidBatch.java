@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.tracker.klt.PyramidKltBatchTracker;
+import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import georegression.struct.point.Point2D_I16;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Wrapper around {@link PyramidKltBatchTracker} for {@link PointTracker}. Produces the same tracks as
+ * {@link PointTrackerKltPyramid} but all the active tracks are processed as a single batch, which is much
+ * faster when there are a large number of tracks. Every track will have the same size and shaped descriptor.
+ * If any fault is encountered the track will be dropped.
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramidBatch<I extends ImageGray<I>,D extends ImageGray<D>>
+		implements PointTracker<I>
+{
+	// reference to input image
+	protected I input;
+
+	// Updates the image pyramid's gradient.
+	protected ImageGradient<I,D> gradient;
+
+	// storage for image pyramid
+	protected PyramidDiscrete<I> basePyramid;
+	protected D[] derivX;
+	protected D[] derivY;
+	protected Class<D> derivType;
+
+	// list of tracks which were just spawned
+	protected List<PointTrack> spawned = new ArrayList<>();
+	// list of tracks which were just dropped
+	protected List<PointTrack> dropped = new ArrayList<>();
+	// tracks available for future use
+	protected List<PointTrack> unused = new ArrayList<>();
+
+	// the tracker. The cookie for each feature is its PointTrack
+	protected PyramidKltBatchTracker<I, D> tracker;
+
+	// selects point features
+	private GeneralFeatureDetector<I, D> detector;
+	// list of corners which should be ignored by the corner detector
+	private QueueCorner excludeList = new QueueCorner(10);
+
+	// number of features tracked so far
+	private long totalFeatures = 0;
+
+	/**
+	 * Constructor which specified the KLT track manager and how the image pyramids are computed.
+	 *
+	 * @param tracker Batch KLT tracker. Must have the same number of layers as the pyramid.
+	 * @param pyramid The image pyramid which KLT is tracking inside of
+	 * @param detector Feature detector.   If null then no feature detector will be available and spawn won't work.
+	 * @param gradient Computes gradient image pyramid.
+	 * @param derivType Type of image the gradient is
+	 */
+	public PointTrackerKltPyramidBatch(PyramidKltBatchTracker<I, D> tracker,
+									   PyramidDiscrete<I> pyramid,
+									   GeneralFeatureDetector<I, D> detector,
+									   ImageGradient<I, D> gradient,
+									   Class<D> derivType ) {
+		if( tracker.getNumLayers() != pyramid.getNumLayers() )
+			throw new IllegalArgumentException("Number of layers in tracker and pyramid do not match");
+
+		this.tracker = tracker;
+		this.gradient = gradient;
+		this.basePyramid = pyramid;
+		this.derivType = derivType;
+
+		if( detector != null) {
+			if (detector.getRequiresHessian())
+				throw new IllegalArgumentException("Hessian based feature detectors not yet supported");
+
+			this.detector = detector;
+		}
+	}
+
+	private PointTrack getUnusedTrack() {
+		if( unused.isEmpty() )
+			return new PointTrack();
+		return unused.remove(unused.size() - 1);
+	}
+
+	/**
+	 * Creates a new feature track at the specified location. Must only be called after
+	 * {@link #process(ImageGray)} has been called.  It can fail if there
+	 * is insufficient texture
+	 *
+	 * @param x x-coordinate
+	 * @param y y-coordinate
+	 * @return the new track if successful or null if no new track could be created
+	 */
+	public PointTrack addTrack( double x , double y ) {
+		if( !input.isInBounds((int)x,(int)y))
+			return null;
+
+		PointTrack p = getUnusedTrack();
+		int index = tracker.addFeature((float)x,(float)y,p);
+		tracker.setDescription(index,index+1);
+
+		p.set(x,y);
+
+		if( checkValidSpawn(p) ) {
+			return p;
+		}
+
+		tracker.remove(index);
+		unused.add(p);
+		return null;
+	}
+
+	@Override
+	public void spawnTracks() {
+		spawned.clear();
+
+		// used to convert it from the scale of the bottom layer into the original image
+		float scaleBottom = (float) basePyramid.getScale(0);
+
+		// exclude active tracks
+		excludeList.reset();
+		for (int i = 0; i < tracker.size(); i++) {
+			excludeList.add((int) (tracker.getX(i) / scaleBottom), (int) (tracker.getY(i) / scaleBottom));
+		}
+
+		// find new tracks, but no more than the max
+		detector.setExcludeMaximum(excludeList);
+		detector.process(basePyramid.getLayer(0), derivX[0], derivY[0], null, null, null);
+
+		// extract the features
+		QueueCorner found = detector.getMaximums();
+
+		int first = tracker.size();
+		for (int i = 0; i < found.size(); i++) {
+			Point2D_I16 pt = found.get(i);
+			tracker.addFeature(pt.x * scaleBottom, pt.y * scaleBottom, getUnusedTrack());
+		}
+
+		// set up the descriptions of all the new features at once
+		tracker.setDescription(first,tracker.size());
+
+		for (int i = first; i < tracker.size(); ) {
+			// set up point description
+			PointTrack p = tracker.getCookie(i);
+			p.set(tracker.getX(i),tracker.getY(i));
+
+			if( checkValidSpawn(p) ) {
+				p.featureId = totalFeatures++;
+				spawned.add(p);
+				i++;
+			} else {
+				tracker.remove(i);
+				unused.add(p);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if a new track can be spawned here.  Intended to be overloaded
+	 */
+	protected boolean checkValidSpawn( PointTrack p ) {
+		return true;
+	}
+
+	@Override
+	public void dropAllTracks() {
+		for (int i = 0; i < tracker.size(); i++) {
+			unused.add(tracker.getCookie(i));
+		}
+		tracker.reset();
+		dropped.clear();
+	}
+
+	@Override
+	public void process(I image) {
+		this.input = image;
+
+		spawned.clear();
+		dropped.clear();
+
+		// update image pyramids
+		basePyramid.process(image);
+		declareOutput();
+		PyramidOps.gradient(basePyramid, gradient, derivX,derivY);
+
+		// track features and update their descriptions
+		tracker.setImage(basePyramid,derivX,derivY);
+		tracker.trackAndDescribe(image.width,image.height);
+
+		// drop and recycle tracks with a fault
+		int before = dropped.size();
+		tracker.removeFaults(dropped);
+		for (int i = before; i < dropped.size(); i++) {
+			unused.add(dropped.get(i));
+		}
+
+		for (int i = 0; i < tracker.size(); i++) {
+			PointTrack p = tracker.getCookie(i);
+			p.set(tracker.getX(i),tracker.getY(i));
+		}
+	}
+
+	protected void declareOutput() {
+		if( derivX == null ) {
+			// declare storage for image derivative since the image size is now known
+			derivX = PyramidOps.declareOutput(basePyramid, derivType);
+			derivY = PyramidOps.declareOutput(basePyramid,derivType);
+		}
+		else if( derivX[0].width != basePyramid.getLayer(0).width ||
+				derivX[0].height != basePyramid.getLayer(0).height )
+		{
+			PyramidOps.reshapeOutput(basePyramid,derivX);
+			PyramidOps.reshapeOutput(basePyramid,derivY);
+		}
+	}
+
+	@Override
+	public boolean dropTrack(PointTrack track) {
+		for (int i = 0; i < tracker.size(); i++) {
+			if( tracker.getCookie(i) == track ) {
+				// only recycle the track if it is active.  This avoids the problem of adding the
+				// same track multiple times
+				tracker.remove(i);
+				unused.add(track);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public List<PointTrack> getActiveTracks( List<PointTrack> list ) {
+		if( list == null )
+			list = new ArrayList<>();
+
+		for (int i = 0; i < tracker.size(); i++) {
+			list.add(tracker.getCookie(i));
+		}
+
+		return list;
+	}
+
+	/**
+	 * KLT does not have inactive tracks since all tracks are dropped if a problem occurs.
+	 */
+	@Override
+	public List<PointTrack> getInactiveTracks(List<PointTrack> list) {
+		if( list == null )
+			list = new ArrayList<>();
+
+		return list;
+	}
+
+	@Override
+	public List<PointTrack> getDroppedTracks( List<PointTrack> list ) {
+		if( list == null )
+			list = new ArrayList<>();
+
+		list.addAll(dropped);
+
+		return list;
+	}
+
+	@Override
+	public List<PointTrack> getNewTracks( List<PointTrack> list ) {
+		if( list == null )
+			list = new ArrayList<>();
+
+		list.addAll(spawned);
+
+		return list;
+	}
+
+	@Override
+	public List<PointTrack> getAllTracks( List<PointTrack> list ) {
+		return getActiveTracks(list);
+	}
+
+	@Override
+	public void reset() {
+		dropAllTracks();
+		totalFeatures = 0;
+	}
+}
@@ -75,4 +75,24 @@ public class LensDistortionOps {
 
 		return distort;
 	}
+
+	/**
+	 * Creates a compact lookup table for converting images from one camera model into another camera model using
+	 * fixed point bilinear interpolation. Since the table only depends on the camera models it can be computed
+	 * once, saved, and loaded at startup. Pixels which map outside the original image are marked as outside.
+	 *
+	 * @see DistortImageOps#remap
+	 *
+	 * @param type How it should modify the image model to ensure visibility of pixels.
+	 * @param original The original camera model. Specifies the shape of the source image.
+	 * @param desired The desired camera model. Specifies the shape of the destination image.
+	 * @param modified (Optional) The desired camera model after being rescaled.  Can be null.
+	 * @return Lookup table from the modified camera model to the original one.
+	 */
+	public static <O extends CameraPinhole, D extends CameraPinhole>
+	FixedPointRemapTable changeCameraModelTable(AdjustmentType type, O original, D desired, D modified) {
+		Point2Transform2_F32 undistToDist = LensDistortionOps_F32.transformChangeModel(type, original, desired, true, modified);
+
+		return new FixedPointRemapTable(desired.width,desired.height,original.width,original.height,undistToDist);
+	}
 }
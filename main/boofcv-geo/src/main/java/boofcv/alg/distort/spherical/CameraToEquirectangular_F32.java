@@ -91,6 +91,8 @@ public class CameraToEquirectangular_F32
 
 	@Override
 	public CameraToEquirectangular_F32 copy() {
-		throw new RuntimeException("Implement");
+		CameraToEquirectangular_F32 ret = new CameraToEquirectangular_F32();
+		copyInto(ret);
+		return ret;
 	}
 }
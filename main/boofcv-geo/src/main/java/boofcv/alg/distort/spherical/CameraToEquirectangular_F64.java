@@ -91,6 +91,8 @@ public class CameraToEquirectangular_F64
 
 	@Override
 	public CameraToEquirectangular_F64 copy() {
-		throw new RuntimeException("Implement");
+		CameraToEquirectangular_F64 ret = new CameraToEquirectangular_F64();
+		copyInto(ret);
+		return ret;
 	}
 }
@@ -63,6 +63,8 @@ public class CylinderToEquirectangular_F64 extends EquirectangularDistortBase_F6
 
 	@Override
 	public CylinderToEquirectangular_F64 copy() {
-		throw new RuntimeException("Implement");
+		CylinderToEquirectangular_F64 ret = new CylinderToEquirectangular_F64();
+		copyInto(ret);
+		return ret;
 	}
 }
@@ -49,6 +49,8 @@ public abstract class EquirectangularDistortBase_F64 implements PixelTransform<P
 
 	// storage for precomputed pointing vectors for each pixel in pinhole camera
 	Point3D_F64[] vectors = new Point3D_F64[0];
+	// true if the vectors are shared with a copy and can't be modified
+	boolean sharedVectors = false;
 
 	/**
 	 * Specify the shame of the equirectangular image
@@ -87,6 +89,11 @@ public abstract class EquirectangularDistortBase_F64 implements PixelTransform<P
 	protected void declareVectors( int width , int height ) {
 		this.outWidth = width;
 
+		if( sharedVectors ) {
+			vectors = new Point3D_F64[0];
+			sharedVectors = false;
+		}
+
 		if( vectors.length < width*height ) {
 			Point3D_F64[] tmp = new Point3D_F64[width*height];
 
@@ -98,6 +105,21 @@ public abstract class EquirectangularDistortBase_F64 implements PixelTransform<P
 		}
 	}
 
+	/**
+	 * Copies the configuration into the provided distortion. The precomputed pointing vectors are only read by
+	 * {@link #compute} and are shared instead of being copied. Once shared, the next call to
+	 * {@link #declareVectors} on either instance will declare a new array.
+	 *
+	 * @param dst (Output) the copy
+	 */
+	protected void copyInto( EquirectangularDistortBase_F64 dst ) {
+		dst.tools.configure(tools.getWidth(), tools.getHeight());
+		dst.outWidth = outWidth;
+		dst.R.set(R);
+		dst.vectors = vectors;
+		dst.sharedVectors = sharedVectors = true;
+	}
+
 	/**
 	 * Input is in pinhole camera pixel coordinates.  Output is in equirectangular coordinates
 	 *
@@ -47,6 +47,8 @@ public class EquirectangularRotate_F32 extends EquirectangularDistortBase_F32 {
 
 	@Override
 	public EquirectangularRotate_F32 copy() {
-		throw new RuntimeException("Implement");
+		EquirectangularRotate_F32 ret = new EquirectangularRotate_F32();
+		copyInto(ret);
+		return ret;
 	}
 }
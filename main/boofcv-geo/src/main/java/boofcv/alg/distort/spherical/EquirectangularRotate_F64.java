@@ -47,6 +47,8 @@ public class EquirectangularRotate_F64 extends EquirectangularDistortBase_F64 {
 
 	@Override
 	public EquirectangularRotate_F64 copy() {
-		throw new RuntimeException("Implement");
+		EquirectangularRotate_F64 ret = new EquirectangularRotate_F64();
+		copyInto(ret);
+		return ret;
 	}
 }
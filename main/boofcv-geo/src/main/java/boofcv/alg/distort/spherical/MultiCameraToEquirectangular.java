@@ -107,9 +107,8 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 	 */
 	public void addCamera(Se3_F32 cameraToCommon , LensDistortionWideFOV factory , int width , int height ) {
 		Point2Transform3_F32 p2s = factory.undistortPtoS_F32();
-		Point3Transform2_F32 s2p = factory.distortStoP_F32();
 
-		EquiToCamera equiToCamera = new EquiToCamera(cameraToCommon.getR(),s2p);
+		EquiToCamera equiToCamera = new EquiToCamera(cameraToCommon.getR(),factory);
 
 		GrayF32 equiMask = new GrayF32(equiWidth, equHeight);
 
@@ -158,9 +157,8 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 	public void addCamera(Se3_F32 cameraToCommon , LensDistortionWideFOV factory , GrayU8 camMask ) {
 
 		Point2Transform3_F32 p2s = factory.undistortPtoS_F32();
-		Point3Transform2_F32 s2p = factory.distortStoP_F32();
 
-		EquiToCamera equiToCamera = new EquiToCamera(cameraToCommon.getR(),s2p);
+		EquiToCamera equiToCamera = new EquiToCamera(cameraToCommon.getR(),factory);
 
 		GrayF32 equiMask = new GrayF32(equiWidth, equHeight);
 
@@ -287,14 +285,20 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 	private class EquiToCamera implements Point2Transform2_F32 {
 
 		FMatrixRMaj cameraToCommon;
+		LensDistortionWideFOV factory;
 		Point3Transform2_F32 s2p;
 
+		// each instance has its own since the tools have internal storage
+		EquirectangularTools_F32 tools = new EquirectangularTools_F32();
+
 		Point3D_F32 unitCam = new Point3D_F32();
 		Point3D_F32 unitCommon = new Point3D_F32();
 
-		EquiToCamera(FMatrixRMaj cameraToCommon, Point3Transform2_F32 s2p) {
+		EquiToCamera(FMatrixRMaj cameraToCommon, LensDistortionWideFOV factory ) {
 			this.cameraToCommon = cameraToCommon;
-			this.s2p = s2p;
+			this.factory = factory;
+			this.s2p = factory.distortStoP_F32();
+			this.tools.configure(equiWidth, equHeight);
 		}
 
 		@Override
@@ -311,7 +315,7 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 
 		@Override
 		public EquiToCamera copy() {
-			throw new RuntimeException("Implement");
+			return new EquiToCamera(cameraToCommon,factory);
 		}
 	}
 }
@@ -48,8 +48,9 @@ import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
 import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.combined.CombinedTrackerScalePoint;
-import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.alg.tracker.klt.*;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
@@ -71,6 +72,7 @@ import boofcv.struct.pyramid.PyramidDiscrete;
 
 import javax.annotation.Nullable;
 import java.util.Random;
+import java.util.function.Supplier;
 
 
 /**
@@ -144,6 +146,55 @@ public class FactoryPointTracker {
 				gradient, interpInput, interpDeriv, derivType);
 	}
 
+	/**
+	 * Pyramid KLT feature tracker which processes all the tracks as a single batch. Feature templates are stored
+	 * in a structure-of-arrays layout and, if concurrency is enabled, tracks are processed in parallel. Produces
+	 * the same results as {@link #klt(PkltConfig, ConfigGeneralDetector, Class, Class)} and is intended for
+	 * when a large number of points are being tracked.
+	 *
+	 * @see boofcv.alg.tracker.klt.PyramidKltBatchTracker
+	 *
+	 * @param config Config for the tracker. Try PkltConfig.createDefault().
+	 * @param configExtract Configuration for extracting features
+	 * @return KLT based tracker.
+	 */
+	public static <I extends ImageGray<I>, D extends ImageGray<D>>
+	PointTracker<I> kltBatch(@Nullable PkltConfig config, @Nullable ConfigGeneralDetector configExtract,
+							 Class<I> imageType, @Nullable Class<D> derivType ) {
+
+		if( derivType == null )
+			derivType = GImageDerivativeOps.getDerivativeType(imageType);
+
+		if( config == null ) {
+			config = new PkltConfig();
+		}
+
+		if( configExtract == null ) {
+			configExtract = new ConfigGeneralDetector();
+		}
+
+		GeneralFeatureDetector<I, D> detector = createShiTomasi(configExtract, derivType);
+
+		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType, derivType);
+
+		PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(config.pyramidScaling,-1,2,true, ImageType.single(imageType));
+
+		final KltConfig configKlt = config.config;
+		final Class<D> _derivType = derivType;
+		Supplier<KltTracker<I,D>> factoryKlt = ()->new KltTracker<>(
+				FactoryInterpolation.bilinearRectangle(imageType),
+				FactoryInterpolation.bilinearRectangle(_derivType), configKlt);
+
+		PyramidKltBatchTracker<I,D> tracker;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			tracker = new PyramidKltBatchTracker_MT<>(factoryKlt, pyramid.getNumLayers(), config.templateRadius);
+		} else {
+			tracker = new PyramidKltBatchTracker<>(factoryKlt, pyramid.getNumLayers(), config.templateRadius);
+		}
+
+		return new PointTrackerKltPyramidBatch<>(tracker, pyramid, detector, gradient, derivType);
+	}
+
 	/**
 	 * Creates a tracker which detects Fast-Hessian features and describes them with SURF using the faster variant
 	 * of SURF.
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPointTrackerKltPyramidBatch extends StandardPointTracker<GrayF32> {
+
+	ConfigGeneralDetector configDetector = new ConfigGeneralDetector(200, 3, 1000, 0, true);
+
+	TestPointTrackerKltPyramidBatch() {
+		super(false, true);
+	}
+
+	@Override
+	public PointTracker<GrayF32> createTracker() {
+		return FactoryPointTracker.kltBatch(new PkltConfig(), configDetector, GrayF32.class, GrayF32.class);
+	}
+
+	/**
+	 * Tracks should be identical to the tracker which processes one track at a time
+	 */
+	@Test
+	void compareToPointTrackerKltPyramid() {
+		PointTracker<GrayF32> expected = FactoryPointTracker.klt(new PkltConfig(), configDetector,
+				GrayF32.class, GrayF32.class);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			PointTracker<GrayF32> found = createTracker();
+
+			GrayF32 moved = image.createSameShape();
+			for (int frame = 0; frame < 6; frame++) {
+				// shift the image and add a bit of noise so that some tracks are dropped
+				ImageMiscOps.fillUniform(moved, rand, 0, 100);
+				moved.subimage(frame, frame / 2, width, height).setTo(image.subimage(0, 0, width - frame, height - frame / 2));
+
+				expected.process(moved);
+				found.process(moved);
+
+				compare(expected.getActiveTracks(null), found.getActiveTracks(null));
+				compare(expected.getDroppedTracks(null), found.getDroppedTracks(null));
+
+				if (frame % 2 == 0) {
+					expected.spawnTracks();
+					found.spawnTracks();
+					compare(expected.getNewTracks(null), found.getNewTracks(null));
+				}
+			}
+			assertTrue(found.getActiveTracks(null).size() > 10);
+		}
+	}
+
+	private static void compare( List<PointTrack> expected , List<PointTrack> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			PointTrack a = expected.get(i);
+			PointTrack b = found.get(i);
+			assertEquals(a.featureId, b.featureId);
+			assertEquals(a.x, b.x);
+			assertEquals(a.y, b.y);
+		}
+	}
+}
@@ -18,8 +18,8 @@
 
 package boofcv.alg.distort;
 
-import boofcv.alg.distort.impl.ImplImageDistortCache_I8;
 import boofcv.alg.interpolate.impl.ImplBilinearPixel_U8;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.calib.CameraPinhole;
 import boofcv.struct.calib.CameraPinholeBrown;
@@ -27,6 +27,9 @@ import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -53,10 +56,43 @@ public class TestLensDistortionOps {
 
 				// do a few more tests to see of dubious value. if the underlying implementation changes
 				// this test will need to be updated
-				assertTrue(alg instanceof ImplImageDistortCache_I8);
-				ImplImageDistortCache_I8 _alg = (ImplImageDistortCache_I8)alg;
+				assertTrue(alg instanceof ImageDistortCache_SB);
+				ImageDistortCache_SB _alg = (ImageDistortCache_SB)alg;
 				assertTrue(_alg.getInterp() instanceof ImplBilinearPixel_U8);
 			}
 		}
 	}
+
+	/**
+	 * Compare the fixed point table against the floating point distortion. Only small differences are expected.
+	 */
+	@Test
+	public void changeCameraModelTable() {
+		CameraPinholeBrown original = new CameraPinholeBrown(200,200,0,200,200,400,400).fsetRadial(0.05,-0.01);
+		CameraPinhole desired = new CameraPinholeBrown(300,300,0,200,200,400,400);
+		GrayU8 input = new GrayU8(original.width,original.height);
+		ImageMiscOps.fillUniform(input,new Random(234),0,255);
+
+		for( AdjustmentType adj : AdjustmentType.values() ) {
+			ImageDistort<GrayU8, GrayU8> distort = LensDistortionOps.changeCameraModel(
+					adj, BorderType.SKIP,original,desired,new CameraPinhole(), ImageType.single(GrayU8.class));
+			FixedPointRemapTable table = LensDistortionOps.changeCameraModelTable(
+					adj,original,desired,new CameraPinhole());
+
+			assertEquals(desired.width,table.width);
+			assertEquals(desired.height,table.height);
+
+			GrayU8 expected = new GrayU8(desired.width,desired.height);
+			GrayU8 found = new GrayU8(desired.width,desired.height);
+			distort.apply(input,expected);
+			DistortImageOps.remap(table,input,found,0);
+
+			for (int y = 0; y < found.height; y++) {
+				for (int x = 0; x < found.width; x++) {
+					if( table.isInside(x,y) )
+						assertEquals(expected.get(x,y),found.get(x,y),9);
+				}
+			}
+		}
+	}
 }
@@ -18,14 +18,51 @@
 
 package boofcv.alg.distort.spherical;
 
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
 /**
  * @author Peter Abeles
  */
 public class TestEquirectangularDistortBase_F32 {
+	/**
+	 * The copy should produce identical results and be independent of the original
+	 */
 	@Test
-	public void blank() {
-//		fail("intentionally empty since this is indirectly unit tested elsewhere");
+	public void copy() {
+		EquirectangularRotate_F32 alg = new EquirectangularRotate_F32();
+		alg.setEquirectangularShape(300,251);
+		alg.setDirection(0.2f,-0.3f,0.1f);
+
+		EquirectangularRotate_F32 found = alg.copy();
+		assertNotSame(alg.tools,found.tools);
+		assertNotSame(alg.R,found.R);
+		// read only so it's shared
+		assertSame(alg.vectors,found.vectors);
+
+		Point2D_F32 expected = new Point2D_F32();
+		Point2D_F32 p = new Point2D_F32();
+		for (int y = 0; y < 251; y += 25) {
+			for (int x = 0; x < 300; x += 25) {
+				alg.compute(x,y,expected);
+				found.compute(x,y,p);
+				assertEquals(expected.x, p.x, GrlConstants.TEST_F32);
+				assertEquals(expected.y, p.y, GrlConstants.TEST_F32);
+			}
+		}
+
+		// changing the copy should not modify the original
+		alg.compute(100,50,expected);
+		found.setDirection(0,0,0);
+		found.setEquirectangularShape(200,151);
+		assertNotSame(alg.vectors,found.vectors);
+		alg.compute(100,50,p);
+		assertEquals(expected.x, p.x, GrlConstants.TEST_F32);
+		assertEquals(expected.y, p.y, GrlConstants.TEST_F32);
 	}
 }
@@ -141,6 +141,11 @@ public class GenerateConvolveImageNoBorder extends CodeGeneratorBase {
 				"\t\t\t\t\t\t\t\t  "+inputName+" input, "+outputName+" output"+divideArg+") {\n" +
 				"\t\tInputSanityCheck.checkSameShape(input, output);\n" +
 				"\n");
+		if( singleBand && !name.equals("convolve") ) {
+			String hook = name.equals("horizontal") ? "Horizontal" : "Vertical";
+			out.print("\t\tif( BOverrideConvolveImageNoBorder.invokeNative"+hook+"(kernel, input, output"+divideInput+") )\n" +
+					"\t\t\treturn;\n\n");
+		}
 		out.print("\t\tif(BoofConcurrency.USE_CONCURRENT) {\n");
 		if( singleBand ) {
 			out.print("\t\t\tif (!ConvolveImageUnrolled_SB_MT_"+typeIn+"_"+typeOut+divideSuf+"."+name+"(kernel, input, output"+divideInput+"))\n" +
@@ -130,6 +130,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 						"\n" +
 						"\t\toutput.reshape(input.width,input.height);\n" +
 						"\n" +
+						overrideHook(funcName,family,"input,output") +
 						"\t\tint columns = " + columns + ";\n" +
 						"\t\tif(BoofConcurrency.USE_CONCURRENT ) {\n" +
 						"\t\t\tImplPixelMath_MT."+funcName+"(input.data, input.startIndex, input.stride,\n" +
@@ -145,6 +146,28 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 		}
 	}
 
+	/**
+	 * Functions which can be overridden by {@link BOverridePixelMath}. Only single band F32 images are supported.
+	 */
+	private String overrideHook( String funcName , ImageType.Family family , String arguments ) {
+		return overrideHook(funcName,input,family,arguments);
+	}
+
+	private String overrideHook( String funcName , AutoTypeImage type, ImageType.Family family , String arguments ) {
+		if( type != F32 || family != ImageType.Family.GRAY )
+			return "";
+		switch( funcName ) {
+			case "abs": case "plus": case "multiply": case "divide": case "add": case "subtract":
+				break;
+			default:
+				return "";
+		}
+		String name = Character.toUpperCase(funcName.charAt(0))+funcName.substring(1);
+		return "\t\tif( BOverridePixelMath.invokeNative"+name+"("+arguments+") )\n" +
+				"\t\t\treturn;\n" +
+				"\n";
+	}
+
 	public void printAbs()
 	{
 		String javaDoc = "\t/**\n" +
@@ -234,11 +257,13 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 						prototype = "( " + variableType + " " + varName + " , " + inputName + " input , " + inputName + " output )";
 					}
 
+					String hook = template.isImageFirst() ? overrideHook(funcName,family,"input,"+varName+",output") : "";
 					out.println(template.getJavaDoc());
 					out.println("\tpublic static void " + funcName + prototype + " {\n" +
 							"\n" +
 							"\t\t" + reshape+ "\n" +
 							"\n" +
+							hook +
 							"\t\tint columns = " + columns + ";\n" +
 							"\t\tif(BoofConcurrency.USE_CONCURRENT ) {\n" +
 							"\t\t\tImplPixelMath_MT." + funcArrayName + "(input.data,input.startIndex,input.stride," + varName + " , \n" +
@@ -307,6 +332,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\tInputSanityCheck.checkSameShape(imgA,imgB);\n" +
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
+				overrideHook("add",typeIn,ImageType.Family.GRAY,"imgA,imgB,output") +
 				"\t\tif( BoofConcurrency.USE_CONCURRENT ) {\n" +
 				"\t\t\tImplPixelMath_MT.add(imgA, imgB, output);\n" +
 				"\t\t} else {\n" +
@@ -330,6 +356,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\tInputSanityCheck.checkSameShape(imgA,imgB);\n" +
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
+				overrideHook("subtract",typeIn,ImageType.Family.GRAY,"imgA,imgB,output") +
 				"\t\tif( BoofConcurrency.USE_CONCURRENT ) {\n" +
 				"\t\t\tImplPixelMath_MT.subtract(imgA, imgB, output);\n" +
 				"\t\t} else {\n" +
@@ -101,7 +101,8 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 				"\t\t}\n" +
 				"\n" +
 				"\t\t// threaded code is not significantly faster here\n" +
-				"\t\tImplConvertImage.convert(input, output);\n" +
+				"\t\tif( !BOverrideConvertImage.invokeNativeConvert(input, output) )\n" +
+				"\t\t\tImplConvertImage.convert(input, output);\n" +
 				"\n" +
 				"\t\treturn output;\n" +
 				"\t}\n\n");
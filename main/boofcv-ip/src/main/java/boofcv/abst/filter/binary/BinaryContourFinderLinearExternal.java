@@ -45,8 +45,12 @@ public class BinaryContourFinderLinearExternal implements BinaryContourFinder, B
 
 	FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked.class,true);
 
+	public BinaryContourFinderLinearExternal( LinearExternalContours alg ) {
+		this.alg = alg;
+	}
+
 	public BinaryContourFinderLinearExternal() {
-		this.alg = new LinearExternalContours(ConnectRule.FOUR);
+		this(new LinearExternalContours(ConnectRule.FOUR));
 	}
 
 	@Override
@@ -93,10 +93,17 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 		if( prevWidth != image.width || prevHeight != image.height ) {
 			prevWidth = image.width;
 			prevHeight = image.height;
-			alg = new GeneralPurposeFFT_F32_2D(image.height,image.width);
+			alg = createAlgorithm(image.height,image.width);
 		}
 	}
 
+	/**
+	 * Creates the FFT algorithm for an image with the specified shape
+	 */
+	protected GeneralPurposeFFT_F32_2D createAlgorithm( int rows , int columns ) {
+		return new GeneralPurposeFFT_F32_2D(rows,columns);
+	}
+
 	@Override
 	public void setModifyInputs(boolean modify) {
 		this.modifyInputs = modify;
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.transform.fft;
+
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F64_2D;
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F64_2D_MT;
+
+/**
+ * Concurrent version of {@link GeneralFft_to_DiscreteFourierTransform_F64} which uses {@link GeneralPurposeFFT_F64_2D_MT}
+ *
+ * @author Peter Abeles
+ */
+public class GeneralFft_to_DiscreteFourierTransform_F64_MT extends GeneralFft_to_DiscreteFourierTransform_F64 {
+	@Override
+	protected GeneralPurposeFFT_F64_2D createAlgorithm( int rows , int columns ) {
+		return new GeneralPurposeFFT_F64_2D_MT(rows,columns);
+	}
+}
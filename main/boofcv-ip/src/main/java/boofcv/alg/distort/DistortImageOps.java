@@ -20,8 +20,11 @@ package boofcv.alg.distort;
 
 import boofcv.abst.distort.FDistort;
 import boofcv.alg.distort.impl.DistortSupport;
+import boofcv.alg.distort.impl.ImplFixedPointRemap;
+import boofcv.alg.distort.impl.ImplFixedPointRemap_MT;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.InterpolationType;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.ImageRectangle_F32;
@@ -29,8 +32,10 @@ import boofcv.struct.ImageRectangle_F64;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.InterleavedU8;
 import boofcv.struct.image.Planar;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.point.Point2D_F32;
@@ -274,6 +279,63 @@ public class DistortImageOps {
 			distortion.apply(input.getBand(band),output.getBand(band));
 	}
 
+	/**
+	 * Applies a precomputed {@link FixedPointRemapTable} to the input image using bilinear interpolation.
+	 * The output image is reshaped to match the table.
+	 *
+	 * @param table Lookup table from destination to source pixels
+	 * @param input Source image. Must have the same shape as the table's source. Not modified.
+	 * @param output Output image. Modified.
+	 * @param outsideValue Value assigned to pixels outside the source image. If negative they are not modified.
+	 */
+	public static void remap( FixedPointRemapTable table , GrayU8 input , GrayU8 output , int outsideValue ) {
+		checkRemapInput(table,input);
+		output.reshape(table.width,table.height);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplFixedPointRemap_MT.remap(table, input, output, outsideValue);
+		} else {
+			ImplFixedPointRemap.remap(table, input, output, outsideValue);
+		}
+	}
+
+	/**
+	 * Applies a precomputed {@link FixedPointRemapTable} to each band in the input image.
+	 *
+	 * @see #remap(FixedPointRemapTable, GrayU8, GrayU8, int)
+	 */
+	public static void remap( FixedPointRemapTable table , Planar<GrayU8> input , Planar<GrayU8> output ,
+							  int outsideValue ) {
+		checkRemapInput(table,input);
+		output.reshape(table.width,table.height,input.getNumBands());
+
+		for( int band = 0; band < input.getNumBands(); band++ )
+			remap(table,input.getBand(band),output.getBand(band),outsideValue);
+	}
+
+	/**
+	 * Applies a precomputed {@link FixedPointRemapTable} to an interleaved image.
+	 *
+	 * @see #remap(FixedPointRemapTable, GrayU8, GrayU8, int)
+	 */
+	public static void remap( FixedPointRemapTable table , InterleavedU8 input , InterleavedU8 output ,
+							  int outsideValue ) {
+		checkRemapInput(table,input);
+		output.reshape(table.width,table.height,input.getNumBands());
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplFixedPointRemap_MT.remap(table, input, output, outsideValue);
+		} else {
+			ImplFixedPointRemap.remap(table, input, output, outsideValue);
+		}
+	}
+
+	private static void checkRemapInput( FixedPointRemapTable table , ImageBase input ) {
+		if( input.width != table.srcWidth || input.height != table.srcHeight )
+			throw new IllegalArgumentException("Input image shape doesn't match the table. "+
+					input.width+"x"+input.height+" vs "+table.srcWidth+"x"+table.srcHeight);
+	}
+
 	/**
 	 * Finds an axis-aligned bounding box which would contain a image after it has been transformed.
 	 * A sanity check is done to made sure it is contained inside the destination image's bounds.
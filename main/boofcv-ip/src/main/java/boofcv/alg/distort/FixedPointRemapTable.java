@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.distort.Point2Transform2_F32;
+import georegression.struct.point.Point2D_F32;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * Precomputed lookup table for bilinear image remapping which uses fixed point arithmetic. Intended for static
+ * transforms, e.g. removing lens distortion or rectification, which are applied to every frame from a camera.
+ * Compared to {@link PixelTransformCached_F32} it's much more compact, 6 bytes per pixel instead of a
+ * {@link Point2D_F32} object, and the interpolation weights no longer need to be computed for each pixel.
+ * </p>
+ *
+ * <p>
+ * For each pixel in the destination image the integer coordinate of the top-left source pixel is saved as
+ * an unsigned 16-bit number. The fractional part of the coordinate is rounded to a {@link #WEIGHT_BITS} bit bilinear
+ * weight and packed along with the step to the next column and row into a single 16-bit value. Pixels which
+ * map outside of the source image are marked with {@link #OUTSIDE}. Only primitive arrays are used so the table
+ * can be saved to disk and loaded at startup instead of being recomputed from the camera model.
+ * </p>
+ *
+ * @see boofcv.alg.distort.impl.ImplFixedPointRemap
+ * @author Peter Abeles
+ */
+public class FixedPointRemapTable implements Serializable {
+	/** Number of bits used to encode the bilinear weights along each axis */
+	public static final int WEIGHT_BITS = 5;
+	/** Fixed point value which is equivalent to a weight of 1.0 */
+	public static final int WEIGHT_ONE = 1 << WEIGHT_BITS;
+	/** Mask to extract a weight */
+	public static final int WEIGHT_MASK = WEIGHT_ONE-1;
+	/** Bit which indicates that the next column is inside the source image */
+	public static final int STEP_X = 1 << (2*WEIGHT_BITS);
+	/** Bit which indicates that the next row is inside the source image */
+	public static final int STEP_Y = 1 << (2*WEIGHT_BITS+1);
+	/** Value of a packed weight for pixels which are outside the source image */
+	public static final short OUTSIDE = -1;
+
+	/** Shape of the destination image */
+	public int width,height;
+	/** Shape of the source image */
+	public int srcWidth,srcHeight;
+
+	/** Integer coordinate of the top-left source pixel. Unsigned 16-bit values. */
+	public short[] srcX = new short[0];
+	public short[] srcY = new short[0];
+	/** Packed bilinear weights and steps. Bits 0 to 4 is the x-weight, 5 to 9 the y-weight, 10 for
+	 * {@link #STEP_X}, and 11 for {@link #STEP_Y}. */
+	public short[] weights = new short[0];
+
+	/**
+	 * Creates the table by applying the transform to every pixel in the destination image
+	 *
+	 * @param width Width of the destination image
+	 * @param height Height of the destination image
+	 * @param srcWidth Width of the source image
+	 * @param srcHeight Height of the source image
+	 * @param dstToSrc Transform from destination pixels to source pixels
+	 */
+	public FixedPointRemapTable(int width, int height, int srcWidth, int srcHeight,
+								PixelTransform<Point2D_F32> dstToSrc ) {
+		compute(width,height,srcWidth,srcHeight,dstToSrc);
+	}
+
+	public FixedPointRemapTable(int width, int height, int srcWidth, int srcHeight,
+								Point2Transform2_F32 dstToSrc ) {
+		this(width,height,srcWidth,srcHeight,new PointToPixelTransform_F32(dstToSrc));
+	}
+
+	public FixedPointRemapTable() {
+	}
+
+	/**
+	 * Recomputes the table for a new transform and image shape
+	 *
+	 * @param width Width of the destination image
+	 * @param height Height of the destination image
+	 * @param srcWidth Width of the source image
+	 * @param srcHeight Height of the source image
+	 * @param dstToSrc Transform from destination pixels to source pixels
+	 */
+	public void compute( int width, int height, int srcWidth, int srcHeight,
+						 PixelTransform<Point2D_F32> dstToSrc ) {
+		if( srcWidth > 0xFFFF || srcHeight > 0xFFFF )
+			throw new IllegalArgumentException("Source image is too large for 16-bit coordinates");
+
+		this.width = width;
+		this.height = height;
+		this.srcWidth = srcWidth;
+		this.srcHeight = srcHeight;
+
+		int N = width*height;
+		if( srcX.length != N ) {
+			srcX = new short[N];
+			srcY = new short[N];
+			weights = new short[N];
+		}
+
+		float maxX = srcWidth-1;
+		float maxY = srcHeight-1;
+
+		Point2D_F32 p = new Point2D_F32();
+		int index = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++, index++) {
+				dstToSrc.compute(x,y,p);
+
+				// NaN will fail these tests too
+				if( !(p.x >= 0 && p.x <= maxX && p.y >= 0 && p.y <= maxY) ) {
+					srcX[index] = 0;
+					srcY[index] = 0;
+					weights[index] = OUTSIDE;
+					continue;
+				}
+
+				int x0 = (int)p.x;
+				int y0 = (int)p.y;
+				int wx = Math.round((p.x-x0)*WEIGHT_ONE);
+				int wy = Math.round((p.y-y0)*WEIGHT_ONE);
+				// a weight of one can't be encoded, so move to the next pixel instead
+				if( wx == WEIGHT_ONE ) { x0++; wx = 0; }
+				if( wy == WEIGHT_ONE ) { y0++; wy = 0; }
+
+				int packed = wx | (wy << WEIGHT_BITS);
+				if( x0+1 < srcWidth )
+					packed |= STEP_X;
+				if( y0+1 < srcHeight )
+					packed |= STEP_Y;
+
+				srcX[index] = (short)x0;
+				srcY[index] = (short)y0;
+				weights[index] = (short)packed;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the destination pixel maps to a pixel inside the source image
+	 */
+	public boolean isInside( int x , int y ) {
+		return weights[y*width+x] != OUTSIDE;
+	}
+
+	/**
+	 * Returns the source pixel coordinate encoded for the destination pixel. The coordinate has been rounded
+	 * to the resolution of the weights. Invalid if {@link #isInside} returns false.
+	 */
+	public void get( int x , int y , Point2D_F32 output ) {
+		int index = y*width+x;
+		int packed = weights[index];
+		output.x = (srcX[index] & 0xFFFF) + (packed & WEIGHT_MASK)/(float)WEIGHT_ONE;
+		output.y = (srcY[index] & 0xFFFF) + ((packed >> WEIGHT_BITS) & WEIGHT_MASK)/(float)WEIGHT_ONE;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getSrcWidth() {
+		return srcWidth;
+	}
+
+	public int getSrcHeight() {
+		return srcHeight;
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageInterleaved;
+import georegression.struct.point.Point2D_F32;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static boofcv.alg.distort.ImageDistortBasic_SB_MT.copyInterpolate;
+import static boofcv.alg.distort.ImageDistortBasic_SB_MT.copyTransform;
+
+/**
+ * Concurrent implementation of {@link ImageDistortBasic_IL}. Rows in the destination image are split between
+ * the threads. Each thread has its own copy of the interpolation algorithm and the transform. The transform is
+ * copied by the calling thread each time an image is rendered, before the work is split up, so changes made to it
+ * are always used. Values are written to the output image using the single threaded implementation which is
+ * passed in.
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortBasic_IL_MT<Input extends ImageInterleaved<Input>,Output extends ImageInterleaved<Output>>
+		extends ImageDistortBasic_IL<Input,Output> {
+
+	// used to assign values to the output image
+	private final ImageDistortBasic_IL<Input,Output> alg;
+
+	// storage for each thread which is recycled between calls
+	private final List<BlockData> blocks = new ArrayList<>();
+	// storage which isn't being used by a thread right now
+	private final ArrayDeque<BlockData> available = new ArrayDeque<>();
+
+	/**
+	 * @param alg Single threaded implementation. Its interpolation algorithm is used as a template.
+	 */
+	public ImageDistortBasic_IL_MT( ImageDistortBasic_IL<Input,Output> alg ) {
+		super(alg.interp);
+		this.alg = alg;
+	}
+
+	@Override
+	protected void init(Input srcImg, Output dstImg) {
+		super.init(srcImg, dstImg);
+		alg.srcImg = srcImg;
+		alg.dstImg = dstImg;
+
+		// the transform is copied here since other threads must not read it while it's being copied
+		int numThreads = BoofConcurrency.getMaxThreads();
+		while( blocks.size() < numThreads )
+			blocks.add(new BlockData());
+		while( blocks.size() > numThreads )
+			blocks.remove(blocks.size()-1);
+		for (int i = 0; i < blocks.size(); i++) {
+			BlockData data = blocks.get(i);
+			data.dstToSrc = copyTransform(dstToSrc);
+			data.interp.setImage(srcImg);
+			if( data.values.length != srcImg.getNumBands() )
+				data.values = new float[srcImg.getNumBands()];
+		}
+		available.clear();
+		available.addAll(blocks);
+	}
+
+	@Override
+	public void applyAll() {
+		BoofConcurrency.loopBlocks(y0,y1,(rowStart,rowEnd)->{
+			BlockData data = pop();
+			applyAll(rowStart,rowEnd,data.dstToSrc,data.interp,data.distorted,data.values);
+			recycle(data);
+		});
+	}
+
+	@Override
+	public void applyAll( GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(y0,y1,(rowStart,rowEnd)->{
+			BlockData data = pop();
+			applyAll(mask,rowStart,rowEnd,data.dstToSrc,data.interp,data.distorted,data.values);
+			recycle(data);
+		});
+	}
+
+	@Override
+	public void applyOnlyInside() {
+		BoofConcurrency.loopBlocks(y0,y1,(rowStart,rowEnd)->{
+			BlockData data = pop();
+			applyOnlyInside(rowStart,rowEnd,data.dstToSrc,data.interp,data.distorted,data.values);
+			recycle(data);
+		});
+	}
+
+	@Override
+	public void applyOnlyInside( GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(y0,y1,(rowStart,rowEnd)->{
+			BlockData data = pop();
+			applyOnlyInside(mask,rowStart,rowEnd,data.dstToSrc,data.interp,data.distorted,data.values);
+			recycle(data);
+		});
+	}
+
+	@Override
+	protected void assign(int indexDst, float[] value) {
+		alg.assign(indexDst,value);
+	}
+
+	private BlockData pop() {
+		synchronized (available) {
+			// there is one for each thread so it will only wait if more workers are active than the pool's parallelism
+			while( available.isEmpty() ) {
+				try {
+					available.wait();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			return available.pop();
+		}
+	}
+
+	private void recycle( BlockData data ) {
+		synchronized (available) {
+			available.push(data);
+			available.notify();
+		}
+	}
+
+	private class BlockData {
+		final InterpolatePixelMB<Input> interp = copyInterpolate(ImageDistortBasic_IL_MT.this.interp);
+		final Point2D_F32 distorted = new Point2D_F32();
+		float[] values = new float[0];
+		PixelTransform<Point2D_F32> dstToSrc;
+	}
+}
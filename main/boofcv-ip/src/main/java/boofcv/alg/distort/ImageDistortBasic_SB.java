@@ -19,6 +19,7 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_F32;
@@ -45,10 +46,20 @@ public abstract class ImageDistortBasic_SB<Input extends ImageGray<Input>,Output
 
 	@Override
 	public void applyAll() {
+		applyAll(y0,y1,dstToSrc,interp,distorted);
+	}
+
+	/**
+	 * Same as {@link #applyAll()} but only for the specified rows. The transform, interpolation and work space
+	 * are passed in so that each thread can have its own copy
+	 */
+	protected void applyAll( int rowStart , int rowEnd ,
+							 PixelTransform<Point2D_F32> dstToSrc , InterpolatePixelS<Input> interp ,
+							 Point2D_F32 distorted ) {
 
 		// todo TO make this faster first apply inside the region which can process the fast border
 		// then do the slower border thingy
-		for( int y = y0; y < y1; y++ ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			for( int x = x0; x < x1; x++ , indexDst++ ) {
 				dstToSrc.compute(x,y,distorted);
@@ -59,12 +70,22 @@ public abstract class ImageDistortBasic_SB<Input extends ImageGray<Input>,Output
 
 	@Override
 	public void applyAll( GrayU8 mask ) {
+		applyAll(mask,y0,y1,dstToSrc,interp,distorted);
+	}
+
+	/**
+	 * Same as {@link #applyAll(GrayU8)} but only for the specified rows. The transform, interpolation and work space
+	 * are passed in so that each thread can have its own copy
+	 */
+	protected void applyAll( GrayU8 mask , int rowStart , int rowEnd ,
+							 PixelTransform<Point2D_F32> dstToSrc , InterpolatePixelS<Input> interp ,
+							 Point2D_F32 distorted ) {
 		float maxWidth = srcImg.getWidth()-1;
 		float maxHeight = srcImg.getHeight()-1;
 
 		// todo TO make this faster first apply inside the region which can process the fast border
 		// then do the slower border thingy
-		for( int y = y0; y < y1; y++ ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
 
@@ -83,11 +104,21 @@ public abstract class ImageDistortBasic_SB<Input extends ImageGray<Input>,Output
 
 	@Override
 	public void applyOnlyInside() {
+		applyOnlyInside(y0,y1,dstToSrc,interp,distorted);
+	}
+
+	/**
+	 * Same as {@link #applyOnlyInside()} but only for the specified rows. The transform, interpolation and work space
+	 * are passed in so that each thread can have its own copy
+	 */
+	protected void applyOnlyInside( int rowStart , int rowEnd ,
+									PixelTransform<Point2D_F32> dstToSrc , InterpolatePixelS<Input> interp ,
+									Point2D_F32 distorted ) {
 
 		float maxWidth = srcImg.getWidth()-1;
 		float maxHeight = srcImg.getHeight()-1;
 
-		for( int y = y0; y < y1; y++ ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			for( int x = x0; x < x1; x++ , indexDst++ ) {
 				dstToSrc.compute(x,y,distorted);
@@ -102,11 +133,21 @@ public abstract class ImageDistortBasic_SB<Input extends ImageGray<Input>,Output
 
 	@Override
 	public void applyOnlyInside( GrayU8 mask ) {
+		applyOnlyInside(mask,y0,y1,dstToSrc,interp,distorted);
+	}
+
+	/**
+	 * Same as {@link #applyOnlyInside(GrayU8)} but only for the specified rows. The transform, interpolation and work space
+	 * are passed in so that each thread can have its own copy
+	 */
+	protected void applyOnlyInside( GrayU8 mask , int rowStart , int rowEnd ,
+									PixelTransform<Point2D_F32> dstToSrc , InterpolatePixelS<Input> interp ,
+									Point2D_F32 distorted ) {
 
 		float maxWidth = srcImg.getWidth()-1;
 		float maxHeight = srcImg.getHeight()-1;
 
-		for( int y = y0; y < y1; y++ ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
 
@@ -35,16 +35,16 @@ public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output
 		implements ImageDistort<Input,Output> {
 
 	// size of output image
-	private int width=-1,height=-1;
-	private Point2D_F32 map[];
+	protected int width=-1,height=-1;
+	protected Point2D_F32 map[];
 	// sub pixel interpolation
-	private InterpolatePixelS<Input> interp;
+	protected InterpolatePixelS<Input> interp;
 
 	// transform
-	private PixelTransform<Point2D_F32> dstToSrc;
+	protected PixelTransform<Point2D_F32> dstToSrc;
 
 	// crop boundary
-	private int x0,y0,x1,y1;
+	protected int x0,y0,x1,y1;
 
 	// should it render all pixels in the destination, even ones outside the input image
 	protected boolean renderAll = true;
@@ -104,7 +104,7 @@ public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output
 			applyOnlyInside();
 	}
 
-	private void init(Input srcImg, Output dstImg) {
+	protected void init(Input srcImg, Output dstImg) {
 		if( dirty || width != dstImg.width || height != dstImg.height) {
 			width = dstImg.width;
 			height = dstImg.height;
@@ -113,12 +113,7 @@ public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output
 				map[i] = new Point2D_F32();
 			}
 
-			int index = 0;
-			for( int y = 0; y < height; y++ ) {
-				for( int x = 0; x < width; x++ ) {
-					dstToSrc.compute(x,y,map[index++]);
-				}
-			}
+			computeMap();
 			dirty = false;
 		} else if( dstImg.width != width || dstImg.height != height )
 			throw new IllegalArgumentException("Unexpected dstImg dimension");
@@ -128,11 +123,38 @@ public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output
 		interp.setImage(srcImg);
 	}
 
+	/**
+	 * Computes the location of every pixel in the destination image inside the source image
+	 */
+	protected void computeMap() {
+		computeMap(0,height,dstToSrc);
+	}
+
+	/**
+	 * Computes the location of pixels in the destination image inside the source image for the specified rows
+	 */
+	protected void computeMap( int rowStart , int rowEnd , PixelTransform<Point2D_F32> dstToSrc ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
+			int index = y*width;
+			for( int x = 0; x < width; x++ ) {
+				dstToSrc.compute(x,y,map[index++]);
+			}
+		}
+	}
+
 	public void renderAll() {
+		renderAll(y0,y1,interp);
+	}
+
+	/**
+	 * Same as {@link #renderAll()} but only for the specified rows. The interpolation is passed in so that
+	 * each thread can have its own copy
+	 */
+	protected void renderAll( int rowStart , int rowEnd , InterpolatePixelS<Input> interp ) {
 
 		// todo TO make this faster first apply inside the region which can process the fast border
 		// then do the slower border thingy
-		for( int y = y0; y < y1; y++ ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			for( int x = x0; x < x1; x++ , indexDst++ ) {
 				Point2D_F32 s = map[indexDst];
@@ -143,10 +165,18 @@ public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output
 	}
 
 	public void renderAll( GrayU8 mask ) {
+		renderAll(mask,y0,y1,interp);
+	}
+
+	/**
+	 * Same as {@link #renderAll(GrayU8)} but only for the specified rows. The interpolation is passed in so that
+	 * each thread can have its own copy
+	 */
+	protected void renderAll( GrayU8 mask , int rowStart , int rowEnd , InterpolatePixelS<Input> interp ) {
 		float maxWidth = srcImg.getWidth()-1;
 		float maxHeight = srcImg.getHeight()-1;
 
-		for( int y = y0; y < y1; y++ ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
 
@@ -164,10 +194,18 @@ public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output
 	}
 
 	public void applyOnlyInside() {
+		applyOnlyInside(y0,y1,interp);
+	}
+
+	/**
+	 * Same as {@link #applyOnlyInside()} but only for the specified rows. The interpolation is passed in so that
+	 * each thread can have its own copy
+	 */
+	protected void applyOnlyInside( int rowStart , int rowEnd , InterpolatePixelS<Input> interp ) {
 		float maxWidth = srcImg.getWidth()-1;
 		float maxHeight = srcImg.getHeight()-1;
 
-		for( int y = y0; y < y1; y++ ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			for( int x = x0; x < x1; x++ , indexDst++ ) {
 				Point2D_F32 s = map[indexDst];
@@ -180,10 +218,18 @@ public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output
 	}
 
 	public void applyOnlyInside( GrayU8 mask ) {
+		applyOnlyInside(mask,y0,y1,interp);
+	}
+
+	/**
+	 * Same as {@link #applyOnlyInside(GrayU8)} but only for the specified rows. The interpolation is passed in so that
+	 * each thread can have its own copy
+	 */
+	protected void applyOnlyInside( GrayU8 mask , int rowStart , int rowEnd , InterpolatePixelS<Input> interp ) {
 		float maxWidth = srcImg.getWidth()-1;
 		float maxHeight = srcImg.getHeight()-1;
 
-		for( int y = y0; y < y1; y++ ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
 
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F32;
+
+import java.util.ArrayDeque;
+
+import static boofcv.alg.distort.ImageDistortBasic_SB_MT.copyInterpolate;
+import static boofcv.alg.distort.ImageDistortBasic_SB_MT.copyTransform;
+
+/**
+ * Concurrent implementation of {@link ImageDistortCache_SB}. The cached map is computed and the image rendered
+ * by splitting the destination rows between the threads. The cached map is only read when rendering and is
+ * shared. Each thread has its own copy of the interpolation algorithm and of the transform while computing the
+ * map. The transform is copied by the calling thread before the work is split up. Values are written to the output image using the single threaded implementation which is passed in.
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output extends ImageGray<Output>>
+		extends ImageDistortCache_SB<Input,Output> {
+
+	// used to assign values to the output image
+	private final ImageDistortCache_SB<Input,Output> alg;
+
+	// interpolation for each thread which is recycled between calls
+	private final ArrayDeque<InterpolatePixelS<Input>> available = new ArrayDeque<>();
+
+	// copies of the model for each thread while the map is being computed
+	private final ArrayDeque<PixelTransform<Point2D_F32>> transforms = new ArrayDeque<>();
+
+	/**
+	 * @param alg Single threaded implementation. Its interpolation algorithm is used as a template.
+	 */
+	public ImageDistortCache_SB_MT( ImageDistortCache_SB<Input,Output> alg ) {
+		super(alg.interp);
+		this.alg = alg;
+	}
+
+	@Override
+	protected void init(Input srcImg, Output dstImg) {
+		super.init(srcImg, dstImg);
+		alg.srcImg = srcImg;
+		alg.dstImg = dstImg;
+	}
+
+	@Override
+	protected void computeMap() {
+		// the transform is copied here since other threads must not read it while it's being copied
+		int numThreads = BoofConcurrency.getMaxThreads();
+		transforms.clear();
+		for (int i = 0; i < numThreads; i++) {
+			transforms.push(copyTransform(dstToSrc));
+		}
+		BoofConcurrency.loopBlocks(0,height,(rowStart,rowEnd)->{
+			PixelTransform<Point2D_F32> dstToSrc = popTransform();
+			computeMap(rowStart,rowEnd,dstToSrc);
+			recycleTransform(dstToSrc);
+		});
+		// release the copies since they aren't needed until the map is computed again
+		transforms.clear();
+	}
+
+	@Override
+	public void renderAll() {
+		BoofConcurrency.loopBlocks(y0,y1,(rowStart,rowEnd)->{
+			InterpolatePixelS<Input> interp = pop();
+			renderAll(rowStart,rowEnd,interp);
+			recycle(interp);
+		});
+	}
+
+	@Override
+	public void renderAll( GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(y0,y1,(rowStart,rowEnd)->{
+			InterpolatePixelS<Input> interp = pop();
+			renderAll(mask,rowStart,rowEnd,interp);
+			recycle(interp);
+		});
+	}
+
+	@Override
+	public void applyOnlyInside() {
+		BoofConcurrency.loopBlocks(y0,y1,(rowStart,rowEnd)->{
+			InterpolatePixelS<Input> interp = pop();
+			applyOnlyInside(rowStart,rowEnd,interp);
+			recycle(interp);
+		});
+	}
+
+	@Override
+	public void applyOnlyInside( GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(y0,y1,(rowStart,rowEnd)->{
+			InterpolatePixelS<Input> interp = pop();
+			applyOnlyInside(mask,rowStart,rowEnd,interp);
+			recycle(interp);
+		});
+	}
+
+	@Override
+	protected void assign(int indexDst, float value) {
+		alg.assign(indexDst,value);
+	}
+
+	private InterpolatePixelS<Input> pop() {
+		InterpolatePixelS<Input> interp;
+		synchronized (available) {
+			interp = available.isEmpty() ? copyInterpolate(this.interp) : available.pop();
+		}
+		interp.setImage(srcImg);
+		return interp;
+	}
+
+	private void recycle( InterpolatePixelS<Input> interp ) {
+		synchronized (available) {
+			available.push(interp);
+		}
+	}
+
+	private PixelTransform<Point2D_F32> popTransform() {
+		synchronized (transforms) {
+			// there is one for each thread so it will only wait if more workers are active than the pool's parallelism
+			while( transforms.isEmpty() ) {
+				try {
+					transforms.wait();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			return transforms.pop();
+		}
+	}
+
+	private void recycleTransform( PixelTransform<Point2D_F32> dstToSrc ) {
+		synchronized (transforms) {
+			transforms.push(dstToSrc);
+			transforms.notify();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort.impl;
+
+import boofcv.alg.distort.FixedPointRemapTable;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.InterleavedU8;
+
+import static boofcv.alg.distort.FixedPointRemapTable.*;
+
+/**
+ * Implementation of bilinear remapping using a {@link FixedPointRemapTable}. All computations are done
+ * with integer arithmetic. Functions process a range of rows in the destination image so that they can be
+ * used by the concurrent implementation too.
+ *
+ * @see ImplFixedPointRemap_MT
+ * @author Peter Abeles
+ */
+public class ImplFixedPointRemap {
+	// shift and rounding offset to convert from fixed point back to a pixel value
+	static final int SHIFT = 2*WEIGHT_BITS;
+	static final int ROUND = 1 << (SHIFT-1);
+
+	public static void remap( FixedPointRemapTable table , GrayU8 input , GrayU8 output , int outsideValue ) {
+		remap(table,input,output,outsideValue,0,table.height);
+	}
+
+	/**
+	 * Remaps the specified rows in the output image
+	 *
+	 * @param outsideValue Value assigned to pixels outside the source image. If negative they are not modified.
+	 * @param y0 First row, inclusive
+	 * @param y1 Last row, exclusive
+	 */
+	public static void remap( FixedPointRemapTable table , GrayU8 input , GrayU8 output , int outsideValue ,
+							  int y0 , int y1 ) {
+		final short[] srcX = table.srcX;
+		final short[] srcY = table.srcY;
+		final short[] weights = table.weights;
+		final byte[] dataIn = input.data;
+		final int stride = input.stride;
+
+		for (int y = y0; y < y1; y++) {
+			int indexTable = y*table.width;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0; x < table.width; x++, indexTable++, indexOut++) {
+				int packed = weights[indexTable];
+				if( packed == OUTSIDE ) {
+					if( outsideValue >= 0 )
+						output.data[indexOut] = (byte)outsideValue;
+					continue;
+				}
+				int indexIn = input.startIndex + (srcY[indexTable] & 0xFFFF)*stride + (srcX[indexTable] & 0xFFFF);
+				int wx = packed & WEIGHT_MASK;
+				int wy = (packed >> WEIGHT_BITS) & WEIGHT_MASK;
+				int dx = (packed & STEP_X) >> SHIFT;
+				int dy = ((packed & STEP_Y) >> (SHIFT+1))*stride;
+
+				int top = (dataIn[indexIn] & 0xFF)*(WEIGHT_ONE-wx) + (dataIn[indexIn+dx] & 0xFF)*wx;
+				int bottom = (dataIn[indexIn+dy] & 0xFF)*(WEIGHT_ONE-wx) + (dataIn[indexIn+dy+dx] & 0xFF)*wx;
+
+				output.data[indexOut] = (byte)((top*(WEIGHT_ONE-wy) + bottom*wy + ROUND) >> SHIFT);
+			}
+		}
+	}
+
+	public static void remap( FixedPointRemapTable table , InterleavedU8 input , InterleavedU8 output ,
+							  int outsideValue ) {
+		remap(table,input,output,outsideValue,0,table.height);
+	}
+
+	/**
+	 * Remaps the specified rows in the output image
+	 *
+	 * @param outsideValue Value assigned to pixels outside the source image. If negative they are not modified.
+	 * @param y0 First row, inclusive
+	 * @param y1 Last row, exclusive
+	 */
+	public static void remap( FixedPointRemapTable table , InterleavedU8 input , InterleavedU8 output ,
+							  int outsideValue , int y0 , int y1 ) {
+		final short[] srcX = table.srcX;
+		final short[] srcY = table.srcY;
+		final short[] weights = table.weights;
+		final byte[] dataIn = input.data;
+		final int stride = input.stride;
+		final int numBands = input.numBands;
+
+		for (int y = y0; y < y1; y++) {
+			int indexTable = y*table.width;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0; x < table.width; x++, indexTable++) {
+				int packed = weights[indexTable];
+				if( packed == OUTSIDE ) {
+					if( outsideValue >= 0 ) {
+						for (int band = 0; band < numBands; band++) {
+							output.data[indexOut++] = (byte)outsideValue;
+						}
+					} else {
+						indexOut += numBands;
+					}
+					continue;
+				}
+				int indexIn = input.startIndex + (srcY[indexTable] & 0xFFFF)*stride +
+						(srcX[indexTable] & 0xFFFF)*numBands;
+				int wx = packed & WEIGHT_MASK;
+				int wy = (packed >> WEIGHT_BITS) & WEIGHT_MASK;
+				int dx = ((packed & STEP_X) >> SHIFT)*numBands;
+				int dy = ((packed & STEP_Y) >> (SHIFT+1))*stride;
+
+				for (int band = 0; band < numBands; band++, indexIn++) {
+					int top = (dataIn[indexIn] & 0xFF)*(WEIGHT_ONE-wx) + (dataIn[indexIn+dx] & 0xFF)*wx;
+					int bottom = (dataIn[indexIn+dy] & 0xFF)*(WEIGHT_ONE-wx) + (dataIn[indexIn+dy+dx] & 0xFF)*wx;
+
+					output.data[indexOut++] = (byte)((top*(WEIGHT_ONE-wy) + bottom*wy + ROUND) >> SHIFT);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort.impl;
+
+import boofcv.alg.distort.FixedPointRemapTable;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.InterleavedU8;
+
+/**
+ * Concurrent implementation of {@link ImplFixedPointRemap}. Each thread processes a block of rows.
+ *
+ * @author Peter Abeles
+ */
+public class ImplFixedPointRemap_MT {
+
+	public static void remap( FixedPointRemapTable table , GrayU8 input , GrayU8 output , int outsideValue ) {
+		BoofConcurrency.loopBlocks(0,table.height,(y0,y1)->
+				ImplFixedPointRemap.remap(table,input,output,outsideValue,y0,y1));
+	}
+
+	public static void remap( FixedPointRemapTable table , InterleavedU8 input , InterleavedU8 output ,
+							  int outsideValue ) {
+		BoofConcurrency.loopBlocks(0,table.height,(y0,y1)->
+				ImplFixedPointRemap.remap(table,input,output,outsideValue,y0,y1));
+	}
+}
@@ -78,9 +78,11 @@ public class ImageDeformPointMLS_F32 implements Point2Transform2_F32 {
 	float scaleX,scaleY;
 
 	// Pixel distortion model
+	TypeDeformMLS type;
 	Model model;
 
 	public ImageDeformPointMLS_F32( TypeDeformMLS type ) {
+		this.type = type;
 		switch( type ) {
 			case AFFINE: model = new AffineModel(); break;
 			case SIMILARITY: model = new SimilarityModel(); break;
@@ -285,7 +287,26 @@ public class ImageDeformPointMLS_F32 implements Point2Transform2_F32 {
 
 	@Override
 	public ImageDeformPointMLS_F32 copy() {
-		throw new RuntimeException("Implement");
+		ImageDeformPointMLS_F32 ret = new ImageDeformPointMLS_F32(type);
+		ret.alpha = alpha;
+		ret.scaleX = scaleX;
+		ret.scaleY = scaleY;
+		ret.gridRows = gridRows;
+		ret.gridCols = gridCols;
+
+		ret.controls.resize(controls.size);
+		for (int i = 0; i < controls.size; i++) {
+			Control src = controls.get(i);
+			Control dst = ret.controls.get(i);
+			dst.p.set(src.p);
+			dst.q.set(src.q);
+		}
+
+		ret.grid.resize(grid.size);
+		for (int i = 0; i < grid.size; i++) {
+			ret.grid.get(i).setTo(grid.get(i));
+		}
+		return ret;
 	}
 
 	/**
@@ -531,6 +552,20 @@ public class ImageDeformPointMLS_F32 implements Point2Transform2_F32 {
 
 		// mu for simularity
 		float mu;
+
+		public void setTo( Cache src ) {
+			deformed.set(src.deformed);
+			weights.setTo(src.weights);
+			totalWeight = src.totalWeight;
+			A.setTo(src.A);
+			aveP.set(src.aveP);
+			aveQ.set(src.aveQ);
+			A_s.resize(src.A_s.size);
+			for (int i = 0; i < src.A_s.size; i++) {
+				A_s.get(i).set(src.A_s.get(i));
+			}
+			mu = src.mu;
+		}
 	}
 
 	public float getAlpha() {
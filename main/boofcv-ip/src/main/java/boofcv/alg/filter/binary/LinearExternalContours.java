@@ -55,15 +55,15 @@ import boofcv.struct.image.GrayU8;
  */
 public class LinearExternalContours {
 	// Maximum number of pixels in an external contour. If the contour is longer than this it will be discarded
-	private int maxContourLength = Integer.MAX_VALUE;
+	protected int maxContourLength = Integer.MAX_VALUE;
 	// External contours less than this will be discarded
-	private int minContourLength = 0;
+	protected int minContourLength = 0;
 
 	// adjusts coordinate from binary to output
-	private int adjustX , adjustY;
+	protected int adjustX , adjustY;
 
 	private Tracer tracer;
-	private PackedSetsPoint2D_I32 storagePoints = new PackedSetsPoint2D_I32();
+	protected PackedSetsPoint2D_I32 storagePoints = new PackedSetsPoint2D_I32();
 
 	public LinearExternalContours( ConnectRule rule ) {
 		tracer = new Tracer(rule);
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.PackedBinaryImage;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import static boofcv.struct.image.PackedBinaryImage.BITS;
+
+/**
+ * <p>
+ * Finds the external contours of binary blobs directly inside a {@link PackedBinaryImage}. Runs of ones are found
+ * with bit scanning, 64 pixels at a time, and connected into blobs with union-find. The root of each blob is the
+ * first run in raster order and its external contour is traced from there. The input image is not modified.
+ * </p>
+ *
+ * <p>
+ * Pixels outside the image are treated as zero, so unlike {@link LinearExternalContours} blobs which touch the image
+ * border are not clipped. The output is the same as {@link LinearExternalContours} applied to the image with a
+ * border of zeros added around it and an adjustment of (1,1). Contour coordinates are in the input image's frame.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearExternalContoursPacked {
+	// Maximum number of pixels in an external contour. If the contour is longer than this it will be discarded
+	protected int maxContourLength = Integer.MAX_VALUE;
+	// External contours less than this will be discarded
+	protected int minContourLength = 0;
+
+	protected ConnectRule rule;
+	protected PackedSetsPoint2D_I32 storagePoints = new PackedSetsPoint2D_I32();
+
+	// x0 and x1 of each run. x1 is exclusive
+	private final GrowQueue_I32 runsX = new GrowQueue_I32();
+	// index of the first run in each row, plus one extra element
+	private final GrowQueue_I32 rowRuns = new GrowQueue_I32();
+	// union-find parent of each run
+	private final GrowQueue_I32 parents = new GrowQueue_I32();
+
+	private final Tracer tracer = new Tracer();
+
+	public LinearExternalContoursPacked( ConnectRule rule ) {
+		setConnectRule(rule);
+	}
+
+	/**
+	 * Detects contours inside the binary image.
+	 * @param binary Binary image. Not modified.
+	 */
+	public void process( PackedBinaryImage binary ) {
+		storagePoints.reset();
+		runsX.reset();
+		rowRuns.reset();
+		parents.reset();
+
+		// runs in adjacent rows touch if they overlap. With 8-connect diagonal is also allowed
+		final int touch = rule == ConnectRule.EIGHT ? 1 : 0;
+
+		for (int y = 0; y < binary.height; y++) {
+			rowRuns.add(parents.size);
+			findRuns(binary,y);
+			if( y > 0 ) {
+				LinearExternalContours_MT.connectRows(runsX, 0, rowRuns.data[y-1], rowRuns.data[y],
+						runsX, 0, rowRuns.data[y], parents.size, touch, parents.data);
+			}
+		}
+		rowRuns.add(parents.size);
+
+		// A run which is its own parent is the first run in a blob, which is where tracing starts
+		tracer.binary = binary;
+		for (int y = 0; y < binary.height; y++) {
+			for (int i = rowRuns.data[y]; i < rowRuns.data[y+1]; i++) {
+				if( parents.data[i] != i )
+					continue;
+				storagePoints.grow();
+				if( tracer.trace(runsX.data[i*2],y) ) {
+					int N = storagePoints.sizeOfTail();
+					if( N < minContourLength || N >= maxContourLength )
+						storagePoints.removeTail();
+				} else {
+					storagePoints.removeTail();
+				}
+			}
+		}
+		tracer.binary = null;
+	}
+
+	/**
+	 * Finds all the runs of ones in the row by scanning for the next bit which is set or cleared in each word
+	 */
+	private void findRuns( PackedBinaryImage binary , int y ) {
+		final long[] data = binary.data;
+		final int start = y*binary.stride;
+		final int end = start + binary.stride;
+
+		int index = start;
+		int bit = 0;
+		boolean insideRun = false;
+		int x0 = 0;
+
+		while( index < end ) {
+			// invert the word when inside a run so that the search is always for the next set bit
+			long word = insideRun ? ~data[index] : data[index];
+			word &= -1L << bit;
+
+			if( word == 0 ) {
+				index++;
+				bit = 0;
+				continue;
+			}
+
+			bit = Long.numberOfTrailingZeros(word);
+			int x = (index-start)*BITS + bit;
+			if( insideRun ) {
+				addRun(x0,x);
+			} else {
+				x0 = x;
+			}
+			insideRun = !insideRun;
+
+			// the search for the next transition continues in this word at the same bit
+		}
+		// padding bits are always zero so a run can only still be open if the row is a multiple of 64 wide
+		if( insideRun )
+			addRun(x0,binary.width);
+	}
+
+	private void addRun( int x0 , int x1 ) {
+		runsX.add(x0);
+		runsX.add(x1);
+		parents.add(parents.size);
+	}
+
+	/**
+	 * Traces the external contour of a blob starting from its first pixel in raster order. Follows the same
+	 * search pattern as {@link ContourTracerBase} but pixels are looked up by coordinate since they are packed.
+	 */
+	private class Tracer {
+		// offset to each neighbor in the same order as ContourTracerBase
+		int[] offsetX, offsetY;
+		int[] nextDirection;
+		int ruleN;
+
+		PackedBinaryImage binary;
+		int x,y,dir;
+
+		void configure( ConnectRule rule ) {
+			if( ConnectRule.EIGHT == rule ) {
+				offsetX = new int[]{1, 1, 0,-1,-1,-1, 0, 1};
+				offsetY = new int[]{0, 1, 1, 1, 0,-1,-1,-1};
+				nextDirection = new int[8];
+				for( int i = 0; i < 8; i++ )
+					nextDirection[i] = ((i+4)%8 + 2)%8;
+				ruleN = 8;
+			} else if( ConnectRule.FOUR == rule ) {
+				offsetX = new int[]{1, 0,-1, 0};
+				offsetY = new int[]{0, 1, 0,-1};
+				nextDirection = new int[4];
+				for( int i = 0; i < 4; i++ )
+					nextDirection[i] = ((i+2)%4 + 1)%4;
+				ruleN = 4;
+			} else {
+				throw new IllegalArgumentException("Connectivity rule must be 4 or 8 not "+rule);
+			}
+		}
+
+		/**
+		 * Traces the contour and saves it in the tail set of storage
+		 *
+		 * @return true if successful or false if the contour was too long
+		 */
+		boolean trace( int initialX , int initialY ) {
+			dir = ruleN == 8 ? 7 : 0;
+			x = initialX;
+			y = initialY;
+			storagePoints.addPointToTail(x, y);
+
+			// find the next one pixel.  handle case where its an isolated point
+			if( !searchNotZero() ) {
+				return true;
+			}
+			int initialDir = dir;
+			moveToNext();
+			dir = nextDirection[dir];
+
+			while( true ) {
+				searchNotZero();
+
+				if( x == initialX && y == initialY && dir == initialDir )
+					return true;
+				// the contour will be discarded so there's no need to finish tracing it
+				if( storagePoints.sizeOfTail() >= maxContourLength )
+					return false;
+				storagePoints.addPointToTail(x, y);
+
+				moveToNext();
+				dir = nextDirection[dir];
+			}
+		}
+
+		private boolean searchNotZero() {
+			for (int i = 0; i < ruleN; i++) {
+				if( get(x + offsetX[dir], y + offsetY[dir]) )
+					return true;
+				dir = (dir+1)%ruleN;
+			}
+			return false;
+		}
+
+		private boolean get( int x , int y ) {
+			if( x < 0 || y < 0 || x >= binary.width || y >= binary.height )
+				return false;
+			return binary.unsafe_get(x,y) != 0;
+		}
+
+		private void moveToNext() {
+			x += offsetX[dir];
+			y += offsetY[dir];
+		}
+	}
+
+	public ConnectRule getConnectRule() {
+		return rule;
+	}
+
+	public void setConnectRule( ConnectRule rule ) {
+		tracer.configure(rule);
+		this.rule = rule;
+	}
+
+	public PackedSetsPoint2D_I32 getExternalContours() {
+		return storagePoints;
+	}
+
+	public int getMaxContourLength() {
+		return maxContourLength;
+	}
+
+	public void setMaxContourLength(int maxContourLength) {
+		this.maxContourLength = maxContourLength;
+	}
+
+	public int getMinContourLength() {
+		return minContourLength;
+	}
+
+	public void setMinContourLength(int minContourLength) {
+		this.minContourLength = minContourLength;
+	}
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link LinearExternalContours}. The image is split into horizontal strips and
+ * the blobs are found by labeling runs of non-zero pixels inside each strip in parallel. Labels are merged
+ * across strip boundaries with a union-find pass. The root of each blob is always the run which comes first in
+ * raster order, which is the same pixel the single threaded algorithm starts tracing from. The external contours
+ * are then traced in parallel from each root and added in raster order. The output is identical to
+ * {@link LinearExternalContours}.
+ * </p>
+ *
+ * <p>
+ * Unlike the single threaded version only the image border is modified. Pixels are not marked when traced.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearExternalContours_MT extends LinearExternalContours {
+
+	// Runs of non-zero pixels and local labels inside each strip
+	private final FastQueue<Strip> strips = new FastQueue<>(Strip.class,true);
+	// Union-find parent of every run in the image
+	private final GrowQueue_I32 parents = new GrowQueue_I32();
+	// (x,y) coordinate of the first pixel in each blob in raster order
+	private final GrowQueue_I32 seeds = new GrowQueue_I32();
+	// Contours traced for a block of seeds
+	private final FastQueue<TraceBlock> blocks = new FastQueue<>(TraceBlock.class,TraceBlock::new);
+
+	public LinearExternalContours_MT( ConnectRule rule ) {
+		super(rule);
+	}
+
+	@Override
+	public void process( GrayU8 binary , int adjustX , int adjustY ) {
+		this.adjustX = adjustX;
+		this.adjustY = adjustY;
+		storagePoints.reset();
+		ImageMiscOps.fillBorder(binary, 0, 1);
+
+		int rows = binary.height-2;
+		if( rows <= 0 || binary.width <= 2 )
+			return;
+
+		// runs in adjacent rows touch if they overlap. With 8-connect diagonal is also allowed
+		final int touch = getConnectRule() == ConnectRule.EIGHT ? 1 : 0;
+
+		// Label runs inside of each strip
+		int numStrips = Math.min(rows,BoofConcurrency.getMaxThreads());
+		strips.resize(numStrips);
+		BoofConcurrency.loopFor(0,numStrips,i->{
+			Strip s = strips.get(i);
+			s.y0 = 1 + i*rows/numStrips;
+			s.y1 = 1 + (i+1)*rows/numStrips;
+			s.label(binary,touch);
+		});
+
+		// Copy local labels into the global union-find and connect blobs which cross strip boundaries
+		int totalRuns = 0;
+		for (int i = 0; i < numStrips; i++) {
+			Strip s = strips.get(i);
+			s.offset = totalRuns;
+			totalRuns += s.parent.size;
+		}
+		parents.resize(totalRuns);
+		BoofConcurrency.loopFor(0,numStrips,i->{
+			Strip s = strips.get(i);
+			for (int j = 0; j < s.parent.size; j++) {
+				parents.data[s.offset+j] = s.offset + s.parent.data[j];
+			}
+		});
+		for (int i = 1; i < numStrips; i++) {
+			Strip a = strips.get(i-1);
+			Strip b = strips.get(i);
+			connectRows(a.runsX, a.offset, a.rowStart(a.y1-1), a.rowEnd(a.y1-1),
+					b.runsX, b.offset, b.rowStart(b.y0), b.rowEnd(b.y0), touch, parents.data);
+		}
+
+		// A run which is its own parent is the first run in a blob. Save them in raster order
+		seeds.reset();
+		for (int i = 0; i < numStrips; i++) {
+			Strip s = strips.get(i);
+			for (int y = s.y0; y < s.y1; y++) {
+				for (int j = s.rowStart(y); j < s.rowEnd(y); j++) {
+					if( parents.data[s.offset+j] == s.offset+j ) {
+						seeds.add(s.runsX.data[j*2]);
+						seeds.add(y);
+					}
+				}
+			}
+		}
+
+		// Trace the external contour of each blob
+		int numSeeds = seeds.size/2;
+		if( numSeeds == 0 )
+			return;
+		int numBlocks = Math.min(numSeeds,BoofConcurrency.getMaxThreads());
+		blocks.resize(numBlocks);
+		BoofConcurrency.loopFor(0,numBlocks,i->{
+			TraceBlock b = blocks.get(i);
+			b.trace(binary,i*numSeeds/numBlocks,(i+1)*numSeeds/numBlocks);
+		});
+
+		// Add the contours in the same order as the single threaded algorithm
+		for (int i = 0; i < numBlocks; i++) {
+			PackedSetsPoint2D_I32 points = blocks.get(i).points;
+			PackedSetsPoint2D_I32.SetIterator iter = points.createIterator();
+			for (int j = 0; j < points.size(); j++) {
+				storagePoints.grow();
+				iter.setup(j);
+				while( iter.hasNext() ) {
+					Point2D_I32 p = iter.next();
+					storagePoints.addPointToTail(p.x,p.y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Connects runs in two adjacent rows which touch each other
+	 *
+	 * @param runsA Runs in the upper row. Runs from startA to endA, exclusive, are considered
+	 * @param offsetA Added to the index of a run in A to get its index in parent
+	 * @param runsB Runs in the lower row. Runs from startB to endB, exclusive, are considered
+	 * @param offsetB Added to the index of a run in B to get its index in parent
+	 * @param touch 0 for 4-connect and 1 for 8-connect
+	 * @param parent Union-find parent of each run
+	 */
+	static void connectRows( GrowQueue_I32 runsA , int offsetA , int startA , int endA ,
+							 GrowQueue_I32 runsB , int offsetB , int startB , int endB ,
+							 int touch , int[] parent ) {
+		int a = startA, b = startB;
+		while( a < endA && b < endB ) {
+			int a0 = runsA.data[a*2], a1 = runsA.data[a*2+1];
+			int b0 = runsB.data[b*2], b1 = runsB.data[b*2+1];
+
+			if( a0 < b1+touch && b0 < a1+touch )
+				union(parent,offsetA+a,offsetB+b);
+
+			// advance past whichever run ends first, it can't touch anything else
+			if( a1 < b1 )
+				a++;
+			else
+				b++;
+		}
+	}
+
+	/**
+	 * Merges the two sets. The smallest index is always the root so that the root is the first run in raster order
+	 */
+	static void union( int[] parent , int a , int b ) {
+		int rootA = find(parent,a);
+		int rootB = find(parent,b);
+		if( rootA < rootB )
+			parent[rootB] = rootA;
+		else if( rootB < rootA )
+			parent[rootA] = rootB;
+	}
+
+	static int find( int[] parent , int i ) {
+		while( parent[i] != i ) {
+			// path halving
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Runs of non-zero pixels inside a horizontal strip of the image
+	 */
+	public static class Strip {
+		// rows in the strip. y1 is exclusive
+		int y0,y1;
+		// index of the first run in the global union-find
+		int offset;
+		// x0 and x1 of each run. x1 is exclusive
+		GrowQueue_I32 runsX = new GrowQueue_I32();
+		// index of the first run in each row, plus one extra element
+		GrowQueue_I32 rowRuns = new GrowQueue_I32();
+		// union-find parent of each run using local indexes
+		GrowQueue_I32 parent = new GrowQueue_I32();
+
+		int rowStart( int y ) {
+			return rowRuns.data[y-y0];
+		}
+
+		int rowEnd( int y ) {
+			return rowRuns.data[y-y0+1];
+		}
+
+		void label( GrayU8 binary , int touch ) {
+			runsX.reset();
+			rowRuns.reset();
+			parent.reset();
+
+			final byte[] data = binary.data;
+			for (int y = y0; y < y1; y++) {
+				rowRuns.add(parent.size);
+				int start = binary.startIndex + y*binary.stride;
+				int index = start + 1;
+				int end = start + binary.width - 1;
+
+				while( true ) {
+					index = findNotZero(data, index, end);
+					if( index == end )
+						break;
+					int x0 = index - start;
+					index = findZero(data, index, end);
+					runsX.add(x0);
+					runsX.add(index - start);
+					parent.add(parent.size);
+				}
+
+				if( y > y0 ) {
+					connectRows(runsX,0,rowStart(y-1),rowStart(y),runsX,0,rowStart(y),parent.size,touch,parent.data);
+				}
+			}
+			rowRuns.add(parent.size);
+
+			// point each run directly to its root
+			for (int i = 0; i < parent.size; i++) {
+				parent.data[i] = parent.data[parent.data[i]];
+			}
+		}
+	}
+
+	/**
+	 * Storage for tracing the contours of a block of seeds
+	 */
+	public class TraceBlock {
+		PackedSetsPoint2D_I32 points = new PackedSetsPoint2D_I32();
+		ExternalTracer tracer;
+
+		void trace( GrayU8 binary , int seed0 , int seed1 ) {
+			if( tracer == null || tracer.getRule() != getConnectRule() )
+				tracer = new ExternalTracer(getConnectRule());
+			tracer.setInputs(binary);
+			points.reset();
+
+			for (int i = seed0; i < seed1; i++) {
+				points.grow();
+				if( tracer.trace(seeds.data[i*2], seeds.data[i*2+1], points) ) {
+					int N = points.sizeOfTail();
+					if( N < minContourLength || N >= maxContourLength )
+						points.removeTail();
+				} else {
+					points.removeTail();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Traces the external contour of a blob starting from its first pixel in raster order. Same as the tracer in
+	 * {@link LinearExternalContours} except that pixels are not marked, so multiple threads can trace the same image.
+	 */
+	@SuppressWarnings("Duplicates")
+	class ExternalTracer extends ContourTracerBase {
+
+		public ExternalTracer( ConnectRule rule ) {
+			super(rule);
+		}
+
+		ConnectRule getRule() {
+			return rule;
+		}
+
+		/**
+		 * Traces the contour and saves it in the tail set of storage
+		 *
+		 * @return true if successful or false if the contour was too long
+		 */
+		public boolean trace( int initialX , int initialY , PackedSetsPoint2D_I32 storage ) {
+			dir = rule == ConnectRule.EIGHT ? 7 : 0;
+
+			x = initialX;
+			y = initialY;
+			indexBinary = binary.getIndex(x,y);
+			final int initialIndex = indexBinary;
+			storage.addPointToTail(x - adjustX, y - adjustY);
+
+			// find the next one pixel.  handle case where its an isolated point
+			if( !searchNotZero() ) {
+				return true;
+			}
+			int initialDir = dir;
+			moveToNext();
+			dir = nextDirection[dir];
+
+			while( true ) {
+				searchNotZero();
+
+				if( indexBinary == initialIndex && dir == initialDir )
+					return true;
+				// the contour will be discarded so there's no need to finish tracing it
+				if( storage.sizeOfTail() >= maxContourLength )
+					return false;
+				storage.addPointToTail(x - adjustX, y - adjustY);
+
+				moveToNext();
+				dir = nextDirection[dir];
+			}
+		}
+
+		private boolean searchNotZero() {
+			for (int i = 0; i < ruleN; i++) {
+				if( binary.data[indexBinary + offsetsBinary[dir]] != 0)
+					return true;
+				dir = (dir+1)%ruleN;
+			}
+			return false;
+		}
+
+		private void moveToNext() {
+			indexBinary += offsetsBinary[dir];
+			int a = indexBinary - binary.startIndex;
+			x = a%binary.stride;
+			y = a/binary.stride;
+		}
+	}
+}
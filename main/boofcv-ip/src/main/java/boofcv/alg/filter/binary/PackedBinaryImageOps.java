@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
+
+import static boofcv.struct.image.PackedBinaryImage.BITS;
+
+/**
+ * <p>
+ * Operations on {@link PackedBinaryImage}. Conversion to and from {@link GrayU8}, thresholding, logical operations,
+ * and morphology. Morphological operations are computed 64 pixels at a time by shifting entire words to get each
+ * pixel's left and right neighbors. The output is identical to the equivalent function in {@link BinaryImageOps}
+ * and {@link ThresholdImageOps}, including how the image border is handled.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedBinaryImageOps {
+
+	/**
+	 * Converts a binary {@link GrayU8} image into a packed binary image. Non-zero pixels are set to 1.
+	 *
+	 * @param input Input binary image. Not modified.
+	 * @param output (Optional) Output image. If null a new image will be declared. Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage convert( GrayU8 input , PackedBinaryImage output ) {
+		output = checkDeclare(input.width,input.height,output);
+
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = y*output.stride;
+			for (int x0 = 0; x0 < input.width; x0 += BITS, indexOut++) {
+				int length = Math.min(BITS,input.width-x0);
+				long word = 0;
+				for (int bit = 0; bit < length; bit++) {
+					if( input.data[indexIn++] != 0 )
+						word |= 1L << bit;
+				}
+				output.data[indexOut] = word;
+			}
+		}
+		return output;
+	}
+
+	/**
+	 * Converts a packed binary image into a {@link GrayU8} image with values of 0 and 1.
+	 *
+	 * @param input Input packed image. Not modified.
+	 * @param output (Optional) Output image. If null a new image will be declared. Modified.
+	 * @return Output image.
+	 */
+	public static GrayU8 convert( PackedBinaryImage input , GrayU8 output ) {
+		if( output == null )
+			output = new GrayU8(input.width,input.height);
+		else
+			output.reshape(input.width,input.height);
+
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x0 = 0; x0 < input.width; x0 += BITS) {
+				int length = Math.min(BITS,input.width-x0);
+				long word = input.data[indexIn++];
+				for (int bit = 0; bit < length; bit++) {
+					output.data[indexOut++] = (byte)((word >>> bit) & 1);
+				}
+			}
+		}
+		return output;
+	}
+
+	/**
+	 * Applies a global threshold and writes the results directly into a packed image.
+	 *
+	 * @see ThresholdImageOps#threshold(GrayU8, GrayU8, int, boolean)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Output binary image. If null a new image will be declared. Modified.
+	 * @param threshold threshold value.
+	 * @param down If true then the inequality &le; is used, otherwise if false then &gt; is used.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage threshold( GrayU8 input , PackedBinaryImage output ,
+											   int threshold , boolean down ) {
+		output = checkDeclare(input.width,input.height,output);
+
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = y*output.stride;
+			for (int x0 = 0; x0 < input.width; x0 += BITS, indexOut++) {
+				int length = Math.min(BITS,input.width-x0);
+				long word = 0;
+				for (int bit = 0; bit < length; bit++) {
+					if( ((input.data[indexIn++] & 0xFF) <= threshold) == down )
+						word |= 1L << bit;
+				}
+				output.data[indexOut] = word;
+			}
+		}
+		return output;
+	}
+
+	/**
+	 * Applies a global threshold and writes the results directly into a packed image.
+	 *
+	 * @see ThresholdImageOps#threshold(GrayF32, GrayU8, float, boolean)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Output binary image. If null a new image will be declared. Modified.
+	 * @param threshold threshold value.
+	 * @param down If true then the inequality &le; is used, otherwise if false then &gt; is used.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage threshold( GrayF32 input , PackedBinaryImage output ,
+											   float threshold , boolean down ) {
+		output = checkDeclare(input.width,input.height,output);
+
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = y*output.stride;
+			for (int x0 = 0; x0 < input.width; x0 += BITS, indexOut++) {
+				int length = Math.min(BITS,input.width-x0);
+				long word = 0;
+				for (int bit = 0; bit < length; bit++) {
+					if( (input.data[indexIn++] <= threshold) == down )
+						word |= 1L << bit;
+				}
+				output.data[indexOut] = word;
+			}
+		}
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'and' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input.  If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static PackedBinaryImage logicAnd( PackedBinaryImage inputA , PackedBinaryImage inputB ,
+											  PackedBinaryImage output ) {
+		checkSameShape(inputA,inputB);
+		output = checkDeclare(inputA.width,inputA.height,output);
+
+		final int N = inputA.stride*inputA.height;
+		for (int i = 0; i < N; i++) {
+			output.data[i] = inputA.data[i] & inputB.data[i];
+		}
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'or' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input.  If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static PackedBinaryImage logicOr( PackedBinaryImage inputA , PackedBinaryImage inputB ,
+											 PackedBinaryImage output ) {
+		checkSameShape(inputA,inputB);
+		output = checkDeclare(inputA.width,inputA.height,output);
+
+		final int N = inputA.stride*inputA.height;
+		for (int i = 0; i < N; i++) {
+			output.data[i] = inputA.data[i] | inputB.data[i];
+		}
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'xor' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input.  If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static PackedBinaryImage logicXor( PackedBinaryImage inputA , PackedBinaryImage inputB ,
+											  PackedBinaryImage output ) {
+		checkSameShape(inputA,inputB);
+		output = checkDeclare(inputA.width,inputA.height,output);
+
+		final int N = inputA.stride*inputA.height;
+		for (int i = 0; i < N; i++) {
+			output.data[i] = inputA.data[i] ^ inputB.data[i];
+		}
+		return output;
+	}
+
+	/**
+	 * Inverts each pixel from true to false and the other way around
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Output image. Can be same as input.  If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static PackedBinaryImage invert( PackedBinaryImage input , PackedBinaryImage output ) {
+		output = checkDeclare(input.width,input.height,output);
+
+		final long lastMask = input.lastWordMask();
+		for (int y = 0; y < input.height; y++) {
+			int index = y*input.stride;
+			int end = index + input.stride - 1;
+			for (; index < end; index++) {
+				output.data[index] = ~input.data[index];
+			}
+			output.data[index] = ~input.data[index] & lastMask;
+		}
+		return output;
+	}
+
+	/**
+	 * Counts the number of pixels with a value of 1
+	 */
+	public static int countOnes( PackedBinaryImage input ) {
+		int total = 0;
+		final int N = input.stride*input.height;
+		for (int i = 0; i < N; i++) {
+			total += Long.bitCount(input.data[i]);
+		}
+		return total;
+	}
+
+	/**
+	 * Erodes an image according to a 4-neighborhood. Unless a pixel is connected to all its neighbors its value
+	 * is set to zero.
+	 *
+	 * @see BinaryImageOps#erode4(GrayU8, int, GrayU8)
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage erode4( PackedBinaryImage input, int numTimes, PackedBinaryImage output ) {
+		return repeat(input,numTimes,output,Morph.ERODE4);
+	}
+
+	/**
+	 * Dilates an image according to a 4-neighborhood. If a pixel is connected to any other pixel then its output
+	 * value will be one.
+	 *
+	 * @see BinaryImageOps#dilate4(GrayU8, int, GrayU8)
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage dilate4( PackedBinaryImage input, int numTimes, PackedBinaryImage output ) {
+		return repeat(input,numTimes,output,Morph.DILATE4);
+	}
+
+	/**
+	 * Erodes an image according to an 8-neighborhood. Unless a pixel is connected to all its neighbors its value
+	 * is set to zero.
+	 *
+	 * @see BinaryImageOps#erode8(GrayU8, int, GrayU8)
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage erode8( PackedBinaryImage input, int numTimes, PackedBinaryImage output ) {
+		return repeat(input,numTimes,output,Morph.ERODE8);
+	}
+
+	/**
+	 * Dilates an image according to an 8-neighborhood. If a pixel is connected to any other pixel then its output
+	 * value will be one.
+	 *
+	 * @see BinaryImageOps#dilate8(GrayU8, int, GrayU8)
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage dilate8( PackedBinaryImage input, int numTimes, PackedBinaryImage output ) {
+		return repeat(input,numTimes,output,Morph.DILATE8);
+	}
+
+	/**
+	 * Binary operation which is designed to remove all pixels but ones which are on the edge of an object.
+	 * The edge is defined as lying on the 4-neighborhood.
+	 *
+	 * @see BinaryImageOps#edge4(GrayU8, GrayU8)
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage edge4( PackedBinaryImage input, PackedBinaryImage output ) {
+		return repeat(input,1,output,Morph.EDGE4);
+	}
+
+	/**
+	 * Binary operation which is designed to remove all pixels but ones which are on the edge of an object.
+	 * The edge is defined as lying on the 8-neighborhood.
+	 *
+	 * @see BinaryImageOps#edge8(GrayU8, GrayU8)
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage edge8( PackedBinaryImage input, PackedBinaryImage output ) {
+		return repeat(input,1,output,Morph.EDGE8);
+	}
+
+	private enum Morph {
+		ERODE4,DILATE4,ERODE8,DILATE8,EDGE4,EDGE8
+	}
+
+	private static PackedBinaryImage repeat( PackedBinaryImage input, int numTimes, PackedBinaryImage output ,
+											 Morph op ) {
+		if( numTimes <= 0 )
+			throw new IllegalArgumentException("numTimes must be >= 1");
+		if( input == output )
+			throw new IllegalArgumentException("Input and output can't be the same image");
+		output = checkDeclare(input.width,input.height,output);
+
+		morph(input,output,op);
+
+		if( numTimes > 1 ) {
+			PackedBinaryImage tmp1 = input.createSameShape();
+			PackedBinaryImage tmp2 = output;
+
+			for( int i = 1; i < numTimes; i++ ) {
+				morph(tmp2,tmp1,op);
+
+				PackedBinaryImage a = tmp1;
+				tmp1 = tmp2;
+				tmp2 = a;
+			}
+
+			if( tmp2 != output ) {
+				output.setTo(tmp2);
+			}
+		}
+
+		return output;
+	}
+
+	/**
+	 * Applies the morphological operation to every word in the image. Pixels outside the image are treated as
+	 * zero for dilation and ignored, i.e. treated as one, for erosion and edge detection.
+	 */
+	private static void morph( PackedBinaryImage input , PackedBinaryImage output , Morph op ) {
+		final boolean isDilate = op == Morph.DILATE4 || op == Morph.DILATE8;
+		final long fill = isDilate ? 0 : -1L;
+		final long lastMask = input.lastWordMask();
+		final long pad = fill & ~lastMask;
+		final int n = input.stride;
+
+		for (int y = 0; y < input.height; y++) {
+			int indexOut = y*output.stride;
+			for (int i = 0; i < n; i++) {
+				long c = word(input,y,i,fill,pad);
+				long value;
+				switch( op ) {
+					case ERODE4:
+						value = c & left(input,y,i,fill,pad) & right(input,y,i,fill,pad) &
+								word(input,y-1,i,fill,pad) & word(input,y+1,i,fill,pad);
+						break;
+
+					case DILATE4:
+						value = c | left(input,y,i,fill,pad) | right(input,y,i,fill,pad) |
+								word(input,y-1,i,fill,pad) | word(input,y+1,i,fill,pad);
+						break;
+
+					case ERODE8:
+						value = c & left(input,y,i,fill,pad) & right(input,y,i,fill,pad) &
+								horizontalAnd(input,y-1,i,fill,pad) & horizontalAnd(input,y+1,i,fill,pad);
+						break;
+
+					case DILATE8:
+						value = c | left(input,y,i,fill,pad) | right(input,y,i,fill,pad) |
+								horizontalOr(input,y-1,i,fill,pad) | horizontalOr(input,y+1,i,fill,pad);
+						break;
+
+					case EDGE4:
+						value = c & ~(left(input,y,i,fill,pad) & right(input,y,i,fill,pad) &
+								word(input,y-1,i,fill,pad) & word(input,y+1,i,fill,pad));
+						break;
+
+					case EDGE8:
+						value = c & ~(left(input,y,i,fill,pad) & right(input,y,i,fill,pad) &
+								horizontalAnd(input,y-1,i,fill,pad) & horizontalAnd(input,y+1,i,fill,pad));
+						break;
+
+					default:
+						throw new RuntimeException("BUG");
+				}
+				if( i == n-1 )
+					value &= lastMask;
+				output.data[indexOut++] = value;
+			}
+		}
+
+		// Pixels in the corners are always zero in BinaryImageOps.erode4() since they have two neighbors outside
+		// the image and only one of them is ignored
+		if( op == Morph.ERODE4 ) {
+			int w = input.width-1, h = input.height-1;
+			output.unsafe_set(0,0,0);
+			output.unsafe_set(w,0,0);
+			output.unsafe_set(0,h,0);
+			output.unsafe_set(w,h,0);
+		}
+	}
+
+	/**
+	 * Returns the word at the specified row. Outside the image every bit has the fill value.
+	 */
+	private static long word( PackedBinaryImage img , int y , int i , long fill , long pad ) {
+		if( y < 0 || y >= img.height )
+			return fill;
+		long value = img.data[y*img.stride+i];
+		return i == img.stride-1 ? value | pad : value;
+	}
+
+	/**
+	 * Each bit is set to the value of the pixel to its left.
+	 */
+	private static long left( PackedBinaryImage img , int y , int i , long fill , long pad ) {
+		long prev = i > 0 ? word(img,y,i-1,fill,pad) : fill;
+		return (word(img,y,i,fill,pad) << 1) | (prev >>> (BITS-1));
+	}
+
+	/**
+	 * Each bit is set to the value of the pixel to its right.
+	 */
+	private static long right( PackedBinaryImage img , int y , int i , long fill , long pad ) {
+		long next = i < img.stride-1 ? word(img,y,i+1,fill,pad) : fill;
+		return (word(img,y,i,fill,pad) >>> 1) | (next << (BITS-1));
+	}
+
+	private static long horizontalAnd( PackedBinaryImage img , int y , int i , long fill , long pad ) {
+		return word(img,y,i,fill,pad) & left(img,y,i,fill,pad) & right(img,y,i,fill,pad);
+	}
+
+	private static long horizontalOr( PackedBinaryImage img , int y , int i , long fill , long pad ) {
+		return word(img,y,i,fill,pad) | left(img,y,i,fill,pad) | right(img,y,i,fill,pad);
+	}
+
+	private static PackedBinaryImage checkDeclare( int width , int height , PackedBinaryImage output ) {
+		if( output == null )
+			return new PackedBinaryImage(width,height);
+		output.reshape(width,height);
+		return output;
+	}
+
+	private static void checkSameShape( PackedBinaryImage a , PackedBinaryImage b ) {
+		if( a.width != b.width || a.height != b.height )
+			throw new IllegalArgumentException("Image shapes are not the same");
+	}
+}
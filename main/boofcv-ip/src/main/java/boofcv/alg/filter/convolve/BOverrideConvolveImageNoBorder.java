@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.override.BOverrideClass;
+import boofcv.override.BOverrideManager;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Override for {@link ConvolveImageNoBorder}. Only single band images are overridden. Unlike most other overrides
+ * the implementation returns true if it processed the image. This way it can handle a subset of the image types
+ * and let the rest fall through to the default implementation.
+ *
+ * @author Peter Abeles
+ */
+public class BOverrideConvolveImageNoBorder extends BOverrideClass {
+
+	static {
+		BOverrideManager.register(BOverrideConvolveImageNoBorder.class);
+	}
+
+	public static Horizontal horizontal;
+	public static Vertical vertical;
+
+	public interface Horizontal {
+		/**
+		 * @param divisor If &gt; 0 then the output is divided by this value
+		 * @return true if the image was processed
+		 */
+		boolean horizontal(Kernel1D kernel, ImageGray input, ImageGray output, int divisor);
+	}
+
+	public interface Vertical {
+		/**
+		 * @param divisor If &gt; 0 then the output is divided by this value
+		 * @return true if the image was processed
+		 */
+		boolean vertical(Kernel1D kernel, ImageGray input, ImageGray output, int divisor);
+	}
+
+	public static boolean invokeNativeHorizontal(Kernel1D kernel, ImageGray input, ImageGray output) {
+		return invokeNativeHorizontal(kernel, input, output, 0);
+	}
+
+	public static boolean invokeNativeHorizontal(Kernel1D kernel, ImageGray input, ImageGray output, int divisor) {
+		boolean processed = false;
+		if( horizontal != null ) {
+			try {
+				processed = horizontal.horizontal(kernel, input, output, divisor);
+			} catch( RuntimeException ignore ) {}
+		}
+		return processed;
+	}
+
+	public static boolean invokeNativeVertical(Kernel1D kernel, ImageGray input, ImageGray output) {
+		return invokeNativeVertical(kernel, input, output, 0);
+	}
+
+	public static boolean invokeNativeVertical(Kernel1D kernel, ImageGray input, ImageGray output, int divisor) {
+		boolean processed = false;
+		if( vertical != null ) {
+			try {
+				processed = vertical.vertical(kernel, input, output, divisor);
+			} catch( RuntimeException ignore ) {}
+		}
+		return processed;
+	}
+}
@@ -54,6 +54,9 @@ public class ConvolveImageNoBorder {
 								  GrayF32 input, GrayF32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_F32_F32.horizontal(kernel, input, output))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output);
@@ -67,6 +70,9 @@ public class ConvolveImageNoBorder {
 								  GrayF32 input, GrayF32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_F32_F32.vertical(kernel, input, output))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output);
@@ -126,6 +132,9 @@ public class ConvolveImageNoBorder {
 								  GrayF64 input, GrayF64 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_F64_F64.horizontal(kernel, input, output))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output);
@@ -139,6 +148,9 @@ public class ConvolveImageNoBorder {
 								  GrayF64 input, GrayF64 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_F64_F64.vertical(kernel, input, output))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output);
@@ -198,6 +210,9 @@ public class ConvolveImageNoBorder {
 								  GrayU8 input, GrayI16 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_U8_I16.horizontal(kernel, input, output))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output);
@@ -211,6 +226,9 @@ public class ConvolveImageNoBorder {
 								  GrayU8 input, GrayI16 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_U8_I16.vertical(kernel, input, output))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output);
@@ -270,6 +288,9 @@ public class ConvolveImageNoBorder {
 								  GrayU8 input, GrayS32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 //			if (!ConvolveImageUnrolled_SB_MT_U8_S32.horizontal(kernel, input, output))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output);
@@ -283,6 +304,9 @@ public class ConvolveImageNoBorder {
 								  GrayU8 input, GrayS32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 //			if (!ConvolveImageUnrolled_SB_MT_U8_S32.vertical(kernel, input, output))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output);
@@ -342,6 +366,9 @@ public class ConvolveImageNoBorder {
 								  GrayU16 input, GrayI8 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 //			if (!ConvolveImageUnrolled_SB_MT_U16_I8_Div.vertical(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output, divisor);
@@ -366,6 +393,9 @@ public class ConvolveImageNoBorder {
 								  GrayS16 input, GrayI16 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_S16_I16.horizontal(kernel, input, output))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output);
@@ -379,6 +409,9 @@ public class ConvolveImageNoBorder {
 								  GrayS16 input, GrayI16 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_S16_I16.vertical(kernel, input, output))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output);
@@ -438,6 +471,9 @@ public class ConvolveImageNoBorder {
 								  GrayU8 input, GrayI8 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_U8_I8_Div.horizontal(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output, divisor);
@@ -451,6 +487,9 @@ public class ConvolveImageNoBorder {
 								  GrayU8 input, GrayI8 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_U8_I8_Div.vertical(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output, divisor);
@@ -510,6 +549,9 @@ public class ConvolveImageNoBorder {
 								  GrayS16 input, GrayI16 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_S16_I16_Div.horizontal(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output, divisor);
@@ -523,6 +565,9 @@ public class ConvolveImageNoBorder {
 								  GrayS16 input, GrayI16 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_S16_I16_Div.vertical(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output, divisor);
@@ -582,6 +627,9 @@ public class ConvolveImageNoBorder {
 								  GrayU16 input, GrayI16 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_U16_I16_Div.horizontal(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output, divisor);
@@ -595,6 +643,9 @@ public class ConvolveImageNoBorder {
 								  GrayU16 input, GrayI16 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_U16_I16_Div.vertical(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output, divisor);
@@ -655,6 +706,9 @@ public class ConvolveImageNoBorder {
 								  GrayS32 input, GrayI16 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 //			if (!ConvolveImageUnrolled_SB_MT_S32_I16_Div.vertical(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output, divisor);
@@ -679,6 +733,9 @@ public class ConvolveImageNoBorder {
 								  GrayS32 input, GrayS32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_S32_S32.horizontal(kernel, input, output))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output);
@@ -692,6 +749,9 @@ public class ConvolveImageNoBorder {
 								  GrayS32 input, GrayS32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_S32_S32.vertical(kernel, input, output))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output);
@@ -751,6 +811,9 @@ public class ConvolveImageNoBorder {
 								  GrayS32 input, GrayS32 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeHorizontal(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_S32_S32_Div.horizontal(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.horizontal(kernel, input, output, divisor);
@@ -764,6 +827,9 @@ public class ConvolveImageNoBorder {
 								  GrayS32 input, GrayS32 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BOverrideConvolveImageNoBorder.invokeNativeVertical(kernel, input, output, divisor) )
+			return;
+
 		if(BoofConcurrency.USE_CONCURRENT) {
 			if (!ConvolveImageUnrolled_SB_MT_S32_S32_Div.vertical(kernel, input, output, divisor))
 				ConvolveImageStandard_SB_MT.vertical(kernel, input, output, divisor);
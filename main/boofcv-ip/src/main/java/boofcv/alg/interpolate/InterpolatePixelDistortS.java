@@ -59,7 +59,7 @@ public class InterpolatePixelDistortS<T extends ImageGray<T>>
 
 	@Override
 	public InterpolatePixelS<T> copy() {
-		throw new RuntimeException("Implement");
+		return new InterpolatePixelDistortS<>(interpolate.copy(),distorter.copy());
 	}
 
 	@Override
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.override.BOverrideClass;
+import boofcv.override.BOverrideManager;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Override for common functions in {@link PixelMath}. Only {@link boofcv.struct.image.GrayF32} functions
+ * are overridden. The implementation returns true if it processed the image, otherwise the default implementation
+ * is used. Output images have already been reshaped to match the input before the override is invoked.
+ *
+ * @author Peter Abeles
+ */
+public class BOverridePixelMath extends BOverrideClass {
+
+	static {
+		BOverrideManager.register(BOverridePixelMath.class);
+	}
+
+	public static Abs abs;
+	public static Scalar plus;
+	public static Scalar multiply;
+	public static Scalar divide;
+	public static TwoImages add;
+	public static TwoImages subtract;
+
+	public interface Abs {
+		boolean abs(ImageGray input, ImageGray output);
+	}
+
+	public interface Scalar {
+		boolean process(ImageGray input, double value, ImageGray output);
+	}
+
+	public interface TwoImages {
+		boolean process(ImageGray imgA, ImageGray imgB, ImageGray output);
+	}
+
+	public static boolean invokeNativeAbs(ImageGray input, ImageGray output) {
+		boolean processed = false;
+		if( abs != null ) {
+			try {
+				processed = abs.abs(input, output);
+			} catch( RuntimeException ignore ) {}
+		}
+		return processed;
+	}
+
+	public static boolean invokeNativePlus(ImageGray input, double value, ImageGray output) {
+		return invokeScalar(plus, input, value, output);
+	}
+
+	public static boolean invokeNativeMultiply(ImageGray input, double value, ImageGray output) {
+		return invokeScalar(multiply, input, value, output);
+	}
+
+	public static boolean invokeNativeDivide(ImageGray input, double denominator, ImageGray output) {
+		return invokeScalar(divide, input, denominator, output);
+	}
+
+	public static boolean invokeNativeAdd(ImageGray imgA, ImageGray imgB, ImageGray output) {
+		return invokeTwoImages(add, imgA, imgB, output);
+	}
+
+	public static boolean invokeNativeSubtract(ImageGray imgA, ImageGray imgB, ImageGray output) {
+		return invokeTwoImages(subtract, imgA, imgB, output);
+	}
+
+	private static boolean invokeScalar(Scalar op, ImageGray input, double value, ImageGray output) {
+		boolean processed = false;
+		if( op != null ) {
+			try {
+				processed = op.process(input, value, output);
+			} catch( RuntimeException ignore ) {}
+		}
+		return processed;
+	}
+
+	private static boolean invokeTwoImages(TwoImages op, ImageGray imgA, ImageGray imgB, ImageGray output) {
+		boolean processed = false;
+		if( op != null ) {
+			try {
+				processed = op.process(imgA, imgB, output);
+			} catch( RuntimeException ignore ) {}
+		}
+		return processed;
+	}
+}
@@ -231,6 +231,9 @@ public class PixelMath {
 
 		output.reshape(input.width,input.height);
 
+		if( BOverridePixelMath.invokeNativeAbs(input,output) )
+			return;
+
 		int columns = input.width;
 		if(BoofConcurrency.USE_CONCURRENT ) {
 			ImplPixelMath_MT.abs(input.data, input.startIndex, input.stride,
@@ -876,6 +879,9 @@ public class PixelMath {
 
 		output.reshape(input.width,input.height);
 
+		if( BOverridePixelMath.invokeNativeMultiply(input,value,output) )
+			return;
+
 		int columns = input.width;
 		if(BoofConcurrency.USE_CONCURRENT ) {
 			ImplPixelMath_MT.multiply_A(input.data,input.startIndex,input.stride,value , 
@@ -1631,6 +1637,9 @@ public class PixelMath {
 
 		output.reshape(input.width,input.height);
 
+		if( BOverridePixelMath.invokeNativeDivide(input,denominator,output) )
+			return;
+
 		int columns = input.width;
 		if(BoofConcurrency.USE_CONCURRENT ) {
 			ImplPixelMath_MT.divide_A(input.data,input.startIndex,input.stride,denominator , 
@@ -2367,6 +2376,9 @@ public class PixelMath {
 
 		output.reshape(input.width,input.height);
 
+		if( BOverridePixelMath.invokeNativePlus(input,value,output) )
+			return;
+
 		int columns = input.width;
 		if(BoofConcurrency.USE_CONCURRENT ) {
 			ImplPixelMath_MT.plus_A(input.data,input.startIndex,input.stride,value , 
@@ -4789,6 +4801,9 @@ public class PixelMath {
 		InputSanityCheck.checkSameShape(imgA,imgB);
 		output.reshape(imgA.width,imgA.height);
 
+		if( BOverridePixelMath.invokeNativeAdd(imgA,imgB,output) )
+			return;
+
 		if( BoofConcurrency.USE_CONCURRENT ) {
 			ImplPixelMath_MT.add(imgA, imgB, output);
 		} else {
@@ -4809,6 +4824,9 @@ public class PixelMath {
 		InputSanityCheck.checkSameShape(imgA,imgB);
 		output.reshape(imgA.width,imgA.height);
 
+		if( BOverridePixelMath.invokeNativeSubtract(imgA,imgB,output) )
+			return;
+
 		if( BoofConcurrency.USE_CONCURRENT ) {
 			ImplPixelMath_MT.subtract(imgA, imgB, output);
 		} else {
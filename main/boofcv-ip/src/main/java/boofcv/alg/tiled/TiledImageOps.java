@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.tiled;
+
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.filter.convolve.GConvolveImageOps;
+import boofcv.alg.filter.derivative.DerivativeType;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.misc.GImageStatistics;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.convolve.Kernel2D;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.TiledImage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Operations on {@link TiledImage}. Neighborhood operators are applied one tile at a time. Each tile is read
+ * along with a halo of surrounding pixels, processed, and then only the interior is written to the output.
+ * When the halo is at least as large as the operator's radius the results are identical to processing the
+ * whole image at once. The image border is handled by the operator, since the halo is clipped by the image.
+ * </p>
+ *
+ * <p>
+ * Tiles are processed in parallel when {@link BoofConcurrency#USE_CONCURRENT} is true. Each thread only
+ * needs to store a single padded tile on the heap at any time.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TiledImageOps {
+
+	/**
+	 * Applies an operator to every tile. The output's tiling determines how the image is split up.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param halo Number of pixels around each tile the operator needs to see.
+	 * @param output Output image. Must be the same shape as the input.
+	 * @param op The operator
+	 */
+	public static <I extends ImageGray<I>, O extends ImageGray<O>>
+	void process( TiledImage<I> input , int halo , TiledImage<O> output , TileOperator<I,O> op ) {
+		checkSameShape(input,output);
+
+		Workspaces<I,O> workspaces = new Workspaces<>(input,output,null);
+		forEachTileIndex(output,tile->{
+			Workspace<I,O> w = workspaces.pop();
+			int x0 = output.getTileX0(tile%output.getNumTileCols());
+			int y0 = output.getTileY0(tile/output.getNumTileCols());
+			int x1 = output.getTileX1(tile%output.getNumTileCols());
+			int y1 = output.getTileY1(tile/output.getNumTileCols());
+
+			readPadded(input,x0,y0,x1,y1,halo,w);
+			w.outputA.reshape(w.input.width,w.input.height);
+			op.process(w.input,w.outputA);
+			writeInterior(w.outputA,x0,y0,x1,y1,w,output);
+			workspaces.recycle(w);
+		});
+	}
+
+	/**
+	 * Applies an operator with two outputs to every tile. The first output's tiling determines how the image
+	 * is split up.
+	 *
+	 * @see #process(TiledImage, int, TiledImage, TileOperator)
+	 */
+	public static <I extends ImageGray<I>, O extends ImageGray<O>>
+	void process( TiledImage<I> input , int halo , TiledImage<O> outputA , TiledImage<O> outputB ,
+				  TileOperator2<I,O> op ) {
+		checkSameShape(input,outputA);
+		checkSameShape(input,outputB);
+
+		Workspaces<I,O> workspaces = new Workspaces<>(input,outputA,outputB);
+		forEachTileIndex(outputA,tile->{
+			Workspace<I,O> w = workspaces.pop();
+			int x0 = outputA.getTileX0(tile%outputA.getNumTileCols());
+			int y0 = outputA.getTileY0(tile/outputA.getNumTileCols());
+			int x1 = outputA.getTileX1(tile%outputA.getNumTileCols());
+			int y1 = outputA.getTileY1(tile/outputA.getNumTileCols());
+
+			readPadded(input,x0,y0,x1,y1,halo,w);
+			w.outputA.reshape(w.input.width,w.input.height);
+			w.outputB.reshape(w.input.width,w.input.height);
+			op.process(w.input,w.outputA,w.outputB);
+			writeInterior(w.outputA,x0,y0,x1,y1,w,outputA);
+			writeInterior(w.outputB,x0,y0,x1,y1,w,outputB);
+			workspaces.recycle(w);
+		});
+	}
+
+	/**
+	 * Convolves a 2D kernel across the image. If the border is {@link BorderType#SKIP} then the value of
+	 * output pixels along the image border are not defined.
+	 *
+	 * @see GConvolveImageOps#convolve(Kernel2D, boofcv.struct.image.ImageBase, boofcv.struct.image.ImageBase, boofcv.struct.border.ImageBorder)
+	 */
+	public static <I extends ImageGray<I>, O extends ImageGray<O>>
+	void convolve( Kernel2D kernel , TiledImage<I> input , TiledImage<O> output , BorderType border ) {
+		int halo = Math.max(kernel.getOffset(),kernel.getWidth()-kernel.getOffset()-1);
+		process(input,halo,output,(in,out)->{
+			if( border == BorderType.SKIP )
+				GConvolveImageOps.convolve(kernel,in,out);
+			else
+				GConvolveImageOps.convolve(kernel,in,out,FactoryImageBorder.wrap(border,in));
+		});
+	}
+
+	/**
+	 * Applies Gaussian blur.
+	 *
+	 * @see GBlurImageOps#gaussian(boofcv.struct.image.ImageBase, boofcv.struct.image.ImageBase, double, int, boofcv.struct.image.ImageBase)
+	 */
+	public static <T extends ImageGray<T>>
+	void gaussian( TiledImage<T> input , TiledImage<T> output , double sigma , int radius ) {
+		int halo = radius <= 0 ? FactoryKernelGaussian.radiusForSigma(sigma,0) : radius;
+		process(input,halo,output,(in,out)->GBlurImageOps.gaussian(in,out,sigma,radius,null));
+	}
+
+	/**
+	 * Applies a mean box filter.
+	 *
+	 * @see GBlurImageOps#mean(boofcv.struct.image.ImageBase, boofcv.struct.image.ImageBase, int, boofcv.struct.image.ImageBase, boofcv.concurrency.WorkArrays)
+	 */
+	public static <T extends ImageGray<T>>
+	void mean( TiledImage<T> input , TiledImage<T> output , int radius ) {
+		process(input,radius,output,(in,out)->GBlurImageOps.mean(in,out,radius,null,null));
+	}
+
+	/**
+	 * Applies a global threshold.
+	 *
+	 * @see GThresholdImageOps#threshold(ImageGray, GrayU8, double, boolean)
+	 */
+	public static <T extends ImageGray<T>>
+	void threshold( TiledImage<T> input , TiledImage<GrayU8> output , double threshold , boolean down ) {
+		process(input,0,output,(in,out)->GThresholdImageOps.threshold(in,out,threshold,down));
+	}
+
+	/**
+	 * Applies a local threshold, such as {@link boofcv.alg.filter.binary.ThresholdBlock}. Thresholding
+	 * algorithms store internal state so one is created for each thread. Algorithms which adjust their
+	 * region size to the shape of the image, such as block thresholds, compute their regions relative to
+	 * each padded tile and are only approximately the same as processing the whole image.
+	 *
+	 * @param input Input gray scale image
+	 * @param output Output binary image
+	 * @param factory Creates a new instance of the thresholding algorithm
+	 * @param halo How far outside a tile the algorithm needs to see. Typically the local region's width.
+	 */
+	public static <T extends ImageGray<T>>
+	void threshold( TiledImage<T> input , TiledImage<GrayU8> output ,
+					Supplier<InputToBinary<T>> factory , int halo ) {
+		List<InputToBinary<T>> available = new ArrayList<>();
+		process(input,halo,output,(in,out)->{
+			InputToBinary<T> alg;
+			synchronized (available) {
+				alg = available.isEmpty() ? factory.get() : available.remove(available.size()-1);
+			}
+			alg.process(in,out);
+			synchronized (available) {
+				available.add(alg);
+			}
+		});
+	}
+
+	/**
+	 * Computes the image gradient using a Sobel kernel.
+	 *
+	 * @see boofcv.alg.filter.derivative.GradientSobel
+	 */
+	public static <I extends ImageGray<I>, D extends ImageGray<D>>
+	void gradientSobel( TiledImage<I> input , TiledImage<D> derivX , TiledImage<D> derivY ) {
+		process(input,1,derivX,derivY,(in,dx,dy)->
+				GImageDerivativeOps.gradient(DerivativeType.SOBEL,in,dx,dy,BorderType.EXTENDED));
+	}
+
+	/**
+	 * Returns the sum of all the pixels in the image.
+	 */
+	public static double sum( TiledImage<?> input ) {
+		double[] totals = new double[input.getNumTiles()];
+		forEachTile(input,(tile,image)->totals[tile] = GImageStatistics.sum(image));
+		double total = 0;
+		for (int i = 0; i < totals.length; i++) {
+			total += totals[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the mean pixel intensity value.
+	 */
+	public static double mean( TiledImage<?> input ) {
+		return sum(input)/input.getNumPixels();
+	}
+
+	/**
+	 * Returns the maximum pixel value.
+	 */
+	public static double max( TiledImage<?> input ) {
+		double[] values = new double[input.getNumTiles()];
+		forEachTile(input,(tile,image)->values[tile] = GImageStatistics.max(image));
+		double max = -Double.MAX_VALUE;
+		for (int i = 0; i < values.length; i++) {
+			max = Math.max(max,values[i]);
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the minimum pixel value.
+	 */
+	public static double min( TiledImage<?> input ) {
+		double[] values = new double[input.getNumTiles()];
+		forEachTile(input,(tile,image)->values[tile] = GImageStatistics.min(image));
+		double min = Double.MAX_VALUE;
+		for (int i = 0; i < values.length; i++) {
+			min = Math.min(min,values[i]);
+		}
+		return min;
+	}
+
+	/**
+	 * Computes the histogram of intensity values for the image.
+	 *
+	 * @see GImageStatistics#histogram(ImageGray, double, int[])
+	 */
+	public static void histogram( TiledImage<?> input , double minValue , int[] histogram ) {
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = 0;
+		}
+		forEachTile(input,(tile,image)->{
+			int[] local = new int[histogram.length];
+			GImageStatistics.histogram(image,minValue,local);
+			synchronized (histogram) {
+				for (int i = 0; i < local.length; i++) {
+					histogram[i] += local[i];
+				}
+			}
+		});
+	}
+
+	/**
+	 * Reads in each tile, without a halo, and passes it to the consumer
+	 */
+	private static <T extends ImageGray<T>>
+	void forEachTile( TiledImage<T> input , TileConsumer<T> consumer ) {
+		List<T> available = new ArrayList<>();
+		forEachTileIndex(input,tile->{
+			T image;
+			synchronized (available) {
+				image = available.isEmpty() ? input.getImageType().createImage(1,1) : available.remove(available.size()-1);
+			}
+			int col = tile%input.getNumTileCols();
+			int row = tile/input.getNumTileCols();
+			input.read(input.getTileX0(col),input.getTileY0(row),input.getTileX1(col),input.getTileY1(row),image);
+			consumer.process(tile,image);
+			synchronized (available) {
+				available.add(image);
+			}
+		});
+	}
+
+	/**
+	 * Invokes the operation on every tile index, in parallel if concurrency is turned on
+	 */
+	private static void forEachTileIndex( TiledImage<?> image , IntConsumer op ) {
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopFor(0,image.getNumTiles(),op::accept);
+		} else {
+			for (int tile = 0; tile < image.getNumTiles(); tile++) {
+				op.accept(tile);
+			}
+		}
+	}
+
+	/**
+	 * Reads the tile and its halo, clipped by the image border, into the workspace
+	 */
+	private static <I extends ImageGray<I>, O extends ImageGray<O>>
+	void readPadded( TiledImage<I> input , int x0 , int y0 , int x1 , int y1 , int halo , Workspace<I,O> w ) {
+		w.paddedX0 = Math.max(0,x0-halo);
+		w.paddedY0 = Math.max(0,y0-halo);
+		int paddedX1 = Math.min(input.getWidth(),x1+halo);
+		int paddedY1 = Math.min(input.getHeight(),y1+halo);
+		input.read(w.paddedX0,w.paddedY0,paddedX1,paddedY1,w.input);
+	}
+
+	/**
+	 * Writes the tile's interior, i.e. without the halo, to the output
+	 */
+	private static <O extends ImageGray<O>>
+	void writeInterior( O padded , int x0 , int y0 , int x1 , int y1 , Workspace<?,O> w , TiledImage<O> output ) {
+		int offX = x0-w.paddedX0;
+		int offY = y0-w.paddedY0;
+		output.write(padded.subimage(offX,offY,offX+x1-x0,offY+y1-y0,null),x0,y0);
+	}
+
+	private static void checkSameShape( TiledImage<?> a , TiledImage<?> b ) {
+		if( a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight() )
+			throw new IllegalArgumentException("Images must have the same shape");
+	}
+
+	/**
+	 * Operator which is applied to a padded tile
+	 */
+	public interface TileOperator<I extends ImageGray<I>, O extends ImageGray<O>> {
+		/**
+		 * @param input Input tile with halo
+		 * @param output Output tile with halo. Same shape as the input.
+		 */
+		void process( I input , O output );
+	}
+
+	/**
+	 * Operator with two outputs which is applied to a padded tile
+	 */
+	public interface TileOperator2<I extends ImageGray<I>, O extends ImageGray<O>> {
+		void process( I input , O outputA , O outputB );
+	}
+
+	private interface TileConsumer<T extends ImageGray<T>> {
+		void process( int tile , T image );
+	}
+
+	/**
+	 * Images for a single padded tile. One is used by each thread.
+	 */
+	private static class Workspace<I extends ImageGray<I>, O extends ImageGray<O>> {
+		I input;
+		O outputA, outputB;
+		// lower extent of the padded tile
+		int paddedX0, paddedY0;
+	}
+
+	private static class Workspaces<I extends ImageGray<I>, O extends ImageGray<O>> {
+		final List<Workspace<I,O>> available = new ArrayList<>();
+		final TiledImage<I> input;
+		final TiledImage<O> outputA, outputB;
+
+		Workspaces(TiledImage<I> input, TiledImage<O> outputA, TiledImage<O> outputB) {
+			this.input = input;
+			this.outputA = outputA;
+			this.outputB = outputB;
+		}
+
+		synchronized Workspace<I,O> pop() {
+			if( !available.isEmpty() )
+				return available.remove(available.size()-1);
+			Workspace<I,O> w = new Workspace<>();
+			w.input = input.getImageType().createImage(1,1);
+			w.outputA = outputA.getImageType().createImage(1,1);
+			if( outputB != null )
+				w.outputB = outputB.getImageType().createImage(1,1);
+			return w;
+		}
+
+		synchronized void recycle( Workspace<I,O> w ) {
+			available.add(w);
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.census.impl;
+
+import boofcv.struct.border.ImageBorder_S32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * Implementation of {@link boofcv.alg.transform.census.CensusTransform} for the image border. Pixels outside
+ * the image are looked up using {@link ImageBorder_S32}.
+ *
+ * @author Peter Abeles
+ */
+public class ImplCensusTransformBorder {
+
+	public static void region3x3( final ImageBorder_S32<GrayU8> input , final GrayU8 output ) {
+		final GrayU8 image = input.getImage();
+		final int radius = 1;
+
+		for (int y = 0; y < image.height; y++) {
+			if( y >= radius && y < image.height-radius ) {
+				for (int x = 0; x < radius; x++) {
+					output.unsafe_set(x,y,compute(input,x,y,radius));
+				}
+				for (int x = Math.max(radius,image.width-radius); x < image.width; x++) {
+					output.unsafe_set(x,y,compute(input,x,y,radius));
+				}
+			} else {
+				for (int x = 0; x < image.width; x++) {
+					output.unsafe_set(x,y,compute(input,x,y,radius));
+				}
+			}
+		}
+	}
+
+	public static void region5x5( final ImageBorder_S32<GrayU8> input , final GrayS32 output ) {
+		final GrayU8 image = input.getImage();
+		final int radius = 2;
+
+		for (int y = 0; y < image.height; y++) {
+			if( y >= radius && y < image.height-radius ) {
+				for (int x = 0; x < radius; x++) {
+					output.unsafe_set(x,y,compute(input,x,y,radius));
+				}
+				for (int x = Math.max(radius,image.width-radius); x < image.width; x++) {
+					output.unsafe_set(x,y,compute(input,x,y,radius));
+				}
+			} else {
+				for (int x = 0; x < image.width; x++) {
+					output.unsafe_set(x,y,compute(input,x,y,radius));
+				}
+			}
+		}
+	}
+
+	private static int compute( ImageBorder_S32<GrayU8> input , int cx , int cy , int radius ) {
+		int center = input.get(cx,cy);
+
+		int census = 0;
+		int bit = 1;
+		for (int i = -radius; i <= radius; i++) {
+			for (int j = -radius; j <= radius; j++) {
+				if( i == 0 && j == 0 )
+					continue;
+				if( input.get(cx+j,cy+i) > center )
+					census |= bit;
+				bit <<= 1;
+			}
+		}
+		return census;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.census.impl;
+
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * Implementation of {@link boofcv.alg.transform.census.CensusTransform} for the image's inner region, i.e.
+ * pixels whose local region is entirely contained inside the image.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ImplCensusTransformInner {
+
+	public static void region3x3( final GrayU8 input , final GrayU8 output ) {
+		final int height = input.height-1;
+		final int width = input.width-1;
+		final int stride = input.stride;
+		final byte[] src = input.data;
+
+		for (int y = 1; y < height; y++) {
+			int indexSrc = input.startIndex + y*stride + 1;
+			int indexDst = output.startIndex + y*output.stride + 1;
+
+			for (int x = 1; x < width; x++, indexSrc++) {
+				int center = src[indexSrc] & 0xFF;
+
+				int census = 0;
+				int bit = 1;
+				for (int i = -1; i <= 1; i++) {
+					int indexRow = indexSrc + i*stride;
+					for (int j = -1; j <= 1; j++) {
+						if( i == 0 && j == 0 )
+							continue;
+						if( (src[indexRow+j] & 0xFF) > center )
+							census |= bit;
+						bit <<= 1;
+					}
+				}
+				output.data[indexDst++] = (byte)census;
+			}
+		}
+	}
+
+	public static void region5x5( final GrayU8 input , final GrayS32 output ) {
+		final int height = input.height-2;
+		final int width = input.width-2;
+		final int stride = input.stride;
+		final byte[] src = input.data;
+
+		for (int y = 2; y < height; y++) {
+			int indexSrc = input.startIndex + y*stride + 2;
+			int indexDst = output.startIndex + y*output.stride + 2;
+
+			for (int x = 2; x < width; x++, indexSrc++) {
+				int center = src[indexSrc] & 0xFF;
+
+				int census = 0;
+				int bit = 1;
+				for (int i = -2; i <= 2; i++) {
+					int indexRow = indexSrc + i*stride;
+					for (int j = -2; j <= 2; j++) {
+						if( i == 0 && j == 0 )
+							continue;
+						if( (src[indexRow+j] & 0xFF) > center )
+							census |= bit;
+						bit <<= 1;
+					}
+				}
+				output.data[indexDst++] = census;
+			}
+		}
+	}
+}
@@ -20,8 +20,11 @@ package boofcv.alg.transform.fft;
 
 import boofcv.abst.transform.fft.DiscreteFourierTransform;
 import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F32;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F32_MT;
 import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64_MT;
 import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.*;
 
 /**
@@ -34,23 +37,35 @@ public class DiscreteFourierTransformOps {
 	/**
 	 * Creates a {@link DiscreteFourierTransform} for images of type {@link GrayF32}.
 	 *
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
+	 *
 	 * @see GeneralPurposeFFT_F32_2D
+	 * @see GeneralPurposeFFT_F32_2D_MT
 	 *
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<GrayF32,InterleavedF32>  createTransformF32() {
-		return new GeneralFft_to_DiscreteFourierTransform_F32();
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new GeneralFft_to_DiscreteFourierTransform_F32_MT();
+		else
+			return new GeneralFft_to_DiscreteFourierTransform_F32();
 	}
 
 	/**
 	 * Creates a {@link DiscreteFourierTransform} for images of type {@link GrayF64}.
 	 *
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
+	 *
 	 * @see GeneralPurposeFFT_F64_2D
+	 * @see GeneralPurposeFFT_F64_2D_MT
 	 *
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<GrayF64,InterleavedF64>  createTransformF64() {
-		return new GeneralFft_to_DiscreteFourierTransform_F64();
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new GeneralFft_to_DiscreteFourierTransform_F64_MT();
+		else
+			return new GeneralFft_to_DiscreteFourierTransform_F64();
 	}
 
 	/**
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+
+import java.util.ArrayDeque;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link GeneralPurposeFFT_F64_2D}. First each row is transformed, with blocks
+ * of rows being processed by different threads. Then the columns are transformed. Instead of striding through
+ * memory one column at a time, a block of adjacent columns is copied (transposed) into a local buffer one row
+ * at a time, transformed, and copied back. Each thread processes a different block of columns.
+ * </p>
+ *
+ * <p>
+ * Each thread has its own 1D plans and buffers, since {@link GeneralPurposeFFT_F64_1D} isn't thread safe, which
+ * are recycled between calls. The results will be very similar to the single threaded version but not identical,
+ * because the single threaded version uses a different algorithm when the shape is a power of two.
+ * Only the functions which process the full complex layout are concurrent.
+ * {@link #realForward} and {@link #realInverse} use the single threaded implementation.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GeneralPurposeFFT_F64_2D_MT extends GeneralPurposeFFT_F64_2D {
+
+	// number of adjacent columns which are transposed together
+	private static final int BLOCK_COLUMNS = 16;
+	// minimum number of rows a thread will process in the row pass
+	private static final int MIN_ROWS = 8;
+
+	private final int rows;
+	private final int columns;
+
+	// output of the row pass when the input is real and needs to be expanded
+	private double[] work = new double[0];
+
+	// storage for each thread which is recycled between calls
+	private final ArrayDeque<ThreadData> available = new ArrayDeque<>();
+
+	/**
+	 * Creates new instance of GeneralPurposeFFT_F64_2D_MT.
+	 *
+	 * @param rows
+	 *            number of rows
+	 * @param columns
+	 *            number of columns
+	 */
+	public GeneralPurposeFFT_F64_2D_MT(int rows, int columns) {
+		super(rows, columns);
+		this.rows = rows;
+		this.columns = columns;
+	}
+
+	@Override
+	public void complexForward(final double[] a) {
+		if( rows == 1 || columns == 1 ) {
+			super.complexForward(a);
+			return;
+		}
+
+		final int rowStride = 2 * columns;
+		BoofConcurrency.loopBlocks(0,rows,MIN_ROWS,(r0,r1)->{
+			ThreadData data = popThreadData();
+			for (int r = r0; r < r1; r++) {
+				data.fftRow.complexForward(a, r * rowStride);
+			}
+			pushThreadData(data);
+		});
+
+		columnPass(a, a, true, false);
+	}
+
+	@Override
+	public void complexInverse(final double[] a, final boolean scale) {
+		if( rows == 1 || columns == 1 ) {
+			super.complexInverse(a, scale);
+			return;
+		}
+
+		final int rowStride = 2 * columns;
+		BoofConcurrency.loopBlocks(0,rows,MIN_ROWS,(r0,r1)->{
+			ThreadData data = popThreadData();
+			for (int r = r0; r < r1; r++) {
+				data.fftRow.complexInverse(a, r * rowStride, scale);
+			}
+			pushThreadData(data);
+		});
+
+		columnPass(a, a, false, scale);
+	}
+
+	@Override
+	public void realForwardFull(final double[] a) {
+		if( rows == 1 || columns == 1 ) {
+			super.realForwardFull(a);
+			return;
+		}
+
+		// The expanded rows would overwrite rows which have yet to be processed, so write into a work array
+		declareWork();
+		BoofConcurrency.loopBlocks(0,rows,MIN_ROWS,(r0,r1)->{
+			ThreadData data = popThreadData();
+			for (int r = r0; r < r1; r++) {
+				System.arraycopy(a, r * columns, data.row, 0, columns);
+				data.fftRow.realForwardFull(data.row);
+				System.arraycopy(data.row, 0, work, r * 2 * columns, 2 * columns);
+			}
+			pushThreadData(data);
+		});
+
+		columnPass(work, a, true, false);
+	}
+
+	@Override
+	public void realInverseFull(final double[] a, final boolean scale) {
+		if( rows == 1 || columns == 1 ) {
+			super.realInverseFull(a, scale);
+			return;
+		}
+
+		declareWork();
+		BoofConcurrency.loopBlocks(0,rows,MIN_ROWS,(r0,r1)->{
+			ThreadData data = popThreadData();
+			for (int r = r0; r < r1; r++) {
+				System.arraycopy(a, r * columns, data.row, 0, columns);
+				data.fftRow.realInverseFull(data.row, scale);
+				System.arraycopy(data.row, 0, work, r * 2 * columns, 2 * columns);
+			}
+			pushThreadData(data);
+		});
+
+		columnPass(work, a, false, scale);
+	}
+
+	/**
+	 * Transforms each column in complex row-major data. Blocks of columns are transposed into a buffer
+	 * so that memory is accessed sequentially.
+	 *
+	 * @param src Input data. Not modified unless the same as dst.
+	 * @param dst Output data. Can be the same as src.
+	 * @param forward true for the forward transform or false for inverse
+	 * @param scale if true then scaling is performed by the inverse transform
+	 */
+	private void columnPass(final double[] src, final double[] dst, final boolean forward, final boolean scale) {
+		final int rowStride = 2 * columns;
+		final int colStride = 2 * rows;
+		final int numBlocks = (columns + BLOCK_COLUMNS - 1) / BLOCK_COLUMNS;
+
+		BoofConcurrency.loopBlocks(0,numBlocks,(b0,b1)->{
+			ThreadData data = popThreadData();
+			final double[] block = data.block;
+			for (int b = b0; b < b1; b++) {
+				int c0 = b * BLOCK_COLUMNS;
+				int length = Math.min(columns, c0 + BLOCK_COLUMNS) - c0;
+
+				// copy the columns into the block so that each column is contiguous
+				for (int r = 0; r < rows; r++) {
+					int indexSrc = r * rowStride + 2 * c0;
+					int indexBlock = 2 * r;
+					for (int j = 0; j < length; j++, indexBlock += colStride) {
+						block[indexBlock] = src[indexSrc++];
+						block[indexBlock + 1] = src[indexSrc++];
+					}
+				}
+
+				for (int j = 0; j < length; j++) {
+					if( forward )
+						data.fftColumn.complexForward(block, j * colStride);
+					else
+						data.fftColumn.complexInverse(block, j * colStride, scale);
+				}
+
+				// copy the results back
+				for (int r = 0; r < rows; r++) {
+					int indexDst = r * rowStride + 2 * c0;
+					int indexBlock = 2 * r;
+					for (int j = 0; j < length; j++, indexBlock += colStride) {
+						dst[indexDst++] = block[indexBlock];
+						dst[indexDst++] = block[indexBlock + 1];
+					}
+				}
+			}
+			pushThreadData(data);
+		});
+	}
+
+	private void declareWork() {
+		if( work.length < rows * 2 * columns )
+			work = new double[rows * 2 * columns];
+	}
+
+	private ThreadData popThreadData() {
+		synchronized (available) {
+			return available.isEmpty() ? new ThreadData() : available.pop();
+		}
+	}
+
+	private void pushThreadData( ThreadData data ) {
+		synchronized (available) {
+			available.push(data);
+		}
+	}
+
+	private class ThreadData {
+		// transforms a single row
+		final GeneralPurposeFFT_F64_1D fftRow;
+		// transforms a single column
+		final GeneralPurposeFFT_F64_1D fftColumn;
+		// storage for a single row
+		final double[] row = new double[2 * columns];
+		// storage for a block of transposed columns
+		final double[] block = new double[BLOCK_COLUMNS * 2 * rows];
+
+		ThreadData() {
+			fftRow = new GeneralPurposeFFT_F64_1D(columns);
+			fftColumn = rows == columns ? fftRow : new GeneralPurposeFFT_F64_1D(rows);
+		}
+	}
+}
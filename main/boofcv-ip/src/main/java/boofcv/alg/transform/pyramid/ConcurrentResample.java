@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.PixelTransformAffine_F32;
+import boofcv.alg.distort.impl.DistortSupport;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.struct.image.ImageGray;
+
+import java.util.ArrayDeque;
+
+/**
+ * Rescales an image using multiple threads. The rows in the output image are split between the threads
+ * and each thread has its own copy of the interpolation algorithm. Used by the concurrent float pyramids.
+ *
+ * @author Peter Abeles
+ */
+class ConcurrentResample<T extends ImageGray<T>> {
+	// Images with fewer pixels than this are processed in a single thread
+	int minimumPixels = 100*100;
+
+	InterpolatePixelS<T> interpolate;
+	Class<T> imageType;
+
+	// Distortion for each thread. Recycled between calls
+	final ArrayDeque<ImageDistort<T,T>> available = new ArrayDeque<>();
+
+	PixelTransformAffine_F32 model = new PixelTransformAffine_F32();
+
+	ConcurrentResample( InterpolatePixelS<T> interpolate, Class<T> imageType ) {
+		this.interpolate = interpolate;
+		this.imageType = imageType;
+	}
+
+	/**
+	 * Rescales the input image so that it fills the output image
+	 */
+	void process( T input , T output ) {
+		// The transform only reads from the model so it's safe to share between threads
+		DistortSupport.transformScale(output,input,model);
+
+		if( output.width*output.height < minimumPixels ) {
+			ImageDistort<T,T> distort = pop();
+			distort.apply(input,output);
+			recycle(distort);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0,output.height,(y0,y1)->{
+			ImageDistort<T,T> distort = pop();
+			distort.apply(input,output,0,y0,output.width,y1);
+			recycle(distort);
+		});
+	}
+
+	/**
+	 * Changes the interpolation algorithm. Previously created workers are discarded.
+	 */
+	synchronized void setInterpolate( InterpolatePixelS<T> interpolate ) {
+		this.interpolate = interpolate;
+		available.clear();
+	}
+
+	synchronized ImageDistort<T,T> pop() {
+		if( available.isEmpty() ) {
+			// copy doesn't include the border, which has its own state
+			InterpolatePixelS<T> interp = interpolate.copy();
+			if( interpolate.getBorder() != null )
+				interp.setBorder(interpolate.getBorder().copy());
+			// threads are already handled here, so the distortion must be single threaded
+			ImageDistort<T,T> distort = FactoryDistort.distortSB(false, interp, imageType, false);
+			distort.setRenderAll(true);
+			distort.setModel(model);
+			return distort;
+		}
+		return available.pop();
+	}
+
+	synchronized void recycle( ImageDistort<T,T> distort ) {
+		available.push(distort);
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.transform.pyramid;
 
 import boofcv.abst.filter.convolve.ConvolveDown;
+import boofcv.concurrency.ImagePool;
 import boofcv.factory.filter.convolve.FactoryConvolveDown;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.convolve.Kernel1D;
@@ -48,9 +49,12 @@ import boofcv.struct.pyramid.PyramidDiscrete;
 public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDiscrete<T> {
 
 	// stores the results from the first convolution
-	private T temp;
-	ConvolveDown<T,T> horizontal;
-	ConvolveDown<T,T> vertical;
+	protected T temp;
+	protected ConvolveDown<T,T> horizontal;
+	protected ConvolveDown<T,T> vertical;
+
+	// radius of the blur kernel
+	protected int radius;
 
 	// amount of blur applied to each layer
 	double sigmas[];
@@ -71,6 +75,7 @@ public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDi
 
 		horizontal = FactoryConvolveDown.convolve(kernel, BorderType.NORMALIZED, true, 1, imageType,imageType);
 		vertical = FactoryConvolveDown.convolve(kernel, BorderType.NORMALIZED, false, 1, imageType,imageType);
+		radius = kernel.getRadius();
 
 		sigmas = new double[ scaleFactors.length ];
 		sigmas[0] = 0;
@@ -89,8 +94,9 @@ public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDi
 		super.initialize(input.width,input.height);
 
 		if( temp == null ) {
-			// declare it to be the latest image that it might need to be, resize below
-			temp = (T)input.createNew(1,1);
+			// declare it to be the largest image that it might need to be, resize below. Taken from the pool
+			// so that pyramids which are created for each image don't need to declare new memory
+			temp = ImagePool.getDefault().pop(getImageType(),tempWidth(),input.height);
 		}
 
 		if (scale[0] == 1) {
@@ -100,27 +106,49 @@ public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDi
 				getLayer(0).setTo(input);
 			}
 		} else {
-			int skip = scale[0];
-
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
-
-			temp.reshape(input.width/skip,input.height);
-			horizontal.process(input,temp);
-			vertical.process(temp,getLayer(0));
+			blurAndSample(input,scale[0],getLayer(0));
 		}
 
 		for (int index = 1; index < getNumLayers(); index++) {
 			int skip = scale[index]/scale[index-1];
-			T prev = getLayer(index-1);
-			temp.reshape(prev.width/skip,prev.height);
+			blurAndSample(getLayer(index-1),skip,getLayer(index));
+		}
+	}
+
+	/**
+	 * Blurs the input image and down samples it. First the horizontal convolution is applied then the vertical.
+	 *
+	 * @param input (Input) previous layer
+	 * @param skip Amount it's down sampled by
+	 * @param output (Output) next layer
+	 */
+	protected void blurAndSample( T input , int skip , T output ) {
+		temp.reshape(input.width/skip,input.height);
+
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
 
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
+		horizontal.process(input,temp);
+		vertical.process(temp,output);
+	}
 
-			horizontal.process(prev,temp);
-			vertical.process(temp,getLayer(index));
+	@Override
+	public void release() {
+		if( temp != null ) {
+			// restore the shape it was requested with so that it will be found next time
+			temp.reshape(tempWidth(),getInputHeight());
+			ImagePool.getDefault().recycle(temp);
+			temp = null;
 		}
+		super.release();
+	}
+
+	/**
+	 * Width of the largest image the horizontal convolution will write to
+	 */
+	private int tempWidth() {
+		int skip = scale[0] == 1 && scale.length > 1 ? scale[1] : scale[0];
+		return getInputWidth()/skip;
 	}
 
 	/**
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link PyramidDiscreteSampleBlur}. Each layer is still computed from the previous
+ * layer, but the work inside a layer is split between threads. Rows are independent in the horizontal pass and
+ * columns are independent in the vertical pass, so each thread is given a band of rows then a band of columns.
+ * The output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidDiscreteSampleBlur_MT<T extends ImageBase<T>> extends PyramidDiscreteSampleBlur<T> {
+
+	// Layers with fewer pixels than this are processed in a single thread since it isn't worth the overhead
+	public int minimumPixels = 100*100;
+
+	/**
+	 * @see PyramidDiscreteSampleBlur#PyramidDiscreteSampleBlur
+	 */
+	public PyramidDiscreteSampleBlur_MT(Kernel1D kernel, double sigma, ImageType<T> imageType,
+										boolean saveOriginalReference, int... scaleFactors) {
+		super(kernel, sigma, imageType, saveOriginalReference, scaleFactors);
+	}
+
+	@Override
+	protected void blurAndSample( T input, int skip, T output ) {
+		if( input.width*input.height < minimumPixels ) {
+			super.blurAndSample(input, skip, output);
+			return;
+		}
+
+		temp.reshape(input.width/skip,input.height);
+
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
+
+		BoofConcurrency.loopBlocks(0,input.height,(y0,y1)->
+				horizontal.process(input.subimage(0,y0,input.width,y1),temp.subimage(0,y0,temp.width,y1)));
+
+		// The column bands must be wider than the kernel or else a different algorithm is selected
+		int minBlock = Math.max(32,2*radius+2);
+		BoofConcurrency.loopBlocks(0,temp.width,minBlock,(x0,x1)->
+				vertical.process(temp.subimage(x0,0,x1,temp.height),output.subimage(x0,0,x1,output.height)));
+	}
+}
@@ -19,10 +19,11 @@
 package boofcv.alg.transform.pyramid;
 
 import boofcv.abst.filter.blur.BlurStorageFilter;
-import boofcv.alg.distort.DistortImageOps;
+import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.PixelTransformAffine_F32;
 import boofcv.alg.distort.impl.DistortSupport;
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
@@ -53,6 +54,13 @@ public class PyramidFloatGaussianScale< T extends ImageGray<T>> extends PyramidF
 	// used to store the blurred image
 	protected T tempImage;
 
+	// blur filter for each layer. Saved so that they can be reused
+	protected BlurStorageFilter<T>[] blurs;
+
+	// used to rescale the image. Saved so that it can be reused
+	protected ImageDistort<T,T> distort;
+	protected PixelTransformAffine_F32 model = new PixelTransformAffine_F32();
+
 	// how much each layer is blurred before sub-sampling
 	protected float[] sigmaLayers;
 
@@ -78,6 +86,8 @@ public class PyramidFloatGaussianScale< T extends ImageGray<T>> extends PyramidF
 		for( int i = 0; i < sigmaLayers.length; i++ )
 			this.sigmaLayers[i] = (float) sigmaLayers[i];
 
+		blurs = new BlurStorageFilter[ sigmaLayers.length ];
+
 		sigma = new double[ sigmaLayers.length ];
 		sigma[0] = sigmaLayers[0];
 		for( int i = 1; i < scales.length; i++ ) {
@@ -104,26 +114,40 @@ public class PyramidFloatGaussianScale< T extends ImageGray<T>> extends PyramidF
 			T layer = getLayer(i);
 
 			// Apply the requested blur to the previous layer
-			BlurStorageFilter<T> blur = (BlurStorageFilter<T>) FactoryBlurFilter.gaussian(layer.getImageType(), sigmaLayers[i],-1);
+			if( blurs[i] == null )
+				blurs[i] = (BlurStorageFilter<T>) FactoryBlurFilter.gaussian(layer.getImageType(), sigmaLayers[i],-1);
 			tempImage.reshape(prev.width,prev.height);
-			blur.process(prev,tempImage);
+			blurs[i].process(prev,tempImage);
 
 			// Resample the blurred image
 			if( scale[i] == 1 ) {
 				layer.setTo(tempImage);
 			} else {
-				PixelTransformAffine_F32 model = DistortSupport.transformScale(layer,tempImage, null);
-				DistortImageOps.distortSingle(tempImage,layer, true, model,interpolate);
+				resample(tempImage,layer);
 			}
 		}
 	}
 
+	/**
+	 * Rescales the input image so that it fills the output image
+	 */
+	protected void resample( T input , T output ) {
+		if( distort == null ) {
+			distort = FactoryDistort.distortSB(false, interpolate, getImageType().getImageClass());
+			distort.setRenderAll(true);
+		}
+		DistortSupport.transformScale(output,input,model);
+		distort.setModel(model);
+		distort.apply(input,output);
+	}
+
 	public InterpolatePixelS<T> getInterpolate() {
 		return interpolate;
 	}
 
 	public void setInterpolate(InterpolatePixelS<T> interpolate) {
 		this.interpolate = interpolate;
+		this.distort = null;
 	}
 
 	@Override
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Concurrent implementation of {@link PyramidFloatGaussianScale}. The blur is already concurrent when
+ * {@link boofcv.concurrency.BoofConcurrency#USE_CONCURRENT} is true. The rows in each layer are split between
+ * threads while it's being rescaled.
+ *
+ * @author Peter Abeles
+ */
+public class PyramidFloatGaussianScale_MT<T extends ImageGray<T>> extends PyramidFloatGaussianScale<T> {
+
+	ConcurrentResample<T> resample;
+
+	public PyramidFloatGaussianScale_MT(InterpolatePixelS<T> interpolate, double scales[], double sigmaLayers[],
+										Class<T> imageType) {
+		super(interpolate, scales, sigmaLayers, imageType);
+		resample = new ConcurrentResample<>(interpolate,imageType);
+	}
+
+	@Override
+	protected void resample( T input, T output ) {
+		resample.process(input,output);
+	}
+
+	@Override
+	public void setInterpolate( InterpolatePixelS<T> interpolate ) {
+		super.setInterpolate(interpolate);
+		resample.setInterpolate(interpolate);
+	}
+}
@@ -18,10 +18,11 @@
 
 package boofcv.alg.transform.pyramid;
 
-import boofcv.alg.distort.DistortImageOps;
+import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.PixelTransformAffine_F32;
 import boofcv.alg.distort.impl.DistortSupport;
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.factory.distort.FactoryDistort;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.PyramidFloat;
@@ -42,6 +43,10 @@ public class PyramidFloatScale< T extends ImageGray<T>>
 	// interpolation algorithm
 	protected InterpolatePixelS<T> interpolate;
 
+	// used to rescale the image. Saved so that it can be reused
+	protected ImageDistort<T,T> distort;
+	protected PixelTransformAffine_F32 model = new PixelTransformAffine_F32();
+
 	public PyramidFloatScale(InterpolatePixelS<T> interpolate, double scaleFactors[] , Class<T> imageType) {
 		super(ImageType.single(imageType),scaleFactors);
 		this.interpolate = interpolate;
@@ -56,11 +61,21 @@ public class PyramidFloatScale< T extends ImageGray<T>>
 
 		for( int i = 0; i < scale.length; i++ ) {
 			T prev = i == 0 ? input : getLayer(i-1);
-			T layer = getLayer(i);
+			resample(prev,getLayer(i));
+		}
+	}
 
-			PixelTransformAffine_F32 model = DistortSupport.transformScale(layer,prev, null);
-			DistortImageOps.distortSingle(prev,layer, true, model,interpolate);
+	/**
+	 * Rescales the input image so that it fills the output image
+	 */
+	protected void resample( T input , T output ) {
+		if( distort == null ) {
+			distort = FactoryDistort.distortSB(false, interpolate, getImageType().getImageClass());
+			distort.setRenderAll(true);
 		}
+		DistortSupport.transformScale(output,input,model);
+		distort.setModel(model);
+		distort.apply(input,output);
 	}
 
 	@Override
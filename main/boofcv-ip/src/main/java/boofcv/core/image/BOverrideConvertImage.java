@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.image;
+
+import boofcv.override.BOverrideClass;
+import boofcv.override.BOverrideManager;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Override for conversions between single band images in {@link ConvertImage}. The implementation returns true
+ * if it processed the image, otherwise the default implementation is used.
+ *
+ * @author Peter Abeles
+ */
+public class BOverrideConvertImage extends BOverrideClass {
+
+	static {
+		BOverrideManager.register(BOverrideConvertImage.class);
+	}
+
+	public static Convert convert;
+
+	public interface Convert {
+		/**
+		 * @param input Input image
+		 * @param output Output image. Already reshaped to match the input.
+		 * @return true if the image was processed
+		 */
+		boolean convert(ImageGray input, ImageGray output);
+	}
+
+	public static boolean invokeNativeConvert(ImageGray input, ImageGray output) {
+		boolean processed = false;
+		if( convert != null ) {
+			try {
+				processed = convert.convert(input, output);
+			} catch( RuntimeException ignore ) {}
+		}
+		return processed;
+	}
+}
@@ -54,7 +54,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -98,7 +99,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -142,7 +144,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -186,7 +189,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -230,7 +234,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -274,7 +279,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -318,7 +324,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -490,7 +497,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -534,7 +542,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -578,7 +587,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -622,7 +632,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -666,7 +677,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -710,7 +722,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -754,7 +767,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -926,7 +940,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -970,7 +985,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1014,7 +1030,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1058,7 +1075,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1102,7 +1120,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1146,7 +1165,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1190,7 +1210,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1362,7 +1383,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1406,7 +1428,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1450,7 +1473,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1494,7 +1518,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1538,7 +1563,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1582,7 +1608,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1626,7 +1653,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1798,7 +1826,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1842,7 +1871,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1886,7 +1916,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1930,7 +1961,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -1974,7 +2006,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2018,7 +2051,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2062,7 +2096,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2234,7 +2269,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2278,7 +2314,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2322,7 +2359,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2366,7 +2404,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2410,7 +2449,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2454,7 +2494,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2498,7 +2539,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2670,7 +2712,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2714,7 +2757,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2758,7 +2802,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2802,7 +2847,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2846,7 +2892,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2890,7 +2937,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -2934,7 +2982,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -3106,7 +3155,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -3150,7 +3200,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -3194,7 +3245,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -3238,7 +3290,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -3282,7 +3335,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -3326,7 +3380,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
@@ -3370,7 +3425,8 @@ public class ConvertImage {
 		}
 
 		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		if( !BOverrideConvertImage.invokeNativeConvert(input, output) )
+			ImplConvertImage.convert(input, output);
 
 		return output;
 	}
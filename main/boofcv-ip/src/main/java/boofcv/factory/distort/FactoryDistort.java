@@ -21,13 +21,14 @@ package boofcv.factory.distort;
 import boofcv.abst.distort.ConfigDeformPointMLS;
 import boofcv.abst.distort.PointDeformKeyPoints;
 import boofcv.abst.distort.PointDeform_MLS;
-import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.*;
 import boofcv.alg.distort.impl.*;
 import boofcv.alg.distort.mls.ImageDeformPointMLS_F32;
 import boofcv.alg.interpolate.InterpolatePixel;
 import boofcv.alg.interpolate.InterpolatePixelMB;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.InterpolationType;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.image.*;
@@ -93,31 +94,56 @@ public class FactoryDistort {
 	 */
 	public static <Input extends ImageGray<Input>, Output extends ImageGray<Output>>
 	ImageDistort<Input, Output> distortSB(boolean cached, InterpolatePixelS<Input> interp, Class<Output> outputType)
+	{
+		return distortSB(cached, interp, outputType, BoofConcurrency.USE_CONCURRENT);
+	}
+
+	/**
+	 * Creates a {@link boofcv.alg.distort.ImageDistort} for the specified image type, transformation
+	 * and interpolation instance. Algorithms which already split the image between threads should request
+	 * the single threaded implementation to avoid nesting threads.
+	 *
+	 * @param cached If true the distortion is only computed one.  False for recomputed each time, but less memory.
+	 * @param interp Which interpolation algorithm should be used.
+	 * @param outputType Type of output image.
+	 * @param concurrent If true the concurrent implementation is returned.
+	 */
+	public static <Input extends ImageGray<Input>, Output extends ImageGray<Output>>
+	ImageDistort<Input, Output> distortSB(boolean cached, InterpolatePixelS<Input> interp, Class<Output> outputType,
+										  boolean concurrent )
 	{
 		if( cached ) {
+			ImageDistortCache_SB<Input,Output> alg;
 			if( outputType == GrayF32.class ) {
-				return (ImageDistort<Input,Output>)new ImplImageDistortCache_F32(interp);
+				alg = (ImageDistortCache_SB)new ImplImageDistortCache_F32(interp);
 			} else if( GrayS32.class.isAssignableFrom(outputType) ) {
-				return (ImageDistort<Input,Output>)new ImplImageDistortCache_S32(interp);
+				alg = (ImageDistortCache_SB)new ImplImageDistortCache_S32(interp);
 			} else if( GrayI16.class.isAssignableFrom(outputType) ) {
-				return (ImageDistort<Input,Output>)new ImplImageDistortCache_I16(interp);
+				alg = (ImageDistortCache_SB)new ImplImageDistortCache_I16(interp);
 			} else if( GrayI8.class.isAssignableFrom(outputType) ) {
-				return (ImageDistort<Input,Output>)new ImplImageDistortCache_I8(interp);
+				alg = (ImageDistortCache_SB)new ImplImageDistortCache_I8(interp);
 			} else {
 				throw new IllegalArgumentException("Output type not supported: "+outputType.getSimpleName());
 			}
+			if( concurrent )
+				return new ImageDistortCache_SB_MT<>(alg);
+			return alg;
 		} else {
+			ImageDistortBasic_SB<Input,Output> alg;
 			if (outputType == GrayF32.class) {
-				return (ImageDistort<Input, Output>) new ImplImageDistort_F32(interp);
+				alg = (ImageDistortBasic_SB) new ImplImageDistort_F32(interp);
 			} else if (GrayS32.class.isAssignableFrom(outputType)) {
-				return (ImageDistort<Input, Output>) new ImplImageDistort_S32(interp);
+				alg = (ImageDistortBasic_SB) new ImplImageDistort_S32(interp);
 			} else if (GrayI16.class.isAssignableFrom(outputType)) {
-				return (ImageDistort<Input, Output>) new ImplImageDistort_I16(interp);
+				alg = (ImageDistortBasic_SB) new ImplImageDistort_I16(interp);
 			} else if (GrayI8.class.isAssignableFrom(outputType)) {
-				return (ImageDistort<Input, Output>) new ImplImageDistort_I8(interp);
+				alg = (ImageDistortBasic_SB) new ImplImageDistort_I8(interp);
 			} else {
 				throw new IllegalArgumentException("Output type not supported: " + outputType.getSimpleName());
 			}
+			if( concurrent )
+				return new ImageDistortBasic_SB_MT<>(alg);
+			return alg;
 		}
 	}
 
@@ -144,16 +170,22 @@ public class FactoryDistort {
 		if( cached ) {
 			throw new IllegalArgumentException("Cached not supported yet");
 		} else {
+			ImageDistortBasic_IL<Input,Output> alg;
 			switch( outputType.getDataType() ) {
 				case F32:
-					return (ImageDistort<Input, Output>) new ImplImageDistort_IL_F32((InterpolatePixelMB)interp);
+					alg = (ImageDistortBasic_IL) new ImplImageDistort_IL_F32((InterpolatePixelMB)interp);
+					break;
 
 				case U8:
-					return (ImageDistort<Input, Output>) new ImplImageDistort_IL_U8((InterpolatePixelMB)interp);
+					alg = (ImageDistortBasic_IL) new ImplImageDistort_IL_U8((InterpolatePixelMB)interp);
+					break;
 
 				default:
 					throw new IllegalArgumentException("Not supported yet");
 			}
+			if( BoofConcurrency.USE_CONCURRENT )
+				return new ImageDistortBasic_IL_MT<>(alg);
+			return alg;
 		}
 	}
 
@@ -22,6 +22,10 @@ import boofcv.abst.filter.binary.BinaryContourFinder;
 import boofcv.abst.filter.binary.BinaryContourFinderLinearExternal;
 import boofcv.abst.filter.binary.BinaryLabelContourFinder;
 import boofcv.abst.filter.binary.BinaryLabelContourFinderChang2004;
+import boofcv.alg.filter.binary.LinearExternalContours;
+import boofcv.alg.filter.binary.LinearExternalContours_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
 
 /**
  * Creates instances of {@link BinaryLabelContourFinder}
@@ -44,9 +48,16 @@ public class FactoryBinaryContourFinder {
 	}
 
 	/**
-	 * Binary contour finder for external contours only
+	 * Binary contour finder for external contours only. If {@link BoofConcurrency#USE_CONCURRENT} is true then
+	 * the image is processed in parallel strips.
+	 *
+	 * @see LinearExternalContours
+	 * @see LinearExternalContours_MT
 	 */
 	public static BinaryContourFinder linearExternal() {
-		return new BinaryContourFinderLinearExternal();
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new BinaryContourFinderLinearExternal(new LinearExternalContours_MT(ConnectRule.FOUR));
+		else
+			return new BinaryContourFinderLinearExternal();
 	}
 }
@@ -19,8 +19,8 @@
 package boofcv.factory.transform.pyramid;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
-import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur;
-import boofcv.alg.transform.pyramid.PyramidFloatGaussianScale;
+import boofcv.alg.transform.pyramid.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.kernel.FactoryKernel;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.factory.interpolate.FactoryInterpolation;
@@ -57,7 +57,10 @@ public class FactoryPyramid {
 
 		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,sigma,radius);
 
-		return new PyramidDiscreteSampleBlur<>(kernel, sigma, imageType, saveOriginalReference, scaleFactors);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new PyramidDiscreteSampleBlur_MT<>(kernel, sigma, imageType, saveOriginalReference, scaleFactors);
+		else
+			return new PyramidDiscreteSampleBlur<>(kernel, sigma, imageType, saveOriginalReference, scaleFactors);
 	}
 
 	/**
@@ -75,7 +78,30 @@ public class FactoryPyramid {
 
 		InterpolatePixelS<T> interp = FactoryInterpolation.bilinearPixelS(imageType, BorderType.EXTENDED);
 
-		return new PyramidFloatGaussianScale<>(interp, scaleFactors, sigmas, imageType);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new PyramidFloatGaussianScale_MT<>(interp, scaleFactors, sigmas, imageType);
+		else
+			return new PyramidFloatGaussianScale<>(interp, scaleFactors, sigmas, imageType);
+	}
+
+	/**
+	 * Creates a float pyramid where each layer is created by rescaling the previous layer using bilinear
+	 * interpolation. No blur is applied.
+	 *
+	 * @param scaleFactors The scale factor of each layer relative to the previous layer.
+	 *                     Layer 0 is relative to the input image.
+	 * @param imageType Type of image in the pyramid.
+	 * @return PyramidFloat
+	 */
+	public static <T extends ImageGray<T>>
+	PyramidFloat<T> floatScale( double scaleFactors[], Class<T> imageType ) {
+
+		InterpolatePixelS<T> interp = FactoryInterpolation.bilinearPixelS(imageType, BorderType.EXTENDED);
+
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new PyramidFloatScale_MT<>(interp, scaleFactors, imageType);
+		else
+			return new PyramidFloatScale<>(interp, scaleFactors, imageType);
 	}
 
 	/**
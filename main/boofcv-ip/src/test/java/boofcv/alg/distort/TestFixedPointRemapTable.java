@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFixedPointRemapTable {
+
+	int width = 30, height = 25;
+	int srcWidth = 35, srcHeight = 28;
+
+	/**
+	 * The encoded coordinate should be the same as the original coordinate, up to the resolution of the weights
+	 */
+	@Test
+	void compareToOrig() {
+		PixelTransformAffine_F32 orig = new PixelTransformAffine_F32(new Affine2D_F32(1f,0.1f,0.05f,1.2f,-2.1f,1.3f));
+
+		FixedPointRemapTable alg = new FixedPointRemapTable(width,height,srcWidth,srcHeight,orig);
+
+		Point2D_F32 expected = new Point2D_F32();
+		Point2D_F32 found = new Point2D_F32();
+
+		int totalInside = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				orig.compute(x,y,expected);
+				boolean inside = expected.x >= 0 && expected.x <= srcWidth-1 &&
+						expected.y >= 0 && expected.y <= srcHeight-1;
+				assertEquals(inside,alg.isInside(x,y));
+				if( !inside )
+					continue;
+				totalInside++;
+				alg.get(x,y,found);
+				assertEquals(expected.x,found.x,0.5/FixedPointRemapTable.WEIGHT_ONE+1e-4);
+				assertEquals(expected.y,found.y,0.5/FixedPointRemapTable.WEIGHT_ONE+1e-4);
+			}
+		}
+		// make sure both cases are tested
+		assertTrue(totalInside > 0 && totalInside < width*height);
+	}
+
+	/**
+	 * Pixels along the right and bottom edge can't step outside the source image
+	 */
+	@Test
+	void edgeSteps() {
+		FixedPointRemapTable alg = new FixedPointRemapTable(srcWidth,srcHeight,srcWidth,srcHeight,
+				new DoNothingPixelTransform_F32());
+
+		for (int y = 0; y < srcHeight; y++) {
+			for (int x = 0; x < srcWidth; x++) {
+				int packed = alg.weights[y*srcWidth+x];
+				assertEquals(0,packed & (FixedPointRemapTable.WEIGHT_MASK | FixedPointRemapTable.WEIGHT_MASK<<FixedPointRemapTable.WEIGHT_BITS));
+				assertEquals(x < srcWidth-1, (packed & FixedPointRemapTable.STEP_X) != 0);
+				assertEquals(y < srcHeight-1, (packed & FixedPointRemapTable.STEP_Y) != 0);
+			}
+		}
+	}
+
+	@Test
+	void nanIsOutside() {
+		PixelTransform<Point2D_F32> transform = new PixelTransform<Point2D_F32>() {
+			@Override
+			public void compute(int x, int y, Point2D_F32 output) {
+				output.set(Float.NaN,y);
+			}
+
+			@Override
+			public PixelTransform<Point2D_F32> copy() {
+				return this;
+			}
+		};
+		FixedPointRemapTable alg = new FixedPointRemapTable(width,height,srcWidth,srcHeight,transform);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertFalse(alg.isInside(x,y));
+			}
+		}
+	}
+
+	@Test
+	void serialize() throws IOException, ClassNotFoundException {
+		PixelTransformAffine_F32 orig = new PixelTransformAffine_F32(new Affine2D_F32(1f,0.1f,0.05f,1.2f,-2.1f,1.3f));
+		FixedPointRemapTable expected = new FixedPointRemapTable(width,height,srcWidth,srcHeight,orig);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(expected);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		FixedPointRemapTable found = (FixedPointRemapTable)in.readObject();
+
+		assertEquals(expected.width,found.width);
+		assertEquals(expected.height,found.height);
+		assertEquals(expected.srcWidth,found.srcWidth);
+		assertEquals(expected.srcHeight,found.srcHeight);
+		assertArrayEquals(expected.srcX,found.srcX);
+		assertArrayEquals(expected.srcY,found.srcY);
+		assertArrayEquals(expected.weights,found.weights);
+	}
+}
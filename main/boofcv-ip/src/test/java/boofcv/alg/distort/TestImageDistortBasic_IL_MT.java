@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.distort.impl.ImplImageDistort_IL_F32;
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedF32;
+import boofcv.testing.BoofTesting;
+import georegression.struct.homography.Homography2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImageDistortBasic_IL_MT {
+	Random rand = new Random(234);
+	int width = 80, height = 65;
+
+	/**
+	 * Results should be identical to the single threaded version for every type of rendering
+	 */
+	@Test
+	void compareToSingleThread() {
+		ImageType<InterleavedF32> imageType = ImageType.il(3,InterleavedF32.class);
+		InterleavedF32 src = imageType.createImage(width,height);
+		GImageMiscOps.fillUniform(src,rand,0,200);
+
+		ImageDistortBasic_IL<InterleavedF32,InterleavedF32> expected = new ImplImageDistort_IL_F32(createInterp(imageType));
+		ImageDistortBasic_IL_MT<InterleavedF32,InterleavedF32> found = new ImageDistortBasic_IL_MT<>(
+				new ImplImageDistort_IL_F32(createInterp(imageType)));
+
+		PointToPixelTransform_F32 transform = new PointToPixelTransform_F32(new PointTransformHomography_F32(
+				new Homography2D_F32(1.1f,0.05f,-4,-0.02f,0.95f,3,0.0001f,0,1)));
+		expected.setModel(transform);
+		found.setModel(transform);
+
+		InterleavedF32 dstA = src.createSameShape();
+		InterleavedF32 dstB = src.createSameShape();
+		GrayU8 maskA = new GrayU8(width,height);
+		GrayU8 maskB = new GrayU8(width,height);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			for( boolean renderAll : new boolean[]{true,false}) {
+				expected.setRenderAll(renderAll);
+				found.setRenderAll(renderAll);
+
+				GImageMiscOps.fill(dstA,1);
+				GImageMiscOps.fill(dstB,1);
+				expected.apply(src,dstA);
+				found.apply(src,dstB);
+				BoofTesting.assertEquals(dstA,dstB,0);
+
+				ImageMiscOps.fill(maskA,2);
+				ImageMiscOps.fill(maskB,2);
+				expected.apply(src,dstA,maskA);
+				found.apply(src,dstB,maskB);
+				BoofTesting.assertEquals(dstA,dstB,0);
+				BoofTesting.assertEquals(maskA,maskB,0);
+
+				GImageMiscOps.fill(dstA,1);
+				GImageMiscOps.fill(dstB,1);
+				expected.apply(src,dstA,5,8,60,50);
+				found.apply(src,dstB,5,8,60,50);
+				BoofTesting.assertEquals(dstA,dstB,0);
+			}
+		}
+	}
+
+	private static InterpolatePixelMB<InterleavedF32> createInterp( ImageType<InterleavedF32> imageType ) {
+		return FactoryInterpolation.bilinearPixelMB(imageType,BorderType.ZERO);
+	}
+}
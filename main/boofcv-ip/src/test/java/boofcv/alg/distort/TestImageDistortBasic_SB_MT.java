@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.distort.impl.ImplImageDistort_F32;
+import boofcv.alg.distort.impl.ImplImageDistort_I8;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import georegression.struct.homography.Homography2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImageDistortBasic_SB_MT {
+	Random rand = new Random(234);
+	int width = 80, height = 65;
+
+	/**
+	 * Results should be identical to the single threaded version for every type of rendering
+	 */
+	@Test
+	void compareToSingleThread() {
+		compareToSingleThread(new GrayF32(width,height),
+				new ImplImageDistort_F32<>(FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.ZERO)),
+				new ImplImageDistort_F32<>(FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.ZERO)));
+		compareToSingleThread(new GrayU8(width,height),
+				new ImplImageDistort_I8<>(FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.EXTENDED)),
+				new ImplImageDistort_I8<>(FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.EXTENDED)));
+	}
+
+	<T extends ImageGray<T>>
+	void compareToSingleThread( T src , ImageDistortBasic_SB<T,T> expected , ImageDistortBasic_SB<T,T> serial ) {
+		GImageMiscOps.fillUniform(src,rand,0,200);
+
+		ImageDistortBasic_SB_MT<T,T> found = new ImageDistortBasic_SB_MT<>(serial);
+
+		// a transform with internal state, which is copied for each thread
+		PointTransformHomography_F32 homography = new PointTransformHomography_F32(
+				new Homography2D_F32(1.1f,0.05f,-4,-0.02f,0.95f,3,0.0001f,0,1));
+		PointToPixelTransform_F32 transform = new PointToPixelTransform_F32(homography);
+		expected.setModel(transform);
+		found.setModel(transform);
+
+		T dstA = src.createSameShape();
+		T dstB = src.createSameShape();
+		GrayU8 maskA = new GrayU8(width,height);
+		GrayU8 maskB = new GrayU8(width,height);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			for( boolean renderAll : new boolean[]{true,false}) {
+				expected.setRenderAll(renderAll);
+				found.setRenderAll(renderAll);
+
+				GImageMiscOps.fill(dstA,1);
+				GImageMiscOps.fill(dstB,1);
+				expected.apply(src,dstA);
+				found.apply(src,dstB);
+				BoofTesting.assertEquals(dstA,dstB,0);
+
+				ImageMiscOps.fill(maskA,2);
+				ImageMiscOps.fill(maskB,2);
+				expected.apply(src,dstA,maskA);
+				found.apply(src,dstB,maskB);
+				BoofTesting.assertEquals(dstA,dstB,0);
+				BoofTesting.assertEquals(maskA,maskB,0);
+
+				GImageMiscOps.fill(dstA,1);
+				GImageMiscOps.fill(dstB,1);
+				expected.apply(src,dstA,5,8,60,50);
+				found.apply(src,dstB,5,8,60,50);
+				BoofTesting.assertEquals(dstA,dstB,0);
+			}
+
+			// changes to the transform after it has been passed in should be used
+			homography.getModel().a13 = 2;
+			expected.apply(src,dstA);
+			found.apply(src,dstB);
+			BoofTesting.assertEquals(dstA,dstB,0);
+		}
+	}
+
+	/**
+	 * The transform should only be copied by the calling thread and once for each thread in the pool
+	 */
+	@Test
+	void copiesTransformOnCallingThread() {
+		GrayF32 src = new GrayF32(width,height);
+		GrayF32 dst = src.createSameShape();
+		ImageDistortBasic_SB_MT<GrayF32,GrayF32> alg = new ImageDistortBasic_SB_MT<>(
+				new ImplImageDistort_F32<>(FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.ZERO)));
+
+		CountCopies transform = new CountCopies();
+		alg.setModel(transform);
+
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			for (int i = 0; i < 5; i++) {
+				alg.apply(src,dst);
+			}
+		}
+		assertEquals(5*4, transform.copies.get());
+		assertEquals(0, transform.otherThread.get());
+	}
+
+	/**
+	 * Counts the number of times it has been copied and if it was copied by another thread
+	 */
+	static class CountCopies extends PixelTransformAffine_F32 {
+		final Thread owner = Thread.currentThread();
+		AtomicInteger copies = new AtomicInteger();
+		AtomicInteger otherThread = new AtomicInteger();
+
+		@Override
+		public PixelTransformAffine_F32 copy() {
+			copies.incrementAndGet();
+			if( Thread.currentThread() != owner )
+				otherThread.incrementAndGet();
+			return super.copy();
+		}
+	}
+}
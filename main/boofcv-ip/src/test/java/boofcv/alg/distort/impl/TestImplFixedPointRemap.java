@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort.impl;
+
+import boofcv.alg.distort.FixedPointRemapTable;
+import boofcv.alg.distort.PixelTransformAffine_F32;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplFixedPointRemap {
+	Random rand = new Random(234);
+	int width = 40, height = 30;
+	int srcWidth = 45, srcHeight = 35;
+	int outsideValue = 7;
+
+	PixelTransformAffine_F32 transform = new PixelTransformAffine_F32(
+			new Affine2D_F32(1.1f,0.1f,-0.05f,1.2f,-2.1f,1.3f));
+	FixedPointRemapTable table = new FixedPointRemapTable(width,height,srcWidth,srcHeight,transform);
+
+	/**
+	 * Compare against floating point bilinear interpolation. The only difference should be caused by
+	 * the reduced precision of the weights.
+	 */
+	@Test
+	void gray_compareToFloat() {
+		GrayU8 input = new GrayU8(srcWidth,srcHeight);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		GrayU8 output = new GrayU8(width,height);
+
+		BoofTesting.checkSubImage(this,"gray_compareToFloat",true,input,output);
+	}
+
+	public void gray_compareToFloat( GrayU8 input , GrayU8 output ) {
+		ImplFixedPointRemap.remap(table,input,output,outsideValue);
+
+		InterpolatePixelS<GrayU8> interp = FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.EXTENDED);
+		interp.setImage(input);
+
+		// worst case error from rounding each weight
+		double tol = 255.0*2.0/FixedPointRemapTable.WEIGHT_ONE+1;
+		Point2D_F32 p = new Point2D_F32();
+		double totalError = 0;
+		int totalInside = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if( !table.isInside(x,y) ) {
+					assertEquals(outsideValue,output.get(x,y));
+					continue;
+				}
+				transform.compute(x,y,p);
+				float expected = interp.get(p.x,p.y);
+				double error = Math.abs(expected-output.get(x,y));
+				assertTrue(error <= tol, "error = "+error);
+				totalError += error;
+				totalInside++;
+			}
+		}
+		assertTrue(totalInside > 0 && totalInside < width*height);
+		// on average it should be much better than the worst case
+		assertTrue(totalError/totalInside < 2.0);
+	}
+
+	/**
+	 * If the outside value is negative then those pixels should not be modified
+	 */
+	@Test
+	void gray_skipOutside() {
+		GrayU8 input = new GrayU8(srcWidth,srcHeight);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		GrayU8 output = new GrayU8(width,height);
+		ImageMiscOps.fill(output,99);
+
+		ImplFixedPointRemap.remap(table,input,output,-1);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if( !table.isInside(x,y) )
+					assertEquals(99,output.get(x,y));
+			}
+		}
+	}
+
+	/**
+	 * Each band in the interleaved image should be the same as remapping a gray image
+	 */
+	@Test
+	void interleaved_compareToGray() {
+		InterleavedU8 input = new InterleavedU8(srcWidth,srcHeight,3);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		InterleavedU8 output = new InterleavedU8(width,height,3);
+
+		BoofTesting.checkSubImage(this,"interleaved_compareToGray",true,input,output);
+	}
+
+	public void interleaved_compareToGray( InterleavedU8 input , InterleavedU8 output ) {
+		ImplFixedPointRemap.remap(table,input,output,outsideValue);
+
+		GrayU8 bandIn = new GrayU8(srcWidth,srcHeight);
+		GrayU8 bandOut = new GrayU8(width,height);
+		for (int band = 0; band < input.numBands; band++) {
+			for (int y = 0; y < srcHeight; y++) {
+				for (int x = 0; x < srcWidth; x++) {
+					bandIn.set(x,y,input.getBand(x,y,band));
+				}
+			}
+			ImplFixedPointRemap.remap(table,bandIn,bandOut,outsideValue);
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(bandOut.get(x,y),output.getBand(x,y,band));
+				}
+			}
+		}
+	}
+}
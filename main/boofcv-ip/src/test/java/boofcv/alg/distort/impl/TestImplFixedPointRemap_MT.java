@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort.impl;
+
+import boofcv.alg.distort.FixedPointRemapTable;
+import boofcv.alg.distort.PixelTransformAffine_F32;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImplFixedPointRemap_MT {
+	Random rand = new Random(234);
+	int width = 60, height = 50;
+	int srcWidth = 65, srcHeight = 55;
+
+	FixedPointRemapTable table = new FixedPointRemapTable(width,height,srcWidth,srcHeight,
+			new PixelTransformAffine_F32(new Affine2D_F32(1.1f,0.1f,-0.05f,1.2f,-2.1f,1.3f)));
+
+	@Test
+	void gray() {
+		GrayU8 input = new GrayU8(srcWidth,srcHeight);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		GrayU8 expected = new GrayU8(width,height);
+		GrayU8 found = new GrayU8(width,height);
+
+		ImplFixedPointRemap.remap(table,input,expected,3);
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			ImplFixedPointRemap_MT.remap(table,input,found,3);
+		}
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	@Test
+	void interleaved() {
+		InterleavedU8 input = new InterleavedU8(srcWidth,srcHeight,3);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		InterleavedU8 expected = new InterleavedU8(width,height,3);
+		InterleavedU8 found = new InterleavedU8(width,height,3);
+
+		ImplFixedPointRemap.remap(table,input,expected,3);
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			ImplFixedPointRemap_MT.remap(table,input,found,3);
+		}
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
@@ -188,6 +188,51 @@ public class TestImageDeformPointMLS_F32 {
 	}
 
 
+	/**
+	 * The copy should produce identical results and not be modified when the original changes
+	 */
+	@Test
+	public void copy() {
+		for( TypeDeformMLS type : TypeDeformMLS.values() ) {
+			ImageDeformPointMLS_F32 alg = new ImageDeformPointMLS_F32(type);
+			alg.configure(width, height, rows, cols);
+
+			alg.addControl(5, 5);
+			alg.addControl(10, 20);
+			alg.addControl(30, 50);
+
+			alg.setDistorted(0, 10, 12);
+			alg.setDistorted(1, 14, 30);
+			alg.setDistorted(2, 25, 45);
+
+			alg.fixateUndistorted();
+			alg.fixateDistorted();
+
+			ImageDeformPointMLS_F32 copy = alg.copy();
+
+			Point2D_F32 expected = new Point2D_F32();
+			Point2D_F32 found = new Point2D_F32();
+			alg.compute(4, 7, expected);
+			copy.compute(4, 7, found);
+			assertTrue(found.distance(expected) <= GrlConstants.TEST_F32);
+
+			// the copy should be fully functional
+			copy.setDistorted(1, 16, 28);
+			copy.fixateDistorted();
+			alg.setDistorted(1, 16, 28);
+			alg.fixateDistorted();
+			alg.compute(4, 7, expected);
+			copy.compute(4, 7, found);
+			assertTrue(found.distance(expected) <= GrlConstants.TEST_F32);
+
+			// modifying the original should not change the copy
+			alg.setDistorted(1, 2, 2);
+			alg.fixateDistorted();
+			copy.compute(4, 7, found);
+			assertTrue(found.distance(expected) <= GrlConstants.TEST_F32);
+		}
+	}
+
 	@Test
 	public void computeAverageP() {
 		ImageDeformPointMLS_F32 alg = new ImageDeformPointMLS_F32(TypeDeformMLS.AFFINE);
@@ -105,9 +105,13 @@ public class TestLinearExternalContours {
 			 {0,1,1,1,1,1,1,0},
 			 {0,0,0,0,0,0,0,0}});
 
+	protected LinearExternalContours create( ConnectRule rule ) {
+		return new LinearExternalContours(rule);
+	}
+
 	@Test
 	public void test1_4() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.FOUR);
+		LinearExternalContours alg = create(ConnectRule.FOUR);
 
 		GrayU8 binary = TEST1.clone();
 
@@ -119,7 +123,7 @@ public class TestLinearExternalContours {
 
 	@Test
 	public void test1_8() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.EIGHT);
+		LinearExternalContours alg = create(ConnectRule.EIGHT);
 
 		GrayU8 binary = TEST1.clone();
 
@@ -131,7 +135,7 @@ public class TestLinearExternalContours {
 
 	@Test
 	public void test2_4() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.FOUR);
+		LinearExternalContours alg = create(ConnectRule.FOUR);
 
 		GrayU8 binary = TEST2.clone();
 
@@ -143,7 +147,7 @@ public class TestLinearExternalContours {
 
 	@Test
 	public void test2_8() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.EIGHT);
+		LinearExternalContours alg = create(ConnectRule.EIGHT);
 
 		GrayU8 binary = TEST2.clone();
 
@@ -155,7 +159,7 @@ public class TestLinearExternalContours {
 
 	@Test
 	public void test3_4() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.FOUR);
+		LinearExternalContours alg = create(ConnectRule.FOUR);
 
 		GrayU8 binary = TEST3.clone();
 
@@ -167,7 +171,7 @@ public class TestLinearExternalContours {
 
 	@Test
 	public void test3_8() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.EIGHT);
+		LinearExternalContours alg = create(ConnectRule.EIGHT);
 
 		GrayU8 binary = TEST3.clone();
 
@@ -179,48 +183,68 @@ public class TestLinearExternalContours {
 
 	@Test
 	public void test4() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.FOUR);
+		LinearExternalContours alg = create(ConnectRule.FOUR);
 		alg.process(TEST4.clone(),1,1);
 		checkExpectedExternal(new int[]{24},alg);
 
-		alg = new LinearExternalContours(ConnectRule.EIGHT);
+		alg = create(ConnectRule.EIGHT);
 		alg.process(TEST4.clone(),1,1);
 		checkExpectedExternal(new int[]{19},alg);
 	}
 
 	@Test
 	public void test5() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.FOUR);
+		LinearExternalContours alg = create(ConnectRule.FOUR);
 		alg.process(TEST5.clone(),1,1);
 		checkExpectedExternal(new int[]{20},alg);
 
-		alg = new LinearExternalContours(ConnectRule.EIGHT);
+		alg = create(ConnectRule.EIGHT);
 		alg.process(TEST5.clone(),1,1);
 		checkExpectedExternal(new int[]{20},alg);
 	}
 
 	@Test
 	public void test6() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.FOUR);
+		LinearExternalContours alg = create(ConnectRule.FOUR);
 		alg.process(TEST6.clone(),1,1);
 		checkExpectedExternal(new int[]{20},alg);
 
-		alg = new LinearExternalContours(ConnectRule.EIGHT);
+		alg = create(ConnectRule.EIGHT);
 		alg.process(TEST6.clone(),1,1);
 		checkExpectedExternal(new int[]{20},alg);
 	}
 
 	@Test
 	public void test7() {
-		LinearExternalContours alg = new LinearExternalContours(ConnectRule.FOUR);
+		LinearExternalContours alg = create(ConnectRule.FOUR);
 		alg.process(TEST7.clone(),1,1);
 		checkExpectedExternal(new int[]{4,20},alg);
 
-		alg = new LinearExternalContours(ConnectRule.EIGHT);
+		alg = create(ConnectRule.EIGHT);
 		alg.process(TEST7.clone(),1,1);
 		checkExpectedExternal(new int[]{20},alg);
 	}
 
+	/**
+	 * Contours should be found in raster order of the first pixel in each blob
+	 */
+	@Test
+	public void contourOrder() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			LinearExternalContours alg = create(rule);
+			alg.process(TEST2.clone(),1,1);
+
+			PackedSetsPoint2D_I32 contours = alg.getExternalContours();
+			int previous = -1;
+			for (int i = 0; i < contours.size(); i++) {
+				Point2D_I32 first = contours.getSet(i).get(0);
+				int index = first.y*TEST2.width + first.x;
+				assertTrue(index > previous);
+				previous = index;
+			}
+		}
+	}
+
 	public static void checkExpectedExternal(int expected[] , LinearExternalContours alg ) {
 		PackedSetsPoint2D_I32 contours = alg.getExternalContours();
 		assertEquals(expected.length, contours.size());
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
+import georegression.struct.point.Point2D_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestLinearExternalContoursPacked {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against {@link LinearExternalContours} applied to the image with a border of zeros. Blobs touch
+	 * the image border and cross word boundaries.
+	 */
+	@Test
+	void compareToGrayU8() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( int width : new int[]{5,63,64,65,150}) {
+				// noise creates lots of small blobs and random rectangles create large blobs with holes
+				GrayU8 binary = new GrayU8(width,41);
+				ImageMiscOps.fillUniform(binary,rand,0,2);
+				for (int i = 0; i < 10; i++) {
+					int x0 = rand.nextInt(width), y0 = rand.nextInt(35);
+					int x1 = Math.min(width,x0 + 5 + rand.nextInt(70)), y1 = Math.min(41,y0 + 5 + rand.nextInt(30));
+					ImageMiscOps.fillRectangle(binary,1,x0,y0,x1-x0,y1-y0);
+					ImageMiscOps.fillRectangle(binary,0,x0+1,y0+1,x1-x0-2,y1-y0-2);
+				}
+
+				compare(rule, binary, 0, Integer.MAX_VALUE);
+				compare(rule, binary, 5, 40);
+			}
+
+			// a single blob that fills the entire image
+			GrayU8 binary = new GrayU8(70,4);
+			ImageMiscOps.fill(binary,1);
+			compare(rule, binary, 0, Integer.MAX_VALUE);
+		}
+	}
+
+	private void compare( ConnectRule rule, GrayU8 binary , int minLength , int maxLength ) {
+		GrayU8 padded = new GrayU8(binary.width+2,binary.height+2);
+		padded.subimage(1,1,binary.width+1,binary.height+1,null).setTo(binary);
+
+		LinearExternalContours expected = new LinearExternalContours(rule);
+		LinearExternalContoursPacked found = new LinearExternalContoursPacked(rule);
+		expected.setMinContourLength(minLength);
+		expected.setMaxContourLength(maxLength);
+		found.setMinContourLength(minLength);
+		found.setMaxContourLength(maxLength);
+
+		PackedBinaryImage packed = PackedBinaryImageOps.convert(binary,(PackedBinaryImage)null);
+		expected.process(padded,1,1);
+		// process twice to make sure recycled storage isn't a problem
+		found.process(packed);
+		found.process(packed);
+
+		PackedSetsPoint2D_I32 contoursE = expected.getExternalContours();
+		PackedSetsPoint2D_I32 contoursF = found.getExternalContours();
+		assertEquals(contoursE.size(),contoursF.size());
+		for (int i = 0; i < contoursE.size(); i++) {
+			List<Point2D_I32> listE = contoursE.getSet(i);
+			List<Point2D_I32> listF = contoursF.getSet(i);
+			assertEquals(listE.size(),listF.size());
+			for (int j = 0; j < listE.size(); j++) {
+				assertEquals(0, listE.get(j).distance2(listF.get(j)));
+			}
+		}
+	}
+}
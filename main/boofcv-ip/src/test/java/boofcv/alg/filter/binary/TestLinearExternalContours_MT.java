@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearExternalContours_MT extends TestLinearExternalContours {
+
+	Random rand = new Random(234);
+
+	@Override
+	protected LinearExternalContours create(ConnectRule rule) {
+		return new LinearExternalContours_MT(rule);
+	}
+
+	/**
+	 * Blobs which cross strip boundaries, holes, blobs inside of holes, and contour length limits
+	 */
+	@Test
+	public void compareToSingleThread() {
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+				// noise creates lots of small blobs and random rectangles create large blobs with holes
+				GrayU8 binary = new GrayU8(90,73);
+				ImageMiscOps.fillUniform(binary,rand,0,2);
+				for (int i = 0; i < 10; i++) {
+					int x0 = rand.nextInt(80), y0 = rand.nextInt(60);
+					int x1 = x0 + 5 + rand.nextInt(30), y1 = y0 + 5 + rand.nextInt(30);
+					ImageMiscOps.fillRectangle(binary,1,x0,y0,x1-x0,y1-y0);
+					ImageMiscOps.fillRectangle(binary,0,x0+1,y0+1,x1-x0-2,y1-y0-2);
+				}
+
+				compareToSingleThread(rule, binary, 0, Integer.MAX_VALUE);
+				compareToSingleThread(rule, binary, 5, 40);
+				// Tall image where each strip is only a few rows
+				compareToSingleThread(rule, binary.subimage(0,0,6,73).clone(), 0, Integer.MAX_VALUE);
+			}
+		}
+	}
+
+	private void compareToSingleThread( ConnectRule rule, GrayU8 binary , int minLength , int maxLength ) {
+		LinearExternalContours expected = new LinearExternalContours(rule);
+		LinearExternalContours found = create(rule);
+		expected.setMinContourLength(minLength);
+		expected.setMaxContourLength(maxLength);
+		found.setMinContourLength(minLength);
+		found.setMaxContourLength(maxLength);
+
+		expected.process(binary.clone(),1,1);
+		// process twice to make sure recycled storage isn't a problem
+		found.process(binary.clone(),1,1);
+		found.process(binary.clone(),1,1);
+
+		PackedSetsPoint2D_I32 contoursE = expected.getExternalContours();
+		PackedSetsPoint2D_I32 contoursF = found.getExternalContours();
+		assertEquals(contoursE.size(),contoursF.size());
+		for (int i = 0; i < contoursE.size(); i++) {
+			List<Point2D_I32> listE = contoursE.getSet(i);
+			List<Point2D_I32> listF = contoursF.getSet(i);
+			assertEquals(listE.size(),listF.size());
+			for (int j = 0; j < listE.size(); j++) {
+				assertEquals(0, listE.get(j).distance2(listF.get(j)));
+			}
+		}
+	}
+}
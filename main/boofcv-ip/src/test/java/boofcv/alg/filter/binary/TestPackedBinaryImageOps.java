@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPackedBinaryImageOps {
+	Random rand = new Random(234);
+
+	// widths which are less than, equal to, and cross word boundaries
+	int[] widths = new int[]{2,3,31,63,64,65,127,128,130};
+	int[] heights = new int[]{2,3,7};
+
+	@Test
+	void convert() {
+		for( int width : widths ) {
+			GrayU8 input = new GrayU8(width,5);
+			ImageMiscOps.fillUniform(input,rand,0,3);
+
+			PackedBinaryImage packed = PackedBinaryImageOps.convert(input,(PackedBinaryImage)null);
+			GrayU8 found = PackedBinaryImageOps.convert(packed,(GrayU8)null);
+
+			for (int y = 0; y < input.height; y++) {
+				for (int x = 0; x < width; x++) {
+					int expected = input.get(x,y) != 0 ? 1 : 0;
+					assertEquals(expected,packed.get(x,y));
+					assertEquals(expected,found.get(x,y));
+				}
+			}
+			checkPadding(packed);
+		}
+	}
+
+	@Test
+	void convert_subimage() {
+		GrayU8 input = new GrayU8(80,10);
+		ImageMiscOps.fillUniform(input,rand,0,2);
+		GrayU8 sub = input.subimage(5,2,75,9,null);
+
+		PackedBinaryImage packed = PackedBinaryImageOps.convert(sub,(PackedBinaryImage)null);
+		GrayU8 found = input.createSameShape().subimage(3,1,73,8,null);
+		PackedBinaryImageOps.convert(packed,found);
+
+		for (int y = 0; y < sub.height; y++) {
+			for (int x = 0; x < sub.width; x++) {
+				assertEquals(sub.get(x,y),packed.get(x,y));
+				assertEquals(sub.get(x,y),found.get(x,y));
+			}
+		}
+	}
+
+	@Test
+	void threshold_U8() {
+		for( boolean down : new boolean[]{true,false}) {
+			for( int width : widths ) {
+				GrayU8 input = new GrayU8(width,4);
+				ImageMiscOps.fillUniform(input,rand,0,256);
+
+				GrayU8 expected = ThresholdImageOps.threshold(input,null,130,down);
+				PackedBinaryImage found = PackedBinaryImageOps.threshold(input,null,130,down);
+				assertEqualsPacked(expected,found);
+			}
+		}
+	}
+
+	@Test
+	void threshold_F32() {
+		for( boolean down : new boolean[]{true,false}) {
+			for( int width : widths ) {
+				GrayF32 input = new GrayF32(width,4);
+				ImageMiscOps.fillUniform(input,rand,-1,1);
+
+				GrayU8 expected = ThresholdImageOps.threshold(input,null,0.1f,down);
+				PackedBinaryImage found = PackedBinaryImageOps.threshold(input,null,0.1f,down);
+				assertEqualsPacked(expected,found);
+			}
+		}
+	}
+
+	@Test
+	void logic() {
+		for( int width : widths ) {
+			GrayU8 a = randomBinary(width,4);
+			GrayU8 b = randomBinary(width,4);
+			PackedBinaryImage pa = PackedBinaryImageOps.convert(a,(PackedBinaryImage)null);
+			PackedBinaryImage pb = PackedBinaryImageOps.convert(b,(PackedBinaryImage)null);
+
+			assertEqualsPacked(BinaryImageOps.logicAnd(a,b,null),PackedBinaryImageOps.logicAnd(pa,pb,null));
+			assertEqualsPacked(BinaryImageOps.logicOr(a,b,null),PackedBinaryImageOps.logicOr(pa,pb,null));
+			assertEqualsPacked(BinaryImageOps.logicXor(a,b,null),PackedBinaryImageOps.logicXor(pa,pb,null));
+			assertEqualsPacked(BinaryImageOps.invert(a,null),PackedBinaryImageOps.invert(pa,null));
+
+			// output can be the same as the input
+			PackedBinaryImageOps.logicAnd(pa,pb,pa);
+			assertEqualsPacked(BinaryImageOps.logicAnd(a,b,null),pa);
+		}
+	}
+
+	@Test
+	void logic_shapeMismatch() {
+		PackedBinaryImage a = new PackedBinaryImage(10,5);
+		PackedBinaryImage b = new PackedBinaryImage(11,5);
+		assertThrows(IllegalArgumentException.class,()->PackedBinaryImageOps.logicAnd(a,b,null));
+	}
+
+	@Test
+	void countOnes() {
+		for( int width : widths ) {
+			GrayU8 input = randomBinary(width,6);
+			PackedBinaryImage packed = PackedBinaryImageOps.convert(input,(PackedBinaryImage)null);
+
+			int expected = 0;
+			for (int i = 0; i < input.data.length; i++) {
+				expected += input.data[i];
+			}
+			assertEquals(expected,PackedBinaryImageOps.countOnes(packed));
+			// inverting will expose any bits which were set in the padding
+			assertEquals(width*6-expected,PackedBinaryImageOps.countOnes(PackedBinaryImageOps.invert(packed,null)));
+		}
+	}
+
+	@Test
+	void erode4() {
+		for (int numTimes = 1; numTimes <= 3; numTimes++) {
+			for( int width : widths ) {
+				for( int height : heights ) {
+					GrayU8 input = randomBinary(width,height,0.8);
+					PackedBinaryImage packed = PackedBinaryImageOps.convert(input,(PackedBinaryImage)null);
+					assertEqualsPacked(BinaryImageOps.erode4(input,numTimes,null),
+							PackedBinaryImageOps.erode4(packed,numTimes,null));
+				}
+			}
+		}
+	}
+
+	@Test
+	void dilate4() {
+		for (int numTimes = 1; numTimes <= 3; numTimes++) {
+			for( int width : widths ) {
+				for( int height : heights ) {
+					GrayU8 input = randomBinary(width,height,0.2);
+					PackedBinaryImage packed = PackedBinaryImageOps.convert(input,(PackedBinaryImage)null);
+					assertEqualsPacked(BinaryImageOps.dilate4(input,numTimes,null),
+							PackedBinaryImageOps.dilate4(packed,numTimes,null));
+				}
+			}
+		}
+	}
+
+	@Test
+	void erode8() {
+		for (int numTimes = 1; numTimes <= 3; numTimes++) {
+			for( int width : widths ) {
+				for( int height : heights ) {
+					GrayU8 input = randomBinary(width,height,0.8);
+					PackedBinaryImage packed = PackedBinaryImageOps.convert(input,(PackedBinaryImage)null);
+					assertEqualsPacked(BinaryImageOps.erode8(input,numTimes,null),
+							PackedBinaryImageOps.erode8(packed,numTimes,null));
+				}
+			}
+		}
+	}
+
+	@Test
+	void dilate8() {
+		for (int numTimes = 1; numTimes <= 3; numTimes++) {
+			for( int width : widths ) {
+				for( int height : heights ) {
+					GrayU8 input = randomBinary(width,height,0.2);
+					PackedBinaryImage packed = PackedBinaryImageOps.convert(input,(PackedBinaryImage)null);
+					assertEqualsPacked(BinaryImageOps.dilate8(input,numTimes,null),
+							PackedBinaryImageOps.dilate8(packed,numTimes,null));
+				}
+			}
+		}
+	}
+
+	@Test
+	void edge4() {
+		for( int width : widths ) {
+			for( int height : heights ) {
+				GrayU8 input = randomBinary(width,height,0.7);
+				PackedBinaryImage packed = PackedBinaryImageOps.convert(input,(PackedBinaryImage)null);
+				assertEqualsPacked(BinaryImageOps.edge4(input,null),PackedBinaryImageOps.edge4(packed,null));
+			}
+		}
+	}
+
+	@Test
+	void edge8() {
+		for( int width : widths ) {
+			for( int height : heights ) {
+				GrayU8 input = randomBinary(width,height,0.7);
+				PackedBinaryImage packed = PackedBinaryImageOps.convert(input,(PackedBinaryImage)null);
+				assertEqualsPacked(BinaryImageOps.edge8(input,null),PackedBinaryImageOps.edge8(packed,null));
+			}
+		}
+	}
+
+	@Test
+	void morph_sameInputOutput() {
+		PackedBinaryImage img = new PackedBinaryImage(10,5);
+		assertThrows(IllegalArgumentException.class,()->PackedBinaryImageOps.dilate4(img,1,img));
+	}
+
+	private GrayU8 randomBinary( int width , int height ) {
+		return randomBinary(width,height,0.5);
+	}
+
+	/**
+	 * Creates a random binary image where each pixel has the specified probability of being 1
+	 */
+	private GrayU8 randomBinary( int width , int height , double probability ) {
+		GrayU8 img = new GrayU8(width,height);
+		for (int i = 0; i < img.data.length; i++) {
+			img.data[i] = (byte)(rand.nextDouble() < probability ? 1 : 0);
+		}
+		return img;
+	}
+
+	private static void assertEqualsPacked( GrayU8 expected , PackedBinaryImage found ) {
+		assertEquals(expected.width,found.width);
+		assertEquals(expected.height,found.height);
+		for (int y = 0; y < expected.height; y++) {
+			for (int x = 0; x < expected.width; x++) {
+				assertEquals(expected.get(x,y),found.get(x,y),x+" "+y+" width="+expected.width);
+			}
+		}
+		checkPadding(found);
+	}
+
+	private static void checkPadding( PackedBinaryImage img ) {
+		for (int y = 0; y < img.height; y++) {
+			assertEquals(0,img.data[y*img.stride+img.stride-1] & ~img.lastWordMask());
+		}
+	}
+}
@@ -29,6 +29,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 
 /**
  * @author Peter Abeles
@@ -47,6 +48,18 @@ public class TestInterpolatePixelDistortS {
 
 	}
 
+	@Test
+	public void copy() {
+		MockTransform transform = new MockTransform(1,2);
+		InterpolatePixelDistortS alg = new InterpolatePixelDistortS(new MockInterp(),transform);
+
+		InterpolatePixelDistortS found = (InterpolatePixelDistortS)alg.copy();
+		assertNotSame(alg.interpolate,found.interpolate);
+		assertNotSame(alg.distorter,found.distorter);
+		assertEquals(73,found.get(2,5), UtilEjml.TEST_F32);
+		assertEquals(74,found.get_fast(2,5), UtilEjml.TEST_F32);
+	}
+
 	public class MockTransform implements Point2Transform2_F32 {
 
 		float tx,ty;
@@ -64,7 +77,7 @@ public class TestInterpolatePixelDistortS {
 
 		@Override
 		public Point2Transform2_F32 copy() {
-			return null;
+			return new MockTransform(tx,ty);
 		}
 	}
 
@@ -82,7 +95,7 @@ public class TestInterpolatePixelDistortS {
 
 		@Override
 		public InterpolatePixelS copy() {
-			return null;
+			return new MockInterp();
 		}
 
 		@Override
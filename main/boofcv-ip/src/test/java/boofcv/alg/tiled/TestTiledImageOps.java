@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.tiled;
+
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.convolve.ConvolveImage;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.filter.binary.FactoryThresholdBinary;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.border.ImageBorder_S32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares tiled results against processing the whole image at once
+ *
+ * @author Peter Abeles
+ */
+class TestTiledImageOps {
+	Random rand = new Random(234);
+	int width = 67, height = 53;
+	int tileWidth = 16, tileHeight = 11;
+
+	@AfterEach
+	void after() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	@Test
+	void convolve() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			Kernel2D_F32 kernel = FactoryKernel.random2D_F32(7,3,-1,1,rand);
+
+			GrayF32 input = randomF32();
+			GrayF32 expected = new GrayF32(width,height);
+			ConvolveImage.convolve(kernel,input,expected,
+					(ImageBorder_F32)FactoryImageBorder.single(GrayF32.class,BorderType.REFLECT));
+
+			try (TiledImage<GrayF32> tiledIn = tiled(input);
+				 TiledImage<GrayF32> tiledOut = tiledIn.createSameShape()) {
+				TiledImageOps.convolve(kernel, tiledIn, tiledOut, BorderType.REFLECT);
+				BoofTesting.assertEquals(expected, read(tiledOut), 1e-4);
+			}
+		}
+	}
+
+	@Test
+	void gaussian() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			GrayF32 input = randomF32();
+			GrayF32 expected = BlurImageOps.gaussian(input,null,-1,4,null);
+
+			try (TiledImage<GrayF32> tiledIn = tiled(input);
+				 TiledImage<GrayF32> tiledOut = tiledIn.createSameShape()) {
+				TiledImageOps.gaussian(tiledIn, tiledOut, -1, 4);
+				BoofTesting.assertEquals(expected, read(tiledOut), 1e-4);
+			}
+		}
+	}
+
+	@Test
+	void mean() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			GrayU8 input = new GrayU8(width,height);
+			ImageMiscOps.fillUniform(input,rand,0,255);
+			GrayU8 expected = BlurImageOps.mean(input,null,3,null,null);
+
+			try (TiledImage<GrayU8> tiledIn = tiled(input);
+				 TiledImage<GrayU8> tiledOut = tiledIn.createSameShape()) {
+				TiledImageOps.mean(tiledIn, tiledOut, 3);
+				BoofTesting.assertEquals(expected, read(tiledOut), 0);
+			}
+		}
+	}
+
+	@Test
+	void threshold() {
+		GrayF32 input = randomF32();
+		GrayU8 expected = GThresholdImageOps.threshold(input,null,50,true);
+
+		try (TiledImage<GrayF32> tiledIn = tiled(input);
+			 TiledImage<GrayU8> tiledOut = tiledIn.createSameShape(GrayU8.class)) {
+			TiledImageOps.threshold(tiledIn, tiledOut, 50, true);
+			BoofTesting.assertEquals(expected, read(tiledOut), 0);
+		}
+	}
+
+	/**
+	 * Local Otsu only depends on the pixels inside the local region so the results should be identical
+	 */
+	@Test
+	void threshold_local() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			GrayU8 input = new GrayU8(width,height);
+			ImageMiscOps.fillUniform(input,rand,0,255);
+
+			ConfigLength regionWidth = ConfigLength.fixed(9);
+			GrayU8 expected = new GrayU8(width,height);
+			FactoryThresholdBinary.localOtsu(regionWidth,1.0,true,false,0,GrayU8.class).process(input,expected);
+
+			try (TiledImage<GrayU8> tiledIn = tiled(input);
+				 TiledImage<GrayU8> tiledOut = tiledIn.createSameShape()) {
+				TiledImageOps.threshold(tiledIn, tiledOut,
+						() -> FactoryThresholdBinary.localOtsu(regionWidth,1.0,true,false,0,GrayU8.class), 9);
+				BoofTesting.assertEquals(expected, read(tiledOut), 0);
+			}
+		}
+	}
+
+	@Test
+	void gradientSobel() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			GrayU8 input = new GrayU8(width,height);
+			ImageMiscOps.fillUniform(input,rand,0,255);
+			GrayS16 expectedX = new GrayS16(width,height);
+			GrayS16 expectedY = new GrayS16(width,height);
+			GradientSobel.process(input,expectedX,expectedY,
+					(ImageBorder_S32)FactoryImageBorder.single(GrayU8.class,BorderType.EXTENDED));
+
+			try (TiledImage<GrayU8> tiledIn = tiled(input);
+				 TiledImage<GrayS16> derivX = tiledIn.createSameShape(GrayS16.class);
+				 TiledImage<GrayS16> derivY = tiledIn.createSameShape(GrayS16.class)) {
+				TiledImageOps.gradientSobel(tiledIn, derivX, derivY);
+				BoofTesting.assertEquals(expectedX, read(derivX), 0);
+				BoofTesting.assertEquals(expectedY, read(derivY), 0);
+			}
+		}
+	}
+
+	@Test
+	void statistics() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,10,200);
+
+		try (TiledImage<GrayU8> tiled = tiled(input)) {
+			assertEquals(ImageStatistics.sum(input),TiledImageOps.sum(tiled),1e-8);
+			assertEquals(ImageStatistics.mean(input),TiledImageOps.mean(tiled),1e-8);
+			assertEquals(ImageStatistics.max(input),TiledImageOps.max(tiled),1e-8);
+			assertEquals(ImageStatistics.min(input),TiledImageOps.min(tiled),1e-8);
+
+			int[] expected = new int[256];
+			int[] found = new int[256];
+			ImageStatistics.histogram(input,0,expected);
+			TiledImageOps.histogram(tiled,0,found);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i],found[i]);
+			}
+		}
+	}
+
+	private GrayF32 randomF32() {
+		GrayF32 input = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		return input;
+	}
+
+	private <T extends ImageGray<T>> TiledImage<T> tiled( T image ) {
+		TiledImage<T> tiled = TiledImage.createTemp(image.getImageType(),width,height,tileWidth,tileHeight);
+		tiled.setTo(image);
+		return tiled;
+	}
+
+	private static <T extends ImageGray<T>> T read( TiledImage<T> tiled ) {
+		T image = tiled.getImageType().createImage(1,1);
+		tiled.read(0,0,tiled.getWidth(),tiled.getHeight(),image);
+		return image;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.census;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.census.impl.ImplCensusTransformInner;
+import boofcv.alg.transform.census.impl.ImplCensusTransformInner_MT;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_S32;
+import boofcv.struct.image.GrayI;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCensusTransform {
+	Random rand = new Random(234);
+	int w = 35, h = 40;
+
+	@Test
+	void region3x3() {
+		GrayU8 input = new GrayU8(w,h);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		ImageBorder_S32<GrayU8> border = (ImageBorder_S32)FactoryImageBorder.single(GrayU8.class,BorderType.EXTENDED);
+
+		GrayU8 found = new GrayU8(w,h);
+		CensusTransform.region3x3(input,found,border);
+
+		border.setImage(input);
+		checkNaive(border,found,1);
+
+		// see if it handles sub-images correctly
+		GrayU8 sub = BoofTesting.createSubImageOf(input);
+		GrayU8 foundSub = BoofTesting.createSubImageOf(found);
+		ImageMiscOps.fill(foundSub,0);
+		CensusTransform.region3x3(sub,foundSub,border);
+		BoofTesting.assertEquals(found,foundSub,0);
+	}
+
+	@Test
+	void region5x5() {
+		GrayU8 input = new GrayU8(w,h);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		ImageBorder_S32<GrayU8> border = (ImageBorder_S32)FactoryImageBorder.single(GrayU8.class,BorderType.EXTENDED);
+
+		GrayS32 found = new GrayS32(w,h);
+		CensusTransform.region5x5(input,found,border);
+
+		border.setImage(input);
+		checkNaive(border,found,2);
+
+		// see if it handles sub-images correctly
+		GrayU8 sub = BoofTesting.createSubImageOf(input);
+		GrayS32 foundSub = BoofTesting.createSubImageOf(found);
+		ImageMiscOps.fill(foundSub,0);
+		CensusTransform.region5x5(sub,foundSub,border);
+		BoofTesting.assertEquals(found,foundSub,0);
+	}
+
+	@Test
+	void compareInnerToConcurrent() {
+		GrayU8 input = new GrayU8(w,h);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+
+		GrayU8 expected3 = new GrayU8(w,h);
+		GrayU8 found3 = new GrayU8(w,h);
+		ImplCensusTransformInner.region3x3(input,expected3);
+		ImplCensusTransformInner_MT.region3x3(input,found3);
+		BoofTesting.assertEquals(expected3,found3,0);
+
+		GrayS32 expected5 = new GrayS32(w,h);
+		GrayS32 found5 = new GrayS32(w,h);
+		ImplCensusTransformInner.region5x5(input,expected5);
+		ImplCensusTransformInner_MT.region5x5(input,found5);
+		BoofTesting.assertEquals(expected5,found5,0);
+	}
+
+	/**
+	 * Checks every pixel against a naive implementation that doesn't care about the border
+	 */
+	private void checkNaive( ImageBorder_S32<GrayU8> input , GrayI found , int radius ) {
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				int center = input.get(x,y);
+				int expected = 0;
+				int bit = 0;
+				for (int i = -radius; i <= radius; i++) {
+					for (int j = -radius; j <= radius; j++) {
+						if( i == 0 && j == 0 )
+							continue;
+						if( input.get(x+j,y+i) > center )
+							expected |= 1 << bit;
+						bit++;
+					}
+				}
+				assertEquals(expected,found.get(x,y));
+			}
+		}
+	}
+}
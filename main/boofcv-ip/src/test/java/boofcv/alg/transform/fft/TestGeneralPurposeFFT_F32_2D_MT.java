@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.PoolScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeneralPurposeFFT_F32_2D_MT {
+
+	float tol = 1e-4f;
+
+	Random rand = new Random(234);
+
+	// includes sizes which aren't a multiple of the column block size
+	int sizes[] = new int[]{1,2,3,16,32,100,103};
+
+	@Test
+	public void compareToSingleThread() {
+		try( PoolScope scope = BoofConcurrency.withThreads(4) ) {
+			for( int i = 0; i < sizes.length; i++ ) {
+				for( int j = 0; j < sizes.length; j++ ) {
+					compareToSingleThread(sizes[i], sizes[j]);
+				}
+			}
+			compareToSingleThread(323,768);
+		}
+	}
+
+	private void compareToSingleThread(int numRows, int numColumns) {
+		GeneralPurposeFFT_F32_2D expected = new GeneralPurposeFFT_F32_2D(numRows,numColumns);
+		GeneralPurposeFFT_F32_2D_MT found = new GeneralPurposeFFT_F32_2D_MT(numRows,numColumns);
+
+		float input[] = new float[numRows*numColumns*2];
+		for( int i = 0; i < input.length; i++ ) {
+			input[i] = (float)rand.nextGaussian();
+		}
+
+		float a[] = input.clone();
+		float b[] = input.clone();
+		expected.complexForward(a);
+		found.complexForward(b);
+		checkEquals(a,b);
+
+		a = input.clone();
+		b = input.clone();
+		expected.complexInverse(a,true);
+		found.complexInverse(b,true);
+		checkEquals(a,b);
+
+		a = input.clone();
+		b = input.clone();
+		expected.realForwardFull(a);
+		found.realForwardFull(b);
+		checkEquals(a,b);
+
+		a = input.clone();
+		b = input.clone();
+		expected.realInverseFull(a,true);
+		found.realInverseFull(b,true);
+		checkEquals(a,b);
+
+		// process it again to make sure the recycled work space doesn't cause problems
+		b = input.clone();
+		Arrays.fill(b,b.length/2,b.length,0);
+		found.realForwardFull(b);
+		found.complexInverse(b,true);
+		for( int i = 0; i < input.length/2; i++ ) {
+			assertEquals(input[i],b[i*2],tol);
+			assertEquals(0,b[i*2+1],tol);
+		}
+	}
+
+	private void checkEquals( float expected[] , float found[] ) {
+		// rounding errors are relative to the largest value
+		double maxAbs = 1;
+		for( int i = 0; i < expected.length; i++ ) {
+			maxAbs = Math.max(maxAbs,Math.abs(expected[i]));
+		}
+		for( int i = 0; i < expected.length; i++ ) {
+			assertEquals(expected[i],found[i],tol*maxAbs);
+		}
+	}
+}
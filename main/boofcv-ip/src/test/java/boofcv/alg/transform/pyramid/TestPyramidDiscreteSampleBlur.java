@@ -19,6 +19,7 @@
 package boofcv.alg.transform.pyramid;
 
 import boofcv.alg.filter.convolve.ConvolveImageNormalized;
+import boofcv.concurrency.ImagePool;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.image.GrayF32;
@@ -27,7 +28,7 @@ import boofcv.struct.pyramid.ImagePyramid;
 import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -109,6 +110,45 @@ public class TestPyramidDiscreteSampleBlur extends GenericPyramidTests<GrayF32>
 		assertEquals(6,alg.getSigma(1),1e-8);
 	}
 
+	/**
+	 * Releasing a pyramid should hand its layers and work image to the default pool, except for the input image,
+	 * so that the next pyramid of the same shape doesn't declare new memory
+	 */
+	@Test
+	public void release() {
+		ImagePool original = ImagePool.getDefault();
+		try {
+			ImagePool pool = new ImagePool(10_000_000);
+			ImagePool.setDefault(pool);
+
+			Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,3);
+			GrayF32 input = new GrayF32(width,height);
+			PyramidDiscreteSampleBlur<GrayF32> alg =
+					new PyramidDiscreteSampleBlur<>(kernel,3, ImageType.single(GrayF32.class),true,new int[]{1,2,4});
+			alg.process(input);
+			GrayF32 layer1 = alg.getLayer(1);
+			GrayF32 layer2 = alg.getLayer(2);
+
+			alg.release();
+			assertTrue(pool.getStoredBytes() > 0);
+
+			pool.resetStatistics();
+			PyramidDiscreteSampleBlur<GrayF32> next =
+					new PyramidDiscreteSampleBlur<>(kernel,3, ImageType.single(GrayF32.class),true,new int[]{1,2,4});
+			next.process(input);
+			assertSame(input,next.getLayer(0));
+			assertSame(layer1,next.getLayer(1));
+			assertSame(layer2,next.getLayer(2));
+			assertEquals(0,pool.getMisses());
+
+			// the released pyramid can still be used
+			alg.process(input);
+			assertEquals(width/4,alg.getLayer(2).width);
+		} finally {
+			ImagePool.setDefault(original);
+		}
+	}
+
 	@Override
 	protected ImagePyramid<GrayF32> createPyramid(int... scales) {
 		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,3);
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_S32;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPyramidDiscreteSampleBlur_MT {
+	Random rand = new Random(234);
+
+	@Test
+	void compareToSingle() {
+		Kernel1D_F32 kernelF = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,2);
+		Kernel1D_S32 kernelI = FactoryKernelGaussian.gaussian(Kernel1D_S32.class,-1,2);
+
+		compare(kernelF, ImageType.single(GrayF32.class), 1, 2, 4, 8);
+		compare(kernelF, ImageType.single(GrayF32.class), 2, 6);
+		compare(kernelI, ImageType.single(GrayU8.class), 1, 2, 4);
+		compare(kernelF, ImageType.pl(2, GrayF32.class), 1, 2, 4);
+	}
+
+	private <T extends ImageBase<T>> void compare( Kernel1D kernel, ImageType<T> imageType, int... scales ) {
+		PyramidDiscreteSampleBlur<T> expected = new PyramidDiscreteSampleBlur<>(kernel,2,imageType,false,scales);
+		PyramidDiscreteSampleBlur_MT<T> found = new PyramidDiscreteSampleBlur_MT<>(kernel,2,imageType,false,scales);
+		// make sure the concurrent code is used in every layer
+		found.minimumPixels = 0;
+
+		// process two images of different sizes to see if storage is correctly recycled
+		for( int size : new int[]{311,150} ) {
+			T input = imageType.createImage(size, size-17);
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			expected.process(input);
+			found.process(input);
+
+			for (int i = 0; i < scales.length; i++) {
+				BoofTesting.assertEquals(expected.getLayer(i), found.getLayer(i), 0);
+			}
+		}
+	}
+}
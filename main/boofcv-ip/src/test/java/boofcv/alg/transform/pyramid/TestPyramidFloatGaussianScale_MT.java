@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPyramidFloatGaussianScale_MT {
+	Random rand = new Random(234);
+
+	@Test
+	void compareToSingle() {
+		double[] scales = new double[]{1,2,3.5};
+		double[] sigmas = new double[]{1,1.5,2};
+		InterpolatePixelS<GrayF32> interp = FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+
+		PyramidFloatGaussianScale<GrayF32> expected = new PyramidFloatGaussianScale<>(interp,scales,sigmas,GrayF32.class);
+		PyramidFloatGaussianScale_MT<GrayF32> found = new PyramidFloatGaussianScale_MT<>(
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),scales,sigmas,GrayF32.class);
+		found.resample.minimumPixels = 0;
+
+		for( int size : new int[]{311,150} ) {
+			GrayF32 input = new GrayF32(size, size-17);
+			ImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			expected.process(input);
+			found.process(input);
+
+			for (int i = 0; i < scales.length; i++) {
+				BoofTesting.assertEquals(expected.getLayer(i), found.getLayer(i), 0);
+			}
+		}
+	}
+}
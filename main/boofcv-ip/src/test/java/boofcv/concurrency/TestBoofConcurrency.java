@@ -23,6 +23,12 @@ import org.ddogleg.struct.GrowQueue_I32;
 import org.ejml.UtilEjml;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -128,10 +134,211 @@ class TestBoofConcurrency {
 		assertEquals(5.0+2.5,foundD, UtilEjml.TEST_F64);
 	}
 
+	@Test
+	void withPool() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		List<ForkJoinPool> found = new ArrayList<>();
+
+		try( PoolScope scope = BoofConcurrency.withPool(pool) ) {
+			assertSame(pool,BoofConcurrency.getPool());
+			assertEquals(2,BoofConcurrency.getMaxThreads());
+			BoofConcurrency.loopFor(0,20,i->{
+				synchronized (found) {
+					found.add(ForkJoinTask.getPool());
+				}
+			});
+		}
+		assertEquals(20,found.size());
+		for( ForkJoinPool p : found ) {
+			assertSame(pool,p);
+		}
+
+		// the global pool should be restored and the pool not shutdown
+		assertNotSame(pool,BoofConcurrency.getPool());
+		assertEquals(numThreads,BoofConcurrency.getMaxThreads());
+		assertFalse(pool.isShutdown());
+		pool.shutdown();
+	}
+
+	@Test
+	void withThreads_nested() {
+		ForkJoinPool outer,inner;
+		try( PoolScope scopeA = BoofConcurrency.withThreads(2) ) {
+			outer = scopeA.getPool();
+			assertEquals(2,BoofConcurrency.getMaxThreads());
+			try( PoolScope scopeB = BoofConcurrency.withThreads(3) ) {
+				inner = scopeB.getPool();
+				assertEquals(3,BoofConcurrency.getMaxThreads());
+			}
+			assertTrue(inner.isShutdown());
+			assertSame(outer,BoofConcurrency.getPool());
+		}
+		assertTrue(outer.isShutdown());
+		assertEquals(numThreads,BoofConcurrency.getMaxThreads());
+	}
+
+	/**
+	 * Other threads should not be affected by a scope
+	 */
+	@Test
+	void withThreads_otherThreads() throws InterruptedException {
+		ForkJoinPool[] found = new ForkJoinPool[1];
+		try( PoolScope scope = BoofConcurrency.withThreads(2) ) {
+			Thread thread = new Thread(()->found[0]=BoofConcurrency.getPool());
+			thread.start();
+			thread.join();
+			assertNotSame(scope.getPool(),found[0]);
+		}
+	}
+
+	/**
+	 * Loops inside of a task should use the same pool as the task
+	 */
+	@Test
+	void withThreads_nestedLoops() {
+		List<ForkJoinPool> found = new ArrayList<>();
+		try( PoolScope scope = BoofConcurrency.withThreads(2) ) {
+			BoofConcurrency.loopFor(0,4,i->{
+				BoofConcurrency.loopFor(0,4,j->{
+					synchronized (found) {
+						found.add(ForkJoinTask.getPool());
+					}
+				});
+			});
+			assertEquals(16,found.size());
+			for( ForkJoinPool p : found ) {
+				assertSame(scope.getPool(),p);
+			}
+		}
+	}
+
+	@Test
+	void newFixedPool() {
+		ForkJoinPool pool = BoofConcurrency.newFixedPool("foo",3);
+		assertEquals(3,pool.getParallelism());
+
+		List<String> names = new ArrayList<>();
+		try( PoolScope scope = BoofConcurrency.withPool(pool) ) {
+			BoofConcurrency.loopFor(0,10,i->{
+				synchronized (names) {
+					names.add(Thread.currentThread().getName());
+				}
+			});
+		}
+		for( String name : names ) {
+			assertTrue(name.startsWith("foo-"),name);
+		}
+		pool.shutdown();
+	}
+
+	/**
+	 * Exceptions thrown by a worker should be rethrown in the calling thread
+	 */
+	@Test
+	void workerFailuresRethrown() {
+		assertThrows(IllegalStateException.class,()->BoofConcurrency.loopFor(0,100,i->{
+			if( i == 55 ) throw new IllegalStateException("Test");
+		}));
+		assertThrows(IllegalStateException.class,()->BoofConcurrency.loopBlocks(0,100,10,(i0,i1)->{
+			if( i0 > 50 ) throw new IllegalStateException("Test");
+		}));
+		assertThrows(IllegalStateException.class,()->BoofConcurrency.loopBlocks(0,100,(i0,i1)->{
+			if( i0 > 50 ) throw new IllegalStateException("Test");
+		}));
+		assertThrows(IllegalStateException.class,()->BoofConcurrency.sum(0,100,int.class,i->{
+			if( i == 55 ) throw new IllegalStateException("Test");
+			return i;
+		}));
+
+		CancelToken token = new CancelToken();
+		assertThrows(IllegalStateException.class,()->BoofConcurrency.loopFor(0,100,token,i->{
+			if( i == 55 ) throw new IllegalStateException("Test");
+		}));
+		// a failure should stop the other workers
+		assertTrue(token.isCancelled());
+	}
+
+	@Test
+	void cancellable_noCancel() {
+		CancelToken token = new CancelToken();
+
+		Counter counter = new Counter();
+		BoofConcurrency.loopFor(10,100,token,i->counter.increment());
+		assertEquals(90,counter.value);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		BoofConcurrency.loopBlocks(10,100,12,token,(i0,i1)->{
+			synchronized (found) {
+				for (int i = i0; i < i1; i++) {
+					found.add(i);
+				}
+			}
+		});
+		assertEquals(90,found.size);
+
+		assertEquals(45,BoofConcurrency.sum(5,10,int.class,token,i->i+2).intValue());
+		assertEquals(11,BoofConcurrency.max(5,10,int.class,token,i->i+2).intValue());
+		assertEquals(7,BoofConcurrency.min(5,10,int.class,token,i->i+2).intValue());
+	}
+
+	@Test
+	void cancellable_cancelled() {
+		CancelToken token = new CancelToken();
+		Counter counter = new Counter();
+		assertThrows(CancellationException.class,()->BoofConcurrency.loopFor(0,1000,token,i->{
+			if( i == 5 )
+				token.cancel();
+			counter.increment();
+		}));
+		// should have stopped well before it processed everything
+		assertTrue(counter.value < 1000);
+
+		// once cancelled nothing else should run
+		assertThrows(CancellationException.class,()->BoofConcurrency.loopBlocks(0,100,token,(i0,i1)->fail("Ran")));
+		assertThrows(CancellationException.class,()->BoofConcurrency.max(0,100,int.class,token,i->i));
+	}
+
+	@Test
+	void cancellable_deadline() {
+		CancelToken token = CancelToken.timeout(50);
+		Counter counter = new Counter();
+		long before = System.nanoTime();
+		assertThrows(CancellationException.class,()->BoofConcurrency.loopFor(0,2000,token,i->{
+			BoofMiscOps.sleep(5);
+			counter.increment();
+		}));
+		long elapsedMilli = (System.nanoTime()-before)/1_000_000L;
+
+		// it should abandon the loop close to the deadline and not wait for every iteration to finish
+		assertTrue(elapsedMilli < 1000, "elapsed "+elapsedMilli);
+		assertTrue(counter.value < 2000);
+		assertTrue(token.isCancelled());
+	}
+
+	/**
+	 * When the deadline passes the workers must have finished before the exception reaches the caller, otherwise
+	 * they could still be writing into the output
+	 */
+	@Test
+	void cancellable_deadlineJoinsWorkers() {
+		CancelToken token = CancelToken.timeout(50);
+		Counter active = new Counter();
+		assertThrows(CancellationException.class,()->BoofConcurrency.loopBlocks(0,100,token,(i0,i1)->{
+			active.increment();
+			BoofMiscOps.sleep(200);
+			active.decrement();
+		}));
+		assertEquals(0,active.value);
+		assertTrue(token.isCancelled());
+	}
+
 	private static class Counter {
 		int value = 0;
 		public synchronized void increment() {
 			value++;
 		}
+		public synchronized void decrement() {
+			value--;
+		}
 	}
 }
\ No newline at end of file
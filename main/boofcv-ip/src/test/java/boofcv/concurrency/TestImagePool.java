@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.concurrency;
+
+import boofcv.struct.image.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImagePool {
+	@Test
+	void pop_recycle_image() {
+		ImagePool alg = new ImagePool(10_000);
+
+		GrayF32 a = alg.pop(ImageType.single(GrayF32.class),10,12);
+		assertEquals(10,a.width);
+		assertEquals(12,a.height);
+		assertEquals(0,alg.getHits());
+		assertEquals(1,alg.getMisses());
+
+		alg.recycle(a);
+		assertEquals(10*12*4,alg.getStoredBytes());
+
+		// different shape should miss
+		assertNotSame(a,alg.pop(ImageType.single(GrayF32.class),12,10));
+		// different type should miss
+		assertNotSame(a,alg.pop(ImageType.single(GrayU8.class),10,12));
+		assertEquals(3,alg.getMisses());
+
+		assertSame(a,alg.pop(ImageType.single(GrayF32.class),10,12));
+		assertEquals(1,alg.getHits());
+		assertEquals(0,alg.getStoredBytes());
+	}
+
+	/**
+	 * Planar and gray images use the same band class and need to be distinguished
+	 */
+	@Test
+	void planar_gray_interleaved() {
+		ImagePool alg = new ImagePool(100_000);
+
+		Planar<GrayU8> planar = new Planar<>(GrayU8.class,10,12,3);
+		InterleavedU8 interleaved = new InterleavedU8(10,12,3);
+		alg.recycle(planar);
+		alg.recycle(interleaved);
+
+		assertNotSame(planar,alg.pop(ImageType.single(GrayU8.class),10,12));
+		assertNotSame(planar,alg.pop(ImageType.pl(2,GrayU8.class),10,12));
+		assertSame(planar,alg.pop(ImageType.pl(3,GrayU8.class),10,12));
+		assertSame(interleaved,alg.pop(ImageType.il(3,InterleavedU8.class),10,12));
+	}
+
+	@Test
+	void recycle_subimage() {
+		ImagePool alg = new ImagePool(100_000);
+		GrayU8 image = new GrayU8(20,20);
+		alg.recycle(image.subimage(0,0,10,10));
+		assertEquals(0,alg.getStoredBytes());
+	}
+
+	@Test
+	void pop_recycle_array() {
+		ImagePool alg = new ImagePool(100_000);
+
+		float[] a = new float[20];
+		a[3] = 2;
+		alg.recycleArray(a);
+		assertEquals(80,alg.getStoredBytes());
+
+		assertNotSame(a,alg.popArray(float.class,21,false));
+		assertNotSame(a,alg.popArray(double.class,20,false));
+		float[] found = (float[])alg.popArray(float.class,20,true);
+		assertSame(a,found);
+		assertEquals(0,found[3]);
+
+		assertThrows(IllegalArgumentException.class,()->alg.recycleArray(new Object[2]));
+	}
+
+	@Test
+	void budget_lru() {
+		ImagePool alg = new ImagePool(100);
+
+		int[] a = new int[10];
+		byte[] c = new byte[40];
+		alg.recycleArray(a);
+		alg.recycleArray(c);
+		assertEquals(80,alg.getStoredBytes());
+
+		// access c so that a is the least recently used
+		assertSame(c,alg.popArray(byte.class,40,false));
+		alg.recycleArray(c);
+
+		// exceed the budget. a should be discarded
+		alg.recycleArray(new double[5]);
+		assertEquals(1,alg.getEvictions());
+		assertEquals(80,alg.getStoredBytes());
+		assertNotSame(a,alg.popArray(int.class,10,false));
+		assertSame(c,alg.popArray(byte.class,40,false));
+		assertEquals(40,alg.getStoredBytes());
+
+		// larger than the budget
+		alg.recycleArray(new byte[101]);
+		assertEquals(2,alg.getEvictions());
+		assertEquals(40,alg.getStoredBytes());
+
+		// shrinking the budget should discard memory
+		alg.setMaxBytes(45);
+		assertEquals(40,alg.getStoredBytes());
+		alg.setMaxBytes(0);
+		assertEquals(0,alg.getStoredBytes());
+
+		alg.resetStatistics();
+		assertEquals(0,alg.getEvictions());
+		assertEquals(0,alg.getHits());
+		assertEquals(0,alg.getMisses());
+	}
+
+	@Test
+	void disabled() {
+		ImagePool alg = new ImagePool(0);
+		alg.recycleArray(new int[10]);
+		alg.recycle(new GrayU8(5,5));
+		assertEquals(0,alg.getStoredBytes());
+	}
+
+	/**
+	 * Work arrays should take memory from the default pool
+	 */
+	@Test
+	void defaultPool() {
+		ImagePool original = ImagePool.getDefault();
+		try {
+			ImagePool pool = new ImagePool(10_000);
+			ImagePool.setDefault(pool);
+
+			// work arrays should return their arrays to the pool when their length changes
+			FWorkArrays work = new FWorkArrays(50);
+			float[] w = work.pop();
+			work.recycle(w);
+			work.reset(20);
+			assertEquals(200,pool.getStoredBytes());
+			work.reset(50);
+			assertSame(w,work.pop());
+		} finally {
+			ImagePool.setDefault(original);
+		}
+	}
+}
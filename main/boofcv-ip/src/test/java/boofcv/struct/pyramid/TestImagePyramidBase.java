@@ -104,6 +104,27 @@ public class TestImagePyramidBase {
 		assertTrue(pyramid.layers[0] != null);
 	}
 
+	/**
+	 * When the image size changes the layers should be reshaped instead of declaring new images
+	 */
+	@Test
+	public void initialize_reuse() {
+		Dummy pyramid = new Dummy(GrayU8.class,false);
+		pyramid.setScaleFactors(1,2,4);
+		pyramid.initialize(100,120);
+
+		ImageBase[] before = pyramid.layers.clone();
+
+		pyramid.initialize(60,40);
+		for( int i = 0; i < 3; i++ ) {
+			assertSame(before[i], pyramid.layers[i]);
+		}
+		assertEquals(60,pyramid.getWidth(0));
+		assertEquals(40,pyramid.getHeight(0));
+		assertEquals(15,pyramid.getWidth(2));
+		assertEquals(10,pyramid.getHeight(2));
+	}
+
 	@Test
 	public void getWidth_Height() {
 		Dummy pyramid = new Dummy(GrayU8.class,false);
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.sfm.d3;
+
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.abst.sfm.d3.StereoVisualOdometry;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.factory.sfm.FactoryVisualOdometry;
+import boofcv.simulation.SimulatePlanarWorld;
+import boofcv.struct.calib.CameraPinholeBrown;
+import boofcv.struct.calib.StereoParameters;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.se.Se3_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static georegression.struct.se.SpecialEuclideanOps_F64.eulerXyz;
+
+/**
+ * Benchmark for {@link VisOdomDualTrackPnP}. A fixed stereo sequence is rendered once from a synthetic scene
+ * composed of textured planes and each invocation processes the entire sequence.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkVisOdomDualTrackPnP {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	public int width = 640, height = 480;
+	public int numFrames = 10;
+
+	StereoParameters param;
+	List<GrayF32> framesLeft = new ArrayList<>();
+	List<GrayF32> framesRight = new ArrayList<>();
+
+	StereoVisualOdometry<GrayF32> alg;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		param = new StereoParameters();
+		param.rightToLeft = eulerXyz(-0.2,0,0,0,0,0,null);
+		param.left = new CameraPinholeBrown(400,400,0,width/2,height/2,width,height).fsetRadial(0,0);
+		param.right = new CameraPinholeBrown(400,400,0,width/2,height/2,width,height).fsetRadial(0,0);
+
+		renderSequence();
+
+		ConfigGeneralDetector configDetector = new ConfigGeneralDetector(600,2,1);
+
+		PkltConfig kltConfig = new PkltConfig();
+		kltConfig.templateRadius = 3;
+		kltConfig.pyramidScaling =  new int[]{1, 2, 4, 8};
+
+		PointTracker<GrayF32> trackerLeft = FactoryPointTracker.klt(kltConfig, configDetector,
+				GrayF32.class,GrayF32.class);
+		PointTracker<GrayF32> trackerRight = FactoryPointTracker.klt(kltConfig, configDetector,
+				GrayF32.class,GrayF32.class);
+
+		DescribeRegionPoint describe = FactoryDescribeRegionPoint.surfFast(null, GrayF32.class);
+
+		alg = FactoryVisualOdometry.stereoDualTrackerPnP(90, 2, 1.5, 1.5, 200, 50,
+				trackerLeft, trackerRight, describe,GrayF32.class);
+	}
+
+	/**
+	 * Renders a sequence where the stereo camera moves forward towards several textured planes
+	 */
+	private void renderSequence() {
+		Random rand = new Random(234);
+
+		SimulatePlanarWorld sim = new SimulatePlanarWorld();
+		sim.setBackground(50);
+
+		// planes at different depths so that the scene isn't degenerate
+		for (int i = 0; i < 3; i++) {
+			GrayF32 noise = new GrayF32(400,300);
+			GrayF32 texture = new GrayF32(400,300);
+			ImageMiscOps.fillUniform(noise,rand,0,255);
+			GBlurImageOps.gaussian(noise,texture,-1,2,null);
+
+			Se3_F64 rectToWorld = eulerXyz(-1.0+i,0.1*i,2.5+i*0.75,0,Math.PI,0,null);
+			sim.addSurface(rectToWorld,1.5,texture);
+		}
+
+		Se3_F64 worldToLeft = new Se3_F64();
+		Se3_F64 worldToRight = new Se3_F64();
+		Se3_F64 leftToRight = param.getRightToLeft().invert(null);
+
+		for (int i = 0; i < numFrames; i++) {
+			worldToLeft.getT().z = i*0.05;
+			worldToLeft.concat(leftToRight,worldToRight);
+
+			sim.setCamera(param.left);
+			sim.setWorldToCamera(worldToLeft);
+			framesLeft.add(sim.render().clone());
+
+			sim.setCamera(param.right);
+			sim.setWorldToCamera(worldToRight);
+			framesRight.add(sim.render().clone());
+		}
+	}
+
+	@Benchmark
+	public void ProcessSequence() {
+		alg.reset();
+		alg.setCalibration(param);
+		for (int i = 0; i < numFrames; i++) {
+			alg.process(framesLeft.get(i),framesRight.get(i));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkVisOdomDualTrackPnP.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
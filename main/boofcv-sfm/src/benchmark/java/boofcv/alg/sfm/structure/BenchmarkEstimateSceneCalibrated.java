@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.sfm.structure;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.alg.descriptor.UtilFeature;
+import boofcv.alg.distort.pinhole.LensDistortionPinhole;
+import boofcv.alg.geo.MultiViewOps;
+import boofcv.alg.geo.PerspectiveOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.UtilEjml;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link EstimateSceneCalibrated}. A pairwise graph is created from a random point cloud viewed
+ * by several cameras with perfect observations. The graph is modified when processed so a new one is created
+ * before each invocation using the same seed.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkEstimateSceneCalibrated {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"500"})
+	public int numPoints;
+
+	public int numViews = 5;
+
+	CameraPinhole pinhole = new CameraPinhole(400,400,0,500,500,1000,1000);
+
+	PairwiseImageGraph pairwise;
+
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() {
+		pairwise = createImageGraph(new Random(234));
+	}
+
+	@Benchmark
+	public void Process() {
+		EstimateSceneCalibrated alg = new EstimateSceneCalibrated();
+		alg.process(pairwise);
+	}
+
+	private PairwiseImageGraph createImageGraph( Random rand ) {
+		List<Point3D_F64> cloud = UtilPoint3D_F64.random(new Point3D_F64(0,0,1.5),
+				-1.5,1.5,-0.5,0.5,-0.2,0.2,numPoints,rand);
+
+		PairwiseImageGraph pairwise = new PairwiseImageGraph();
+
+		LensDistortionPinhole distortion = new LensDistortionPinhole(pinhole);
+		Point2Transform2_F64 n2n = distortion.distort_F64(false,false);
+
+		pairwise.addCamera(new PairwiseImageGraph.Camera("one",distortion.undistort_F64(true,false),pinhole));
+
+		List<Se3_F64> listViewToWorld = new ArrayList<>();
+
+		Point3D_F64 Xv = new Point3D_F64();
+		Point2D_F64 n = new Point2D_F64();
+		Point2D_F64 p = new Point2D_F64();
+
+		for (int viewidx = 0; viewidx < numViews; viewidx++) {
+			Se3_F64 viewToWorld = new Se3_F64();
+			viewToWorld.set(-1+2.0*viewidx/(numViews-1),0,0, EulerType.XYZ,rand.nextGaussian()*0.1,0,0);
+			listViewToWorld.add(viewToWorld);
+
+			FastQueue descs = UtilFeature.createQueueF64(3);
+			PairwiseImageGraph.View view = new PairwiseImageGraph.View(viewidx,descs);
+
+			for (int i = 0; i < cloud.size(); i++) {
+				Point3D_F64 X = cloud.get(i);
+				viewToWorld.transformReverse(X,Xv);
+				n2n.compute(Xv.x/Xv.z, Xv.y/Xv.z, n);
+				PerspectiveOps.convertNormToPixel(pinhole,n.x,n.y,p);
+
+				if( !pinhole.inside(p.x,p.y) )
+					continue;
+
+				((TupleDesc_F64)view.descriptions.grow()).set(X.x,X.y,X.z);
+				view.observationNorm.grow().set(n);
+				view.observationPixels.grow().set(p);
+			}
+
+			view.camera = pairwise.cameras.get("one");
+			pairwise.nodes.add(view);
+		}
+
+		// connect every view to every other view
+		for (int i = 0; i < pairwise.nodes.size(); i++) {
+			for (int j = i+1; j < pairwise.nodes.size(); j++) {
+				PairwiseImageGraph.Motion m = new PairwiseImageGraph.Motion();
+				m.viewSrc = pairwise.nodes.get(i);
+				m.viewDst = pairwise.nodes.get(j);
+				m.metric = true;
+				m.index= pairwise.edges.size();
+				pairwise.edges.add(m);
+				m.viewSrc.connections.add(m);
+				m.viewDst.connections.add(m);
+
+				Se3_F64 src_to_dst = new Se3_F64();
+				listViewToWorld.get(i).concat(listViewToWorld.get(j).invert(null),src_to_dst);
+				m.F = MultiViewOps.createEssential(src_to_dst.R,src_to_dst.T, null);
+
+				matchCommon(m.viewSrc,m.viewDst,m.associated);
+			}
+		}
+		return pairwise;
+	}
+
+	private void matchCommon( PairwiseImageGraph.View viewA , PairwiseImageGraph.View viewB,
+							  List<AssociatedIndex> matches )
+	{
+		for (int i = 0; i < viewA.descriptions.size; i++) {
+			TupleDesc_F64 a = (TupleDesc_F64)viewA.descriptions.get(i);
+
+			for (int j = 0; j < viewB.descriptions.size; j++) {
+				TupleDesc_F64 b = (TupleDesc_F64)viewB.descriptions.get(j);
+
+				if(DescriptorDistance.euclidean(a,b) <= UtilEjml.EPS ) {
+					matches.add( new AssociatedIndex(i,j,0));
+					break;
+				}
+			}
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkEstimateSceneCalibrated.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
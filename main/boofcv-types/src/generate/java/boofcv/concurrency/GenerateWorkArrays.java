@@ -65,22 +65,27 @@ public class GenerateWorkArrays extends CodeGeneratorBase {
 				"\n" +
 				"\t/**\n" +
 				"\t * Checks to see if the stored arrays have the specified length. If not the length is changed and old\n" +
-				"\t * arrays are purged\n" +
+				"\t * arrays are moved into the {@link ImagePool#getDefault() default pool}\n" +
 				"\t * @param length Desired array length\n" +
 				"\t */\n" +
 				"\tpublic synchronized void reset( int length ) {\n" +
 				"\t\tif( this.length != length ) {\n" +
 				"\t\t\tthis.length = length;\n" +
+				"\t\t\tImagePool pool = ImagePool.getDefault();\n" +
+				"\t\t\tfor (int i = 0; i < storage.size(); i++) {\n" +
+				"\t\t\t\tpool.recycleArray(storage.get(i));\n" +
+				"\t\t\t}\n" +
 				"\t\t\tstorage.clear();\n" +
 				"\t\t}\n" +
 				"\t}\n" +
 				"\n" +
 				"\t/**\n" +
-				"\t * If there are arrays in storage one of them is returned, otherwise a new array is returned\n" +
+				"\t * If there are arrays in storage one of them is returned, otherwise one is taken from the\n" +
+				"\t * {@link ImagePool#getDefault() default pool}\n" +
 				"\t */\n" +
 				"\tpublic synchronized "+type+"[] pop() {\n" +
 				"\t\tif( storage.isEmpty() ) {\n" +
-				"\t\t\treturn new "+type+"[length];\n" +
+				"\t\t\treturn ("+type+"[])ImagePool.getDefault().popArray("+type+".class,length,true);\n" +
 				"\t\t} else {\n" +
 				"\t\t\treturn storage.remove(storage.size()-1);\n" +
 				"\t\t}\n" +
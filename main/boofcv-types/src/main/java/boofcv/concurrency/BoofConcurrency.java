@@ -18,14 +18,28 @@
 
 package boofcv.concurrency;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntConsumer;
 import java.util.stream.IntStream;
 
 /**
  * Location of controls for turning on and off concurrent (i.e. threaded) algorithms.
  *
+ * By default all concurrent algorithms share a single global {@link ForkJoinPool}. A thread can temporarily
+ * run algorithms inside a different pool, e.g. to give each camera pipeline its own thread budget, by opening
+ * a {@link PoolScope} with {@link #withPool(ForkJoinPool)} or {@link #withThreads(int)}. Tasks which are already
+ * running inside a pool's worker thread will continue to use that pool, so nested loops stay in the same pool.
+ *
+ * If a worker throws an exception it is rethrown in the calling thread. Variants of each loop which take a
+ * {@link CancelToken} can be abandoned early, for example when a newer frame arrives or a deadline has passed.
+ *
  * -Djava.util.concurrent.ForkJoinPool.common.parallelism=16
  *
  * @author Peter Abeles
@@ -39,15 +53,101 @@ public class BoofConcurrency {
 	// Custom thread pool for streams so that the number of threads can be controlled
 	private static ForkJoinPool pool = new ForkJoinPool();
 
+	// Overrides the global pool for the thread which opened a scope
+	private static final ThreadLocal<ForkJoinPool> localPool = new ThreadLocal<>();
+
+	/**
+	 * Replaces the global pool with a new one that has the specified number of threads. Threads inside of
+	 * a {@link PoolScope} are not affected.
+	 */
 	public static void setMaxThreads( int maxThreads ) {
 		pool = new ForkJoinPool(maxThreads);
 	}
 
 	/**
-	 * Returns the maximum number of threads which can be run at once in this pool
+	 * Returns the maximum number of threads which can be run at once in the pool used by the calling thread
 	 */
 	public static int getMaxThreads() {
-		return pool.getParallelism();
+		return getPool().getParallelism();
+	}
+
+	/**
+	 * Returns the pool which concurrent algorithms invoked by the calling thread will run in. In order of priority
+	 * this is the pool of an open {@link PoolScope}, the pool the calling thread is a worker in, or
+	 * the global pool.
+	 */
+	public static ForkJoinPool getPool() {
+		ForkJoinPool local = localPool.get();
+		if( local != null )
+			return local;
+
+		// Nested calls from inside a task stay in the same pool. The common pool is ignored since it's
+		// used by Java's parallel streams and not by BoofCV.
+		Thread thread = Thread.currentThread();
+		if( thread instanceof ForkJoinWorkerThread ) {
+			ForkJoinPool workerPool = ((ForkJoinWorkerThread)thread).getPool();
+			if( workerPool != ForkJoinPool.commonPool() )
+				return workerPool;
+		}
+		return pool;
+	}
+
+	/**
+	 * Until the returned scope is closed all concurrent algorithms invoked by the calling thread will
+	 * run inside the specified pool. The pool is not shutdown when the scope is closed.
+	 *
+	 * @param pool The pool which algorithms should run inside of
+	 * @return Scope which must be closed by the calling thread
+	 */
+	public static PoolScope withPool( ForkJoinPool pool ) {
+		PoolScope scope = new PoolScope(pool,localPool.get(),false);
+		localPool.set(pool);
+		return scope;
+	}
+
+	/**
+	 * Creates a new fixed size pool using {@link #newFixedPool(String, int)} and makes it active until
+	 * the scope is closed. When closed the pool is shutdown.
+	 *
+	 * @param numThreads Number of threads in the pool
+	 * @return Scope which must be closed by the calling thread
+	 */
+	public static PoolScope withThreads( int numThreads ) {
+		ForkJoinPool pool = newFixedPool("boofcv-scope",numThreads);
+		PoolScope scope = new PoolScope(pool,localPool.get(),true);
+		localPool.set(pool);
+		return scope;
+	}
+
+	/**
+	 * Creates a pool with a fixed level of parallelism and daemon worker threads. Workers have predictable names,
+	 * e.g. "name-0", "name-1", so that they can be identified by external tools for setting CPU affinity.
+	 *
+	 * @param name Prefix used when naming threads
+	 * @param numThreads Number of threads in the pool
+	 * @return The new pool
+	 */
+	public static ForkJoinPool newFixedPool( String name , int numThreads ) {
+		if( numThreads <= 0 )
+			throw new IllegalArgumentException("Number of threads must be more than zero");
+		AtomicInteger count = new AtomicInteger();
+		ForkJoinPool.ForkJoinWorkerThreadFactory factory = p -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			thread.setName(name+"-"+(count.getAndIncrement()%numThreads));
+			thread.setDaemon(true);
+			return thread;
+		};
+		return new ForkJoinPool(numThreads,factory,null,false);
+	}
+
+	/**
+	 * Sets the pool for the calling thread. null will restore the global pool
+	 */
+	static void setLocalPool( ForkJoinPool pool ) {
+		if( pool == null )
+			localPool.remove();
+		else
+			localPool.set(pool);
 	}
 
 	/**
@@ -58,11 +158,30 @@ public class BoofConcurrency {
 	 * @param consumer The consumer
 	 */
 	public static void loopFor(int start , int endExclusive , IntConsumer consumer ) {
-		try {
-			pool.submit(() ->IntStream.range(start, endExclusive).parallel().forEach(consumer)).get();
-		} catch (InterruptedException | ExecutionException e) {
-			e.printStackTrace();
-		}
+		await(getPool().submit(() ->IntStream.range(start, endExclusive).parallel().forEach(consumer)),null);
+	}
+
+	/**
+	 * Cancellable version of {@link #loopFor(int, int, IntConsumer)}. The token is checked before each iteration.
+	 * If a worker fails then the token is cancelled so that the other workers stop early.
+	 *
+	 * @param start starting value, inclusive
+	 * @param endExclusive ending value, exclusive
+	 * @param token Used to cancel the loop or specify a deadline
+	 * @param consumer The consumer
+	 * @throws CancellationException If cancelled or the deadline passed before the loop finished
+	 */
+	public static void loopFor(int start , int endExclusive , CancelToken token , IntConsumer consumer ) {
+		token.checkCancelled();
+		await(getPool().submit(() ->IntStream.range(start, endExclusive).parallel().forEach(i->{
+			token.checkCancelled();
+			try {
+				consumer.accept(i);
+			} catch( RuntimeException | Error e ) {
+				token.cancel();
+				throw e;
+			}
+		})),token);
 	}
 
 	/**
@@ -84,7 +203,7 @@ public class BoofConcurrency {
 	 */
 	public static void loopBlocks(int start , int endExclusive , int minBlock,
 								  IntRangeConsumer consumer ) {
-		final ForkJoinPool pool = BoofConcurrency.pool;
+		final ForkJoinPool pool = getPool();
 		int numThreads = pool.getParallelism();
 
 		int range = endExclusive-start;
@@ -95,11 +214,35 @@ public class BoofConcurrency {
 
 		int block = selectBlockSize(range,minBlock,numThreads);
 
-		try {
-			pool.submit(new IntRangeTask(start,endExclusive,block,consumer)).get();
-		} catch (InterruptedException | ExecutionException e) {
-			e.printStackTrace();
-		}
+		await(pool.submit(new IntRangeTask(start,endExclusive,block,consumer)),null);
+	}
+
+	/**
+	 * Cancellable version of {@link #loopBlocks(int, int, int, IntRangeConsumer)}. The token is checked before
+	 * a block is processed.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param minBlock Minimum size of a block
+	 * @param token Used to cancel the loop or specify a deadline
+	 * @param consumer The consumer
+	 * @throws CancellationException If cancelled or the deadline passed before the loop finished
+	 */
+	public static void loopBlocks(int start , int endExclusive , int minBlock, CancelToken token,
+								  IntRangeConsumer consumer ) {
+		token.checkCancelled();
+		final ForkJoinPool pool = getPool();
+		int numThreads = pool.getParallelism();
+
+		int range = endExclusive-start;
+		if( range == 0 ) // nothing to do here!
+			return;
+		if( range < 0 )
+			throw new IllegalArgumentException("end must be more than start. "+start+" -> "+endExclusive);
+
+		int block = selectBlockSize(range,minBlock,numThreads);
+
+		await(pool.submit(new IntRangeTask(start,endExclusive,block,cancellable(token,consumer))),token);
 	}
 
 	static int selectBlockSize( int range , int minBlock , int numThreads ) {
@@ -118,7 +261,7 @@ public class BoofConcurrency {
 	 * @param consumer The consumer
 	 */
 	public static void loopBlocks(int start , int endExclusive , IntRangeConsumer consumer ) {
-		final ForkJoinPool pool = BoofConcurrency.pool;
+		final ForkJoinPool pool = getPool();
 		int numThreads = pool.getParallelism();
 
 		int range = endExclusive-start;
@@ -131,10 +274,90 @@ public class BoofConcurrency {
 		// exactly seemed to do better in the test cases
 		int blockSize = Math.max(1,range/numThreads);
 
+		await(pool.submit(new IntRangeTask(start,endExclusive,blockSize,consumer)),null);
+	}
+
+	/**
+	 * Cancellable version of {@link #loopBlocks(int, int, IntRangeConsumer)}. The token is checked before
+	 * a block is processed.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param token Used to cancel the loop or specify a deadline
+	 * @param consumer The consumer
+	 * @throws CancellationException If cancelled or the deadline passed before the loop finished
+	 */
+	public static void loopBlocks(int start , int endExclusive , CancelToken token , IntRangeConsumer consumer ) {
+		token.checkCancelled();
+		int range = endExclusive-start;
+		loopBlocks(start,endExclusive,Math.max(1,range/getMaxThreads()),token,consumer);
+	}
+
+	/**
+	 * Wraps the consumer so that it checks the token before processing a block and cancels the token if it fails
+	 */
+	private static IntRangeConsumer cancellable( CancelToken token , IntRangeConsumer consumer ) {
+		return (minInclusive, maxExclusive) -> {
+			token.checkCancelled();
+			try {
+				consumer.accept(minInclusive,maxExclusive);
+			} catch( RuntimeException | Error e ) {
+				token.cancel();
+				throw e;
+			}
+		};
+	}
+
+	/**
+	 * Wraps the producer so that it checks the token before each value and cancels the token if it fails
+	 */
+	private static IntProducerNumber cancellable( CancelToken token , IntProducerNumber producer ) {
+		return value -> {
+			token.checkCancelled();
+			try {
+				return producer.accept(value);
+			} catch( RuntimeException | Error e ) {
+				token.cancel();
+				throw e;
+			}
+		};
+	}
+
+	/**
+	 * Waits for the task to finish. If a worker failed then its exception is rethrown. If a token is provided
+	 * then the token is cancelled once the deadline has passed. Workers are always joined before this returns or
+	 * throws, so no worker is still running when the caller regains control.
+	 *
+	 * @param task The task which was submitted
+	 * @param token (Optional) Used to specify a deadline. Can be null.
+	 * @return The task's result
+	 */
+	static <T> T await( ForkJoinTask<T> task , CancelToken token ) {
 		try {
-			pool.submit(new IntRangeTask(start,endExclusive,blockSize,consumer)).get();
-		} catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException(e);
+			if( token != null && token.hasDeadline() ) {
+				return task.get(token.remainingNano(),TimeUnit.NANOSECONDS);
+			} else {
+				return task.get();
+			}
+		} catch( TimeoutException e ) {
+			// tell the workers to stop processing and wait for them so that they don't write into the output
+			// after the caller has been told the loop is done
+			token.cancel();
+			task.quietlyJoin();
+			throw new CancellationException("Deadline passed");
+		} catch( InterruptedException e ) {
+			if( token != null )
+				token.cancel();
+			task.quietlyJoin();
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting");
+		} catch( ExecutionException e ) {
+			Throwable cause = e.getCause();
+			if( cause instanceof RuntimeException )
+				throw (RuntimeException)cause;
+			if( cause instanceof Error )
+				throw (Error)cause;
+			throw new RuntimeException(cause);
 		}
 	}
 
@@ -148,11 +371,18 @@ public class BoofConcurrency {
 	 * @return The sum
 	 */
 	public static Number sum(int start , int endExclusive , Class type, IntProducerNumber producer ) {
-		try {
-			return pool.submit(new IntOperatorTask.Sum(start,endExclusive,type,producer)).get();
-		} catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException(e);
-		}
+		return await(getPool().submit(new IntOperatorTask.Sum(start,endExclusive,type,producer)),null);
+	}
+
+	/**
+	 * Cancellable version of {@link #sum(int, int, Class, IntProducerNumber)}. The token is checked
+	 * before each value is produced.
+	 *
+	 * @throws CancellationException If cancelled or the deadline passed before it finished
+	 */
+	public static Number sum(int start , int endExclusive , Class type, CancelToken token, IntProducerNumber producer ) {
+		token.checkCancelled();
+		return await(getPool().submit(new IntOperatorTask.Sum(start,endExclusive,type,cancellable(token,producer))),token);
 	}
 
 	/**
@@ -165,11 +395,18 @@ public class BoofConcurrency {
 	 * @return The sum
 	 */
 	public static Number max(int start , int endExclusive , Class type, IntProducerNumber producer ) {
-		try {
-			return pool.submit(new IntOperatorTask.Max(start,endExclusive,type,producer)).get();
-		} catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException(e);
-		}
+		return await(getPool().submit(new IntOperatorTask.Max(start,endExclusive,type,producer)),null);
+	}
+
+	/**
+	 * Cancellable version of {@link #max(int, int, Class, IntProducerNumber)}. The token is checked
+	 * before each value is produced.
+	 *
+	 * @throws CancellationException If cancelled or the deadline passed before it finished
+	 */
+	public static Number max(int start , int endExclusive , Class type, CancelToken token, IntProducerNumber producer ) {
+		token.checkCancelled();
+		return await(getPool().submit(new IntOperatorTask.Max(start,endExclusive,type,cancellable(token,producer))),token);
 	}
 
 	/**
@@ -182,11 +419,18 @@ public class BoofConcurrency {
 	 * @return The sum
 	 */
 	public static Number min(int start , int endExclusive , Class type, IntProducerNumber producer ) {
-		try {
-			return pool.submit(new IntOperatorTask.Min(start,endExclusive,type,producer)).get();
-		} catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException(e);
-		}
+		return await(getPool().submit(new IntOperatorTask.Min(start,endExclusive,type,producer)),null);
+	}
+
+	/**
+	 * Cancellable version of {@link #min(int, int, Class, IntProducerNumber)}. The token is checked
+	 * before each value is produced.
+	 *
+	 * @throws CancellationException If cancelled or the deadline passed before it finished
+	 */
+	public static Number min(int start , int endExclusive , Class type, CancelToken token, IntProducerNumber producer ) {
+		token.checkCancelled();
+		return await(getPool().submit(new IntOperatorTask.Min(start,endExclusive,type,cancellable(token,producer))),token);
 	}
 
 }
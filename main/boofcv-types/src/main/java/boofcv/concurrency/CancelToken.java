@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.concurrency;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Used to abandon a concurrent loop in {@link BoofConcurrency} before it has finished. A loop is stopped if
+ * {@link #cancel()} is called, e.g. when a newer frame has arrived, or if the deadline has passed. Workers check
+ * the token before each iteration or block and stop early, then the loop throws a {@link CancellationException}.
+ * Long running consumers can also call {@link #checkCancelled()} themselves to stop sooner.
+ *
+ * A token can be shared by several loops, e.g. all the loops used to process a single frame. Once cancelled
+ * it stays cancelled.
+ *
+ * @author Peter Abeles
+ */
+public class CancelToken {
+	// if true the operation has been cancelled
+	private volatile boolean cancelled = false;
+	// System.nanoTime() when the deadline passes. Only valid if hasDeadline is true
+	private final long deadlineNano;
+	private final boolean hasDeadline;
+
+	/**
+	 * Creates a token without a deadline. It can only be cancelled by calling {@link #cancel()}
+	 */
+	public CancelToken() {
+		this.deadlineNano = 0;
+		this.hasDeadline = false;
+	}
+
+	private CancelToken( long deadlineNano ) {
+		this.deadlineNano = deadlineNano;
+		this.hasDeadline = true;
+	}
+
+	/**
+	 * Creates a token which will automatically be cancelled after the specified amount of time
+	 *
+	 * @param timeoutMilli Time in milliseconds from now until the deadline
+	 */
+	public static CancelToken timeout( long timeoutMilli ) {
+		return new CancelToken(System.nanoTime() + timeoutMilli*1_000_000L);
+	}
+
+	/**
+	 * Creates a token with a deadline specified using {@link System#nanoTime()}
+	 *
+	 * @param deadlineNano When the deadline passes in nano seconds
+	 */
+	public static CancelToken deadline( long deadlineNano ) {
+		return new CancelToken(deadlineNano);
+	}
+
+	/**
+	 * Requests that all operations using this token stop
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Returns true if it was cancelled or the deadline has passed
+	 */
+	public boolean isCancelled() {
+		if( cancelled )
+			return true;
+		if( hasDeadline && System.nanoTime() - deadlineNano >= 0 ) {
+			cancelled = true;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Throws an exception if cancelled or the deadline has passed
+	 *
+	 * @throws CancellationException if cancelled
+	 */
+	public void checkCancelled() {
+		if( isCancelled() )
+			throw new CancellationException("Cancelled or the deadline passed");
+	}
+
+	/**
+	 * Returns the number of nano seconds until the deadline or Long.MAX_VALUE if there is no deadline
+	 */
+	public long remainingNano() {
+		if( !hasDeadline )
+			return Long.MAX_VALUE;
+		return Math.max(0,deadlineNano-System.nanoTime());
+	}
+
+	public boolean hasDeadline() {
+		return hasDeadline;
+	}
+}
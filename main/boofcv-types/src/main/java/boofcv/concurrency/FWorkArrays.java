@@ -39,22 +39,27 @@ public class FWorkArrays implements WorkArrays {
 
 	/**
 	 * Checks to see if the stored arrays have the specified length. If not the length is changed and old
-	 * arrays are purged
+	 * arrays are moved into the {@link ImagePool#getDefault() default pool}
 	 * @param length Desired array length
 	 */
 	public synchronized void reset( int length ) {
 		if( this.length != length ) {
 			this.length = length;
+			ImagePool pool = ImagePool.getDefault();
+			for (int i = 0; i < storage.size(); i++) {
+				pool.recycleArray(storage.get(i));
+			}
 			storage.clear();
 		}
 	}
 
 	/**
-	 * If there are arrays in storage one of them is returned, otherwise a new array is returned
+	 * If there are arrays in storage one of them is returned, otherwise one is taken from the
+	 * {@link ImagePool#getDefault() default pool}
 	 */
 	public synchronized float[] pop() {
 		if( storage.isEmpty() ) {
-			return new float[length];
+			return (float[])ImagePool.getDefault().popArray(float.class,length,true);
 		} else {
 			return storage.remove(storage.size()-1);
 		}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.concurrency;
+
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Thread safe pool of images and primitive arrays which allows work memory to be recycled between frames instead
+ * of being declared again. Images are looked up by their {@link ImageType} and shape, arrays by their
+ * primitive type and length. Only exact matches are returned.
+ * </p>
+ *
+ * <p>
+ * The total amount of memory held by the pool is bounded. When the budget is exceeded the least recently used
+ * entries are discarded. By default the budget is zero, which disables pooling, so that memory usage is unchanged
+ * unless the user explicitly opts in with {@link #setMaxBytes(long)}.
+ * </p>
+ *
+ * <p>
+ * The contents of images and arrays returned by the pool are not defined. Once an object has been recycled the
+ * caller must not reference it again.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImagePool {
+
+	// pool used by algorithms which don't have one explicitly assigned to them
+	private static volatile ImagePool defaultPool = new ImagePool(0);
+
+	// access ordered so that the first entry is the least recently used
+	private final Map<Key,Stack> storage = new LinkedHashMap<>(16,0.75f,true);
+
+	// maximum number of bytes stored
+	private long maxBytes;
+	// number of bytes currently stored
+	private long storedBytes;
+
+	// statistics
+	private long hits, misses, evictions;
+
+	// reused to look up entries without declaring new memory
+	private final Key lookup = new Key();
+
+	/**
+	 * @param maxBytes Maximum number of bytes the pool can hold. If &le; 0 then nothing is stored.
+	 */
+	public ImagePool( long maxBytes ) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Returns the pool used by default
+	 */
+	public static ImagePool getDefault() {
+		return defaultPool;
+	}
+
+	/**
+	 * Changes the pool used by default
+	 */
+	public static void setDefault( ImagePool pool ) {
+		if( pool == null )
+			throw new IllegalArgumentException("Pool can't be null");
+		defaultPool = pool;
+	}
+
+	/**
+	 * Returns an image of the specified type and shape. If none are available a new one is declared.
+	 *
+	 * @param type Type of image
+	 * @param width Image width
+	 * @param height Image height
+	 * @return An image with the specified shape. Contents are not defined.
+	 */
+	public <T extends ImageBase<T>> T pop( ImageType<T> type , int width , int height ) {
+		Object found;
+		synchronized (this) {
+			found = take(lookup.setTo(type,width,height));
+		}
+		if( found != null )
+			return (T)found;
+		return type.createImage(width,height);
+	}
+
+	/**
+	 * Returns the image to the pool. Sub-images are ignored since they reference memory owned by another image.
+	 *
+	 * @param image The image. Must not be referenced after being recycled.
+	 */
+	public void recycle( ImageBase image ) {
+		if( image == null || image.isSubimage() )
+			return;
+		ImageType type = image.getImageType();
+		long bytes = (long)image.width*image.height*type.getNumBands()*bytesPerElement(type.getDataType().getDataType());
+		synchronized (this) {
+			store(new Key().setTo(type,image.width,image.height),image,bytes);
+		}
+	}
+
+	/**
+	 * Returns an array of the specified primitive type and length. If none are available a new one is declared.
+	 *
+	 * @param primitiveType Primitive type, e.g. float.class
+	 * @param length Length of the array
+	 * @param zero If true the array will be filled with zeros, otherwise its contents are not defined.
+	 * @return The array
+	 */
+	public Object popArray( Class primitiveType , int length , boolean zero ) {
+		Object found;
+		synchronized (this) {
+			found = take(lookup.setTo(primitiveType,length));
+		}
+		if( found == null )
+			return Array.newInstance(primitiveType,length);
+		if( zero )
+			fillZero(found);
+		return found;
+	}
+
+	/**
+	 * Returns the array to the pool.
+	 *
+	 * @param array A primitive array. Must not be referenced after being recycled.
+	 */
+	public void recycleArray( Object array ) {
+		if( array == null )
+			return;
+		Class type = array.getClass().getComponentType();
+		if( type == null || !type.isPrimitive() )
+			throw new IllegalArgumentException("Must be a primitive array");
+		int length = Array.getLength(array);
+		synchronized (this) {
+			store(new Key().setTo(type,length),array,(long)length*bytesPerElement(type));
+		}
+	}
+
+	/**
+	 * Looks up a stored object and updates the statistics. Must be called while synchronized.
+	 */
+	private Object take( Key key ) {
+		Stack stack = storage.get(key);
+		if( stack == null ) {
+			misses++;
+			return null;
+		}
+		hits++;
+		Object o = stack.removeLast();
+		storedBytes -= stack.bytes;
+		if( stack.isEmpty() )
+			storage.remove(key);
+		return o;
+	}
+
+	/**
+	 * Adds an object to storage then discards the least recently used objects until it's within budget.
+	 * Must be called while synchronized.
+	 */
+	private void store( Key key , Object o , long bytes ) {
+		if( bytes > maxBytes ) {
+			evictions++;
+			return;
+		}
+		Stack stack = storage.get(key);
+		if( stack == null ) {
+			stack = new Stack(bytes);
+			storage.put(key,stack);
+		}
+		stack.addLast(o);
+		storedBytes += bytes;
+		evict(maxBytes);
+	}
+
+	/**
+	 * Discards the least recently used objects until the amount of stored memory is less than or equal to
+	 * the target. Must be called while synchronized.
+	 */
+	private void evict( long target ) {
+		Iterator<Stack> iter = storage.values().iterator();
+		while( storedBytes > target && iter.hasNext() ) {
+			Stack stack = iter.next();
+			// the oldest objects are at the start
+			while( storedBytes > target && !stack.isEmpty() ) {
+				stack.removeFirst();
+				storedBytes -= stack.bytes;
+				evictions++;
+			}
+			if( stack.isEmpty() )
+				iter.remove();
+		}
+	}
+
+	/**
+	 * Discards everything in the pool. Statistics are not modified.
+	 */
+	public synchronized void clear() {
+		storage.clear();
+		storedBytes = 0;
+	}
+
+	/**
+	 * Changes the memory budget. If the new budget is smaller than the amount of memory currently stored then
+	 * the least recently used objects will be discarded.
+	 *
+	 * @param maxBytes Maximum number of bytes the pool can hold. If &le; 0 then nothing is stored.
+	 */
+	public synchronized void setMaxBytes( long maxBytes ) {
+		this.maxBytes = maxBytes;
+		evict(Math.max(0,maxBytes));
+	}
+
+	public synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Number of bytes currently stored in the pool
+	 */
+	public synchronized long getStoredBytes() {
+		return storedBytes;
+	}
+
+	/**
+	 * Number of requests which were satisfied with a recycled object
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Number of requests which required new memory to be declared
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Number of recycled objects which were discarded because of the memory budget
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	public synchronized void resetStatistics() {
+		hits = misses = evictions = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ImagePool{ stored="+storedBytes+" max="+maxBytes+" hits="+hits+" misses="+misses+
+				" evictions="+evictions+" }";
+	}
+
+	private static int bytesPerElement( Class primitiveType ) {
+		if( primitiveType == byte.class || primitiveType == boolean.class )
+			return 1;
+		else if( primitiveType == short.class || primitiveType == char.class )
+			return 2;
+		else if( primitiveType == int.class || primitiveType == float.class )
+			return 4;
+		else if( primitiveType == long.class || primitiveType == double.class )
+			return 8;
+		throw new IllegalArgumentException("Unknown primitive type "+primitiveType);
+	}
+
+	private static void fillZero( Object array ) {
+		if( array instanceof byte[] )
+			Arrays.fill((byte[])array,(byte)0);
+		else if( array instanceof short[] )
+			Arrays.fill((short[])array,(short)0);
+		else if( array instanceof int[] )
+			Arrays.fill((int[])array,0);
+		else if( array instanceof long[] )
+			Arrays.fill((long[])array,0L);
+		else if( array instanceof float[] )
+			Arrays.fill((float[])array,0f);
+		else if( array instanceof double[] )
+			Arrays.fill((double[])array,0.0);
+		else if( array instanceof char[] )
+			Arrays.fill((char[])array,(char)0);
+		else if( array instanceof boolean[] )
+			Arrays.fill((boolean[])array,false);
+	}
+
+	/**
+	 * Objects which share the same key. New objects are added to the end.
+	 */
+	private static class Stack extends ArrayDeque<Object> {
+		// number of bytes in each object
+		final long bytes;
+
+		Stack(long bytes) {
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * Identifies a type of stored object. Images use the family, data type, and number of bands from their
+	 * {@link ImageType}, arrays use their primitive type.
+	 */
+	private static class Key {
+		Object type;
+		int numBands, width, height;
+
+		Key setTo( ImageType imageType , int width , int height ) {
+			this.type = imageType.getImageClass();
+			this.numBands = imageType.getFamily() == ImageType.Family.GRAY ? 1 : imageType.getNumBands();
+			// planar and interleaved can't be distinguished by their band class so encode it in the sign
+			if( imageType.getFamily() == ImageType.Family.PLANAR )
+				this.numBands = -this.numBands;
+			this.width = width;
+			this.height = height;
+			return this;
+		}
+
+		Key setTo( Class primitiveType , int length ) {
+			this.type = primitiveType;
+			this.numBands = 0;
+			this.width = length;
+			this.height = 0;
+			return this;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if( !(o instanceof Key) )
+				return false;
+			Key k = (Key)o;
+			return type == k.type && numBands == k.numBands && width == k.width && height == k.height;
+		}
+
+		@Override
+		public int hashCode() {
+			return ((type.hashCode()*31 + numBands)*31 + width)*31 + height;
+		}
+	}
+}
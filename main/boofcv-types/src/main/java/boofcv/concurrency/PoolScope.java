@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.concurrency;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * While open, all concurrent algorithms invoked by the thread which created the scope will run inside the
+ * scope's {@link ForkJoinPool} instead of the global pool in {@link BoofConcurrency}. Scopes can be nested and
+ * when closed the previous pool is restored. Intended to be used in a try-with-resources block.
+ *
+ * <pre>
+ * try( PoolScope scope = BoofConcurrency.withThreads(2) ) {
+ *     detector.process(image);
+ * }
+ * </pre>
+ *
+ * @see BoofConcurrency#withPool(ForkJoinPool)
+ * @see BoofConcurrency#withThreads(int)
+ *
+ * @author Peter Abeles
+ */
+public class PoolScope implements AutoCloseable {
+	// The pool which is used while the scope is open
+	final ForkJoinPool pool;
+	// The pool which was active before this scope was opened. null for the global pool
+	final ForkJoinPool previous;
+	// If true the pool was created by this scope and will be shutdown when closed
+	final boolean owner;
+	// Thread which opened the scope
+	final Thread thread;
+
+	boolean closed = false;
+
+	PoolScope(ForkJoinPool pool, ForkJoinPool previous, boolean owner) {
+		this.pool = pool;
+		this.previous = previous;
+		this.owner = owner;
+		this.thread = Thread.currentThread();
+	}
+
+	/**
+	 * Restores the previous pool. If the pool was created by this scope then it is shutdown.
+	 *
+	 * @throws IllegalStateException If called from a different thread than the one which opened the scope
+	 */
+	@Override
+	public void close() {
+		if( closed )
+			return;
+		if( Thread.currentThread() != thread )
+			throw new IllegalStateException("A scope must be closed by the thread which opened it");
+		closed = true;
+		BoofConcurrency.setLocalPool(previous);
+		if( owner )
+			pool.shutdown();
+	}
+
+	/**
+	 * The pool used by concurrent algorithms while this scope is open
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+}
@@ -48,4 +48,9 @@ public abstract class ImageBorder<T extends ImageBase<T>> {
 	public abstract void getGeneral(int x, int y, double[] pixel);
 
 	public abstract void setGeneral(int x, int y, double[] pixel);
+
+	/**
+	 * Creates a new instance of this border which is configured the same way but isn't attached to an image
+	 */
+	public abstract ImageBorder<T> copy();
 }
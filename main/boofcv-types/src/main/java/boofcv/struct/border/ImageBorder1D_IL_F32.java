@@ -68,4 +68,9 @@ public class ImageBorder1D_IL_F32 extends ImageBorder_IL_F32 implements ImageBor
 	public void setOutside(int x, int y, float[] pixel) {
 		image.unsafe_set(colWrap.getIndex(x) , rowWrap.getIndex(y),pixel);
 	}
+
+	@Override
+	public ImageBorder1D_IL_F32 copy() {
+		return new ImageBorder1D_IL_F32(rowWrap.copy(), colWrap.copy());
+	}
 }
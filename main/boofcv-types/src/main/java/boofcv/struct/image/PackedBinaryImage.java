@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Binary image where each pixel is stored as a single bit, 64 pixels per long. Compared to a binary
+ * {@link GrayU8} image it requires 1/8 the memory and operations can process 64 pixels at once.
+ * Bit 'i' in a word is the pixel at x = 64*word + i. Each row starts at a new word, bits past the end of a row
+ * are always zero. Sub-images are not supported.
+ * </p>
+ *
+ * <p>
+ * NOTE: Unlike other images this doesn't extend {@link ImageBase} since the generic image operations assume
+ * each pixel has its own element in the data array.
+ * </p>
+ *
+ * @see boofcv.alg.filter.binary.PackedBinaryImageOps
+ *
+ * @author Peter Abeles
+ */
+public class PackedBinaryImage implements Serializable {
+	/** Number of pixels packed into each element of data */
+	public static final int BITS = 64;
+
+	/** Image shape in pixels */
+	public int width,height;
+	/** Number of words in each row */
+	public int stride;
+	/** Pixel values. Row-major */
+	public long[] data = new long[0];
+
+	public PackedBinaryImage( int width , int height ) {
+		reshape(width,height);
+	}
+
+	public PackedBinaryImage() {
+	}
+
+	/**
+	 * Changes the image's shape. Pixel values are set to zero if the shape changes.
+	 */
+	public void reshape( int width , int height ) {
+		if( this.width == width && this.height == height )
+			return;
+		this.width = width;
+		this.height = height;
+		this.stride = (width+BITS-1)/BITS;
+
+		int N = stride*height;
+		if( data.length < N )
+			data = new long[N];
+		else
+			Arrays.fill(data,0,N,0);
+	}
+
+	/**
+	 * Returns the value of the pixel. 0 or 1
+	 */
+	public int get( int x , int y ) {
+		if( !isInBounds(x,y) )
+			throw new ImageAccessException("Requested pixel is out of bounds: "+x+" "+y);
+		return unsafe_get(x,y);
+	}
+
+	public int unsafe_get( int x , int y ) {
+		return (int)(data[y*stride + x/BITS] >>> (x%BITS)) & 1;
+	}
+
+	/**
+	 * Sets the pixel's value. Any non-zero value is set to 1
+	 */
+	public void set( int x , int y , int value ) {
+		if( !isInBounds(x,y) )
+			throw new ImageAccessException("Requested pixel is out of bounds: "+x+" "+y);
+		unsafe_set(x,y,value);
+	}
+
+	public void unsafe_set( int x , int y , int value ) {
+		int index = y*stride + x/BITS;
+		long mask = 1L << (x%BITS);
+		if( value != 0 )
+			data[index] |= mask;
+		else
+			data[index] &= ~mask;
+	}
+
+	public boolean isInBounds( int x , int y ) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * Mask for the valid bits in the last word of each row
+	 */
+	public long lastWordMask() {
+		int extra = width%BITS;
+		return extra == 0 ? -1L : (1L << extra)-1;
+	}
+
+	/**
+	 * Sets this image to be identical to 'src'. Reshaped if needed.
+	 */
+	public void setTo( PackedBinaryImage src ) {
+		reshape(src.width,src.height);
+		System.arraycopy(src.data,0,data,0,stride*height);
+	}
+
+	public PackedBinaryImage createSameShape() {
+		return new PackedBinaryImage(width,height);
+	}
+
+	@Override
+	public PackedBinaryImage clone() {
+		PackedBinaryImage ret = new PackedBinaryImage();
+		ret.setTo(this);
+		return ret;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.image;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Gray scale image which is split up into tiles and stored in a memory mapped file. This allows images to be
+ * processed which are larger than what can be stored inside a single Java array, i.e. more than 2^31 pixels,
+ * or would not fit inside the heap. Pixels are accessed by copying rectangular regions into and out of
+ * regular {@link ImageGray} images. Only the tile currently being processed needs to be on the heap. The
+ * operating system decides which parts of the file are resident in memory.
+ * </p>
+ *
+ * <p>
+ * Each tile is stored in a contiguous block of the file in row-major order. Tiles along the right and bottom
+ * edges take up the same amount of space as every other tile. Pixels are stored using the native byte order.
+ * </p>
+ *
+ * <p>
+ * Reading and writing is thread safe, provided that different threads don't write to the same pixels.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TiledImage<T extends ImageGray<T>> implements Closeable {
+	// type of image stored in each tile
+	ImageType<T> imageType;
+
+	// shape of the image
+	int width, height;
+	// shape of each tile
+	int tileWidth, tileHeight;
+	// number of tiles along each axis
+	int numTileCols, numTileRows;
+
+	// number of bytes in a pixel and in a tile
+	int bytesPerPixel;
+	long bytesPerTile;
+
+	File file;
+	RandomAccessFile raf;
+	FileChannel channel;
+	// if true the file will be deleted when closed
+	boolean deleteOnClose;
+
+	// Mapped memory for each tile. Lazily created
+	MappedByteBuffer[] tiles;
+
+	/**
+	 * Creates a new tiled image which is backed by the specified file. If the file exists then its
+	 * contents will be used, assuming it's the correct size.
+	 *
+	 * @param imageType Type of gray scale image
+	 * @param width Image width
+	 * @param height Image height
+	 * @param tileWidth Width of each tile
+	 * @param tileHeight Height of each tile
+	 * @param file File which stores the pixel data
+	 */
+	public TiledImage( ImageType<T> imageType , int width , int height , int tileWidth , int tileHeight , File file ) {
+		if( imageType.getFamily() != ImageType.Family.GRAY )
+			throw new IllegalArgumentException("Only gray scale images are supported");
+		if( width <= 0 || height <= 0 )
+			throw new IllegalArgumentException("Image shape must be positive");
+		if( tileWidth <= 0 || tileHeight <= 0 )
+			throw new IllegalArgumentException("Tile shape must be positive");
+
+		this.imageType = imageType;
+		this.width = width;
+		this.height = height;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		this.numTileCols = (width+tileWidth-1)/tileWidth;
+		this.numTileRows = (height+tileHeight-1)/tileHeight;
+		this.bytesPerPixel = imageType.getDataType().getNumBits()/8;
+		this.bytesPerTile = (long)tileWidth*tileHeight*bytesPerPixel;
+		if( bytesPerTile > Integer.MAX_VALUE )
+			throw new IllegalArgumentException("Tiles are too large to be mapped");
+		this.file = file;
+
+		try {
+			raf = new RandomAccessFile(file,"rw");
+			raf.setLength(bytesPerTile*numTileCols*numTileRows);
+			channel = raf.getChannel();
+		} catch( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+		tiles = new MappedByteBuffer[numTileCols*numTileRows];
+	}
+
+	/**
+	 * Creates a tiled image which is backed by a temporary file. The file is deleted when closed.
+	 *
+	 * @see #TiledImage(ImageType, int, int, int, int, File)
+	 */
+	public static <T extends ImageGray<T>> TiledImage<T> createTemp( ImageType<T> imageType ,
+																	 int width , int height ,
+																	 int tileWidth , int tileHeight ) {
+		try {
+			File file = File.createTempFile("boofcv_tiled",".bin");
+			file.deleteOnExit();
+			TiledImage<T> ret = new TiledImage<>(imageType,width,height,tileWidth,tileHeight,file);
+			ret.deleteOnClose = true;
+			return ret;
+		} catch( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates a temporary tiled image with the same shape, tiling, and type as this one
+	 */
+	public TiledImage<T> createSameShape() {
+		return createTemp(imageType,width,height,tileWidth,tileHeight);
+	}
+
+	/**
+	 * Creates a temporary tiled image with the same shape and tiling as this one but a different type
+	 */
+	public <B extends ImageGray<B>> TiledImage<B> createSameShape( Class<B> type ) {
+		return createTemp(ImageType.single(type),width,height,tileWidth,tileHeight);
+	}
+
+	/**
+	 * Copies the specified region into the output image. The region must be inside the image.
+	 *
+	 * @param x0 lower extent along x-axis, inclusive
+	 * @param y0 lower extent along y-axis, inclusive
+	 * @param x1 upper extent along x-axis, exclusive
+	 * @param y1 upper extent along y-axis, exclusive
+	 * @param output (Output) Storage for the region. Reshaped.
+	 */
+	public void read( int x0 , int y0 , int x1 , int y1 , T output ) {
+		checkRegion(x0,y0,x1,y1);
+		output.reshape(x1-x0,y1-y0);
+		copy(x0,y0,x1,y1,output,true);
+	}
+
+	/**
+	 * Copies the image into this tiled image with its top-left corner at the specified location. The image
+	 * must be entirely inside. Sub-images are supported.
+	 *
+	 * @param input The image which is to be written
+	 * @param x0 location along x-axis
+	 * @param y0 location along y-axis
+	 */
+	public void write( T input , int x0 , int y0 ) {
+		checkRegion(x0,y0,x0+input.width,y0+input.height);
+		copy(x0,y0,x0+input.width,y0+input.height,input,false);
+	}
+
+	/**
+	 * Copies the entire contents of a regular image into this one. Must be the same shape.
+	 */
+	public void setTo( T input ) {
+		if( input.width != width || input.height != height )
+			throw new IllegalArgumentException("Shapes don't match");
+		write(input,0,0);
+	}
+
+	/**
+	 * Copies pixels between the image and the tiles. One row segment at a time is copied from each tile
+	 */
+	private void copy( int x0 , int y0 , int x1 , int y1 , T image , boolean read ) {
+		Object data = image._getData();
+
+		for (int ty = y0/tileHeight; ty*tileHeight < y1; ty++) {
+			int tileY0 = ty*tileHeight;
+			int rowStart = Math.max(y0,tileY0);
+			int rowEnd = Math.min(y1,tileY0+tileHeight);
+
+			for (int tx = x0/tileWidth; tx*tileWidth < x1; tx++) {
+				int tileX0 = tx*tileWidth;
+				int colStart = Math.max(x0,tileX0);
+				int colEnd = Math.min(x1,tileX0+tileWidth);
+				int length = colEnd-colStart;
+
+				ByteBuffer buffer = getTile(tx,ty).duplicate().order(ByteOrder.nativeOrder());
+
+				for (int y = rowStart; y < rowEnd; y++) {
+					int indexImage = image.startIndex + (y-y0)*image.stride + colStart-x0;
+					buffer.position(((y-tileY0)*tileWidth + colStart-tileX0)*bytesPerPixel);
+					copyRow(buffer,data,indexImage,length,read);
+				}
+			}
+		}
+	}
+
+	private static void copyRow( ByteBuffer buffer , Object data , int index , int length , boolean read ) {
+		if( data instanceof byte[] ) {
+			if( read ) buffer.get((byte[])data,index,length);
+			else buffer.put((byte[])data,index,length);
+		} else if( data instanceof short[] ) {
+			if( read ) buffer.asShortBuffer().get((short[])data,index,length);
+			else buffer.asShortBuffer().put((short[])data,index,length);
+		} else if( data instanceof int[] ) {
+			if( read ) buffer.asIntBuffer().get((int[])data,index,length);
+			else buffer.asIntBuffer().put((int[])data,index,length);
+		} else if( data instanceof long[] ) {
+			if( read ) buffer.asLongBuffer().get((long[])data,index,length);
+			else buffer.asLongBuffer().put((long[])data,index,length);
+		} else if( data instanceof float[] ) {
+			if( read ) buffer.asFloatBuffer().get((float[])data,index,length);
+			else buffer.asFloatBuffer().put((float[])data,index,length);
+		} else if( data instanceof double[] ) {
+			if( read ) buffer.asDoubleBuffer().get((double[])data,index,length);
+			else buffer.asDoubleBuffer().put((double[])data,index,length);
+		} else {
+			throw new IllegalArgumentException("Unsupported data type");
+		}
+	}
+
+	/**
+	 * Returns the mapped memory for the specified tile, creating it if needed
+	 */
+	private synchronized MappedByteBuffer getTile( int tx , int ty ) {
+		if( tiles == null )
+			throw new IllegalStateException("Image has been closed");
+		int index = ty*numTileCols+tx;
+		MappedByteBuffer tile = tiles[index];
+		if( tile == null ) {
+			try {
+				tile = channel.map(FileChannel.MapMode.READ_WRITE,index*bytesPerTile,bytesPerTile);
+			} catch( IOException e ) {
+				throw new UncheckedIOException(e);
+			}
+			tiles[index] = tile;
+		}
+		return tile;
+	}
+
+	private void checkRegion( int x0 , int y0 , int x1 , int y1 ) {
+		if( x0 < 0 || y0 < 0 || x1 > width || y1 > height || x0 > x1 || y0 > y1 )
+			throw new IllegalArgumentException("Region is outside the image");
+	}
+
+	/**
+	 * Writes all modified tiles to the file
+	 */
+	public synchronized void flush() {
+		for (int i = 0; i < tiles.length; i++) {
+			if( tiles[i] != null )
+				tiles[i].force();
+		}
+	}
+
+	/**
+	 * Closes the file. If it's a temporary file then it's also deleted. The mapped memory is released once
+	 * garbage collected.
+	 */
+	@Override
+	public synchronized void close() {
+		if( tiles == null )
+			return;
+		tiles = null;
+		try {
+			channel.close();
+			raf.close();
+		} catch( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+		if( deleteOnClose )
+			file.delete();
+	}
+
+	/**
+	 * Lower extent of the tile along the x-axis
+	 */
+	public int getTileX0( int tileCol ) {
+		return tileCol*tileWidth;
+	}
+
+	/**
+	 * Lower extent of the tile along the y-axis
+	 */
+	public int getTileY0( int tileRow ) {
+		return tileRow*tileHeight;
+	}
+
+	/**
+	 * Upper extent of the tile along the x-axis, exclusive
+	 */
+	public int getTileX1( int tileCol ) {
+		return Math.min(width,(tileCol+1)*tileWidth);
+	}
+
+	/**
+	 * Upper extent of the tile along the y-axis, exclusive
+	 */
+	public int getTileY1( int tileRow ) {
+		return Math.min(height,(tileRow+1)*tileHeight);
+	}
+
+	/**
+	 * Total number of pixels in the image
+	 */
+	public long getNumPixels() {
+		return (long)width*height;
+	}
+
+	public ImageType<T> getImageType() {
+		return imageType;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getTileWidth() {
+		return tileWidth;
+	}
+
+	public int getTileHeight() {
+		return tileHeight;
+	}
+
+	public int getNumTileCols() {
+		return numTileCols;
+	}
+
+	public int getNumTileRows() {
+		return numTileRows;
+	}
+
+	public int getNumTiles() {
+		return numTileCols*numTileRows;
+	}
+
+	public File getFile() {
+		return file;
+	}
+}
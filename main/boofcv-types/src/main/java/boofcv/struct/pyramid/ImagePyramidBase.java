@@ -18,6 +18,7 @@
 
 package boofcv.struct.pyramid;
 
+import boofcv.concurrency.ImagePool;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
@@ -77,21 +78,57 @@ public abstract class ImagePyramidBase<T extends ImageBase<T>>
 
 		this.bottomWidth = width;
 		this.bottomHeight = height;
-		layers = imageType.createArray(getNumLayers());
+
+		// recycle the previous layers if possible so that memory isn't declared when the image size changes
+		if( layers == null || layers.length != getNumLayers() )
+			layers = imageType.createArray(getNumLayers());
+
 		double scaleFactor = getScale(0);
 
 		if (scaleFactor == 1) {
 			if (!saveOriginalReference) {
-				layers[0] = imageType.createImage(bottomWidth, bottomHeight);
+				layers[0] = declareLayer(layers[0], bottomWidth, bottomHeight);
 			}
 		} else {
-			layers[0] = imageType.createImage((int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
+			layers[0] = declareLayer(layers[0],
+					(int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
 		}
 
 		for (int i = 1; i < layers.length; i++) {
 			scaleFactor = getScale(i);
-			layers[i] = imageType.createImage((int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
+			layers[i] = declareLayer(layers[i],
+					(int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
+		}
+	}
+
+	/**
+	 * Reshapes the layer if it already exists, otherwise one is taken from the
+	 * {@link ImagePool#getDefault() default pool}
+	 */
+	private T declareLayer( T layer , int width , int height ) {
+		if( layer == null )
+			return ImagePool.getDefault().pop(imageType,width, height);
+		layer.reshape(width, height);
+		return layer;
+	}
+
+	/**
+	 * Returns the memory owned by the pyramid to the {@link ImagePool#getDefault() default pool}. Useful when
+	 * a pyramid is created for each image. A saved reference to the input image is not recycled. The pyramid
+	 * can still be used afterwards and will request new layers when the next image is processed. Layers must
+	 * not be referenced after this has been called.
+	 */
+	public void release() {
+		if( layers == null )
+			return;
+
+		ImagePool pool = ImagePool.getDefault();
+		boolean firstIsInput = saveOriginalReference && getScale(0) == 1;
+		for (int i = firstIsInput ? 1 : 0; i < layers.length; i++) {
+			pool.recycle(layers[i]);
 		}
+		layers = null;
+		bottomWidth = bottomHeight = 0;
 	}
 
 	/**
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPackedBinaryImage {
+	Random rand = new Random(234);
+
+	@Test
+	void reshape() {
+		PackedBinaryImage img = new PackedBinaryImage(65,3);
+		assertEquals(2,img.stride);
+		assertTrue(img.data.length >= 6);
+
+		img.set(64,2,1);
+		img.reshape(64,3);
+		assertEquals(1,img.stride);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0,img.data[i]);
+		}
+
+		img.reshape(128,3);
+		assertEquals(2,img.stride);
+	}
+
+	@Test
+	void get_set() {
+		PackedBinaryImage img = new PackedBinaryImage(130,5);
+		int[][] expected = new int[5][130];
+		for (int y = 0; y < img.height; y++) {
+			for (int x = 0; x < img.width; x++) {
+				expected[y][x] = rand.nextInt(2);
+				img.set(x,y,expected[y][x]*(1+rand.nextInt(3)));
+			}
+		}
+		for (int y = 0; y < img.height; y++) {
+			for (int x = 0; x < img.width; x++) {
+				assertEquals(expected[y][x],img.get(x,y));
+			}
+			// padding bits must be zero
+			assertEquals(0,img.data[y*img.stride+2] & ~img.lastWordMask());
+		}
+
+		// bits at word boundaries
+		img.set(63,1,1);
+		img.set(64,1,0);
+		assertEquals(1,img.get(63,1));
+		assertEquals(0,img.get(64,1));
+	}
+
+	@Test
+	void get_set_outOfBounds() {
+		PackedBinaryImage img = new PackedBinaryImage(10,5);
+		assertThrows(ImageAccessException.class,()->img.get(10,0));
+		assertThrows(ImageAccessException.class,()->img.set(-1,0,1));
+		assertThrows(ImageAccessException.class,()->img.get(0,5));
+	}
+
+	@Test
+	void lastWordMask() {
+		assertEquals(-1L,new PackedBinaryImage(64,2).lastWordMask());
+		assertEquals(-1L,new PackedBinaryImage(128,2).lastWordMask());
+		assertEquals(1L,new PackedBinaryImage(65,2).lastWordMask());
+		assertEquals(0x7FL,new PackedBinaryImage(7,2).lastWordMask());
+	}
+
+	@Test
+	void setTo_clone() {
+		PackedBinaryImage img = new PackedBinaryImage(70,4);
+		for (int i = 0; i < 8; i++) {
+			img.set(rand.nextInt(70),rand.nextInt(4),1);
+		}
+
+		PackedBinaryImage found = new PackedBinaryImage(5,6);
+		found.setTo(img);
+		assertEqualsPacked(img,found);
+		assertEqualsPacked(img,img.clone());
+	}
+
+	@Test
+	void serialize() throws IOException, ClassNotFoundException {
+		PackedBinaryImage img = new PackedBinaryImage(70,4);
+		img.set(3,2,1);
+		img.set(69,3,1);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(img);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		PackedBinaryImage found = (PackedBinaryImage)in.readObject();
+		assertEqualsPacked(img,found);
+	}
+
+	private static void assertEqualsPacked( PackedBinaryImage a , PackedBinaryImage b ) {
+		assertEquals(a.width,b.width);
+		assertEquals(a.height,b.height);
+		for (int y = 0; y < a.height; y++) {
+			for (int x = 0; x < a.width; x++) {
+				assertEquals(a.get(x,y),b.get(x,y));
+			}
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestTiledImage {
+	Random rand = new Random(234);
+	int width = 45, height = 37;
+
+	@Test
+	void shape() {
+		try( TiledImage<GrayU8> alg = TiledImage.createTemp(ImageType.single(GrayU8.class),width,height,10,15) ) {
+			assertEquals(5,alg.getNumTileCols());
+			assertEquals(3,alg.getNumTileRows());
+			assertEquals(15,alg.getNumTiles());
+			assertEquals(40,alg.getTileX0(4));
+			assertEquals(45,alg.getTileX1(4));
+			assertEquals(30,alg.getTileY0(2));
+			assertEquals(37,alg.getTileY1(2));
+			assertEquals(width*height,alg.getNumPixels());
+		}
+	}
+
+	@Test
+	void setTo_read_U8() {
+		GrayU8 image = new GrayU8(width,height);
+		for (int i = 0; i < image.data.length; i++) {
+			image.data[i] = (byte)rand.nextInt(256);
+		}
+
+		try( TiledImage<GrayU8> alg = TiledImage.createTemp(image.getImageType(),width,height,10,15) ) {
+			alg.setTo(image);
+
+			GrayU8 found = new GrayU8(1,1);
+			alg.read(0,0,width,height,found);
+			assertEqualsU8(image,found);
+
+			// region which crosses multiple tiles
+			alg.read(7,12,33,31,found);
+			assertEqualsU8(image.subimage(7,12,33,31,null),found);
+		}
+	}
+
+	@Test
+	void setTo_read_F32() {
+		GrayF32 image = new GrayF32(width,height);
+		for (int i = 0; i < image.data.length; i++) {
+			image.data[i] = rand.nextFloat();
+		}
+
+		try( TiledImage<GrayF32> alg = TiledImage.createTemp(image.getImageType(),width,height,16,9) ) {
+			alg.setTo(image);
+
+			GrayF32 found = new GrayF32(1,1);
+			alg.read(3,5,44,36,found);
+			GrayF32 expected = image.subimage(3,5,44,36,null);
+			for (int y = 0; y < found.height; y++) {
+				for (int x = 0; x < found.width; x++) {
+					assertEquals(expected.get(x,y),found.get(x,y),0.0f);
+				}
+			}
+		}
+	}
+
+	@Test
+	void write_subimage() {
+		GrayS16 image = new GrayS16(20,15);
+		for (int i = 0; i < image.data.length; i++) {
+			image.data[i] = (short)(rand.nextInt(2000)-1000);
+		}
+		GrayS16 sub = image.subimage(2,3,17,14,null);
+
+		try( TiledImage<GrayS16> alg = TiledImage.createTemp(image.getImageType(),width,height,10,10) ) {
+			alg.write(sub,8,19);
+
+			GrayS16 found = new GrayS16(1,1);
+			alg.read(8,19,8+sub.width,19+sub.height,found);
+			for (int y = 0; y < sub.height; y++) {
+				for (int x = 0; x < sub.width; x++) {
+					assertEquals(sub.get(x,y),found.get(x,y));
+				}
+			}
+
+			// outside the image
+			assertThrows(IllegalArgumentException.class,()->alg.write(sub,40,0));
+			assertThrows(IllegalArgumentException.class,()->alg.read(-1,0,5,5,found));
+		}
+	}
+
+	@Test
+	void close_deletesTemp() {
+		TiledImage<GrayU8> alg = TiledImage.createTemp(ImageType.single(GrayU8.class),width,height,10,15);
+		File file = alg.getFile();
+		assertTrue(file.exists());
+		alg.close();
+		assertFalse(file.exists());
+		assertThrows(IllegalStateException.class,()->alg.read(0,0,2,2,new GrayU8(1,1)));
+	}
+
+	private static void assertEqualsU8( GrayU8 expected , GrayU8 found ) {
+		assertEquals(expected.width,found.width);
+		assertEquals(expected.height,found.height);
+		for (int y = 0; y < found.height; y++) {
+			for (int x = 0; x < found.width; x++) {
+				assertEquals(expected.get(x,y),found.get(x,y));
+			}
+		}
+	}
+}